@@ -9,6 +9,8 @@ plugins {
     // Apply the application plugin to add support for building a CLI application in Java.
     application
     id("org.openjfx.javafxplugin") version "0.1.0"
+    // Microbenchmarks in src/jmh/java, run with ./gradlew jmh
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 repositories {
@@ -39,8 +41,13 @@ dependencies {
     implementation("commons-validator:commons-validator:1.8.0")
     implementation("me.xdrop:fuzzywuzzy:1.4.0")
     implementation("com.github.hervegirod:fxsvgimage:1.1")
-    implementation("com.warrenstrange:googleauth:1.5.0")
     implementation("org.jclarion:image4j:0.7")
+
+    // Only used as the reference of the TOTPCalculator test and the baseline of the TOTP benchmark.
+    testImplementation("com.warrenstrange:googleauth:1.5.0")
+    jmh("com.warrenstrange:googleauth:1.5.0")
+    // Heap layout of the entries, used by the entryFootprint task.
+    jmh("org.openjdk.jol:jol-core:0.17")
 }
 
 javafx {
@@ -63,7 +70,123 @@ application {
     mainClass = "ch.zhaw.it.pm.vault_guard.App"
 }
 
+jmh {
+    // Include pattern of the benchmarks to run, e.g. ./gradlew jmh -Pbenchmarks=TOTPBenchmark
+    includes = listOf(project.findProperty("benchmarks") as String? ?: ".*")
+}
+
 tasks.named<Test>("test") {
     // Use JUnit Platform for unit tests.
     useJUnitPlatform()
 }
+
+// Load test of the breach check against a local Have I Been Pwned stub server, e.g. ./gradlew breachLoadTest -Pargs="--sizes=100,1000 --latency-ms=20"
+tasks.register<JavaExec>("breachLoadTest") {
+    group = "verification"
+    description = "Measures breach check latency and throughput against a local HIBP stub server."
+    classpath = sourceSets["test"].runtimeClasspath
+    mainClass = "ch.zhaw.it.pm.vault_guard.service.pwned.BreachCheckLoadHarness"
+    args = (project.findProperty("args") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
+// Heap footprint per entry of a synthetic vault measured with JOL, e.g. ./gradlew entryFootprint -Pargs="100000"
+tasks.register<JavaExec>("entryFootprint") {
+    group = "verification"
+    description = "Prints the heap footprint per vault entry measured with JOL."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "ch.zhaw.it.pm.vault_guard.controller.model.EntryFootprintReport"
+    jvmArgs("-Djdk.attach.allowAttachSelf")
+    args = (project.findProperty("args") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
+// Dropped frames while scrolling the entry list of a synthetic vault, e.g. ./gradlew entryListScroll -Pargs="100000"
+tasks.register<JavaExec>("entryListScroll") {
+    group = "verification"
+    description = "Prints the dropped frames while scrolling the entry list of a synthetic vault."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "ch.zhaw.it.pm.vault_guard.util.EntryListScrollReport"
+    args = (project.findProperty("args") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
+// Fast-start mode, e.g. ./gradlew run -PfastStart
+// The first run writes a dynamic AppCDS archive of the loaded classes when the application exits, the following runs map it.
+// AppCDS does not accept directories in the class path, so the application runs from its jar.
+val cdsArchive = layout.buildDirectory.file("cds/vault-guard.jsa")
+tasks.named<JavaExec>("run") {
+    if (project.hasProperty("fastStart")) {
+        classpath = files(tasks.jar, configurations.runtimeClasspath)
+        doFirst { cdsArchive.get().asFile.parentFile.mkdirs() }
+        jvmArgs("-XX:+AutoCreateSharedArchive", "-XX:SharedArchiveFile=${cdsArchive.get().asFile}", "-Dvaultguard.fastStart=true")
+    }
+}
+
+// Startup times of the baseline and the fast-start mode with a synthetic vault, e.g. ./gradlew startupBenchmark -Pargs="5 1000"
+tasks.register<JavaExec>("startupBenchmark") {
+    group = "verification"
+    description = "Prints the time to the login window and to the vault list with and without the fast-start mode."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "ch.zhaw.it.pm.vault_guard.view.StartupReport"
+    args = (project.findProperty("args") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
+// Headless command line interface for scripts, e.g. ./gradlew cli -Pargs="list myAccount" or ./gradlew cli -Pargs="batch commands.txt"
+// It runs from the jar with a dynamic AppCDS archive and only the C1 compiler, which keeps the start of short commands fast.
+val cliCdsArchive = layout.buildDirectory.file("cds/vault-guard-cli.jsa")
+tasks.register<JavaExec>("cli") {
+    group = "application"
+    description = "Runs a command of the headless command line interface."
+    classpath = files(tasks.jar, configurations.runtimeClasspath)
+    mainClass = "ch.zhaw.it.pm.vault_guard.cli.VaultCli"
+    standardInput = System.`in`
+    doFirst { cliCdsArchive.get().asFile.parentFile.mkdirs() }
+    jvmArgs("-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC", "-XX:+AutoCreateSharedArchive",
+        "-XX:SharedArchiveFile=${cliCdsArchive.get().asFile}", "-Xlog:cds=off")
+    args = (project.findProperty("args") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
+// Local agent that keeps unlocked vaults in memory, e.g. ./gradlew agent -Pargs="/home/me/.vault-guard/agent.sock 15"
+// The cli task sends its commands to the agent if VAULTGUARD_AGENT is set to the socket.
+tasks.register<JavaExec>("agent") {
+    group = "application"
+    description = "Runs the vault agent on a Unix domain socket."
+    classpath = files(tasks.jar, configurations.runtimeClasspath)
+    mainClass = "ch.zhaw.it.pm.vault_guard.cli.VaultAgent"
+    args = (project.findProperty("args") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
+// Latency of a credential lookup with a full unlock and with the agent, e.g. ./gradlew agentLatencyBenchmark -Pargs="200 100"
+tasks.register<JavaExec>("agentLatencyBenchmark") {
+    group = "verification"
+    description = "Prints the latency of a credential lookup with a full unlock and with the vault agent."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "ch.zhaw.it.pm.vault_guard.cli.VaultAgentLatencyReport"
+    args = (project.findProperty("args") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
+// Bulk operations of the command line interface across synthetic vaults and its startup time, e.g. ./gradlew cliBulkBenchmark -Pargs="1000 20 10"
+tasks.register<JavaExec>("cliBulkBenchmark") {
+    group = "verification"
+    description = "Prints the time of bulk command line operations across many vaults and the startup time of the command line interface."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "ch.zhaw.it.pm.vault_guard.cli.VaultCliBulkReport"
+    args = (project.findProperty("args") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
+// Throughput of the streaming import of large CSV, Bitwarden and KeePass exports, e.g. ./gradlew importBenchmark -Pargs="40000 1000"
+tasks.register<JavaExec>("importBenchmark") {
+    group = "verification"
+    description = "Prints the throughput of the import of large exports of other password managers."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "ch.zhaw.it.pm.vault_guard.controller.model.VaultImportReport"
+    args = (project.findProperty("args") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
+
+// Time and peak heap of exporting a large vault compared to saveData, e.g. ./gradlew exportBenchmark -Pargs="100000"
+tasks.register<JavaExec>("exportBenchmark") {
+    group = "verification"
+    description = "Prints the time and peak heap of the export of a large vault in every format."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "ch.zhaw.it.pm.vault_guard.controller.model.VaultExportReport"
+    jvmArgs("-Xmx1g", "-Xmn16m")
+    args = (project.findProperty("args") as String? ?: "").split(" ").filter { it.isNotBlank() }
+}
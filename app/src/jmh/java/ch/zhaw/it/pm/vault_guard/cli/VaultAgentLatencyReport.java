@@ -0,0 +1,155 @@
+package ch.zhaw.it.pm.vault_guard.cli;
+
+import ch.zhaw.it.pm.vault_guard.controller.model.LoginModel;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Prints the latency of a credential lookup (get) with a full unlock of the vault and with a VaultAgent that keeps the vault unlocked.
+ * The full unlock runs the get in a new VaultCli, so the key is derived and the vault is decrypted for every lookup.
+ * The agent is asked once over a connection that stays open (like a batch) and once over a new connection per lookup
+ * (like separate invocations). The start of the JVM of a separate invocation is not included, see the cliBulkBenchmark task.
+ * Run with ./gradlew agentLatencyBenchmark -Pargs="200 100"
+ */
+public class VaultAgentLatencyReport {
+
+    private static final int DEFAULT_LOOKUPS = 200;
+    private static final int DEFAULT_ENTRIES = 100;
+    private static final String ACCOUNT_NAME = "agent-benchmark";
+    private static final String ACCOUNT_PASSWORD = "agent-benchmark-password";
+
+    /**
+     * Creates a vault in a temporary folder, starts an agent and prints the latencies.
+     *
+     * @param args The number of lookups and the number of entries of the vault, 200 and 100 if not given
+     * @throws Exception If the vault cannot be created or a lookup fails
+     */
+    public static void main(String[] args) throws Exception {
+        int lookups = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_LOOKUPS;
+        int entries = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ENTRIES;
+        Path directory = Files.createTempDirectory("vault-guard-agent");
+        String userDir = System.getProperty("user.dir");
+        try (VaultAgent agent = new VaultAgent(directory.resolve("agent.sock"), VaultAgent.DEFAULT_IDLE_TIMEOUT, LoginModel::new, System::nanoTime)) {
+            System.setProperty("user.dir", directory.toString());
+            createVault(entries);
+            agent.start();
+            System.out.printf("%d lookups in a vault with %d entries%n", lookups, entries);
+
+            PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+            String[] get = {"get", ACCOUNT_NAME, "Entry " + (entries / 2)};
+            print("full unlock", measure(lookups, () -> check(
+                    new VaultCli(discard, discard, name -> ACCOUNT_PASSWORD, LoginModel::new).run(get, InputStream.nullInputStream()))));
+
+            try (VaultAgentClient client = new VaultAgentClient(agent.getSocketPath())) {
+                check(client.request(List.of("unlock", ACCOUNT_NAME, ACCOUNT_PASSWORD)).getInt("exit"));
+                print("agent", measure(lookups, () -> check(client.request(List.of(get)).getInt("exit"))));
+            }
+            print("agent, new connection", measure(lookups, () -> {
+                try (VaultAgentClient client = new VaultAgentClient(agent.getSocketPath())) {
+                    check(client.request(List.of(get)).getInt("exit"));
+                }
+            }));
+        } finally {
+            System.setProperty("user.dir", userDir);
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    /**
+     * Helper method that runs a lookup repeatedly after a warm-up and returns the sorted latencies.
+     *
+     * @param lookups The number of measured lookups
+     * @param lookup  The lookup
+     * @return The latencies in nanoseconds, sorted
+     * @throws Exception If a lookup fails
+     */
+    private static long[] measure(int lookups, Lookup lookup) throws Exception {
+        for (int i = 0; i < Math.max(10, lookups / 10); i++) {
+            lookup.run();
+        }
+        long[] latencies = new long[lookups];
+        for (int i = 0; i < lookups; i++) {
+            long start = System.nanoTime();
+            lookup.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    /**
+     * Helper method that prints the median and the 99th percentile of the latencies.
+     *
+     * @param name      The name of the measurement
+     * @param latencies The latencies in nanoseconds, sorted
+     */
+    private static void print(String name, long[] latencies) {
+        System.out.printf("%-22s median: %8.3f ms, p99: %8.3f ms%n", name,
+                latencies[latencies.length / 2] / 1e6, latencies[(int) (latencies.length * 0.99)] / 1e6);
+    }
+
+    /**
+     * Helper method that fails the report if a lookup did not succeed.
+     *
+     * @param exitCode The exit code of the lookup
+     */
+    private static void check(int exitCode) {
+        if (exitCode != VaultCli.OK) {
+            throw new IllegalStateException("The lookup exited with " + exitCode);
+        }
+    }
+
+    /**
+     * Helper method that writes the vault with the StorageService to the storage folder of the working directory.
+     *
+     * @param entries The number of entries
+     * @throws Exception If the vault cannot be encrypted or written
+     */
+    private static void createVault(int entries) throws Exception {
+        Files.createDirectories(Path.of(System.getProperty("user.dir"), "src", "main", "resources"));
+        JSONArray entryArray = new JSONArray();
+        for (int i = 0; i < entries; i++) {
+            entryArray.put(new JSONObject(Map.of(
+                    "id", "entry-" + i, "passwordTitel", "Entry " + i, "username", "user" + i + "@example.ch",
+                    "website", "", "email", "", "oneTimePassword", "", "password", "password-" + i,
+                    "isFavourite", false, "isCompromised", false, "passwordStrength", "STRONG")));
+        }
+        JSONObject content = new JSONObject()
+                .put("accountName", ACCOUNT_NAME)
+                .put("accountPassword", ACCOUNT_PASSWORD)
+                .put("Entries", entryArray);
+        new StorageService().write(new CryptographyHandler().encrypt(content.toString(), ACCOUNT_PASSWORD), ACCOUNT_NAME);
+    }
+
+    /**
+     * A lookup that may fail
+     */
+    @FunctionalInterface
+    private interface Lookup {
+
+        /**
+         * Runs the lookup.
+         *
+         * @throws Exception If the lookup fails
+         */
+        void run() throws Exception;
+    }
+}
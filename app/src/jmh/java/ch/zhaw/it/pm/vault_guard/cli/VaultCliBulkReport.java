@@ -0,0 +1,199 @@
+package ch.zhaw.it.pm.vault_guard.cli;
+
+import ch.zhaw.it.pm.vault_guard.controller.model.LoginModel;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import ch.zhaw.it.pm.vault_guard.util.JarClassPath;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Prints the time of bulk operations of the VaultCli across many synthetic vaults and the startup time of the VaultCli.
+ * The bulk operations run in one VaultCli like the commands of a batch, so every vault is unlocked once by the first command.
+ * The audit is not measured, it depends on the latency of the Have I Been Pwned API (see the breachLoadTest task).
+ * The startup time is measured from the start of a new JVM until it has exited, for generate and for list,
+ * with the JVM options of the cli task once without and once with its dynamic AppCDS archive.
+ * The first run of every command is not measured, it creates the archive.
+ * Run with ./gradlew cliBulkBenchmark -Pargs="1000 20 10"
+ */
+public class VaultCliBulkReport {
+
+    private static final int DEFAULT_VAULTS = 1_000;
+    private static final int DEFAULT_ENTRIES = 20;
+    private static final int DEFAULT_STARTUP_RUNS = 10;
+    private static final String ACCOUNT_PREFIX = "bulk-vault-";
+    private static final String ACCOUNT_PASSWORD = "bulk-benchmark-password";
+
+    /**
+     * Creates the vaults in a temporary folder and prints the times.
+     *
+     * @param args The number of vaults, the number of entries per vault and the number of startup runs, 1000, 20 and 10 if not given
+     * @throws Exception If the vaults cannot be created or a run fails
+     */
+    public static void main(String[] args) throws Exception {
+        int vaults = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_VAULTS;
+        int entries = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ENTRIES;
+        int startupRuns = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_STARTUP_RUNS;
+        Path directory = Files.createTempDirectory("vault-guard-cli");
+        String userDir = System.getProperty("user.dir");
+        try {
+            System.setProperty("user.dir", directory.toString());
+            createVaults(vaults, entries);
+            measureBulk(vaults);
+            measureStartup(directory, startupRuns);
+        } finally {
+            System.setProperty("user.dir", userDir);
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    /**
+     * Helper method that runs every command on all vaults and prints the time per command.
+     *
+     * @param vaults The number of vaults
+     */
+    private static void measureBulk(int vaults) {
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        VaultCli cli = new VaultCli(discard, System.err, name -> ACCOUNT_PASSWORD, LoginModel::new);
+        System.out.printf("%d vaults%n", vaults);
+        measureCommand(cli, vaults, "unlock + list", i -> new String[]{"list", ACCOUNT_PREFIX + i});
+        measureCommand(cli, vaults, "list", i -> new String[]{"list", ACCOUNT_PREFIX + i});
+        measureCommand(cli, vaults, "search", i -> new String[]{"search", ACCOUNT_PREFIX + i, "Entry 1"});
+        measureCommand(cli, vaults, "get", i -> new String[]{"get", ACCOUNT_PREFIX + i, "Entry 0"});
+        measureCommand(cli, vaults, "add + save", i -> new String[]{"add", ACCOUNT_PREFIX + i, "Added", "--generate"});
+        measureCommand(cli, vaults, "export", i -> new String[]{"export", ACCOUNT_PREFIX + i});
+        measureCommand(cli, vaults, "generate", i -> new String[]{"generate", "--count=10"});
+    }
+
+    /**
+     * Helper method that runs a command once per vault and prints the total time and the time per vault.
+     *
+     * @param cli     The VaultCli
+     * @param vaults  The number of vaults
+     * @param name    The name of the command
+     * @param command Creates the command for a vault
+     */
+    private static void measureCommand(VaultCli cli, int vaults, String name, IntFunction<String[]> command) {
+        InputStream noInput = InputStream.nullInputStream();
+        long start = System.nanoTime();
+        for (int i = 0; i < vaults; i++) {
+            if (cli.run(command.apply(i), noInput) != VaultCli.OK) {
+                throw new IllegalStateException(name + " failed for vault " + i);
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%-14s total: %6d ms, per vault: %.3f ms%n", name, millis, (double) millis / vaults);
+    }
+
+    /**
+     * Helper method that starts the VaultCli in new JVMs and prints the median time until the JVM has exited.
+     *
+     * @param directory The folder with the vaults, used as working directory
+     * @param runs      The number of runs per command
+     * @throws Exception If a run fails
+     */
+    private static void measureStartup(Path directory, int runs) throws Exception {
+        System.out.printf("startup (median of %d runs, target 200 ms)%n", runs);
+        String classPath = JarClassPath.of(directory);
+        List<String> cds = List.of("-XX:+AutoCreateSharedArchive", "-XX:SharedArchiveFile=" + directory.resolve("vault-guard-cli.jsa"));
+        for (List<String> command : List.of(List.of("generate"), List.of("list", ACCOUNT_PREFIX + 0))) {
+            String name = String.join(" ", command).replace(ACCOUNT_PREFIX + 0, "<vault>");
+            System.out.printf("%-14s %6d ms, with AppCDS: %6d ms%n", name,
+                    medianStartup(directory, classPath, List.of(), command, runs),
+                    medianStartup(directory, classPath, cds, command, runs));
+        }
+    }
+
+    /**
+     * Helper method that runs a command in new JVMs and returns the median time, the first run is not measured.
+     *
+     * @param directory The working directory
+     * @param classPath The class path of the JVMs
+     * @param jvmArgs   The additional arguments of the JVMs
+     * @param command   The command and its arguments
+     * @param runs      The number of measured runs
+     * @return The median time until the JVM has exited in milliseconds
+     * @throws Exception If a run fails
+     */
+    private static long medianStartup(Path directory, String classPath, List<String> jvmArgs, List<String> command, int runs) throws Exception {
+        List<Long> times = new ArrayList<>();
+        for (int i = 0; i <= runs; i++) {
+            long millis = runCli(directory, classPath, jvmArgs, command);
+            if (i > 0) {
+                times.add(millis);
+            }
+        }
+        return times.stream().sorted().toList().get(times.size() / 2);
+    }
+
+    /**
+     * Helper method that runs the VaultCli in a new JVM.
+     *
+     * @param directory The working directory
+     * @param classPath The class path of the JVM
+     * @param jvmArgs   The additional arguments of the JVM
+     * @param command   The command and its arguments
+     * @return The time until the JVM has exited in milliseconds
+     * @throws Exception If the command fails
+     */
+    private static long runCli(Path directory, String classPath, List<String> jvmArgs, List<String> command) throws Exception {
+        List<String> processCommand = new ArrayList<>(List.of(ProcessHandle.current().info().command().orElse("java"),
+                "-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC"));
+        processCommand.addAll(jvmArgs);
+        processCommand.addAll(List.of("-Xlog:cds=off", "-cp", classPath, VaultCli.class.getName()));
+        processCommand.addAll(command);
+        ProcessBuilder processBuilder = new ProcessBuilder(processCommand).directory(directory.toFile())
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).redirectError(ProcessBuilder.Redirect.INHERIT);
+        processBuilder.environment().put(VaultCli.PASSWORD_VARIABLE, ACCOUNT_PASSWORD);
+        long start = System.nanoTime();
+        int exitCode = processBuilder.start().waitFor();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (exitCode != VaultCli.OK) {
+            throw new IllegalStateException(String.join(" ", command) + " exited with " + exitCode);
+        }
+        return millis;
+    }
+
+    /**
+     * Helper method that writes the synthetic vaults with the StorageService to the storage folder of the working directory.
+     *
+     * @param vaults  The number of vaults
+     * @param entries The number of entries per vault
+     * @throws Exception If a vault cannot be encrypted or written
+     */
+    private static void createVaults(int vaults, int entries) throws Exception {
+        Files.createDirectories(Path.of(System.getProperty("user.dir"), "src", "main", "resources"));
+        CryptographyHandler crypter = new CryptographyHandler();
+        StorageService storageService = new StorageService();
+        for (int vault = 0; vault < vaults; vault++) {
+            JSONArray entryArray = new JSONArray();
+            for (int i = 0; i < entries; i++) {
+                entryArray.put(new JSONObject(Map.of(
+                        "id", "entry-" + i, "passwordTitel", "Entry " + i, "username", "user" + i + "@example.ch",
+                        "website", "", "email", "", "oneTimePassword", "", "password", "password-" + vault + "-" + i,
+                        "isFavourite", false, "isCompromised", false, "passwordStrength", "STRONG")));
+            }
+            String accountName = ACCOUNT_PREFIX + vault;
+            JSONObject content = new JSONObject()
+                    .put("accountName", accountName)
+                    .put("accountPassword", ACCOUNT_PASSWORD)
+                    .put("Entries", entryArray);
+            storageService.write(crypter.encrypt(content.toString(), ACCOUNT_PASSWORD), accountName);
+        }
+    }
+}
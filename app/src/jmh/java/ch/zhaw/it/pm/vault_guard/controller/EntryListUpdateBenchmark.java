@@ -0,0 +1,151 @@
+package ch.zhaw.it.pm.vault_guard.controller;
+
+import ch.zhaw.it.pm.vault_guard.controller.model.EntryChange;
+import ch.zhaw.it.pm.vault_guard.controller.model.LoginModel;
+import ch.zhaw.it.pm.vault_guard.controller.model.MainModel;
+import ch.zhaw.it.pm.vault_guard.controller.model.MainModelEntry;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the work done on the JavaFX application thread when a single entry of a large vault is edited.
+ * The lists are wired like in the MainWindowController: one vault list and the favorites and leak monitor views filtered from it,
+ * every list has a change listener walking through the reported changes, as the ListView does.
+ * rebuildList replaces the whole vault list after the edit, as the entry list was refreshed on every saveData event before,
+ * applyEntryChange applies the EntryChange published by the model.
+ * The rendering of the cells is not included, it is the same for both variants because only the visible cells are laid out.
+ * Run with ./gradlew jmh -Pbenchmarks=EntryListUpdateBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntryListUpdateBenchmark {
+
+    @Param({"50000"})
+    private int vaultSize;
+
+    private MainModel model;
+    private ObservableList<MainModelEntry> vaultEntries;
+    private MainModelEntry editedEntry;
+    private String originalTitle;
+    private boolean applyChanges;
+    private boolean renamed;
+    private long visitedChanges;
+
+    /**
+     * Creates the model with a synthetic vault and the lists of the views.
+     */
+    @Setup
+    public void setUp() {
+        String vault = buildVault(vaultSize);
+        model = new MainModel(new CryptographyHandler(), new StorageService(), new LoginModel() {
+            @Override
+            public String getDecryptedContent() {
+                return vault;
+            }
+        });
+        vaultEntries = FXCollections.observableArrayList(model.getSortedEntryContentList());
+        FilteredList<MainModelEntry> favourites = new FilteredList<>(vaultEntries, MainModelEntry::getFavourite);
+        FilteredList<MainModelEntry> compromised = new FilteredList<>(vaultEntries, MainModelEntry::getCompromised);
+        ListChangeListener<MainModelEntry> listView = change -> {
+            while (change.next()) {
+                visitedChanges += change.getRemovedSize() + change.getAddedSize();
+            }
+        };
+        vaultEntries.addListener(listView);
+        favourites.addListener(listView);
+        compromised.addListener(listView);
+        model.addPropertyChangeListener(evt -> {
+            if (applyChanges && evt.getPropertyName().equals("entryChange")) {
+                ((EntryChange) evt.getNewValue()).applyTo(vaultEntries);
+            }
+        });
+        editedEntry = model.getSortedEntryContentList().get(vaultSize / 2);
+        originalTitle = editedEntry.getPasswordTitel();
+    }
+
+    /**
+     * Edits an entry and rebuilds the vault list.
+     *
+     * @return The number of changes visited by the list listeners
+     */
+    @Benchmark
+    public long rebuildList() {
+        applyChanges = false;
+        editEntry();
+        vaultEntries.setAll(model.getSortedEntryContentList());
+        return visitedChanges;
+    }
+
+    /**
+     * Edits an entry and applies the published EntryChange to the vault list.
+     *
+     * @return The number of changes visited by the list listeners
+     */
+    @Benchmark
+    public long applyEntryChange() {
+        applyChanges = true;
+        editEntry();
+        return visitedChanges;
+    }
+
+    /**
+     * Renames the edited entry back and forth, so it is moved to the end of the list and back.
+     */
+    private void editEntry() {
+        renamed = !renamed;
+        editedEntry.setPasswordTitel(renamed ? "~" + originalTitle : originalTitle);
+        editedEntry.setFavourite(renamed);
+        model.updateEntry(editedEntry);
+    }
+
+    /**
+     * Builds the decrypted content of a synthetic vault in the format of the vault file.
+     *
+     * @param size The number of entries
+     * @return The vault content as JSON string
+     */
+    private static String buildVault(int size) {
+        JSONObject vault = new JSONObject();
+        vault.put("accountName", "benchmark");
+        vault.put("accountPassword", "benchmark");
+        JSONArray entries = new JSONArray();
+        for (int i = 0; i < size; i++) {
+            JSONObject entry = new JSONObject();
+            entry.put("passwordTitel", "Entry " + i);
+            entry.put("username", "user" + i);
+            entry.put("website", "site" + i + ".ch");
+            entry.put("email", "");
+            entry.put("oneTimePassword", "");
+            entry.put("password", "password" + i);
+            entry.put("passwordStrength", "WEAK");
+            entry.put("isFavourite", i % 10 == 0);
+            entry.put("isCompromised", i % 50 == 0);
+            entries.put(entry);
+        }
+        vault.put("Entries", entries);
+        return vault.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prints the heap footprint of the entries of a synthetic vault, measured with JOL.
+ * The vault is built like it is read from the vault file: every value is a new String,
+ * usernames, websites and emails repeat across the entries as in real vaults.
+ * Run with ./gradlew entryFootprint -Pargs="100000"
+ */
+public class EntryFootprintReport {
+
+    private static final int DEFAULT_SIZE = 100_000;
+    private static final int DISTINCT_USERNAMES = 2_000;
+    private static final int DISTINCT_WEBSITES = 500;
+
+    /**
+     * Builds the entries and prints the layout of a single entry and the footprint per entry.
+     *
+     * @param args The number of entries, 100000 if not given
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        List<MainModelEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new MainModelEntry(
+                    new String("Entry " + i),
+                    new String("user" + (i % DISTINCT_USERNAMES) + "@example.ch"),
+                    new String("site" + (i % DISTINCT_WEBSITES) + ".ch"),
+                    new String("mail" + (i % DISTINCT_USERNAMES) + "@example.ch"),
+                    new String(""),
+                    new String("password-" + i),
+                    "STRONG",
+                    i % 10 == 0,
+                    i % 50 == 0));
+        }
+        System.out.println(ClassLayout.parseClass(MainModelEntry.class).toPrintable());
+        GraphLayout layout = GraphLayout.parseInstance(entries.toArray());
+        System.out.println(layout.toFootprint());
+        System.out.printf("%d entries, %d bytes per entry%n", size, layout.totalSize() / size);
+    }
+}
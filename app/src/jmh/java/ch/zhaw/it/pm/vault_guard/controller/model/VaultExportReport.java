@@ -0,0 +1,122 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import ch.zhaw.it.pm.vault_guard.service.pwexport.ExportFormat;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prints the time and the peak heap of exporting a large vault in every format, compared to saving the vault with saveData,
+ * which builds the whole vault as one JSONObject and one encrypted String. The peak heap is the highest usage of the heap
+ * pools during the export minus the heap used by the unlocked vault before it, so it shows what the export itself needs.
+ * The task runs with a small young generation, so short-lived garbage is collected early and does not count as peak heap.
+ * Run with ./gradlew exportBenchmark -Pargs="100000"
+ */
+public class VaultExportReport {
+
+    private static final int DEFAULT_ENTRIES = 100_000;
+    private static final String ACCOUNT_PASSWORD = "export-benchmark-password";
+
+    /**
+     * Creates a vault with synthetic entries and prints the time and peak heap of every export.
+     *
+     * @param args The number of entries, 100000 if not given
+     * @throws Exception If an export fails
+     */
+    public static void main(String[] args) throws Exception {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ENTRIES;
+        MainModel mainModel = newVault(entries);
+        VaultExporter exporter = new VaultExporter(mainModel);
+        Path directory = Files.createTempDirectory("vault-guard-export");
+        try {
+            System.out.printf("Export of %d entries, max heap %d MiB%n", entries, Runtime.getRuntime().maxMemory() >> 20);
+            measure("saveData", mainModel::saveData);
+            for (ExportFormat format : ExportFormat.values()) {
+                Path file = directory.resolve("export" + format.getFileExtension());
+                measure(format.getShortName(), () -> exporter.exportFile(file, format));
+                System.out.printf("%-10s %8d KiB file%n", "", Files.size(file) / 1024);
+            }
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Helper method that runs an export once to warm up and once measured, and prints its time and peak heap.
+     *
+     * @param name   The name of the export
+     * @param export The export
+     * @throws Exception If the export fails
+     */
+    private static void measure(String name, Export export) throws Exception {
+        export.run();
+        long baseline = usedHeapAfterGc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long start = System.nanoTime();
+        export.run();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long peak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        System.out.printf("%-10s %8d ms, peak heap %6d MiB above the vault%n", name, millis, Math.max(0, peak - baseline) >> 20);
+    }
+
+    /**
+     * Helper method that returns the used heap after a garbage collection.
+     *
+     * @return The used heap in bytes
+     */
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Helper method that creates an unlocked vault with synthetic entries, which is encrypted on save but not written.
+     *
+     * @param entries The number of entries
+     * @return The MainModel of the vault
+     */
+    private static MainModel newVault(int entries) {
+        List<MainModelEntry> vaultEntries = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            vaultEntries.add(new MainModelEntry("entry-" + i, "Entry " + i, "user" + i + "@example.ch", "https://site" + i + ".example",
+                    "", "", "p4ss-" + Integer.toHexString(i * 7919) + "-Xq", "STRONG", i % 10 == 0, false));
+        }
+        StorageService discardingStorage = new StorageService() {
+            @Override
+            public void write(String fileContent, String accountUser) {
+                // the vault is encrypted, but not written
+            }
+        };
+        return new MainModel(new CryptographyHandler(), discardingStorage, null, null,
+                new VaultContent("export-benchmark", ACCOUNT_PASSWORD, vaultEntries));
+    }
+
+    /**
+     * An export that may fail
+     */
+    @FunctionalInterface
+    private interface Export {
+
+        /**
+         * Runs the export.
+         *
+         * @throws Exception If the export fails
+         */
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,214 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import ch.zhaw.it.pm.vault_guard.service.pwexport.EncryptedArchiveOutputStream;
+import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCalculator;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import ch.zhaw.it.pm.vault_guard.service.pwimport.ImportFormat;
+import ch.zhaw.it.pm.vault_guard.service.pwned.HaveIBeenPawnedService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/**
+ * Prints the throughput of the VaultImporter for large exports in every format, and the time of the strength stage after the import.
+ * The exports are generated with the given number of entries (a quarter of them share a password, like a real vault).
+ * For comparison the same entries are added one at a time like in the main window, with the strength calculated and the vault
+ * saved after every entry, for a smaller number of entries because every save writes the whole vault.
+ * The vault is encrypted like in the application but not written to disk. The breach stage is not measured because
+ * it depends on the network, see the breachLoadTest task.
+ * Run with ./gradlew importBenchmark -Pargs="40000 1000"
+ */
+public class VaultImportReport {
+
+    private static final int DEFAULT_ENTRIES = 40_000;
+    private static final int DEFAULT_ONE_AT_A_TIME_ENTRIES = 1_000;
+    private static final String ACCOUNT_PASSWORD = "import-benchmark-password";
+
+    /**
+     * Generates the exports in a temporary folder and prints the throughput of the import.
+     *
+     * @param args The number of entries of the exports and of the one at a time comparison, 40000 and 1000 if not given
+     * @throws Exception If an export cannot be written or imported
+     */
+    public static void main(String[] args) throws Exception {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ENTRIES;
+        int oneAtATimeEntries = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ONE_AT_A_TIME_ENTRIES;
+        Path directory = Files.createTempDirectory("vault-guard-import");
+        try {
+            System.out.printf("Import of %d entries%n", entries);
+            for (ImportFormat format : ImportFormat.values()) {
+                Path export = directory.resolve("export" + format.getFileExtension());
+                writeExport(export, format, entries);
+                // warm-up with a fresh vault, then the measured import into another fresh vault
+                new VaultImporter(newVault()).importFile(export, format);
+                MainModel mainModel = newVault();
+                VaultImporter importer = new VaultImporter(mainModel);
+                ImportResult result = importer.importFile(export, format);
+                long start = System.nanoTime();
+                importer.checkImportedEntriesInBackground(result.importedEntries(), false).join();
+                long strengthMillis = (System.nanoTime() - start) / 1_000_000;
+                System.out.printf("%-15s %6d entries in %6d ms (save %5d ms), %8.0f entries/s, strength stage %6d ms, %4d KiB export%n",
+                        format.getShortName(), result.importedCount(), result.totalMillis(), result.saveNanos() / 1_000_000,
+                        result.entriesPerSecond(), strengthMillis, Files.size(export) / 1024);
+            }
+            long oneAtATimeNanos = addOneAtATime(oneAtATimeEntries);
+            System.out.printf("%-15s %6d entries in %6d ms, %8.0f entries/s%n", "one at a time", oneAtATimeEntries,
+                    oneAtATimeNanos / 1_000_000, oneAtATimeEntries * 1e9 / oneAtATimeNanos);
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Helper method that adds entries one at a time with the strength calculated and the vault saved after every entry.
+     *
+     * @param entries The number of entries
+     * @return The time in nanoseconds
+     * @throws Exception If the vault cannot be saved
+     */
+    private static long addOneAtATime(int entries) throws Exception {
+        MainModel mainModel = newVault();
+        PasswordStrengthCalculator strengthCalculator = new PasswordStrengthCalculator();
+        long start = System.nanoTime();
+        for (int i = 0; i < entries; i++) {
+            String password = password(i);
+            mainModel.addEntry(new MainModelEntry("Entry " + i, "user" + i, "https://site" + i + ".example", "", "", password,
+                    strengthCalculator.calculateStrength(password).name(), false, false));
+            mainModel.saveData();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Helper method that creates an empty vault that is encrypted on save but not written.
+     *
+     * @return The MainModel of the vault
+     */
+    private static MainModel newVault() {
+        StorageService discardingStorage = new StorageService() {
+            @Override
+            public void write(String fileContent, String accountUser) {
+                // the vault is encrypted, but not written
+            }
+        };
+        return new MainModel(new CryptographyHandler(), discardingStorage, null, new HaveIBeenPawnedService(),
+                new VaultContent("import-benchmark", ACCOUNT_PASSWORD, new ArrayList<>()));
+    }
+
+    /**
+     * Helper method that writes an export with synthetic entries.
+     *
+     * @param export  The file of the export
+     * @param format  The format of the export
+     * @param entries The number of entries
+     * @throws IOException If the export cannot be written
+     */
+    private static void writeExport(Path export, ImportFormat format, int entries) throws IOException {
+        if (format.isEncrypted()) {
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                    new EncryptedArchiveOutputStream(Files.newOutputStream(export), ACCOUNT_PASSWORD), StandardCharsets.UTF_8))) {
+                writeVaultGuard(writer, entries);
+            }
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(export, StandardCharsets.UTF_8)) {
+            switch (format) {
+                case CSV -> writeCsv(writer, entries);
+                case BITWARDEN_JSON -> writeBitwarden(writer, entries);
+                case KEEPASS_XML -> writeKeePass(writer, entries);
+                default -> throw new IllegalArgumentException("No plain text export for " + format);
+            }
+        }
+    }
+
+    /**
+     * Helper method that writes a CSV export in the format of Bitwarden.
+     *
+     * @param writer  The writer of the export
+     * @param entries The number of entries
+     * @throws IOException If the export cannot be written
+     */
+    private static void writeCsv(Writer writer, int entries) throws IOException {
+        writer.write("folder,favorite,type,name,notes,fields,reprompt,login_uri,login_username,login_password,login_totp\n");
+        for (int i = 0; i < entries; i++) {
+            writer.write(",,login,\"Entry " + i + "\",\"A note, with a comma\",,0,https://site" + i + ".example,user" + i + ","
+                    + password(i) + ",\n");
+        }
+    }
+
+    /**
+     * Helper method that writes an unencrypted Bitwarden JSON export.
+     *
+     * @param writer  The writer of the export
+     * @param entries The number of entries
+     * @throws IOException If the export cannot be written
+     */
+    private static void writeBitwarden(Writer writer, int entries) throws IOException {
+        writer.write("{\"encrypted\":false,\"folders\":[],\"items\":[");
+        for (int i = 0; i < entries; i++) {
+            writer.write((i > 0 ? "," : "") + "{\"type\":1,\"name\":\"Entry " + i + "\",\"notes\":null,\"favorite\":false,"
+                    + "\"login\":{\"uris\":[{\"match\":null,\"uri\":\"https://site" + i + ".example\"}],\"username\":\"user" + i
+                    + "\",\"password\":\"" + password(i) + "\",\"totp\":null}}");
+        }
+        writer.write("]}");
+    }
+
+    /**
+     * Helper method that writes an unencrypted KeePass XML export.
+     *
+     * @param writer  The writer of the export
+     * @param entries The number of entries
+     * @throws IOException If the export cannot be written
+     */
+    private static void writeKeePass(Writer writer, int entries) throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"utf-8\" standalone=\"yes\"?>\n<KeePassFile><Root><Group><Name>Root</Name>\n");
+        for (int i = 0; i < entries; i++) {
+            writer.write("<Entry><UUID>" + i + "</UUID>"
+                    + "<String><Key>Title</Key><Value>Entry " + i + "</Value></String>"
+                    + "<String><Key>UserName</Key><Value>user" + i + "</Value></String>"
+                    + "<String><Key>URL</Key><Value>https://site" + i + ".example</Value></String>"
+                    + "<String><Key>Password</Key><Value ProtectInMemory=\"True\">" + password(i) + "</Value></String>"
+                    + "<History><Entry><String><Key>Password</Key><Value>old" + i + "</Value></String></Entry></History></Entry>\n");
+        }
+        writer.write("</Group></Root></KeePassFile>\n");
+    }
+
+    /**
+     * Helper method that writes a Vault Guard JSON export, the content of an archive.
+     *
+     * @param writer  The writer of the export
+     * @param entries The number of entries
+     * @throws IOException If the export cannot be written
+     */
+    private static void writeVaultGuard(Writer writer, int entries) throws IOException {
+        writer.write("{\"accountName\":\"import-benchmark\",\"Entries\":[");
+        for (int i = 0; i < entries; i++) {
+            writer.write((i > 0 ? "," : "") + "\n{\"id\":\"" + i + "\",\"passwordTitel\":\"Entry " + i + "\",\"username\":\"user" + i
+                    + "\",\"website\":\"https://site" + i + ".example\",\"email\":\"\",\"oneTimePassword\":\"\",\"password\":\""
+                    + password(i) + "\",\"passwordStrength\":\"WEAK\",\"isFavourite\":false,\"isCompromised\":false}");
+        }
+        writer.write("\n]}\n");
+    }
+
+    /**
+     * Helper method that returns the synthetic password of an entry, every fourth entry reuses one of a few common passwords.
+     *
+     * @param index The index of the entry
+     * @return The password
+     */
+    private static String password(int index) {
+        return index % 4 == 0 ? "Summer" + (index % 40) + "!" : "p4ss-" + Integer.toHexString(index * 7919) + "-Xq";
+    }
+}
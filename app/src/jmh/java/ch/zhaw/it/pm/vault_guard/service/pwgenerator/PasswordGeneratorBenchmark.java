@@ -0,0 +1,78 @@
+package ch.zhaw.it.pm.vault_guard.service.pwgenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the password generation, reported as passwords per second.
+ * Run with ./gradlew jmh -Pbenchmarks=PasswordGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordGeneratorBenchmark {
+
+    private static final int LENGTH = 16;
+    private static final int BULK_COUNT = 100_000;
+
+    private PasswordPolicy policy;
+    private char[] buffer;
+    private char[] bulkBuffer;
+
+    /**
+     * Creates the policy and the buffers.
+     */
+    @Setup
+    public void setUp() {
+        policy = new PasswordPolicy(LENGTH, true, true, true, "Il1O0");
+        buffer = new char[LENGTH];
+        bulkBuffer = new char[LENGTH * BULK_COUNT];
+    }
+
+    /**
+     * Generates a password with the static API, which creates a policy for every password.
+     *
+     * @return The password.
+     */
+    @Benchmark
+    public String generatePassword() {
+        return PasswordGenerator.generatePassword(LENGTH, true, true, true, "Il1O0");
+    }
+
+    /**
+     * Generates a password into a reused buffer on one thread.
+     *
+     * @return The buffer.
+     */
+    @Benchmark
+    public char[] fillBuffer() {
+        policy.fill(buffer, 0);
+        return buffer;
+    }
+
+    /**
+     * Generates passwords in bulk on all cores.
+     *
+     * @return The buffer.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BULK_COUNT)
+    public char[] fillAllParallel() {
+        policy.fillAll(bulkBuffer);
+        return bulkBuffer;
+    }
+}
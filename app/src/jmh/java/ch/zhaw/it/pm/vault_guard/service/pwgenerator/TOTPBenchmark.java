@@ -0,0 +1,83 @@
+package ch.zhaw.it.pm.vault_guard.service.pwgenerator;
+
+import com.warrenstrange.googleauth.GoogleAuthenticator;
+import com.warrenstrange.googleauth.GoogleAuthenticatorConfig;
+import com.warrenstrange.googleauth.HmacHashFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark comparing the TOTPCalculator with the GoogleAuthenticator library, which decodes the secret
+ * and initialises a new Mac for every code.
+ * Run with ./gradlew jmh -Pbenchmarks=TOTPBenchmark, add -prof gc in the jmh block to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TOTPBenchmark {
+
+    private static final String SECRET_KEY = "JBSWY3DPEHPK3PXPJBSWY3DPEHPK3PXP";
+
+    @Param({"SHA1", "SHA256", "SHA512"})
+    private TOTPHashAlgorithm algorithm;
+
+    private GoogleAuthenticator googleAuthenticator;
+    private TOTPCalculator calculator;
+    private long timeStep;
+
+    /**
+     * Creates the GoogleAuthenticator and the TOTPCalculator with the same configuration.
+     */
+    @Setup
+    public void setUp() {
+        googleAuthenticator = new GoogleAuthenticator(new GoogleAuthenticatorConfig.GoogleAuthenticatorConfigBuilder()
+                .setHmacHashFunction(HmacHashFunction.valueOf(algorithm.getMacName()))
+                .build());
+        calculator = new TOTPCalculator(SECRET_KEY, algorithm, 6, 30);
+        timeStep = System.currentTimeMillis() / calculator.getPeriodMillis();
+    }
+
+    /**
+     * Computes a code with the GoogleAuthenticator library.
+     *
+     * @return The code.
+     */
+    @Benchmark
+    public int googleAuthenticator() {
+        return googleAuthenticator.getTotpPassword(SECRET_KEY, timeStep++ * calculator.getPeriodMillis());
+    }
+
+    /**
+     * Computes a code with the TOTPCalculator.
+     *
+     * @return The code.
+     */
+    @Benchmark
+    public int totpCalculator() {
+        return calculator.codeForTimeStep(timeStep++);
+    }
+
+    /**
+     * Computes and formats a code with the TOTPCalculator, as it is done once per time step for the UI.
+     *
+     * @return The formatted code.
+     */
+    @Benchmark
+    public String totpCalculatorFormatted() {
+        return calculator.format(calculator.codeForTimeStep(timeStep++));
+    }
+}
@@ -0,0 +1,101 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import ch.zhaw.it.pm.vault_guard.controller.model.MainModelEntry;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Scene;
+import javafx.scene.control.ListView;
+import javafx.stage.Stage;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Prints the dropped frames while the entry list of a synthetic vault is scrolled.
+ * The list is set up like in the MainWindowController, with the same cells, cell size and style sheet, and is shown in a window of the same size.
+ * Every frame scrolls the list by a few rows, the time between two frames is taken from the pulses of the JavaFX application thread.
+ * A frame counts as dropped if a pulse took longer than a frame at 60 frames per second, the first frames are used as warm-up.
+ * Run with ./gradlew entryListScroll -Pargs="100000"
+ */
+public class EntryListScrollReport {
+
+    private static final int DEFAULT_SIZE = 100_000;
+    private static final int DISTINCT_WEBSITES = 500;
+    private static final int ROWS_PER_FRAME = 3;
+    private static final int WARMUP_FRAMES = 120;
+    private static final int MEASURED_FRAMES = 1_200;
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+
+    /**
+     * Shows the entry list, scrolls it and prints the frame times.
+     *
+     * @param args The number of entries, 100000 if not given
+     * @throws InterruptedException If the report is interrupted while the list is scrolled
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        ObservableList<MainModelEntry> entries = FXCollections.observableArrayList();
+        for (int i = 0; i < size; i++) {
+            entries.add(new MainModelEntry("Entry " + i, "user" + i + "@example.ch", "site" + (i % DISTINCT_WEBSITES) + ".ch",
+                    "", "", "password-" + i, "STRONG", false, false));
+        }
+        IconResolver iconResolver = new IconResolver();
+        IconCache iconCache = new IconCache();
+        long[] frameNanos = new long[MEASURED_FRAMES];
+        CountDownLatch done = new CountDownLatch(1);
+
+        Platform.startup(() -> {
+            ListView<MainModelEntry> entryList = new ListView<>(entries);
+            entryList.setFixedCellSize(PasswordEntryCellFactory.CELL_HEIGHT);
+            entryList.setCellFactory(listView -> new PasswordEntryCellFactory(iconResolver, iconCache));
+            Scene scene = new Scene(entryList, 260, 418);
+            scene.getStylesheets().add("/ch/zhaw/it/pm/vault_guard/css/style.css");
+            Stage stage = new Stage();
+            stage.setScene(scene);
+            stage.show();
+            new AnimationTimer() {
+                private int frame;
+                private long lastPulse;
+
+                @Override
+                public void handle(long now) {
+                    if (frame > WARMUP_FRAMES) {
+                        frameNanos[frame - WARMUP_FRAMES - 1] = now - lastPulse;
+                    }
+                    lastPulse = now;
+                    frame++;
+                    entryList.scrollTo((frame * ROWS_PER_FRAME) % size);
+                    if (frame > WARMUP_FRAMES + MEASURED_FRAMES) {
+                        stop();
+                        stage.close();
+                        done.countDown();
+                    }
+                }
+            }.start();
+        });
+        done.await();
+        iconResolver.shutdown();
+        Platform.exit();
+        printFrameTimes(size, frameNanos);
+    }
+
+    /**
+     * Helper method that prints the dropped frames and the distribution of the frame times.
+     *
+     * @param size       The number of entries
+     * @param frameNanos The measured time of every frame in nanoseconds
+     */
+    private static void printFrameTimes(int size, long[] frameNanos) {
+        long droppedFrames = 0;
+        for (long nanos : frameNanos) {
+            droppedFrames += Math.max(0, Math.round((double) nanos / FRAME_NANOS) - 1);
+        }
+        long[] sorted = frameNanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%d entries, %d frames, %d dropped frames%n", size, frameNanos.length, droppedFrames);
+        System.out.printf("frame time: median %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                sorted[sorted.length / 2] / 1e6, sorted[sorted.length * 99 / 100] / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+}
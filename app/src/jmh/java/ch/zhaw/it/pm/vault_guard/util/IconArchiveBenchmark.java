@@ -0,0 +1,124 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark of loading the stored icons of all entries when a vault is opened.
+ * pngFiles looks up and reads one PNG file per host, as the icons were stored before,
+ * iconArchive opens the IconArchive holding the same icons and reads every icon from its mapping.
+ * Every icon has the size of a typical favicon (about 1.5 KB), the operating system caches the files in both variants.
+ * Run with ./gradlew jmh -Pbenchmarks=IconArchiveBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IconArchiveBenchmark {
+
+    private static final int ICON_SIZE = 1500;
+
+    @Param({"5000"})
+    private int hostCount;
+
+    private Path directory;
+    private Path archivePath;
+
+    /**
+     * Writes the icons as single PNG files and into an archive.
+     *
+     * @throws IOException If the icons cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("icons");
+        archivePath = directory.resolve("icons.pack");
+        Random random = new Random(42);
+        byte[] icon = new byte[ICON_SIZE];
+        for (int i = 0; i < hostCount; i++) {
+            random.nextBytes(icon);
+            Files.write(directory.resolve(host(i) + ".png"), icon);
+        }
+        try (IconArchive archive = IconArchive.open(archivePath)) {
+            archive.migrate(directory);
+        }
+    }
+
+    /**
+     * Deletes the icons.
+     *
+     * @throws IOException If the icons cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * Looks up and reads the PNG file of every host.
+     *
+     * @return The number of read bytes
+     * @throws IOException If a file cannot be read
+     */
+    @Benchmark
+    public long pngFiles() throws IOException {
+        long bytes = 0;
+        for (int i = 0; i < hostCount; i++) {
+            File iconFile = directory.resolve(host(i) + ".png").toFile();
+            if (iconFile.isFile()) {
+                bytes += Files.readAllBytes(iconFile.toPath()).length;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Opens the archive and reads the icon of every host.
+     *
+     * @return The number of read bytes
+     * @throws IOException If the archive cannot be read
+     */
+    @Benchmark
+    public long iconArchive() throws IOException {
+        long bytes = 0;
+        try (IconArchive archive = IconArchive.open(archivePath)) {
+            for (int i = 0; i < hostCount; i++) {
+                bytes += archive.read(host(i)).map(icon -> icon.length).orElse(0);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Helper method that returns the host of an icon.
+     *
+     * @param index The index of the host
+     * @return The host
+     */
+    private static String host(int index) {
+        return "host" + index + ".example.com";
+    }
+}
@@ -0,0 +1,67 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Creates a class path of jar files from the class path of the running JVM, used by the reports that start new JVMs with AppCDS.
+ * AppCDS refuses class paths with non-empty directories, so every directory of the class path (e.g. the compiled classes
+ * and the resources of a source set) is packed into a jar file.
+ */
+public class JarClassPath {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private JarClassPath() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Returns the class path of the running JVM with every directory replaced by a jar file.
+     *
+     * @param directory The folder where the jar files are written
+     * @return The class path of jar files
+     * @throws IOException If a jar file cannot be written
+     */
+    public static String of(Path directory) throws IOException {
+        List<String> classPath = new ArrayList<>();
+        int jars = 0;
+        for (String element : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            Path path = Path.of(element);
+            if (Files.isDirectory(path)) {
+                Path jar = directory.resolve("classpath-" + jars++ + ".jar");
+                pack(path, jar);
+                classPath.add(jar.toString());
+            } else if (Files.exists(path)) {
+                classPath.add(element);
+            }
+        }
+        return String.join(File.pathSeparator, classPath);
+    }
+
+    /**
+     * Helper method that packs the files of a directory into a jar file.
+     *
+     * @param source The directory
+     * @param jar    The jar file
+     * @throws IOException If the jar file cannot be written
+     */
+    private static void pack(Path source, Path jar) throws IOException {
+        try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar));
+             Stream<Path> files = Files.walk(source)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                output.putNextEntry(new JarEntry(source.relativize(file).toString().replace(File.separatorChar, '/')));
+                Files.copy(file, output);
+                output.closeEntry();
+            }
+        }
+    }
+}
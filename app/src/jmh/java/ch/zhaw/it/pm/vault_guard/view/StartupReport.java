@@ -0,0 +1,205 @@
+package ch.zhaw.it.pm.vault_guard.view;
+
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import ch.zhaw.it.pm.vault_guard.util.Hashing;
+import ch.zhaw.it.pm.vault_guard.util.JarClassPath;
+import ch.zhaw.it.pm.vault_guard.util.StartupMetrics;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.TextField;
+import javafx.stage.Stage;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Prints the startup times of the application in the baseline and in the fast-start mode.
+ * Every run starts a new JVM in a temporary folder with a synthetic vault, the JVM opens the login window,
+ * enters the password like a user and logs in. The report measures the time from the start of the JVM to the shown login window
+ * and the time from the submitted login to the shown entry list.
+ * The baseline runs with the fast-start mode disabled. The fast-start mode preloads the main window and warms up the login,
+ * and runs with a dynamic AppCDS archive, which is created by a first training run that is not measured.
+ * All runs use the class path packed into jar files, because AppCDS does not accept directories in the class path.
+ * Run with ./gradlew startupBenchmark -Pargs="5 1000"
+ */
+public class StartupReport {
+
+    private static final int DEFAULT_RUNS = 5;
+    private static final int DEFAULT_SIZE = 1_000;
+    private static final String ACCOUNT_NAME = "startup-benchmark";
+    private static final String ACCOUNT_PASSWORD = "startup-benchmark-password";
+    private static final long TYPING_MILLIS = 1_500;
+    private static final long TIMEOUT_MILLIS = 60_000;
+    private static final String PROBE = "--probe";
+
+    /**
+     * Runs the startup in both modes and prints the median times, or runs a single startup if called with --probe.
+     *
+     * @param args The number of measured runs per mode and the number of entries of the vault, 5 and 1000 if not given
+     * @throws Exception If a run fails
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals(PROBE)) {
+            probe();
+            return;
+        }
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RUNS;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SIZE;
+        Path directory = Files.createTempDirectory("vault-guard-startup");
+        try {
+            createVault(directory, size);
+            Path archive = directory.resolve("vault-guard.jsa");
+            String classPath = JarClassPath.of(directory);
+            measure("baseline", directory, classPath, runs, List.of("-Dvaultguard.fastStart=false"));
+            measure("fast start", directory, classPath, runs, List.of("-Dvaultguard.fastStart=true",
+                    "-XX:+AutoCreateSharedArchive", "-XX:SharedArchiveFile=" + archive));
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    /**
+     * Helper method that runs the startup of one mode several times and prints the median times.
+     * The first run is not measured, it loads the files into the cache of the operating system and creates the AppCDS archive.
+     *
+     * @param mode      The name of the mode
+     * @param directory The folder with the vault
+     * @param classPath The class path of the JVM
+     * @param runs      The number of measured runs
+     * @param jvmArgs   The arguments of the JVM of the mode
+     * @throws Exception If a run fails
+     */
+    private static void measure(String mode, Path directory, String classPath, int runs, List<String> jvmArgs) throws Exception {
+        runProbe(directory, classPath, jvmArgs);
+        List<Long> loginWindowTimes = new ArrayList<>();
+        List<Long> vaultListTimes = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            long launch = System.currentTimeMillis();
+            Map<String, Long> steps = runProbe(directory, classPath, jvmArgs);
+            loginWindowTimes.add(steps.get(StartupMetrics.LOGIN_WINDOW) - launch);
+            vaultListTimes.add(steps.get(StartupMetrics.VAULT_LIST) - steps.get(StartupMetrics.LOGIN_SUBMITTED));
+        }
+        System.out.printf("%-10s time to login window: %d ms, time to vault list: %d ms (median of %d runs)%n",
+                mode, median(loginWindowTimes), median(vaultListTimes), runs);
+    }
+
+    /**
+     * Helper method that starts a new JVM running the probe and collects the printed startup steps.
+     *
+     * @param directory The folder with the vault, used as working directory
+     * @param classPath The class path of the JVM
+     * @param jvmArgs   The arguments of the JVM
+     * @return The times of the startup steps
+     * @throws Exception If the probe fails or does not reach the entry list
+     */
+    private static Map<String, Long> runProbe(Path directory, String classPath, List<String> jvmArgs) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmArgs);
+        command.add("-Dvaultguard.startupMetrics=true");
+        command.add("-cp");
+        command.add(classPath);
+        command.add(StartupReport.class.getName());
+        command.add(PROBE);
+        Process process = new ProcessBuilder(command).directory(directory.toFile()).redirectErrorStream(true).start();
+        Map<String, Long> steps = new HashMap<>();
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                StartupMetrics.parse(line).ifPresent(step -> steps.put(step.getKey(), step.getValue()));
+            }
+        }
+        if (process.waitFor() != 0 || !steps.containsKey(StartupMetrics.VAULT_LIST)) {
+            throw new IllegalStateException("The startup probe did not reach the vault list: " + steps);
+        }
+        return steps;
+    }
+
+    /**
+     * Helper method that opens the login window, logs in like a user and exits as soon as the entry list is shown.
+     *
+     * @throws InterruptedException If the probe is interrupted
+     */
+    private static void probe() throws InterruptedException {
+        Platform.startup(() -> {
+            Stage stage = new Stage();
+            new ViewGenerator().openLoginWindow(stage);
+            Scene scene = stage.getScene();
+            TextField username = (TextField) scene.lookup("#inputUsername");
+            TextField password = (TextField) scene.lookup("#inputPassword");
+            username.setText(ACCOUNT_NAME);
+            password.requestFocus();
+            password.setText(ACCOUNT_PASSWORD);
+            Thread.ofPlatform().daemon().start(() -> {
+                try {
+                    Thread.sleep(TYPING_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                Platform.runLater(() -> ((Button) scene.lookup("#loginButton")).fire());
+            });
+        });
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (StartupMetrics.getTime(StartupMetrics.VAULT_LIST).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        System.exit(StartupMetrics.getTime(StartupMetrics.VAULT_LIST).isPresent() ? 0 : 1);
+    }
+
+    /**
+     * Helper method that writes a synthetic vault to the storage folder below the given folder, as the StorageService does.
+     *
+     * @param directory The working directory of the probes
+     * @param size      The number of entries
+     * @throws Exception If the vault cannot be encrypted or written
+     */
+    private static void createVault(Path directory, int size) throws Exception {
+        JSONArray entries = new JSONArray();
+        for (int i = 0; i < size; i++) {
+            entries.put(new JSONObject()
+                    .put("id", "entry-" + i)
+                    .put("passwordTitel", "Entry " + i)
+                    .put("username", "user" + i + "@example.ch")
+                    .put("website", "")
+                    .put("email", "")
+                    .put("oneTimePassword", "")
+                    .put("password", "password-" + i)
+                    .put("isFavourite", false)
+                    .put("isCompromised", false)
+                    .put("passwordStrength", "STRONG"));
+        }
+        JSONObject vault = new JSONObject()
+                .put("accountName", ACCOUNT_NAME)
+                .put("accountPassword", ACCOUNT_PASSWORD)
+                .put("Entries", entries);
+        Path storage = Files.createDirectories(directory.resolve("src/main/resources"));
+        String encrypted = new CryptographyHandler().encrypt(vault.toString(), ACCOUNT_PASSWORD);
+        Files.writeString(storage.resolve(Hashing.hash(ACCOUNT_NAME)), encrypted);
+    }
+
+    /**
+     * Helper method that returns the median of measured times.
+     *
+     * @param times The times
+     * @return The median
+     */
+    private static long median(List<Long> times) {
+        List<Long> sorted = times.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+}
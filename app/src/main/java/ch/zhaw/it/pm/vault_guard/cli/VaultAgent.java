@@ -0,0 +1,601 @@
+package ch.zhaw.it.pm.vault_guard.cli;
+
+import ch.zhaw.it.pm.vault_guard.controller.model.LoginModel;
+import ch.zhaw.it.pm.vault_guard.controller.model.MainModel;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import ch.zhaw.it.pm.vault_guard.util.ExecutorManager;
+import ch.zhaw.it.pm.vault_guard.util.StorageException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The VaultAgent class is a long-running local process, like ssh-agent, that keeps unlocked vaults in memory,
+ * so repeated commands do not derive the key and decrypt the vault again.
+ * It listens on a Unix domain socket that only the owner may use and handles every connection on its own virtual thread.
+ * A request is one line with a JSON array of strings, e.g. ["get","myAccount","Bank"], the response is one line with a JSON object
+ * with the exit code, the output and the error output of the command, e.g. {"exit":0,"out":"secret\n","err":""}.
+ * A request with --password-stdin is followed by one line with the password, which is the standard input of the command.
+ * The agent runs the commands of the VaultCli (except batch) on the unlocked vaults and knows three commands of its own:
+ * ["unlock",account,password] unlocks a vault, ["lock"] or ["lock",account] locks all vaults or one vault
+ * and ["status"] prints the unlocked vaults with their idle time in seconds.
+ * A vault that was not used for the idle timeout is locked again.
+ * The agent remembers a fingerprint (size, time of the last modification and file key) of the vault file of every unlocked vault.
+ * Before every command on the vault the vault is unlocked again if the file was changed by another process, e.g. the application,
+ * so reading commands (list, get, search and export) see the changes and saving commands (add, audit and import)
+ * do not overwrite them with the vault in memory.
+ * The VaultCli sends its commands to the agent if VAULTGUARD_AGENT is set to the socket, and unlocks locked vaults with the
+ * password from its environment.
+ * Run with ./gradlew agent -Pargs="/home/me/.vault-guard/agent.sock 15" (socket and idle timeout in minutes, both optional)
+ */
+public class VaultAgent implements AutoCloseable {
+    private static final Log log = LogFactory.getLog(VaultAgent.class);
+
+    static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(15);
+    private static final Duration MAX_EXPIRY_PERIOD = Duration.ofSeconds(30);
+    static final Set<String> VAULT_COMMANDS = Set.of("list", "get", "search", "add", "export", "audit", "import");
+    static final Set<String> WRITE_COMMANDS = Set.of("add", "audit", "import");
+    static final String PASSWORD_STDIN = "--password-stdin";
+
+    private final Path socketPath;
+    private final Duration idleTimeout;
+    private final Supplier<LoginModel> loginModels;
+    private final StorageService storageService;
+    private final LongSupplier clock;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private ServerSocketChannel server;
+    private ExecutorService connections;
+    private ScheduledExecutorService expiry;
+
+    /**
+     * Constructor of the VaultAgent
+     *
+     * @param socketPath  The path of the Unix domain socket
+     * @param idleTimeout The time after which an unused vault is locked
+     * @param loginModels Creates the LoginModel for every unlocked vault
+     * @param clock       The clock of the idle timeout in nanoseconds
+     */
+    VaultAgent(Path socketPath, Duration idleTimeout, Supplier<LoginModel> loginModels, LongSupplier clock) {
+        this(socketPath, idleTimeout, loginModels, new StorageService(), clock);
+    }
+
+    /**
+     * Constructor of the VaultAgent
+     *
+     * @param socketPath     The path of the Unix domain socket
+     * @param idleTimeout    The time after which an unused vault is locked
+     * @param loginModels    Creates the LoginModel for every unlocked vault
+     * @param storageService The StorageService of the vault files, used to notice changes by other processes
+     * @param clock          The clock of the idle timeout in nanoseconds
+     */
+    VaultAgent(Path socketPath, Duration idleTimeout, Supplier<LoginModel> loginModels, StorageService storageService, LongSupplier clock) {
+        this.socketPath = socketPath.toAbsolutePath();
+        this.idleTimeout = idleTimeout;
+        this.loginModels = loginModels;
+        this.storageService = storageService;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts the agent and serves requests until the process is stopped. The socket is removed when the process ends.
+     *
+     * @param args The path of the socket and the idle timeout in minutes,
+     *             ~/.vault-guard/agent.sock and 15 if not given
+     * @throws IOException If the socket cannot be created
+     */
+    public static void main(String[] args) throws IOException {
+        Path socketPath = args.length > 0 ? Path.of(args[0]) : defaultSocketPath();
+        Duration idleTimeout = args.length > 1 ? Duration.ofMinutes(Long.parseLong(args[1])) : DEFAULT_IDLE_TIMEOUT;
+        VaultAgent agent = new VaultAgent(socketPath, idleTimeout, LoginModel::new, System::nanoTime);
+        Runtime.getRuntime().addShutdownHook(new Thread(agent::close, "vault-agent-shutdown"));
+        agent.start();
+        System.out.println(VaultCli.AGENT_VARIABLE + "=" + agent.socketPath + "; export " + VaultCli.AGENT_VARIABLE);
+    }
+
+    /**
+     * Returns the default path of the socket in the folder .vault-guard of the home directory.
+     *
+     * @return The path of the socket
+     */
+    static Path defaultSocketPath() {
+        return Path.of(System.getProperty("user.home"), ".vault-guard", "agent.sock");
+    }
+
+    /**
+     * Creates the socket and starts to accept connections on the thread vault-agent.
+     * The folder of the socket must be one that only the owner may use, because the socket is created with the default
+     * permissions before they are restricted. A socket file of an agent that is no longer running is replaced.
+     *
+     * @throws IOException If the folder of the socket may be used by others, the socket cannot be created or another agent is running on it
+     */
+    public synchronized void start() throws IOException {
+        createOwnerOnlyDirectory(socketPath.getParent());
+        if (Files.exists(socketPath)) {
+            if (isAgentRunning(socketPath)) {
+                throw new IOException("Another agent is running on " + socketPath);
+            }
+            Files.delete(socketPath);
+        }
+        server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socketPath));
+        restrictToOwner(socketPath, "rw-------");
+
+        connections = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("vault-agent-connection-", 0).factory());
+        ExecutorManager.registerExecutor(connections);
+        expiry = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vault-agent-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorManager.registerExecutor(expiry);
+        long period = Math.max(1, Math.min(idleTimeout.toMillis() / 4, MAX_EXPIRY_PERIOD.toMillis()));
+        expiry.scheduleAtFixedRate(this::expireIdleSessions, period, period, TimeUnit.MILLISECONDS);
+
+        Thread.ofPlatform().name("vault-agent").start(this::acceptConnections);
+        log.info("Vault agent listening on " + socketPath + ", idle timeout " + idleTimeout.toMinutes() + " min");
+    }
+
+    /**
+     * Helper method that checks whether an agent accepts connections on a socket.
+     *
+     * @param socketPath The path of the socket
+     * @return true if the connection succeeded
+     */
+    private static boolean isAgentRunning(Path socketPath) {
+        try (SocketChannel ignored = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stops the agent, locks all vaults and removes the socket.
+     */
+    @Override
+    public synchronized void close() {
+        if (server == null) {
+            return;
+        }
+        try {
+            server.close();
+            Files.deleteIfExists(socketPath);
+        } catch (IOException e) {
+            log.warn("The socket " + socketPath + " could not be removed: " + e.getMessage());
+        }
+        connections.shutdownNow();
+        expiry.shutdownNow();
+        sessions.clear();
+        server = null;
+    }
+
+    /**
+     * Returns the path of the socket.
+     *
+     * @return The absolute path of the socket
+     */
+    public Path getSocketPath() {
+        return socketPath;
+    }
+
+    /**
+     * Helper method that accepts connections until the socket is closed and hands every connection to its own virtual thread.
+     */
+    private void acceptConnections() {
+        ServerSocketChannel serverChannel = server;
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                connections.execute(() -> handleConnection(channel));
+            } catch (ClosedChannelException | RejectedExecutionException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("Accepting a connection failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Helper method that answers the requests of a connection, one response line per request line, until the client closes it.
+     *
+     * @param channel The connection
+     */
+    private void handleConnection(SocketChannel channel) {
+        try (channel;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+             Writer writer = new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8)) {
+            String request;
+            while ((request = reader.readLine()) != null) {
+                if (request.isBlank()) {
+                    continue;
+                }
+                writer.write(respond(request, reader).toString());
+                writer.write('\n');
+                writer.flush();
+            }
+        } catch (IOException e) {
+            log.debug("A connection was closed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Answers a request that has no standard input.
+     *
+     * @param request The request, a JSON array of strings
+     * @return The response with the exit code, the output and the error output
+     */
+    JSONObject respond(String request) {
+        return respond(request, new BufferedReader(Reader.nullReader()));
+    }
+
+    /**
+     * Answers a request. The line with the password of a request with --password-stdin is read from the connection
+     * before the command runs, also if the command fails, so the next request starts on the next line.
+     *
+     * @param request    The request, a JSON array of strings
+     * @param connection The reader of the connection
+     * @return The response with the exit code, the output and the error output
+     */
+    JSONObject respond(String request, BufferedReader connection) {
+        ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+        ByteArrayOutputStream errBytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(outBytes, true, StandardCharsets.UTF_8);
+        PrintStream err = new PrintStream(errBytes, true, StandardCharsets.UTF_8);
+        int exitCode;
+        try {
+            List<String> arguments = parseRequest(request);
+            String standardInput = arguments.contains(PASSWORD_STDIN) ? readPasswordLine(connection) : "";
+            exitCode = execute(arguments, standardInput, out, err);
+        } catch (VaultCli.CliException e) {
+            err.println(e.getMessage());
+            exitCode = e.getExitCode();
+        }
+        return new JSONObject()
+                .put("exit", exitCode)
+                .put("out", outBytes.toString(StandardCharsets.UTF_8))
+                .put("err", errBytes.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Helper method that reads the line with the password that follows a request with --password-stdin.
+     *
+     * @param connection The reader of the connection
+     * @return The password, empty if the client closed the connection
+     * @throws VaultCli.CliException If the line cannot be read
+     */
+    private static String readPasswordLine(BufferedReader connection) throws VaultCli.CliException {
+        try {
+            return Objects.requireNonNullElse(connection.readLine(), "");
+        } catch (IOException e) {
+            throw new VaultCli.CliException(VaultCli.FAILED, "The password cannot be read: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Helper method that parses a request.
+     *
+     * @param request The request, a JSON array of strings
+     * @return The command and its arguments
+     * @throws VaultCli.CliException If the request is not a non-empty JSON array of strings
+     */
+    private static List<String> parseRequest(String request) throws VaultCli.CliException {
+        try {
+            JSONArray array = new JSONArray(request);
+            List<String> arguments = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                arguments.add(array.getString(i));
+            }
+            if (!arguments.isEmpty()) {
+                return arguments;
+            }
+        } catch (JSONException e) {
+            // reported below
+        }
+        throw new VaultCli.CliException(VaultCli.USAGE_ERROR, "A request is a JSON array of strings, e.g. [\"list\",\"myAccount\"]");
+    }
+
+    /**
+     * Helper method that executes a command of the agent or of the VaultCli.
+     *
+     * @param arguments     The command and its arguments
+     * @param standardInput The standard input of the command
+     * @param out           The output of the command
+     * @param err           The error output of the command
+     * @return The exit code
+     * @throws VaultCli.CliException If a command of the agent is not valid or failed
+     */
+    private int execute(List<String> arguments, String standardInput, PrintStream out, PrintStream err) throws VaultCli.CliException {
+        String command = arguments.getFirst();
+        switch (command) {
+            case "unlock" -> unlock(arguments);
+            case "lock" -> lock(arguments, out);
+            case "status" -> status(out);
+            case "batch" -> throw new VaultCli.CliException(VaultCli.USAGE_ERROR, "The agent runs no batch, send one request per line");
+            default -> {
+                return runCliCommand(arguments, standardInput, out, err);
+            }
+        }
+        return VaultCli.OK;
+    }
+
+    /**
+     * Helper method that runs a command of the VaultCli. A command on a vault holds the lock of the vault while it runs,
+     * so commands on the same vault run one after the other. Every command on a vault runs on the current vault file.
+     *
+     * @param arguments     The command and its arguments
+     * @param standardInput The standard input of the command
+     * @param out           The output of the command
+     * @param err           The error output of the command
+     * @return The exit code
+     * @throws VaultCli.CliException If the vault of the command is locked
+     */
+    private int runCliCommand(List<String> arguments, String standardInput, PrintStream out, PrintStream err)
+            throws VaultCli.CliException {
+        String[] args = arguments.toArray(String[]::new);
+        InputStream input = new ByteArrayInputStream(standardInput.getBytes(StandardCharsets.UTF_8));
+        if (!VAULT_COMMANDS.contains(arguments.getFirst()) || arguments.size() < 2) {
+            return new VaultCli(out, err, accountName -> {
+                throw locked(accountName);
+            }).run(args, input);
+        }
+        Session session = sessions.get(arguments.get(1));
+        if (session == null) {
+            throw locked(arguments.get(1));
+        }
+        String accountName = arguments.get(1);
+        session.lock.lock();
+        try {
+            session.lastUsed = clock.getAsLong();
+            reloadIfChanged(accountName, session);
+            MainModel mainModel = session.mainModel;
+            int exitCode = new VaultCli(out, err, name -> mainModel).run(args, input);
+            if (WRITE_COMMANDS.contains(arguments.getFirst())) {
+                rememberFingerprint(accountName, session);
+            }
+            return exitCode;
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * Helper method that unlocks a vault again if its file was changed since it was unlocked or last saved by the agent.
+     * If it cannot be unlocked again, e.g. because its password was changed, the vault is locked.
+     *
+     * @param accountName The name of the account
+     * @param session     The unlocked vault, whose lock is held
+     * @throws VaultCli.CliException If the file cannot be read or the vault cannot be unlocked again
+     */
+    private void reloadIfChanged(String accountName, Session session) throws VaultCli.CliException {
+        String fingerprint = fingerprint(accountName);
+        if (fingerprint.equals(session.fingerprint)) {
+            return;
+        }
+        try {
+            session.mainModel = VaultCli.unlock(loginModels.get(), accountName, session.mainModel.getAccountPassword());
+        } catch (VaultCli.CliException e) {
+            sessions.remove(accountName, session);
+            throw new VaultCli.CliException(e.getExitCode(), "The vault of " + accountName
+                    + " was changed by another process and is locked: " + e.getMessage());
+        }
+        session.fingerprint = fingerprint;
+        log.info("Unlocked the changed vault of " + accountName + " again");
+    }
+
+    /**
+     * Helper method that remembers the fingerprint of the vault file after a command saved it.
+     * If the attributes of the file cannot be read, the vault is unlocked again before the next command.
+     *
+     * @param accountName The name of the account
+     * @param session     The unlocked vault, whose lock is held
+     */
+    private void rememberFingerprint(String accountName, Session session) {
+        try {
+            session.fingerprint = fingerprint(accountName);
+        } catch (VaultCli.CliException e) {
+            session.fingerprint = null;
+            log.warn(e.getMessage());
+        }
+    }
+
+    /**
+     * Helper method that returns the fingerprint of the vault file of an account, which is its size,
+     * the time of its last modification and its file key. It is checked before every command, so the file is not read.
+     *
+     * @param accountName The name of the account
+     * @return The fingerprint of the file, an empty String if there is none
+     * @throws VaultCli.CliException If the attributes of the file cannot be read
+     */
+    private String fingerprint(String accountName) throws VaultCli.CliException {
+        try {
+            return storageService.version(accountName).orElse("");
+        } catch (StorageException e) {
+            throw new VaultCli.CliException(VaultCli.FAILED, "The vault file of " + accountName + " cannot be read: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Helper method that returns the error of a locked vault.
+     *
+     * @param accountName The name of the account
+     * @return The error, with the exit code of a failed unlock
+     */
+    private static VaultCli.CliException locked(String accountName) {
+        return new VaultCli.CliException(VaultCli.UNLOCK_FAILED, "The vault of " + accountName + " is locked, unlock it first");
+    }
+
+    /**
+     * Helper method that unlocks a vault. An unlocked vault is kept if the password is the same, otherwise it is unlocked again.
+     *
+     * @param arguments The unlock command with the account name and the password
+     * @throws VaultCli.CliException If the arguments are missing, the password is wrong or the vault cannot be opened
+     */
+    private void unlock(List<String> arguments) throws VaultCli.CliException {
+        if (arguments.size() != 3) {
+            throw new VaultCli.CliException(VaultCli.USAGE_ERROR, "unlock needs the account name and the password");
+        }
+        String accountName = arguments.get(1);
+        String password = arguments.get(2);
+        Session session = sessions.get(accountName);
+        if (session != null && MessageDigest.isEqual(session.mainModel.getAccountPassword().getBytes(StandardCharsets.UTF_8),
+                password.getBytes(StandardCharsets.UTF_8))) {
+            session.lastUsed = clock.getAsLong();
+            return;
+        }
+        String fingerprint = fingerprint(accountName);
+        MainModel mainModel = VaultCli.unlock(loginModels.get(), accountName, password);
+        sessions.put(accountName, new Session(mainModel, fingerprint, clock.getAsLong()));
+        log.info("Unlocked the vault of " + accountName);
+    }
+
+    /**
+     * Helper method that locks one vault or all vaults and prints the number of locked vaults.
+     *
+     * @param arguments The lock command with the account name or without argument for all vaults
+     * @param out       The output of the command
+     * @throws VaultCli.CliException If there is more than one argument
+     */
+    private void lock(List<String> arguments, PrintStream out) throws VaultCli.CliException {
+        int locked;
+        if (arguments.size() == 1) {
+            locked = sessions.size();
+            sessions.clear();
+        } else if (arguments.size() == 2) {
+            locked = sessions.remove(arguments.get(1)) != null ? 1 : 0;
+        } else {
+            throw new VaultCli.CliException(VaultCli.USAGE_ERROR, "lock needs no argument or the account name");
+        }
+        out.println("Locked " + locked + " vault(s)");
+    }
+
+    /**
+     * Helper method that prints the unlocked vaults, sorted by account name, with their idle time in seconds.
+     *
+     * @param out The output of the command
+     */
+    private void status(PrintStream out) {
+        long now = clock.getAsLong();
+        new TreeMap<>(sessions).forEach((accountName, session) ->
+                out.println(accountName + "\t" + TimeUnit.NANOSECONDS.toSeconds(now - session.lastUsed)));
+    }
+
+    /**
+     * Locks the vaults that were not used for the idle timeout, called periodically by the thread vault-agent-expiry.
+     */
+    void expireIdleSessions() {
+        long now = clock.getAsLong();
+        sessions.entrySet().removeIf(session -> {
+            boolean idle = now - session.getValue().lastUsed >= idleTimeout.toNanos();
+            if (idle) {
+                log.info("Locked the idle vault of " + session.getKey());
+            }
+            return idle;
+        });
+    }
+
+    /**
+     * Helper method that creates a folder that only the owner may use if it does not exist yet, or checks that nobody
+     * but the owner may use an existing folder. An existing folder is not changed, because it may be a folder like
+     * the home directory. File systems without POSIX permissions are only logged.
+     *
+     * @param directory The folder
+     * @throws IOException If the folder cannot be created or may be used by others
+     */
+    static void createOwnerOnlyDirectory(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            Files.createDirectories(directory);
+            restrictToOwner(directory, "rwx------");
+        }
+        Set<PosixFilePermission> permissions;
+        try {
+            permissions = Files.getPosixFilePermissions(directory);
+        } catch (UnsupportedOperationException e) {
+            log.warn("The permissions of " + directory + " cannot be checked on this file system");
+            return;
+        }
+        if (!PosixFilePermissions.fromString("rwx------").containsAll(permissions)) {
+            throw new IOException("The folder " + directory + " of the socket may be used by other users ("
+                    + PosixFilePermissions.toString(permissions) + "), use chmod 700 or a folder of its own");
+        }
+    }
+
+    /**
+     * Helper method that sets the POSIX permissions of a file, file systems without POSIX permissions are only logged.
+     *
+     * @param path        The file
+     * @param permissions The permissions, e.g. rw-------
+     * @throws IOException If the permissions cannot be set
+     */
+    private static void restrictToOwner(Path path, String permissions) throws IOException {
+        try {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString(permissions));
+        } catch (UnsupportedOperationException e) {
+            log.warn("The permissions of " + path + " cannot be restricted to the owner on this file system");
+        }
+    }
+
+    /**
+     * An unlocked vault with its lock, the fingerprint of its file and the time of its last use.
+     * The vault and the fingerprint are replaced only while the lock is held.
+     */
+    private static final class Session {
+        private volatile MainModel mainModel;
+        private String fingerprint;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastUsed;
+
+        /**
+         * Constructor of the Session
+         *
+         * @param mainModel   The unlocked vault
+         * @param fingerprint The fingerprint of the vault file, read before the unlock
+         * @param lastUsed    The time of the unlock in nanoseconds
+         */
+        private Session(MainModel mainModel, String fingerprint, long lastUsed) {
+            this.mainModel = mainModel;
+            this.fingerprint = fingerprint;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package ch.zhaw.it.pm.vault_guard.cli;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The VaultAgentClient class sends the commands of the VaultCli to a running VaultAgent over its Unix domain socket.
+ * If the vault of a command is locked and its password is in the environment, the vault is unlocked in the agent
+ * and the command is sent again, so the next invocations find it unlocked.
+ * The password of a new entry is read here, from the standard input with --password-stdin or from VAULTGUARD_ENTRY_PASSWORD,
+ * and sent to the agent on the line after the command, so it never appears in the arguments of a process.
+ * A batch is sent line by line over one connection.
+ */
+class VaultAgentClient implements AutoCloseable {
+
+    private final SocketChannel channel;
+    private final BufferedReader reader;
+    private final Writer writer;
+
+    /**
+     * Constructor of the VaultAgentClient, connects to the agent
+     *
+     * @param socketPath The path of the socket of the agent
+     * @throws IOException If the agent cannot be reached
+     */
+    VaultAgentClient(Path socketPath) throws IOException {
+        channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath));
+        reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+        writer = new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs a command or a batch of commands in the agent, like VaultCli.run.
+     *
+     * @param socketPath  The path of the socket of the agent
+     * @param args        The command and its arguments
+     * @param input       The standard input, from which a batch without file and the passwords of --password-stdin are read
+     * @param out         The output of the commands
+     * @param err         The output of the errors
+     * @param environment The environment variables, used to look up the passwords of locked vaults and of new entries
+     * @return The exit code, the highest exit code of a batch
+     */
+    static int run(Path socketPath, String[] args, InputStream input, PrintStream out, PrintStream err, Function<String, String> environment) {
+        if (args.length == 0 || (args[0].equals("batch") && args.length > 2)) {
+            return new VaultCli(out, err, environment, () -> null).run(new String[0], input);
+        }
+        BufferedReader standardInput = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        try (VaultAgentClient client = new VaultAgentClient(socketPath)) {
+            if (!args[0].equals("batch")) {
+                return client.send(List.of(args), standardInput, out, err, environment);
+            }
+            try (BufferedReader batch = args.length == 2 ? Files.newBufferedReader(Path.of(args[1]), StandardCharsets.UTF_8) : standardInput) {
+                return client.sendBatch(batch, standardInput, out, err, environment);
+            }
+        } catch (IOException e) {
+            err.println("The agent on " + socketPath + " cannot be reached: " + e.getMessage());
+            return VaultCli.FAILED;
+        }
+    }
+
+    /**
+     * Helper method that sends the commands of a batch, one per line. Empty lines and lines starting with # are skipped.
+     *
+     * @param batch         The reader of the batch
+     * @param standardInput The standard input
+     * @param out           The output of the commands
+     * @param err           The output of the errors
+     * @param environment   The environment variables
+     * @return The highest exit code of the commands
+     * @throws IOException If the batch cannot be read or the connection failed
+     */
+    private int sendBatch(BufferedReader batch, BufferedReader standardInput, PrintStream out, PrintStream err,
+                          Function<String, String> environment) throws IOException {
+        int exitCode = VaultCli.OK;
+        String line;
+        int lineNumber = 0;
+        while ((line = batch.readLine()) != null) {
+            lineNumber++;
+            String command = line.strip();
+            if (command.isEmpty() || command.startsWith("#")) {
+                continue;
+            }
+            int commandExitCode = send(VaultCli.tokenize(command), standardInput, out, err, environment);
+            if (commandExitCode != VaultCli.OK) {
+                err.println("Line " + lineNumber + " failed: " + command.split("\\s", 2)[0]);
+            }
+            exitCode = Math.max(exitCode, commandExitCode);
+        }
+        return exitCode;
+    }
+
+    /**
+     * Helper method that sends a command and prints its output. A locked vault is unlocked with the password from the environment.
+     *
+     * @param command       The command and its arguments
+     * @param standardInput The standard input
+     * @param out           The output of the command
+     * @param err           The output of the errors
+     * @param environment   The environment variables
+     * @return The exit code
+     * @throws IOException If the connection failed
+     */
+    private int send(List<String> command, BufferedReader standardInput, PrintStream out, PrintStream err,
+                     Function<String, String> environment) throws IOException {
+        List<String> arguments = resolveFile(command);
+        String entryPassword = null;
+        if (arguments.getFirst().equals("add")) {
+            VaultCli.CommandLine commandLine = VaultCli.CommandLine.parse(arguments);
+            try {
+                entryPassword = commandLine.hasFlag("generate") ? null
+                        : VaultCli.entryPassword(commandLine, standardInput, environment).orElse(null);
+            } catch (VaultCli.CliException e) {
+                err.println(e.getMessage());
+                return e.getExitCode();
+            }
+            if (entryPassword != null && !commandLine.hasFlag("password-stdin")) {
+                arguments = new ArrayList<>(arguments);
+                arguments.add(VaultAgent.PASSWORD_STDIN);
+            }
+        }
+        JSONObject response = request(arguments, entryPassword);
+        if (response.getInt("exit") == VaultCli.UNLOCK_FAILED && VaultAgent.VAULT_COMMANDS.contains(arguments.getFirst())
+                && arguments.size() > 1) {
+            String accountName = arguments.get(1);
+            Optional<String> password = VaultCli.password(accountName, environment);
+            if (password.isPresent()) {
+                JSONObject unlockResponse = request(List.of("unlock", accountName, password.get()));
+                response = unlockResponse.getInt("exit") == VaultCli.OK ? request(arguments, entryPassword) : unlockResponse;
+            }
+        }
+        out.print(response.getString("out"));
+        err.print(response.getString("err"));
+        return response.getInt("exit");
+    }
+
+    /**
+     * Helper method that makes the file of an import or export command absolute, because the agent resolves paths in its own working directory.
+     *
+     * @param arguments The command and its arguments
+     * @return The arguments with the absolute file, or the same arguments for other commands
+     */
+    static List<String> resolveFile(List<String> arguments) {
+        if (!arguments.getFirst().equals("import") && !arguments.getFirst().equals("export")) {
+            return arguments;
+        }
+        List<String> resolved = new ArrayList<>(arguments);
+        int positional = 0;
+        for (int i = 1; i < resolved.size(); i++) {
+            if (!resolved.get(i).startsWith("--") && ++positional == 2) {
+                resolved.set(i, Path.of(resolved.get(i)).toAbsolutePath().toString());
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Sends a request to the agent and waits for its response.
+     *
+     * @param arguments The command and its arguments
+     * @return The response with the exit code, the output and the error output
+     * @throws IOException If the connection failed or the agent closed it
+     */
+    JSONObject request(List<String> arguments) throws IOException {
+        return request(arguments, null);
+    }
+
+    /**
+     * Sends a request and waits for its response. A request with --password-stdin is followed by the line with the password,
+     * which the agent reads in any case, so an empty line is sent if there is no password.
+     *
+     * @param arguments     The command and its arguments
+     * @param entryPassword The password of a new entry, or null if there is none
+     * @return The response with the exit code, the output and the error output
+     * @throws IOException If the connection failed or the agent closed it
+     */
+    private JSONObject request(List<String> arguments, String entryPassword) throws IOException {
+        writer.write(new JSONArray(arguments).toString());
+        writer.write('\n');
+        if (arguments.contains(VaultAgent.PASSWORD_STDIN)) {
+            writer.write(Objects.requireNonNullElse(entryPassword, ""));
+            writer.write('\n');
+        }
+        writer.flush();
+        String response = reader.readLine();
+        if (response == null) {
+            throw new IOException("The agent closed the connection");
+        }
+        return new JSONObject(response);
+    }
+
+    /**
+     * Closes the connection to the agent.
+     *
+     * @throws IOException If the connection cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
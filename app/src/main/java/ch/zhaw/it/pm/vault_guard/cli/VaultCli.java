@@ -0,0 +1,694 @@
+package ch.zhaw.it.pm.vault_guard.cli;
+
+import ch.zhaw.it.pm.vault_guard.controller.VaultViewState;
+import ch.zhaw.it.pm.vault_guard.controller.model.ExportResult;
+import ch.zhaw.it.pm.vault_guard.controller.model.ImportResult;
+import ch.zhaw.it.pm.vault_guard.controller.model.LoginModel;
+import ch.zhaw.it.pm.vault_guard.controller.model.LoginState;
+import ch.zhaw.it.pm.vault_guard.controller.model.MainModel;
+import ch.zhaw.it.pm.vault_guard.controller.model.MainModelEntry;
+import ch.zhaw.it.pm.vault_guard.controller.model.VaultExporter;
+import ch.zhaw.it.pm.vault_guard.controller.model.VaultImporter;
+import ch.zhaw.it.pm.vault_guard.service.pwexport.ExportFormat;
+import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordPolicy;
+import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCalculator;
+import ch.zhaw.it.pm.vault_guard.service.pwimport.ImportException;
+import ch.zhaw.it.pm.vault_guard.service.pwimport.ImportFormat;
+import ch.zhaw.it.pm.vault_guard.service.pwned.PasswordCheckException;
+import ch.zhaw.it.pm.vault_guard.util.StorageException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The VaultCli class is the headless entry point of Vault Guard, used by scripts to work with many vaults.
+ * It unlocks the vaults with the LoginModel and works on the MainModel like the main window, but never initializes JavaFX.
+ * A single command is given as arguments, e.g. "list myAccount". With "batch" the commands are read from a file or
+ * the standard input, one command per line, and every vault is unlocked only once for the whole batch.
+ * The password of a vault is read from the environment variable VAULTGUARD_PASSWORD_ACCOUNT (the account name in upper case,
+ * other characters than letters and digits replaced by _) or VAULTGUARD_PASSWORD, so it never appears in the process list.
+ * For the same reason the password of a new entry is read from the next line of the standard input with --password-stdin
+ * or from VAULTGUARD_ENTRY_PASSWORD, never from the arguments.
+ * The vaults are stored in the working directory like in the application.
+ * If the environment variable VAULTGUARD_AGENT is set to the socket of a running VaultAgent, the commands are sent to the agent,
+ * which keeps the vaults unlocked between the invocations.
+ * Run with ./gradlew cli -Pargs="list myAccount" or java -cp ... ch.zhaw.it.pm.vault_guard.cli.VaultCli list myAccount
+ */
+public class VaultCli {
+
+    static final int OK = 0;
+    static final int USAGE_ERROR = 1;
+    static final int UNLOCK_FAILED = 2;
+    static final int FAILED = 3;
+
+    static final String PASSWORD_VARIABLE = "VAULTGUARD_PASSWORD";
+    static final String ENTRY_PASSWORD_VARIABLE = "VAULTGUARD_ENTRY_PASSWORD";
+    static final String AGENT_VARIABLE = "VAULTGUARD_AGENT";
+    private static final int DEFAULT_PASSWORD_LENGTH = 20;
+    private static final String USAGE = """
+            Usage: vault-guard-cli <command> [arguments] [--option=value]
+              list <account>                     Prints title, username and website of all entries
+              get <account> <title>              Prints the password of the entry with the title
+              search <account> <text>            Prints title and username of the matching entries, the best match first
+              add <account> <title> [--username=] [--website=] [--email=] [--password-stdin | --generate [--length=]]
+                                                 Adds an entry and prints its id, the password is read from the next line
+                                                 of the standard input, generated or taken from VAULTGUARD_ENTRY_PASSWORD
+              export <account> [file] [--format=json|csv|archive]
+                                                 Prints all entries as JSON or CSV or writes them to the file,
+                                                 the archive is encrypted with the account password and needs a file
+              audit <account>                    Checks all entries against Have I Been Pwned and prints the compromised entries
+              import <account> <file> [--format=csv|bitwarden|keepass|archive] [--no-breach-check]
+                                                 Imports a CSV, Bitwarden JSON or KeePass XML export or an archive
+                                                 encrypted with the account password and prints the throughput
+              generate [--length=] [--count=] [--no-numerals] [--no-uppercase] [--no-symbols] [--forbidden=]
+                                                 Prints new passwords
+              batch [file]                       Runs the commands of the file or the standard input, one per line
+            The password of a vault is read from VAULTGUARD_PASSWORD_<ACCOUNT> or VAULTGUARD_PASSWORD.""";
+
+    private final PrintStream out;
+    private final PrintStream err;
+    private final VaultSource vaults;
+    private final Function<String, String> environment;
+    private final Map<String, MainModel> unlockedVaults = new HashMap<>();
+    private BufferedReader standardInput;
+    private PasswordStrengthCalculator strengthCalculator;
+
+    /**
+     * Constructor of the VaultCli
+     *
+     * @param out         The output of the commands
+     * @param err         The output of the errors
+     * @param environment The environment variables, used to look up the passwords of the vaults and of new entries
+     * @param loginModels Creates the LoginModel for every unlocked vault
+     */
+    VaultCli(PrintStream out, PrintStream err, Function<String, String> environment, Supplier<LoginModel> loginModels) {
+        this.out = out;
+        this.err = err;
+        this.vaults = accountName -> unlockFromEnvironment(accountName, environment, loginModels);
+        this.environment = environment;
+    }
+
+    /**
+     * Constructor of the VaultCli with vaults that are unlocked elsewhere, used by the VaultAgent.
+     * The environment is not used, the password of a new entry comes with --password-stdin.
+     *
+     * @param out    The output of the commands
+     * @param err    The output of the errors
+     * @param vaults Returns the unlocked vault of an account
+     */
+    VaultCli(PrintStream out, PrintStream err, VaultSource vaults) {
+        this.out = out;
+        this.err = err;
+        this.vaults = vaults;
+        this.environment = variable -> null;
+    }
+
+    /**
+     * Runs a command and exits with its exit code:
+     * 0 if the command succeeded, 1 if the command is not valid, 2 if a vault could not be unlocked and 3 if the command failed.
+     *
+     * @param args The command and its arguments
+     */
+    public static void main(String[] args) {
+        String agentSocket = System.getenv(AGENT_VARIABLE);
+        int exitCode;
+        if (agentSocket != null && !agentSocket.isBlank()) {
+            exitCode = VaultAgentClient.run(Path.of(agentSocket), args, System.in, System.out, System.err, System::getenv);
+        } else {
+            exitCode = new VaultCli(System.out, System.err, System::getenv, LoginModel::new).run(args, System.in);
+        }
+        System.out.flush();
+        System.exit(exitCode);
+    }
+
+    /**
+     * Runs a command or a batch of commands.
+     * A batch runs all commands, also after a failed command, and returns the highest exit code.
+     *
+     * @param args  The command and its arguments
+     * @param input The standard input, from which a batch without file and the passwords of --password-stdin are read
+     * @return The exit code
+     */
+    int run(String[] args, InputStream input) {
+        if (args.length == 0) {
+            err.println(USAGE);
+            return USAGE_ERROR;
+        }
+        standardInput = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        if (!args[0].equals("batch")) {
+            return runCommand(List.of(args));
+        }
+        if (args.length > 2) {
+            err.println(USAGE);
+            return USAGE_ERROR;
+        }
+        try (BufferedReader reader = args.length == 2 ? Files.newBufferedReader(Path.of(args[1]), StandardCharsets.UTF_8) : standardInput) {
+            return runBatch(reader);
+        } catch (IOException e) {
+            err.println("The batch could not be read: " + e.getMessage());
+            return FAILED;
+        }
+    }
+
+    /**
+     * Helper method that runs the commands of a batch, one per line. Empty lines and lines starting with # are skipped.
+     *
+     * @param reader The reader of the batch
+     * @return The highest exit code of the commands
+     * @throws IOException If the batch cannot be read
+     */
+    private int runBatch(BufferedReader reader) throws IOException {
+        int exitCode = OK;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String command = line.strip();
+            if (command.isEmpty() || command.startsWith("#")) {
+                continue;
+            }
+            List<String> arguments = tokenize(command);
+            int commandExitCode = arguments.getFirst().equals("batch") ? USAGE_ERROR : runCommand(arguments);
+            if (commandExitCode != OK) {
+                err.println("Line " + lineNumber + " failed: " + command.split("\\s", 2)[0]);
+            }
+            exitCode = Math.max(exitCode, commandExitCode);
+        }
+        return exitCode;
+    }
+
+    /**
+     * Helper method that runs a single command and prints its error.
+     *
+     * @param arguments The command and its arguments
+     * @return The exit code
+     */
+    private int runCommand(List<String> arguments) {
+        try {
+            execute(CommandLine.parse(arguments));
+            return OK;
+        } catch (CliException e) {
+            err.println(e.getMessage());
+            if (e.getExitCode() == USAGE_ERROR) {
+                err.println(USAGE);
+            }
+            return e.getExitCode();
+        }
+    }
+
+    /**
+     * Helper method that executes a parsed command.
+     *
+     * @param command The parsed command
+     * @throws CliException If the command is not valid or failed
+     */
+    private void execute(CommandLine command) throws CliException {
+        switch (command.name()) {
+            case "list" -> list(unlock(command.argument(0)));
+            case "get" -> get(unlock(command.argument(0)), command.argument(1));
+            case "search" -> search(unlock(command.argument(0)), command.argument(1));
+            case "add" -> add(unlock(command.argument(0)), command);
+            case "export" -> export(unlock(command.argument(0)), command);
+            case "audit" -> audit(unlock(command.argument(0)));
+            case "import" -> importFile(unlock(command.argument(0)), command);
+            case "generate" -> generate(command);
+            default -> throw new CliException(USAGE_ERROR, "Unknown command: " + command.name());
+        }
+    }
+
+    /**
+     * Helper method that returns the unlocked vault of an account, the vault is unlocked only once per VaultCli.
+     *
+     * @param accountName The name of the account
+     * @return The MainModel of the vault
+     * @throws CliException If the vault cannot be unlocked
+     */
+    private MainModel unlock(String accountName) throws CliException {
+        MainModel unlockedVault = unlockedVaults.get(accountName);
+        if (unlockedVault == null) {
+            unlockedVault = vaults.unlock(accountName);
+            unlockedVaults.put(accountName, unlockedVault);
+        }
+        return unlockedVault;
+    }
+
+    /**
+     * Helper method that unlocks a vault with the password from the environment.
+     *
+     * @param accountName The name of the account
+     * @param environment The environment variables
+     * @param loginModels Creates the LoginModel of the vault
+     * @return The MainModel of the vault
+     * @throws CliException If there is no password, the password is wrong or the vault cannot be opened
+     */
+    private static MainModel unlockFromEnvironment(String accountName, Function<String, String> environment,
+                                                   Supplier<LoginModel> loginModels) throws CliException {
+        String password = password(accountName, environment)
+                .orElseThrow(() -> new CliException(UNLOCK_FAILED,
+                        "No password for " + accountName + ", set " + passwordVariable(accountName) + " or " + PASSWORD_VARIABLE));
+        return unlock(loginModels.get(), accountName, password);
+    }
+
+    /**
+     * Unlocks a vault with the LoginModel.
+     *
+     * @param loginModel  The LoginModel, used for this vault only
+     * @param accountName The name of the account
+     * @param password    The password of the account
+     * @return The MainModel of the vault
+     * @throws CliException If the password is wrong or the vault cannot be opened
+     */
+    static MainModel unlock(LoginModel loginModel, String accountName, String password) throws CliException {
+        MainModel unlockedVault;
+        LoginState state;
+        try {
+            state = loginModel.loginAsync(accountName, password).join();
+        } catch (CompletionException e) {
+            state = LoginState.ERROR;
+        }
+        switch (state) {
+            case LOGIN -> unlockedVault = loginModel.takeUnlockedMainModel()
+                    .orElseThrow(() -> new CliException(FAILED, "The vault of " + accountName + " could not be opened"));
+            case FAIL -> throw new CliException(UNLOCK_FAILED, "Wrong account name or password: " + accountName);
+            default -> throw new CliException(FAILED, "The vault of " + accountName + " could not be opened");
+        }
+        return unlockedVault;
+    }
+
+    /**
+     * Returns the password of an account from the environment, the variable of the account comes before VAULTGUARD_PASSWORD.
+     *
+     * @param accountName The name of the account
+     * @param environment The environment variables
+     * @return The password or an empty Optional if none of the variables is set
+     */
+    static Optional<String> password(String accountName, Function<String, String> environment) {
+        String password = environment.apply(passwordVariable(accountName));
+        return Optional.ofNullable(password != null ? password : environment.apply(PASSWORD_VARIABLE));
+    }
+
+    /**
+     * Returns the password of a new entry, read from the next line of the standard input with --password-stdin,
+     * otherwise from VAULTGUARD_ENTRY_PASSWORD. A password in the arguments is refused, because every user may read them.
+     *
+     * @param command     The add command
+     * @param input       The standard input
+     * @param environment The environment variables
+     * @return The password or an empty Optional if there is no password
+     * @throws CliException If the command has a --password option, the standard input has no password or the password has a line break
+     */
+    static Optional<String> entryPassword(CommandLine command, BufferedReader input, Function<String, String> environment)
+            throws CliException {
+        if (command.hasFlag("password")) {
+            throw new CliException(USAGE_ERROR, "--password= would show the password in the process list, use --password-stdin or "
+                    + ENTRY_PASSWORD_VARIABLE);
+        }
+        if (!command.hasFlag("password-stdin")) {
+            Optional<String> password = Optional.ofNullable(environment.apply(ENTRY_PASSWORD_VARIABLE));
+            if (password.filter(value -> value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0).isPresent()) {
+                throw new CliException(USAGE_ERROR, "The password of an entry cannot contain a line break");
+            }
+            return password;
+        }
+        String password;
+        try {
+            password = input.readLine();
+        } catch (IOException e) {
+            throw new CliException(FAILED, "The password cannot be read from the standard input: " + e.getMessage());
+        }
+        if (password == null || password.isEmpty()) {
+            throw new CliException(USAGE_ERROR, "--password-stdin needs the password on the next line of the standard input");
+        }
+        return Optional.of(password);
+    }
+
+    /**
+     * Returns the name of the environment variable with the password of an account.
+     *
+     * @param accountName The name of the account
+     * @return The name of the environment variable
+     */
+    static String passwordVariable(String accountName) {
+        return PASSWORD_VARIABLE + "_" + accountName.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "_");
+    }
+
+    /**
+     * Helper method that prints title, username and website of all entries, sorted by title.
+     *
+     * @param mainModel The unlocked vault
+     */
+    private void list(MainModel mainModel) {
+        for (MainModelEntry entry : mainModel.getSortedEntryContentList()) {
+            out.println(entry.getPasswordTitel() + "\t" + entry.getUsername() + "\t" + entry.getWebsite());
+        }
+    }
+
+    /**
+     * Helper method that prints the password of the entry with the title, the case of the title is ignored.
+     * The entry is looked up by binary search in the sorted entries of the vault.
+     *
+     * @param mainModel The unlocked vault
+     * @param title     The title of the entry
+     * @throws CliException If there is no entry with the title
+     */
+    private void get(MainModel mainModel, String title) throws CliException {
+        MainModelEntry entry = mainModel.findEntryByTitle(title);
+        if (entry == null) {
+            throw new CliException(FAILED, "No entry with the title " + title);
+        }
+        out.println(entry.getPassword());
+    }
+
+    /**
+     * Helper method that prints title and username of the entries matching the text, the best match first.
+     *
+     * @param mainModel The unlocked vault
+     * @param text      The text to be searched for
+     */
+    private void search(MainModel mainModel, String text) {
+        for (MainModelEntry entry : mainModel.searchEntry(text, VaultViewState.VAULT)) {
+            out.println(entry.getPasswordTitel() + "\t" + entry.getUsername());
+        }
+    }
+
+    /**
+     * Helper method that adds an entry with the given or a generated password, saves the vault and prints the id of the entry.
+     *
+     * @param mainModel The unlocked vault
+     * @param command   The add command with the title and the options of the entry
+     * @throws CliException If the command has no password or the vault cannot be saved
+     */
+    private void add(MainModel mainModel, CommandLine command) throws CliException {
+        String title = command.argument(1);
+        String password;
+        if (command.hasFlag("generate")) {
+            password = new PasswordPolicy(command.intOption("length", DEFAULT_PASSWORD_LENGTH), true, true, true, "").generate();
+        } else {
+            password = entryPassword(command, standardInput, environment)
+                    .orElseThrow(() -> new CliException(USAGE_ERROR,
+                            "add needs --password-stdin, --generate or " + ENTRY_PASSWORD_VARIABLE));
+        }
+        if (strengthCalculator == null) {
+            strengthCalculator = new PasswordStrengthCalculator();
+        }
+        MainModelEntry entry = new MainModelEntry(title, command.option("username").orElse(""), command.option("website").orElse(""),
+                command.option("email").orElse(""), "", password, strengthCalculator.calculateStrength(password).toString(), false, false);
+        mainModel.addEntry(entry);
+        save(mainModel);
+        out.println(entry.getId());
+    }
+
+    /**
+     * Helper method that exports all entries, sorted by title, to the output or to a file. The entries are streamed
+     * into the output or file one at a time. The format is taken from the file extension if the command has no --format option,
+     * JSON if there is no file either.
+     *
+     * @param mainModel The unlocked vault
+     * @param command   The export command with the optional file and format
+     * @throws CliException If the format is unknown, an archive has no file or the export failed
+     */
+    private void export(MainModel mainModel, CommandLine command) throws CliException {
+        Optional<Path> file = command.arguments().size() > 1 ? Optional.of(Path.of(command.argument(1))) : Optional.empty();
+        Optional<String> formatName = command.option("format");
+        ExportFormat format;
+        if (formatName.isPresent()) {
+            format = formatName.flatMap(ExportFormat::fromShortName)
+                    .orElseThrow(() -> new CliException(USAGE_ERROR, "Unknown export format, use --format=json, --format=csv or --format=archive"));
+        } else {
+            format = file.map(path -> ExportFormat.fromFileName(path.toString()).orElse(ExportFormat.JSON)).orElse(ExportFormat.JSON);
+        }
+        VaultExporter exporter = new VaultExporter(mainModel);
+        try {
+            if (file.isPresent()) {
+                ExportResult result = exporter.exportFile(file.get(), format);
+                out.printf(Locale.ROOT, "Exported %d entries in %d ms, %.0f entries/s%n",
+                        result.exportedCount(), result.totalMillis(), result.entriesPerSecond());
+            } else if (format.isEncrypted()) {
+                throw new CliException(USAGE_ERROR, "An archive can only be exported to a file");
+            } else {
+                exporter.export(out, format);
+            }
+        } catch (IOException e) {
+            throw new CliException(FAILED, "The export failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Helper method that checks all entries against Have I Been Pwned and prints title and username of the compromised entries.
+     * The vault is saved if an entry became compromised.
+     *
+     * @param mainModel The unlocked vault
+     * @throws CliException If the check failed or the vault cannot be saved
+     */
+    private void audit(MainModel mainModel) throws CliException {
+        Set<MainModelEntry> compromisedBefore = Set.copyOf(mainModel.getCompromised());
+        try {
+            mainModel.checkAllEntriesIfCompromised();
+        } catch (PasswordCheckException e) {
+            throw new CliException(FAILED, "The breach check failed: " + e.getMessage());
+        }
+        List<MainModelEntry> compromised = mainModel.getCompromised();
+        for (MainModelEntry entry : compromised) {
+            out.println(entry.getPasswordTitel() + "\t" + entry.getUsername());
+        }
+        if (!compromisedBefore.containsAll(compromised)) {
+            save(mainModel);
+        }
+    }
+
+    /**
+     * Helper method that imports an export of another password manager or an archive, prints the number of imported entries and the throughput,
+     * and waits for the strength and breach checks of the imported entries. The format is taken from the file extension
+     * if the command has no --format option.
+     *
+     * @param mainModel The unlocked vault
+     * @param command   The import command with the file and the options
+     * @throws CliException If the format is unknown or the import failed
+     */
+    private void importFile(MainModel mainModel, CommandLine command) throws CliException {
+        Path file = Path.of(command.argument(1));
+        Optional<String> formatName = command.option("format");
+        ImportFormat format = (formatName.isPresent() ? formatName.flatMap(ImportFormat::fromShortName) : ImportFormat.fromFileName(file.toString()))
+                .orElseThrow(() -> new CliException(USAGE_ERROR, "Unknown import format, use --format=csv, --format=bitwarden, --format=keepass or --format=archive"));
+        VaultImporter importer = new VaultImporter(mainModel);
+        ImportResult result;
+        try {
+            result = importer.importFile(file, format);
+        } catch (IOException | ImportException | MainModel.EncryptErrorException | StorageException e) {
+            throw new CliException(FAILED, "The import of " + file + " failed: " + e.getMessage());
+        }
+        out.printf(Locale.ROOT, "Imported %d entries (%d skipped) in %d ms, %.0f entries/s%n",
+                result.importedCount(), result.skippedEntries(), result.totalMillis(), result.entriesPerSecond());
+        try {
+            importer.checkImportedEntriesInBackground(result.importedEntries(), !command.hasFlag("no-breach-check")).join();
+        } catch (CompletionException e) {
+            throw new CliException(FAILED, "The checks of the imported entries failed: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Helper method that prints new passwords.
+     *
+     * @param command The generate command with the options of the passwords
+     * @throws CliException If the options allow no characters
+     */
+    private void generate(CommandLine command) throws CliException {
+        PasswordPolicy policy = new PasswordPolicy(command.intOption("length", DEFAULT_PASSWORD_LENGTH),
+                !command.hasFlag("no-numerals"), !command.hasFlag("no-uppercase"), !command.hasFlag("no-symbols"),
+                command.option("forbidden").orElse(""));
+        if (policy.isEmpty()) {
+            throw new CliException(USAGE_ERROR, "The options allow no characters");
+        }
+        int count = command.intOption("count", 1);
+        for (int i = 0; i < count; i++) {
+            out.println(policy.generate());
+        }
+    }
+
+    /**
+     * Helper method that saves a vault.
+     *
+     * @param mainModel The vault
+     * @throws CliException If the vault cannot be saved
+     */
+    private void save(MainModel mainModel) throws CliException {
+        try {
+            mainModel.saveData();
+        } catch (IOException | MainModel.EncryptErrorException | StorageException e) {
+            throw new CliException(FAILED, "The vault of " + mainModel.getAccountName() + " could not be saved: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Splits a line of a batch into arguments at white space. Text in double quotes is one argument, e.g. add me "My Bank".
+     *
+     * @param line The line
+     * @return The arguments
+     */
+    static List<String> tokenize(String line) {
+        List<String> arguments = new ArrayList<>();
+        StringBuilder argument = new StringBuilder();
+        boolean quoted = false;
+        boolean inArgument = false;
+        for (char character : line.toCharArray()) {
+            if (character == '"') {
+                quoted = !quoted;
+                inArgument = true;
+            } else if (Character.isWhitespace(character) && !quoted) {
+                if (inArgument) {
+                    arguments.add(argument.toString());
+                    argument.setLength(0);
+                    inArgument = false;
+                }
+            } else {
+                argument.append(character);
+                inArgument = true;
+            }
+        }
+        if (inArgument) {
+            arguments.add(argument.toString());
+        }
+        return arguments;
+    }
+
+    /**
+     * Returns the unlocked vault of an account
+     */
+    @FunctionalInterface
+    interface VaultSource {
+
+        /**
+         * Returns the unlocked vault of an account.
+         *
+         * @param accountName The name of the account
+         * @return The MainModel of the vault
+         * @throws CliException If the vault cannot be unlocked
+         */
+        MainModel unlock(String accountName) throws CliException;
+    }
+
+    /**
+     * A parsed command: its name, its positional arguments and its options of the form --name=value or --flag.
+     *
+     * @param name      The name of the command
+     * @param arguments The positional arguments
+     * @param options   The options by name, flags have an empty value
+     */
+    record CommandLine(String name, List<String> arguments, Map<String, String> options) {
+
+        /**
+         * Parses the arguments of a command.
+         *
+         * @param arguments The command and its arguments
+         * @return The parsed command
+         */
+        static CommandLine parse(List<String> arguments) {
+            List<String> positional = arguments.stream().skip(1).filter(argument -> !argument.startsWith("--")).toList();
+            Map<String, String> options = arguments.stream().skip(1).filter(argument -> argument.startsWith("--"))
+                    .map(argument -> argument.substring(2).split("=", 2))
+                    .collect(Collectors.toMap(option -> option[0], option -> option.length > 1 ? option[1] : "", (first, second) -> second));
+            return new CommandLine(arguments.getFirst(), positional, options);
+        }
+
+        /**
+         * Returns a positional argument.
+         *
+         * @param index The index of the argument
+         * @return The argument
+         * @throws CliException If the command has not enough arguments
+         */
+        String argument(int index) throws CliException {
+            if (index >= arguments.size()) {
+                throw new CliException(USAGE_ERROR, name + " needs " + (index + 1) + " argument(s)");
+            }
+            return arguments.get(index);
+        }
+
+        /**
+         * Returns the value of an option.
+         *
+         * @param option The name of the option
+         * @return The value or an empty Optional if the option is not given
+         */
+        Optional<String> option(String option) {
+            return Optional.ofNullable(options.get(option));
+        }
+
+        /**
+         * Returns the value of a numeric option.
+         *
+         * @param option       The name of the option
+         * @param defaultValue The value if the option is not given
+         * @return The value
+         * @throws CliException If the value is not a positive number
+         */
+        int intOption(String option, int defaultValue) throws CliException {
+            String value = options.get(option);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                int number = Integer.parseInt(value);
+                if (number > 0) {
+                    return number;
+                }
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+            throw new CliException(USAGE_ERROR, "--" + option + " must be a positive number");
+        }
+
+        /**
+         * Returns whether a flag is given.
+         *
+         * @param flag The name of the flag
+         * @return true if the flag is given
+         */
+        boolean hasFlag(String flag) {
+            return options.containsKey(flag);
+        }
+    }
+
+    /**
+     * Exception that is thrown when a command is not valid or failed, it carries the exit code of the command
+     */
+    static class CliException extends Exception {
+        private final int exitCode;
+
+        /**
+         * Constructor of the CliException
+         *
+         * @param exitCode The exit code
+         * @param message  The message printed to the error output
+         */
+        CliException(int exitCode, String message) {
+            super(message);
+            this.exitCode = exitCode;
+        }
+
+        /**
+         * Returns the exit code of the failed command
+         *
+         * @return The exit code
+         */
+        int getExitCode() {
+            return exitCode;
+        }
+    }
+}
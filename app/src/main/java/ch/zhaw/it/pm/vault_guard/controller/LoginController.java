@@ -3,7 +3,11 @@ package ch.zhaw.it.pm.vault_guard.controller;
 
 import ch.zhaw.it.pm.vault_guard.controller.model.LoginModel;
 import ch.zhaw.it.pm.vault_guard.controller.model.LoginState;
+import ch.zhaw.it.pm.vault_guard.controller.model.VaultUnlockPipeline;
+import ch.zhaw.it.pm.vault_guard.util.StartupMetrics;
+import ch.zhaw.it.pm.vault_guard.util.StartupWarmUp;
 import ch.zhaw.it.pm.vault_guard.view.ViewGenerator;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -21,6 +25,7 @@ import java.beans.PropertyChangeListener;
  * It handles the user input and calls the loginModel to check the login credentials.
  * It also listens to the loginModel and reacts to changes in the login state.
  * The LoginController is also responsible for creating a new vault.
+ * The vault is opened in the background, the window shows the stage of the unlock while it stays responsive.
  */
 public class LoginController implements PropertyChangeListener {
     @FXML
@@ -53,6 +58,7 @@ public class LoginController implements PropertyChangeListener {
      * - Sets the visibility of the input fields and buttons correctly
      * - Adds a listener to the loginModel
      * - Sets the actions for the buttons
+     * - Starts the startup warm-up as soon as the password is entered
      *
      * @param primaryStage The primary stage
      */
@@ -74,6 +80,7 @@ public class LoginController implements PropertyChangeListener {
         createNewVault.setOnAction(event -> creatingNewVault());
         newVault.setOnAction(event -> switchLoginMode());
         cancelNewVault.setOnAction(event -> switchLoginMode());
+        inputPassword.textProperty().addListener((observable, oldValue, newValue) -> StartupWarmUp.start());
 
         inputPassword.setOnKeyPressed(event -> {
             if (event.getCode() == KeyCode.ENTER) {
@@ -116,6 +123,8 @@ public class LoginController implements PropertyChangeListener {
 
     /**
      * This method gets called when a bound property is changed.
+     * Events of the asynchronous login arrive on a background thread, they are handled on the JavaFX application thread.
+     * While the vault is opened, every stage of the unlock is shown as user feedback.
      * The following States are possible:
      * - LOGIN: Login successful -> Open Main Window
      * - LOGOUT: Logout successful -> Open Login Window
@@ -128,8 +137,15 @@ public class LoginController implements PropertyChangeListener {
      */
     @Override
     public void propertyChange(PropertyChangeEvent evt) {
-        if (evt.getPropertyName().equals("state")) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> propertyChange(evt));
+            return;
+        }
+        if (evt.getPropertyName().equals("unlockStage")) {
+            showUnlockStage((VaultUnlockPipeline.UnlockStage) evt.getNewValue());
+        } else if (evt.getPropertyName().equals("state")) {
             LoginState state = (LoginState) evt.getNewValue();
+            loginButton.setDisable(false);
             switch (state) {
                 case LOGIN -> this.loadMain();
                 case LOGOUT -> this.loadLogin();
@@ -140,6 +156,20 @@ public class LoginController implements PropertyChangeListener {
         }
     }
 
+    /**
+     * Shows the stage of the unlock as user feedback
+     *
+     * @param stage The stage that has started
+     */
+    private void showUnlockStage(VaultUnlockPipeline.UnlockStage stage) {
+        switch (stage) {
+            case READ -> setUserFeedback("Reading vault...");
+            case DECRYPT -> setUserFeedback("Decrypting vault...");
+            case PARSE -> setUserFeedback("Loading entries...");
+            case INDEX -> setUserFeedback("Preparing entries...");
+        }
+    }
+
 
     /**
      * Switches between the login and create new vault mode
@@ -164,14 +194,17 @@ public class LoginController implements PropertyChangeListener {
     /**
      * Logs into the main window
      * - Gets the account name and password from the input fields
-     * - Calls the login method of the loginModel
+     * - Disables the login button until the vault is opened or the login failed
+     * - Calls the asynchronous login method of the loginModel
      *
      * @param loginModel The login model
      */
     private void logIntoMain(LoginModel loginModel) {
         accountName = inputUsername.getText();
         accountPassword = inputPassword.getText();
-        loginModel.login(accountName, accountPassword);
+        StartupMetrics.mark(StartupMetrics.LOGIN_SUBMITTED);
+        loginButton.setDisable(true);
+        loginModel.loginAsync(accountName, accountPassword);
     }
 
     /**
@@ -1,17 +1,28 @@
 package ch.zhaw.it.pm.vault_guard.controller;
 
+import ch.zhaw.it.pm.vault_guard.controller.model.EntryChange;
 import ch.zhaw.it.pm.vault_guard.controller.model.LoginModel;
 import ch.zhaw.it.pm.vault_guard.controller.model.MainModel;
 import ch.zhaw.it.pm.vault_guard.controller.model.MainModelEntry;
 import ch.zhaw.it.pm.vault_guard.service.pwgenerator.TOTPGenerator;
+import ch.zhaw.it.pm.vault_guard.util.ExecutorManager;
+import ch.zhaw.it.pm.vault_guard.util.FaviconService;
+import ch.zhaw.it.pm.vault_guard.util.IconCache;
+import ch.zhaw.it.pm.vault_guard.util.IconPrefetchJob;
+import ch.zhaw.it.pm.vault_guard.util.IconResolver;
 import ch.zhaw.it.pm.vault_guard.util.PasswordEntryCellFactory;
 import ch.zhaw.it.pm.vault_guard.util.StorageException;
+import ch.zhaw.it.pm.vault_guard.util.SvgIconCache;
 import javafx.application.Platform;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
 import javafx.event.ActionEvent;
 import javafx.event.Event;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
@@ -33,6 +44,11 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -71,18 +87,38 @@ public class MainWindowController implements PropertyChangeListener {
     private MainModel mainModel;
     private TOTPGenerator totpGenerator;
     private PwdWindowEditController pwdWindowEditController;
+    private PwdWindowController pwdWindowController;
+    private Pane passwordDetailsPane;
+    private Pane passwordEditPane;
     private LoginModel loginModel;
     private Stage settingsStage;
+    private ExecutorService searchExecutor;
+    private IconResolver iconResolver;
+    private FaviconService faviconService;
+    private IconPrefetchJob iconPrefetchJob;
+    private final IconCache iconCache = new IconCache();
+    private final SvgIconCache svgIconCache = new SvgIconCache();
+    private Future<?> runningSearch;
+    private long searchGeneration;
+    private MainModelEntry lastAddedEntry;
+    private final ObservableList<MainModelEntry> vaultEntries = FXCollections.observableArrayList();
+    private final FilteredList<MainModelEntry> favouriteEntries = new FilteredList<>(vaultEntries, MainModelEntry::getFavourite);
+    private final FilteredList<MainModelEntry> compromisedEntries = new FilteredList<>(vaultEntries, MainModelEntry::getCompromised);
 
     private VaultViewState vaultViewState = VaultViewState.VAULT;
 
+    private static final long BREACH_SCAN_PERIOD_MINUTES = 15;
+
     private static final Log log = LogFactory.getLog(MainWindowController.class);
 
     /**
      * This method is used to initialize the main window controller.
      * sets the password detail dashboard to a preferred width of 0.
-     * creates a new main model with the login model.
+     * takes the main model opened by the login or creates a new main model with the login model.
      * shows the vault.
+     * starts checking all entries against the breach check service in the background once the vault is shown.
+     * starts resolving the icons of all entries in the background once the vault is shown.
+     * starts loading the missing icons of all entries in the background.
      * adds a listener to the entry list.
      * adds an action to the logout button.
      * adds an action to the view vault button.
@@ -91,12 +127,35 @@ public class MainWindowController implements PropertyChangeListener {
      */
     public void initialize(LoginModel loginModel) {
         this.loginModel = loginModel;
-        mainModel = new MainModel(loginModel);
+        mainModel = loginModel.takeUnlockedMainModel().orElseGet(() -> new MainModel(loginModel));
         mainModel.addPropertyChangeListener(this);
+        mainModel.startBackgroundBreachScan(BREACH_SCAN_PERIOD_MINUTES, TimeUnit.MINUTES);
         totpGenerator = new TOTPGenerator();
-        entryList.setCellFactory(passwordEntryView -> new PasswordEntryCellFactory());
+        searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "entry-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorManager.registerExecutor(searchExecutor);
+        iconResolver = new IconResolver();
+        faviconService = new FaviconService();
+        iconPrefetchJob = new IconPrefetchJob(faviconService);
+        iconPrefetchJob.addPropertyChangeListener(event -> {
+            IconPrefetchJob.Progress progress = (IconPrefetchJob.Progress) event.getNewValue();
+            if (progress.isDone()) {
+                log.debug("Icon prefetch finished for " + progress.total() + " hosts");
+            }
+        });
+        entryList.setFixedCellSize(PasswordEntryCellFactory.CELL_HEIGHT);
+        entryList.setCellFactory(passwordEntryView -> new PasswordEntryCellFactory(iconResolver, iconCache));
+        vaultEntries.setAll(mainModel.getSortedEntryContentList());
 
         showVault();
+        Platform.runLater(() -> {
+            mainModel.checkAllEntriesIfCompromisedInBackground();
+            iconResolver.resolveAll(mainModel.getEntrySnapshot());
+            iconPrefetchJob.start(mainModel.getEntrySnapshot(), mainModel::entryIconLoaded);
+        });
         setActiveButton(viewVault);
         addActionListeners();
 
@@ -139,8 +198,19 @@ public class MainWindowController implements PropertyChangeListener {
         if (settingsStage != null && settingsStage.isShowing()) {
             settingsStage.toFront();
         } else {
+            mainModel.stopBackgroundBreachScan();
+            cancelRunningSearch();
+            searchExecutor.shutdownNow();
+            iconResolver.shutdown();
+            iconPrefetchJob.cancel();
+            faviconService.shutdown();
+            log.debug("Icon cache: " + iconCache.getStats());
+            iconCache.clear();
+            disposePasswordDetails();
+            totpGenerator.shutdown();
             logout();
-            entryList.getItems().clear();
+            vaultEntries.clear();
+            entryList.setItems(vaultEntries);
             passwordDetailDashboard.getChildren().clear();
             try {
                 mainModel.saveData();
@@ -152,9 +222,13 @@ public class MainWindowController implements PropertyChangeListener {
 
     /**
      * This method is used to add a search listener.
+     * The searches run one after another on the search executor. Every new search value cancels the running search
+     * and only the result of the newest search value is shown.
      */
     private void addSearchListener() {
         searchEntry.textProperty().addListener((observable, oldValue, newValue) -> {
+            cancelRunningSearch();
+            long generation = searchGeneration;
             if (newValue.isEmpty()) {
                 switch (vaultViewState) {
                     case VAULT -> showVault();
@@ -162,14 +236,34 @@ public class MainWindowController implements PropertyChangeListener {
                     case LEAKMONITOR -> showCompromisedPasswords();
                 }
             } else {
-                new Thread(() -> {
-                    List<MainModelEntry> searchResult = mainModel.searchEntry(newValue, vaultViewState);
-                    Platform.runLater(() -> refreshEntryList(searchResult, entryList.getSelectionModel().getSelectedItem()));
-                }).start();
+                VaultViewState viewState = vaultViewState;
+                runningSearch = searchExecutor.submit(() -> {
+                    try {
+                        List<MainModelEntry> searchResult = mainModel.searchEntry(newValue, viewState);
+                        Platform.runLater(() -> {
+                            if (generation == searchGeneration) {
+                                refreshEntryList(searchResult, entryList.getSelectionModel().getSelectedItem());
+                            }
+                        });
+                    } catch (CancellationException e) {
+                        // a newer search value replaced this search
+                    }
+                });
             }
         });
     }
 
+    /**
+     * This method is used to cancel the running search, its result will not be shown.
+     */
+    private void cancelRunningSearch() {
+        searchGeneration++;
+        if (runningSearch != null) {
+            runningSearch.cancel(true);
+            runningSearch = null;
+        }
+    }
+
     /**
      * This method is used to log out the user.
      */
@@ -253,24 +347,50 @@ public class MainWindowController implements PropertyChangeListener {
 
     /**
      * This method is used to load the password details.
+     * The password details are loaded once and show the given entry, so selecting another entry does not load them again.
      *
      * @param entry The password entry
      * @throws IOException If an error occurs
      */
     private void loadPasswordDetails(MainModelEntry entry) throws IOException {
-        passwordDetailDashboard.getChildren().clear();
-        if (entry != null) {
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("../FXML/PasswordDashboard.fxml"));
-            Pane newLoadedPane = fxmlLoader.load();
-            passwordDetailDashboard.getChildren().add(newLoadedPane);
-            PwdWindowController pwdWindowController = fxmlLoader.getController();
-            pwdWindowController.setMainWindowController(this);
-            pwdWindowController.setMainModel(mainModel);
+        disposePasswordDetails();
+        if (entry == null) {
+            passwordDetailDashboard.getChildren().clear();
+        } else {
+            if (pwdWindowController == null) {
+                FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("../FXML/PasswordDashboard.fxml"));
+                passwordDetailsPane = fxmlLoader.load();
+                pwdWindowController = fxmlLoader.getController();
+                pwdWindowController.setMainWindowController(this);
+                pwdWindowController.setMainModel(mainModel);
+            }
+            showDetailPane(passwordDetailsPane);
             pwdWindowController.loadPasswordEntryDashboard(entry);
         }
         mode = editMode.VIEW;
     }
 
+    /**
+     * This method is used to show a pane in the password detail dashboard, if it is not shown yet.
+     *
+     * @param pane The pane to be shown
+     */
+    private void showDetailPane(Pane pane) {
+        List<Node> shownPanes = passwordDetailDashboard.getChildren();
+        if (shownPanes.size() != 1 || shownPanes.getFirst() != pane) {
+            passwordDetailDashboard.getChildren().setAll(pane);
+        }
+    }
+
+    /**
+     * This method is used to release the currently shown password details (e.g. its TOTP subscription) before they are hidden.
+     */
+    private void disposePasswordDetails() {
+        if (pwdWindowController != null) {
+            pwdWindowController.dispose();
+        }
+    }
+
     /**
      * This method is used to load the edit password details.
      *
@@ -278,10 +398,28 @@ public class MainWindowController implements PropertyChangeListener {
      * @throws IOException If an error occurs
      */
     public void loadEditPasswordDetails(Optional<MainModelEntry> entry) throws IOException {
+        disposePasswordDetails();
+        if (pwdWindowEditController == null) {
+            loadEditPane();
+        }
+        showDetailPane(passwordEditPane);
+        if (entry.isPresent()) {
+            pwdWindowEditController.loadPasswordEntryDashboard(entry.get());
+        } else {
+            entryList.getSelectionModel().clearSelection();
+            pwdWindowEditController.loadEmptyPasswordEntryDashboard();
+        }
+        mode = editMode.EDIT;
+    }
+
+    /**
+     * This method is used to load the edit password details once, they are reused for every edited entry.
+     *
+     * @throws IOException If an error occurs
+     */
+    private void loadEditPane() throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("../FXML/PasswordDashboardEdit.fxml"));
-        Pane newLoadedPane = fxmlLoader.load();
-        passwordDetailDashboard.getChildren().clear();
-        passwordDetailDashboard.getChildren().add(newLoadedPane);
+        passwordEditPane = fxmlLoader.load();
         pwdWindowEditController = fxmlLoader.getController();
         pwdWindowEditController.cancelChangesEntry.setOnAction(event -> {
             MainModelEntry selectedEntry = entryList.getSelectionModel().getSelectedItem();
@@ -297,13 +435,8 @@ public class MainWindowController implements PropertyChangeListener {
         });
         pwdWindowEditController.generatePassword.setOnAction(event -> openPasswordGenerator());
         pwdWindowEditController.setMainModel(mainModel);
-        if (entry.isPresent()) {
-            pwdWindowEditController.loadPasswordEntryDashboard(entry.get());
-        } else {
-            entryList.getSelectionModel().clearSelection();
-            pwdWindowEditController.loadEmptyPasswordEntryDashboard();
-        }
-        mode = editMode.EDIT;
+        pwdWindowEditController.setIconCache(iconCache);
+        pwdWindowEditController.setFaviconService(faviconService);
     }
 
     /**
@@ -361,8 +494,7 @@ public class MainWindowController implements PropertyChangeListener {
      */
     private void showFavorites() {
         vaultViewState = VaultViewState.FAVORITES;
-        entryList.getItems().clear();
-        entryList.getItems().addAll(mainModel.getFavorites());
+        entryList.setItems(favouriteEntries);
     }
 
     /**
@@ -370,8 +502,7 @@ public class MainWindowController implements PropertyChangeListener {
      */
     private void showCompromisedPasswords() {
         vaultViewState = VaultViewState.LEAKMONITOR;
-        entryList.getItems().clear();
-        entryList.getItems().addAll(mainModel.getCompromised());
+        entryList.setItems(compromisedEntries);
     }
 
     /**
@@ -395,12 +526,24 @@ public class MainWindowController implements PropertyChangeListener {
      */
     private void showVault() {
         vaultViewState = VaultViewState.VAULT;
-        List<MainModelEntry> entryContentList = mainModel.getSortedEntryContentList();
-        entryList.getItems().clear();
-        entryList.getItems().addAll(entryContentList);
+        entryList.setItems(vaultEntries);
         entryList.setEditable(false);
     }
 
+    /**
+     * This method is used to get the live list of the entries shown in the current view.
+     * The favorites and leak monitor lists are filtered views of the vault list, which are updated with every change of an entry.
+     *
+     * @return The live list of the current view
+     */
+    private ObservableList<MainModelEntry> getViewEntries() {
+        return switch (vaultViewState) {
+            case FAVORITES -> favouriteEntries;
+            case LEAKMONITOR -> compromisedEntries;
+            default -> vaultEntries;
+        };
+    }
+
     /**
      * This method is used to view the settings in e separate Window.
      * If the settings window is already open, it will be brought to the front.
@@ -450,20 +593,58 @@ public class MainWindowController implements PropertyChangeListener {
 
     /**
      * This method is used to refresh the entry list.
-     * It clears the entry list and adds all the entries from the entry content list.
+     * It shows the given entries (e.g. a search result) in the entry list.
      * It selects the selected entry and scrolls to it.
-     * It is used to refresh the entry list after an entry was deleted.
      *
      * @param entryContentList The entry content list
      * @param selectedEntry    The selected entry
      */
     private void refreshEntryList(List<MainModelEntry> entryContentList, MainModelEntry selectedEntry) {
-        entryList.getItems().clear();
-        entryList.getItems().addAll(entryContentList);
+        entryList.setItems(FXCollections.observableArrayList(entryContentList));
+        selectEntry(selectedEntry);
+    }
+
+    /**
+     * This method is used to select an entry and scroll to it.
+     *
+     * @param selectedEntry The entry to select
+     */
+    private void selectEntry(MainModelEntry selectedEntry) {
         entryList.getSelectionModel().select(selectedEntry);
         entryList.scrollTo(selectedEntry);
     }
 
+    /**
+     * This method is used to apply a change of the model to the entry lists on the JavaFX application thread.
+     *
+     * @param change The change to apply
+     */
+    private void applyEntryChange(Runnable change) {
+        if (Platform.isFxApplicationThread()) {
+            change.run();
+        } else {
+            Platform.runLater(change);
+        }
+    }
+
+    /**
+     * This method is used to get the cache of the decoded entry icons.
+     *
+     * @return The icon cache
+     */
+    public IconCache getIconCache() {
+        return iconCache;
+    }
+
+    /**
+     * This method is used to get the cache of the rasterized SVG graphics.
+     *
+     * @return The SVG icon cache
+     */
+    public SvgIconCache getSvgIconCache() {
+        return svgIconCache;
+    }
+
     /**
      * This method is used to get the TOTP generator.
      *
@@ -493,7 +674,7 @@ public class MainWindowController implements PropertyChangeListener {
             Optional<ButtonType> result = alert.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
                 try {
-                    mainModel.deleteEntry(entry.getPasswordTitel());
+                    mainModel.deleteEntry(entry.getId());
                 } catch (IOException | MainModel.EncryptErrorException | StorageException e) {
                     showErrorAlert("An error occurred while deleting the entry");
                 }
@@ -522,25 +703,50 @@ public class MainWindowController implements PropertyChangeListener {
      */
     @Override
     public void propertyChange(PropertyChangeEvent evt) {
-        if (evt.getPropertyName().equals("deleteEntry")) {
-            entryList.getSelectionModel().clearSelection();
-            passwordDetailDashboard.getChildren().clear();
-            showVault();
-        } else if (evt.getPropertyName().equals("saveData")) {
-            List<MainModelEntry> list = (List<MainModelEntry>) evt.getNewValue();
-            if (!list.isEmpty()) {
-                MainModelEntry entryToSelect;
-                if (entryList.getSelectionModel().getSelectedItem() == null) {
-                    entryToSelect = list.getLast();
-                } else {
-                    entryToSelect = entryList.getSelectionModel().getSelectedItem();
-                }
-                switch (vaultViewState) {
-                    case VAULT -> refreshEntryList(mainModel.getSortedEntryContentList(), entryToSelect);
-                    case FAVORITES -> refreshEntryList(mainModel.getFavorites(), entryToSelect);
-                    case LEAKMONITOR -> refreshEntryList(mainModel.getCompromised(), entryToSelect);
-                }
+        switch (evt.getPropertyName()) {
+            case "deleteEntry" -> {
+                disposePasswordDetails();
+                entryList.getSelectionModel().clearSelection();
+                passwordDetailDashboard.getChildren().clear();
+                showVault();
+            }
+            case "entryChange" -> {
+                EntryChange change = (EntryChange) evt.getNewValue();
+                applyEntryChange(() -> change.applyTo(vaultEntries));
+            }
+            case "iconLoaded" -> {
+                MainModelEntry entry = (MainModelEntry) evt.getNewValue();
+                applyEntryChange(() -> {
+                    iconResolver.iconStored(entry);
+                    if (pwdWindowController != null) {
+                        pwdWindowController.refreshIcon(entry);
+                    }
+                });
+            }
+            case "entriesAdded", "entriesRemoved", "entriesChanged" -> {
+                List<EntryChange> changes = (List<EntryChange>) evt.getNewValue();
+                applyEntryChange(() -> EntryChange.applyAll(changes, vaultEntries));
+            }
+            case "addEntry" -> lastAddedEntry = (MainModelEntry) evt.getNewValue();
+            case "saveData" -> {
+                List<MainModelEntry> list = (List<MainModelEntry>) evt.getNewValue();
+                applyEntryChange(() -> {
+                    if (!list.isEmpty()) {
+                        MainModelEntry entryToSelect;
+                        if (entryList.getSelectionModel().getSelectedItem() == null) {
+                            entryToSelect = lastAddedEntry != null ? lastAddedEntry : list.getLast();
+                        } else {
+                            entryToSelect = entryList.getSelectionModel().getSelectedItem();
+                        }
+                        lastAddedEntry = null;
+                        entryList.setItems(getViewEntries());
+                        selectEntry(entryToSelect);
+                    }
+                });
+            }
+            default -> {
+                // other changes of the model are not shown in the main window
             }
         }
     }
-}
\ No newline at end of file
+}
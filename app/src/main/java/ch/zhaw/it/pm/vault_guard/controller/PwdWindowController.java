@@ -5,33 +5,36 @@ import ch.zhaw.it.pm.vault_guard.controller.model.MainModelEntry;
 import ch.zhaw.it.pm.vault_guard.service.pwgenerator.TOTPGenerator;
 import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCategories;
 import ch.zhaw.it.pm.vault_guard.util.StorageException;
+import ch.zhaw.it.pm.vault_guard.util.SvgIconCache;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.Node;
 import javafx.scene.control.Tooltip;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
-import org.girod.javafx.svgimage.SVGImage;
-import org.girod.javafx.svgimage.SVGLoader;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 /**
  * The PwdWindowController class is responsible for the password entry dashboard.
  * It provides methods for loading the password entry dashboard and handling the actions of the buttons.
+ * The dashboard is loaded once and shows the selected entry, the rows of the details are loaded on their first use
+ * and reused for every further entry.
  */
 public class PwdWindowController implements PropertyChangeListener {
 
@@ -66,6 +69,15 @@ public class PwdWindowController implements PropertyChangeListener {
     private Button deleteEntry;
 
     private boolean passwordVisible = false;
+    private Label totpContent;
+    private String totpCode = "";
+    private TOTPGenerator.TOTPSubscription totpSubscription;
+    private volatile int shownEntryGeneration;
+
+    private Pane passwordRow;
+    private ImageView viewPasswordIcon;
+    private ImageView favoriteIcon;
+    private final Map<String, DetailRow> detailRows = new HashMap<>();
 
     private MainModelEntry passwordEntry;
     private MainWindowController mainWindowController;
@@ -73,6 +85,12 @@ public class PwdWindowController implements PropertyChangeListener {
 
     private static final String WARNICON_TOOLTIP = "Attention: Your Password is Compromised!" + System.lineSeparator() + "It is strongly recommended to change it.";
     private static final String IMAGE_PATH = "/ch/zhaw/it/pm/vault_guard/images/";
+    private static final String COPY_ICON = IMAGE_PATH + "copy-icon.svg";
+    private static final String VIEW_SHOW_ICON = IMAGE_PATH + "view-show-icon.svg";
+    private static final String VIEW_HIDE_ICON = IMAGE_PATH + "view-hide-icon.svg";
+    private static final String STAR_FILLED_ICON = IMAGE_PATH + "star_filled.svg";
+    private static final String STAR_OUTLINE_ICON = IMAGE_PATH + "star_outline.svg";
+    private static final String HIDDEN_PASSWORD = "••••••••";
 
     /**
      * Initializes the controller.
@@ -111,7 +129,7 @@ public class PwdWindowController implements PropertyChangeListener {
 
     /**
      * Loads the password entry dashboard.
-     * It loads the password entry and sets the values of the text fields.
+     * It releases the previously shown entry, loads the password entry and sets the values of the text fields.
      * It sets the graphic of the favorite tag to a full or empty star.
      * It sets the visibility of the warning icon to visible or hidden.
      * It calls the loadDetailElements method to load the detail elements of the password entry.
@@ -120,22 +138,11 @@ public class PwdWindowController implements PropertyChangeListener {
      * @throws RuntimeException If an I/O error occurs
      */
     public void loadPasswordEntryDashboard(MainModelEntry entry) {
+        dispose();
         this.passwordEntry = entry;
-        Optional<File> img = passwordEntry.getIcon();
-        if (img.isPresent() && img.get().exists() && !img.get().isDirectory()) {
-            overviewEntryIcon.setImage(new Image(img.get().toURI().toString()));
-        } else {
-            overviewEntryIcon.setImage(new Image(IMAGE_PATH + "icons/entry_default_icon.png"));
-        }
+        overviewEntryIcon.setImage(mainWindowController.getIconCache().getIcon(passwordEntry));
         overviewEntryTitle.setText(passwordEntry.getPasswordTitel());
-        SVGImage favImg;
-        if (passwordEntry.getFavourite()) {
-            favImg = SVGLoader.load(getClass().getResource("../images/star_filled.svg"));
-        } else {
-            favImg = SVGLoader.load(getClass().getResource("../images/star_outline.svg"));
-        }
-        favImg.toImage(26);
-        favoriteTag.setGraphic(favImg);
+        showFavoriteIcon(passwordEntry.getFavourite());
         warnIcon.setVisible(passwordEntry.getCompromised());
         try {
             loadDetailElements();
@@ -146,50 +153,105 @@ public class PwdWindowController implements PropertyChangeListener {
 
     /**
      * Loads the detail elements of the password entry.
-     * It loads the elements of the password entry that are not an empty String.
-     * It uses the FXMLLoader to load the FXML files.
+     * It shows the rows of the elements of the password entry that are not an empty String.
+     * It uses the FXMLLoader to load a row on its first use, the loaded rows are reused for the following entries.
      * It sets the text of the detail elements and the password strength label.
-     * It sets the graphic of the copy buttons to an SVG image.
      * It sets the action of the copy buttons to copy the value to the system clipboard.
-     * It sets the action of the view password button to switch the visibility of the password between visible and hidden.
+     * The password is hidden whenever another entry is loaded.
      *
      * @throws IOException If an I/O error occurs
      */
     private void loadDetailElements() throws IOException {
-        Map<String, String> detailElements = passwordEntry.getNoneEmptyElements();
-        FXMLLoader fxmlLoader;
-        Pane newLoadedPane;
-        for (Map.Entry<String, String> entry : detailElements.entrySet()) {
+        List<Node> rows = new ArrayList<>();
+        for (Map.Entry<String, String> entry : passwordEntry.getNoneEmptyElements().entrySet()) {
             if (entry.getKey().equals("Password")) {
-                fxmlLoader = new FXMLLoader(getClass().getResource("../FXML/EntryDetailsPassword.fxml"));
-                fxmlLoader.setController(this);
-                newLoadedPane = fxmlLoader.load();
-                passwordCredentials.getChildren().add(newLoadedPane);
+                rows.add(getPasswordRow());
                 setPasswordStrengthLabel(passwordEntry.getPasswordStrengthCategories());
                 passwordCopy.setOnAction(actionEvent -> handleCopyActions(entry.getValue()));
-                setButtonGraphicSVG(passwordCopy, IMAGE_PATH + "copy-icon.svg", 20);
-                viewPassword.setOnAction(actionEvent -> PwdWindowController.this.switchPasswordShowHide());
-                setButtonGraphicSVG(viewPassword, IMAGE_PATH + "view-show-icon.svg", 30);
+                showPassword(false);
             } else {
-                fxmlLoader = new FXMLLoader(getClass().getResource("../FXML/EntryDetailsDefault.fxml"));
-                fxmlLoader.setController(this);
-                newLoadedPane = fxmlLoader.load();
-                passwordCredentials.getChildren().add(newLoadedPane);
-                detailLabel.setText(entry.getKey());
-
-                if (entry.getKey().equals("TOTP") && !entry.getValue().isEmpty()) {
+                DetailRow row = getDetailRow(entry.getKey());
+                rows.add(row.pane());
+                if (entry.getKey().equals("TOTP")) {
+                    totpContent = row.content();
+                    totpContent.setText("Invalid Auth-Key!");
+                    totpCode = "";
+                    row.copy().setOnAction(actionEvent -> handleCopyActions(totpCode));
                     TOTPGenerator totpGenerator = mainWindowController.getTotpGenerator();
-                    totpGenerator.addPropertyChangeListener(this);
-                    totpGenerator.runTOTPGenerator(entry.getValue());
-                    detailContent.setText("Invalid Auth-Key!");
-                    detailCopy.setOnAction(actionEvent -> handleCopyActions(detailContent.getText().substring(0, 6)));
+                    totpSubscription = totpGenerator.subscribe(entry.getValue(), this);
                 } else {
-                    detailContent.setText(entry.getValue());
-                    detailCopy.setOnAction(actionEvent -> handleCopyActions(entry.getValue()));
+                    row.content().setText(entry.getValue());
+                    row.copy().setOnAction(actionEvent -> handleCopyActions(entry.getValue()));
                 }
-                setButtonGraphicSVG(detailCopy, IMAGE_PATH + "copy-icon.svg", 20);
             }
         }
+        passwordCredentials.getChildren().setAll(rows);
+    }
+
+    /**
+     * Returns the row of the password, which is loaded on its first use.
+     *
+     * @return The row of the password
+     * @throws IOException If an I/O error occurs
+     */
+    private Pane getPasswordRow() throws IOException {
+        if (passwordRow == null) {
+            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("../FXML/EntryDetailsPassword.fxml"));
+            fxmlLoader.setController(this);
+            passwordRow = fxmlLoader.load();
+            SvgIconCache svgIconCache = mainWindowController.getSvgIconCache();
+            passwordCopy.setGraphic(svgIconCache.createView(COPY_ICON, 20));
+            viewPasswordIcon = svgIconCache.createView(VIEW_SHOW_ICON, 30);
+            viewPassword.setGraphic(viewPasswordIcon);
+            viewPassword.setOnAction(actionEvent -> showPassword(!passwordVisible));
+        }
+        return passwordRow;
+    }
+
+    /**
+     * Returns the row of a detail element, which is loaded on its first use.
+     *
+     * @param key The name of the detail element
+     * @return The row of the detail element
+     * @throws IOException If an I/O error occurs
+     */
+    private DetailRow getDetailRow(String key) throws IOException {
+        DetailRow row = detailRows.get(key);
+        if (row == null) {
+            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("../FXML/EntryDetailsDefault.fxml"));
+            fxmlLoader.setController(this);
+            Pane pane = fxmlLoader.load();
+            detailLabel.setText(key);
+            detailCopy.setGraphic(mainWindowController.getSvgIconCache().createView(COPY_ICON, 20));
+            row = new DetailRow(pane, detailContent, detailCopy);
+            detailRows.put(key, row);
+        }
+        return row;
+    }
+
+    /**
+     * Releases the resources of the dashboard before it is hidden or shows another entry.
+     * It cancels the TOTP subscription, so the shared TOTP generator stops informing this controller,
+     * and ignores the TOTP updates of the released entry which are still pending.
+     */
+    public void dispose() {
+        if (totpSubscription != null) {
+            totpSubscription.cancel();
+            totpSubscription = null;
+        }
+        shownEntryGeneration++;
+        passwordEntry = null;
+    }
+
+    /**
+     * Shows the icon of the entry again, if the entry is loaded, e.g. after its icon was loaded from its website.
+     *
+     * @param entry The entry with the new icon
+     */
+    public void refreshIcon(MainModelEntry entry) {
+        if (passwordEntry == entry) {
+            overviewEntryIcon.setImage(mainWindowController.getIconCache().getIcon(entry));
+        }
     }
 
     /**
@@ -207,16 +269,8 @@ public class PwdWindowController implements PropertyChangeListener {
      * Toggles the favorite status of the password entry, by changing the graphic of the favorite tag.
      */
     private void togglePasswordEntryFavorite() {
-        SVGImage favImg;
-        if (passwordEntry.getFavourite()) {
-            favImg = SVGLoader.load(getClass().getResource("../images/star_outline.svg"));
-            passwordEntry.setFavourite(false);
-        } else {
-            favImg = SVGLoader.load(getClass().getResource("../images/star_filled.svg"));
-            passwordEntry.setFavourite(true);
-        }
-        favImg.toImage(26);
-        favoriteTag.setGraphic(favImg);
+        passwordEntry.setFavourite(!passwordEntry.getFavourite());
+        showFavoriteIcon(passwordEntry.getFavourite());
         try {
             mainModel.saveData();
         } catch (IOException | MainModel.EncryptErrorException | StorageException e) {
@@ -228,6 +282,20 @@ public class PwdWindowController implements PropertyChangeListener {
         }
     }
 
+    /**
+     * Sets the graphic of the favorite tag to a full or empty star.
+     *
+     * @param favourite True if the entry is a favorite
+     */
+    private void showFavoriteIcon(boolean favourite) {
+        SvgIconCache svgIconCache = mainWindowController.getSvgIconCache();
+        if (favoriteIcon == null) {
+            favoriteIcon = svgIconCache.createView(STAR_OUTLINE_ICON, 26);
+            favoriteTag.setGraphic(favoriteIcon);
+        }
+        favoriteIcon.setImage(svgIconCache.getImage(favourite ? STAR_FILLED_ICON : STAR_OUTLINE_ICON, 26));
+    }
+
     /**
      * Handles the action when the Copy button is clicked.
      * Copies the value to the system clipboard.
@@ -242,35 +310,22 @@ public class PwdWindowController implements PropertyChangeListener {
     }
 
     /**
-     * Switches the visibility of the password between visible and hidden.
+     * Shows or hides the password.
+     *
+     * @param visible True if the password is shown
      */
-    private void switchPasswordShowHide() {
-        if (passwordVisible) {
-            setButtonGraphicSVG(viewPassword, IMAGE_PATH + "view-show-icon.svg", 30);
-            detailPassword.setText("••••••••");
-            detailPassword.setFont(javafx.scene.text.Font.font("Ayuthaya", 24.0));
-            passwordVisible = false;
-        } else {
-            setButtonGraphicSVG(viewPassword, IMAGE_PATH + "view-hide-icon.svg", 30);
+    private void showPassword(boolean visible) {
+        SvgIconCache svgIconCache = mainWindowController.getSvgIconCache();
+        if (visible) {
+            viewPasswordIcon.setImage(svgIconCache.getImage(VIEW_HIDE_ICON, 30));
             detailPassword.setText(passwordEntry.getPassword());
             detailPassword.setFont(javafx.scene.text.Font.font("Ayuthaya", 16.0));
-            passwordVisible = true;
+        } else {
+            viewPasswordIcon.setImage(svgIconCache.getImage(VIEW_SHOW_ICON, 30));
+            detailPassword.setText(HIDDEN_PASSWORD);
+            detailPassword.setFont(javafx.scene.text.Font.font("Ayuthaya", 24.0));
         }
-    }
-
-    /**
-     * Sets the graphic of a button to an SVG image.
-     * The size of the image is set to the given size.
-     * It uses the SVGLoader to load the SVG image.
-     *
-     * @param button The button to set the graphic
-     * @param path   The path to the SVG image
-     * @param size   The size of the image
-     */
-    private void setButtonGraphicSVG(Button button, String path, int size) {
-        SVGImage img = SVGLoader.load(getClass().getResource(path));
-        img.toImage(size);
-        button.setGraphic(img);
+        passwordVisible = visible;
     }
 
     /**
@@ -294,8 +349,31 @@ public class PwdWindowController implements PropertyChangeListener {
      */
     @Override
     public void propertyChange(PropertyChangeEvent evt) {
+        int generation = shownEntryGeneration;
         if (evt.getPropertyName().equals("TOTP")) {
-            Platform.runLater(() -> detailContent.setText(evt.getNewValue().toString()));
+            String code = evt.getNewValue().toString();
+            Platform.runLater(() -> {
+                if (generation == shownEntryGeneration) {
+                    totpCode = code;
+                }
+            });
+        } else if (evt.getPropertyName().equals("TOTPCountdown")) {
+            int secondsRemaining = (int) evt.getNewValue();
+            Platform.runLater(() -> {
+                if (generation == shownEntryGeneration) {
+                    totpContent.setText(totpCode + " (" + secondsRemaining + " seconds)");
+                }
+            });
         }
     }
+
+    /**
+     * A loaded row of a detail element.
+     *
+     * @param pane    The row
+     * @param content The label showing the value of the element
+     * @param copy    The button copying the value of the element
+     */
+    private record DetailRow(Pane pane, Label content, Button copy) {
+    }
 }
@@ -4,6 +4,8 @@ import ch.zhaw.it.pm.vault_guard.controller.model.MainModel;
 import ch.zhaw.it.pm.vault_guard.controller.model.MainModelEntry;
 import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCalculator;
 import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCategories;
+import ch.zhaw.it.pm.vault_guard.util.FaviconService;
+import ch.zhaw.it.pm.vault_guard.util.IconCache;
 import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.fxml.FXML;
@@ -11,7 +13,6 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -19,6 +20,7 @@ import org.apache.commons.logging.LogFactory;
 /**
  * The PwdWindowEditController class is used to control the PasswordDashboardEdit.fxml file.
  * It is used to edit a password entry.
+ * The edit dashboard is loaded once and reused, every load of an entry or of an empty entry replaces all values of the previous one.
  */
 public class PwdWindowEditController {
 
@@ -49,13 +51,14 @@ public class PwdWindowEditController {
 
     private MainModelEntry entry;
     private MainModel mainModel;
+    private IconCache iconCache;
+    private FaviconService faviconService;
 
     private boolean isChanged;
     private PasswordStrengthCalculator passwordStrengthCalculator;
     private PasswordStrengthCategories passwordStrength;
 
     ChangeListener<String> listenerForTextChanges = ((observable, oldValue, newValue) -> isChanged = true);
-    private static final String DEFAULT_ICON_PNG_PATH = "/ch/zhaw/it/pm/vault_guard/images/icons/entry_default_icon.png";
     private static final Log log = LogFactory.getLog(PwdWindowEditController.class);
 
     /**
@@ -94,6 +97,24 @@ public class PwdWindowEditController {
         this.mainModel = mainModel;
     }
 
+    /**
+     * This method is used to set the cache of the decoded entry icons.
+     *
+     * @param iconCache The icon cache
+     */
+    public void setIconCache(IconCache iconCache) {
+        this.iconCache = iconCache;
+    }
+
+    /**
+     * This method is used to set the service which loads the icons of the websites.
+     *
+     * @param faviconService The favicon service
+     */
+    public void setFaviconService(FaviconService faviconService) {
+        this.faviconService = faviconService;
+    }
+
     /**
      * This method is used to load the password entry Edit Dashboard.
      * It loads the password entry and sets the values of the text fields.
@@ -102,6 +123,7 @@ public class PwdWindowEditController {
      */
     public void loadPasswordEntryDashboard(MainModelEntry entry) {
         this.entry = entry;
+        passwordStrength = null;
         changeTitleInput.setText(entry.getPasswordTitel());
         enterUsername.setText(entry.getUsername());
         enterPassword.setText(entry.getPassword());
@@ -109,11 +131,7 @@ public class PwdWindowEditController {
         enterEmail.setText(entry.getEmail());
         enterWebsite.setText(entry.getWebsite());
         warnIcon.setVisible(entry.getCompromised());
-        if (entry.getIcon().isPresent()) {
-            overviewEntryIcon.setImage(new Image(entry.getIcon().get().toURI().toString()));
-        } else {
-            overviewEntryIcon.setImage(new Image(DEFAULT_ICON_PNG_PATH));
-        }
+        overviewEntryIcon.setImage(iconCache.getIcon(entry));
         changePasswordStrengthVisual(entry);
         isChanged = false;
     }
@@ -134,7 +152,17 @@ public class PwdWindowEditController {
      * This method is used to load a new empty password entry edit dashboard.
      */
     public void loadEmptyPasswordEntryDashboard() {
+        entry = null;
+        passwordStrength = null;
+        changeTitleInput.clear();
+        enterUsername.clear();
+        enterPassword.clear();
+        enterAuthKey.clear();
+        enterEmail.clear();
+        enterWebsite.clear();
         warnIcon.setVisible(false);
+        overviewEntryIcon.setImage(iconCache.getDefaultIcon());
+        isChanged = false;
     }
 
     /**
@@ -194,30 +222,53 @@ public class PwdWindowEditController {
         }
         updateWebsiteAndIcon();
         entry.setOneTimePassword(enterAuthKey.getText());
+        mainModel.updateEntry(entry);
         entry.setCompromised(false);
         mainModel.checkEntryIfCompromised(entry);
     }
 
     /**
      * This method is used to update the website and icon.
+     * The stored icon of the new website is shown at once, the icon is loaded from the website in the background
+     * and swapped in as soon as it is loaded.
      */
     private void updateWebsiteAndIcon() {
         if (!entry.getWebsite().equals(enterWebsite.getText())) {
-            entry.setWebsite(enterWebsite.getText());
-            entry.loadIcon();
+            MainModelEntry editedEntry = entry;
+            String website = enterWebsite.getText();
+            editedEntry.setWebsite(website);
             updateIconInView();
+            faviconService.fetchIcon(website).thenAccept(icon -> icon.ifPresent(iconKey -> iconLoaded(editedEntry, website, iconKey)));
+        }
+    }
+
+    /**
+     * This method is called on a background thread when the icon of the website of an entry is loaded.
+     * The icon is ignored if the website of the entry has been changed again in the meantime.
+     *
+     * @param loadedEntry The entry
+     * @param website     The website the icon was loaded for
+     * @param icon        The key of the loaded icon
+     */
+    private void iconLoaded(MainModelEntry loadedEntry, String website, String icon) {
+        if (!loadedEntry.getWebsite().equals(website)) {
+            return;
         }
+        iconCache.invalidate(icon);
+        loadedEntry.setIcon(icon);
+        mainModel.entryIconLoaded(loadedEntry);
+        Platform.runLater(() -> {
+            if (entry == loadedEntry) {
+                updateIconInView();
+            }
+        });
     }
 
     /**
      * This method is used to update the icon in the view.
      */
     private void updateIconInView() {
-        if (entry.getIcon().isPresent()) {
-            overviewEntryIcon.setImage(new Image(entry.getIcon().get().toURI().toString()));
-        } else {
-            overviewEntryIcon.setImage(new Image(DEFAULT_ICON_PNG_PATH));
-        }
+        overviewEntryIcon.setImage(iconCache.getIcon(entry));
     }
 
     /**
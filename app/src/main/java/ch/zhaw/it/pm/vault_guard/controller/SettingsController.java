@@ -1,23 +1,41 @@
 package ch.zhaw.it.pm.vault_guard.controller;
 
+import ch.zhaw.it.pm.vault_guard.controller.model.ExportResult;
+import ch.zhaw.it.pm.vault_guard.controller.model.ImportResult;
 import ch.zhaw.it.pm.vault_guard.controller.model.MainModel;
+import ch.zhaw.it.pm.vault_guard.controller.model.VaultExporter;
+import ch.zhaw.it.pm.vault_guard.controller.model.VaultImporter;
+import ch.zhaw.it.pm.vault_guard.service.pwexport.ExportFormat;
 import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import ch.zhaw.it.pm.vault_guard.service.pwimport.ImportException;
+import ch.zhaw.it.pm.vault_guard.service.pwimport.ImportFormat;
+import ch.zhaw.it.pm.vault_guard.util.ExecutorManager;
 import ch.zhaw.it.pm.vault_guard.util.StorageException;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.text.Text;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The SettingsController class is used to control the settings dashboard.
@@ -44,12 +62,18 @@ public class SettingsController {
     private Button cancelSettingsChangesButton;
     @FXML
     private Button saveChangesButton;
+    @FXML
+    private Button importButton;
+    @FXML
+    private Button exportButton;
 
     private MainModel mainModel;
     private StorageService storageService;
     private MainWindowController mainWindowController;
     private static final String HIDDEN_PASSWORD = "••••••••";
+    private static final long IDLE_SECONDS = 30;
     private static final Log log = LogFactory.getLog(SettingsController.class);
+    private static final ExecutorService transferExecutor = createTransferExecutor();
 
     /**
      * Initializes the controller.
@@ -64,6 +88,8 @@ public class SettingsController {
         confirmDeleteAccountButton.setOnAction(event -> deleteAccount());
         generatePasswordButton.setOnAction(event -> openPasswordGenerator());
         editAccountButton.setOnAction(event -> editAccount());
+        importButton.setOnAction(event -> importPasswords());
+        exportButton.setOnAction(event -> exportPasswords());
         confirmDeleteAccountButton.setVisible(false);
         deleteAccountWarning.setVisible(false);
         accountUsername.setEditable(false);
@@ -173,6 +199,138 @@ public class SettingsController {
         }
     }
 
+    /**
+     * This method is used to import the passwords of another password manager or of an archive exported by Vault Guard.
+     * The user chooses a CSV, Bitwarden JSON or KeePass XML export or an archive encrypted with the account password,
+     * which is imported on a background thread.
+     * When the import is done, the result is displayed and the strength and breach checks of the imported entries are started in the background.
+     */
+    private void importPasswords() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Passwords");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV export (Bitwarden, KeePassXC, Chrome, Firefox)", "*.csv"),
+                new FileChooser.ExtensionFilter("Bitwarden JSON export", "*.json"),
+                new FileChooser.ExtensionFilter("KeePass XML export", "*.xml"),
+                new FileChooser.ExtensionFilter("Encrypted archive", "*" + ImportFormat.ARCHIVE.getFileExtension()));
+        File file = fileChooser.showOpenDialog(settingsDashboard.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        Optional<ImportFormat> format = ImportFormat.fromFileName(file.getName());
+        if (format.isEmpty()) {
+            showErrorAlert("Unknown export format", "Please choose a CSV, Bitwarden JSON or KeePass XML export or an encrypted archive");
+            return;
+        }
+        importButton.setDisable(true);
+        VaultImporter importer = new VaultImporter(mainModel);
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return importer.importFile(file.toPath(), format.get());
+            } catch (IOException | ImportException | MainModel.EncryptErrorException | StorageException e) {
+                throw new CompletionException(e);
+            }
+        }, transferExecutor).whenComplete((result, error) -> Platform.runLater(() -> importFinished(importer, result, error)));
+    }
+
+    /**
+     * This method is used to display the result of an import and to start the background checks of the imported entries.
+     *
+     * @param importer The importer
+     * @param result   The result of the import or null if it failed
+     * @param error    The error of the import or null if it succeeded
+     */
+    private void importFinished(VaultImporter importer, ImportResult result, Throwable error) {
+        importButton.setDisable(false);
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            log.error("Error while importing the passwords: " + cause.getMessage());
+            showErrorAlert("The passwords could not be imported", cause.getMessage());
+            return;
+        }
+        importer.checkImportedEntriesInBackground(result.importedEntries(), true)
+                .exceptionally(checkError -> {
+                    log.error("Error while checking the imported passwords: " + checkError.getMessage());
+                    return null;
+                });
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Import Passwords");
+        alert.setHeaderText(null);
+        alert.setContentText(String.format("Imported %d entries (%d skipped) in %d ms.%nThe strength and breach checks run in the background.",
+                result.importedCount(), result.skippedEntries(), result.totalMillis()));
+        alert.showAndWait();
+    }
+
+    /**
+     * This method is used to export the passwords to an encrypted archive, a CSV or a JSON file.
+     * The archive is encrypted with the account password. Before a CSV or JSON file is written, the user has to confirm
+     * that the passwords are stored unencrypted. The export is written on a background thread.
+     */
+    private void exportPasswords() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Passwords");
+        fileChooser.setInitialFileName(mainModel.getAccountName() + ExportFormat.ARCHIVE.getFileExtension());
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Encrypted archive", "*" + ExportFormat.ARCHIVE.getFileExtension()),
+                new FileChooser.ExtensionFilter("CSV file (unencrypted)", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON file (unencrypted)", "*.json"));
+        File file = fileChooser.showSaveDialog(settingsDashboard.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        Optional<ExportFormat> format = ExportFormat.fromFileName(file.getName());
+        if (format.isEmpty()) {
+            showErrorAlert("Unknown export format", "Please choose a file ending with .vgarchive, .csv or .json");
+            return;
+        }
+        if (!format.get().isEncrypted() && !confirmUnencryptedExport()) {
+            return;
+        }
+        exportButton.setDisable(true);
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return new VaultExporter(mainModel).exportFile(file.toPath(), format.get());
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, transferExecutor).whenComplete((result, error) -> Platform.runLater(() -> exportFinished(result, error)));
+    }
+
+    /**
+     * This method is used to ask the user to confirm an export that is not encrypted.
+     *
+     * @return true if the user confirmed the export
+     */
+    private boolean confirmUnencryptedExport() {
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Export Passwords");
+        alert.setHeaderText("The passwords will be stored unencrypted");
+        alert.setContentText("Everyone with access to the file can read your passwords. Delete the file after you have imported it.");
+        Optional<ButtonType> result = alert.showAndWait();
+        return result.isPresent() && result.get() == ButtonType.OK;
+    }
+
+    /**
+     * This method is used to display the result of an export.
+     *
+     * @param result The result of the export or null if it failed
+     * @param error  The error of the export or null if it succeeded
+     */
+    private void exportFinished(ExportResult result, Throwable error) {
+        exportButton.setDisable(false);
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            log.error("Error while exporting the passwords: " + cause.getMessage());
+            showErrorAlert("The passwords could not be exported", cause.getMessage());
+            return;
+        }
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Export Passwords");
+        alert.setHeaderText(null);
+        alert.setContentText(String.format("Exported %d entries in %d ms.", result.exportedCount(), result.totalMillis()));
+        alert.showAndWait();
+    }
+
     /**
      * This method is used to close the settings.
      */
@@ -266,5 +424,21 @@ public class SettingsController {
             showErrorAlert("An error occurred while opening the password generator", "Please try again");
         }
     }
-}
 
+    /**
+     * Helper method that creates the executor of the imports and exports, which is shared by all settings dashboards and registered once.
+     * Its thread is stopped when it is idle.
+     *
+     * @return The registered executor
+     */
+    private static ExecutorService createTransferExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, IDLE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "vault-transfer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        ExecutorManager.registerExecutor(executor);
+        return executor;
+    }
+}
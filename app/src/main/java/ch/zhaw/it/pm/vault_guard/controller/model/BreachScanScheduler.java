@@ -0,0 +1,201 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import ch.zhaw.it.pm.vault_guard.service.pwned.PasswordCheckException;
+import ch.zhaw.it.pm.vault_guard.util.ExecutorManager;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The BreachScanScheduler periodically re-checks the entries of a MainModel against the Have I Been Pwned API.
+ * All schedulers share a single low priority daemon thread, whose executor is registered once with the ExecutorManager.
+ * The thread is stopped when no scan is scheduled for a while and started again by the next scan, so stopping and starting
+ * the scan (e.g. on every login) does not create a new executor.
+ * Entries that were checked recently are skipped and the requests of one scan are rate limited,
+ * so a large vault is spread over several scan runs instead of flooding the API.
+ * Every entry that becomes compromised is published by the MainModel with the property name "compromisedChanged".
+ */
+public class BreachScanScheduler {
+
+    private static final long DEFAULT_RECHECK_AFTER_MILLIS = TimeUnit.HOURS.toMillis(6);
+    private static final long DEFAULT_MIN_REQUEST_INTERVAL_MILLIS = 1500;
+    private static final int DEFAULT_MAX_CHECKS_PER_RUN = 100;
+    private static final long IDLE_SECONDS = 30;
+    private static final Log log = LogFactory.getLog(BreachScanScheduler.class);
+    private static final ScheduledThreadPoolExecutor scheduler = createScheduler();
+
+    private final MainModel mainModel;
+    private final long recheckAfterMillis;
+    private final long minRequestIntervalMillis;
+    private final int maxChecksPerRun;
+    private ScheduledFuture<?> scanTask;
+    private Future<?> checkTask;
+    private long lastRequestMillis;
+
+    /**
+     * Constructor of the BreachScanScheduler with the default rate limits.
+     *
+     * @param mainModel The MainModel whose entries are scanned
+     */
+    public BreachScanScheduler(MainModel mainModel) {
+        this(mainModel, DEFAULT_RECHECK_AFTER_MILLIS, DEFAULT_MIN_REQUEST_INTERVAL_MILLIS, DEFAULT_MAX_CHECKS_PER_RUN);
+    }
+
+    /**
+     * Constructor of the BreachScanScheduler.
+     *
+     * @param mainModel                The MainModel whose entries are scanned
+     * @param recheckAfterMillis       Entries checked less than this many milliseconds ago are skipped
+     * @param minRequestIntervalMillis The minimal time between two requests to the API
+     * @param maxChecksPerRun          The maximal number of entries checked in one scan run
+     */
+    public BreachScanScheduler(MainModel mainModel, long recheckAfterMillis, long minRequestIntervalMillis, int maxChecksPerRun) {
+        this.mainModel = mainModel;
+        this.recheckAfterMillis = recheckAfterMillis;
+        this.minRequestIntervalMillis = minRequestIntervalMillis;
+        this.maxChecksPerRun = maxChecksPerRun;
+    }
+
+    /**
+     * Starts the periodic scan. If the scan is already running, it is not started a second time.
+     *
+     * @param initialDelay The delay before the first scan run
+     * @param period       The delay between the end of one scan run and the start of the next one
+     * @param unit         The time unit of the delay and the period
+     */
+    public synchronized void start(long initialDelay, long period, TimeUnit unit) {
+        if (scanTask != null && !scanTask.isDone()) {
+            return;
+        }
+        scanTask = scheduler.scheduleWithFixedDelay(this::runScan, initialDelay, period, unit);
+    }
+
+    /**
+     * Checks all entries once on the scan thread, without the rate limits of the periodic scan, e.g. right after the login.
+     * Like the periodic scan, it skips entries without a password and entries that were checked recently,
+     * so logging in again does not query the API for the whole vault again.
+     * The check runs before or after a scan run, never at the same time. It is interrupted by stop.
+     */
+    public synchronized void checkAll() {
+        checkTask = scheduler.submit(this::runCheckAll);
+    }
+
+    /**
+     * Runs the check of all entries that are due over a snapshot of the entries.
+     * It stops when the thread is interrupted or when the API is not reachable.
+     */
+    void runCheckAll() {
+        for (MainModelEntry entry : mainModel.getEntrySnapshot()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (!isDue(entry)) {
+                continue;
+            }
+            try {
+                mainModel.checkEntryIfCompromised(entry);
+            } catch (PasswordCheckException e) {
+                log.info("Breach check after the login stopped: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops the periodic scan and the check after the login. A scan run or check that is in progress is interrupted.
+     * The shared scan thread is not shut down, it stops by itself when it is idle.
+     */
+    public synchronized void stop() {
+        if (scanTask != null) {
+            scanTask.cancel(true);
+            scanTask = null;
+        }
+        if (checkTask != null) {
+            checkTask.cancel(true);
+            checkTask = null;
+        }
+    }
+
+    /**
+     * Helper method that creates the executor of the scan thread shared by all schedulers.
+     * Cancelled scans are removed from its queue and its thread is stopped when no scan is scheduled.
+     *
+     * @return The registered executor
+     */
+    private static ScheduledThreadPoolExecutor createScheduler() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "breach-scan");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        executor.setKeepAliveTime(IDLE_SECONDS, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        ExecutorManager.registerExecutor(executor);
+        return executor;
+    }
+
+    /**
+     * Runs one scan over a snapshot of the entries.
+     * Entries without a password or that were checked recently are skipped.
+     * The run stops after maxChecksPerRun checks, when the thread is interrupted or when the API is not reachable.
+     */
+    void runScan() {
+        List<MainModelEntry> entries = mainModel.getEntrySnapshot();
+        int checks = 0;
+        for (MainModelEntry entry : entries) {
+            if (checks >= maxChecksPerRun || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (!isDue(entry)) {
+                continue;
+            }
+            if (!awaitRequestSlot()) {
+                return;
+            }
+            checks++;
+            try {
+                mainModel.checkEntryIfCompromised(entry);
+            } catch (PasswordCheckException e) {
+                log.info("Breach scan paused: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Helper method that checks if an entry has to be checked, which is the case if it has a password
+     * and was not checked within the recheck time.
+     *
+     * @param entry The entry
+     * @return true if the entry has to be checked
+     */
+    private boolean isDue(MainModelEntry entry) {
+        return !entry.getPassword().isEmpty() && System.currentTimeMillis() - entry.getLastBreachCheck() >= recheckAfterMillis;
+    }
+
+    /**
+     * Waits until the minimal time between two requests has passed.
+     *
+     * @return true if a request may be sent, false if the thread was interrupted while waiting
+     */
+    private boolean awaitRequestSlot() {
+        long waitMillis = lastRequestMillis + minRequestIntervalMillis - System.currentTimeMillis();
+        if (waitMillis > 0) {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        lastRequestMillis = System.currentTimeMillis();
+        return true;
+    }
+}
@@ -0,0 +1,206 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import java.util.List;
+
+/**
+ * An EntryChange describes a single change of the sorted entry list of the MainModel.
+ * The MainModel publishes it with the property name "entryChange", so a view can apply the change to its own copy of the list
+ * instead of rebuilding the whole list.
+ * The indexes are the positions in the sorted entry list of the model, -1 if they do not apply to the type of the change.
+ * Changes of many entries at once are published as list of EntryChanges, which have to be applied in their order with applyAll.
+ *
+ * @param type      The type of the change
+ * @param entry     The changed entry
+ * @param fromIndex The position of the entry before the change
+ * @param toIndex   The position of the entry after the change
+ */
+public record EntryChange(Type type, MainModelEntry entry, int fromIndex, int toIndex) {
+
+    /**
+     * The types of changes of the entry list.
+     */
+    public enum Type {
+        /**
+         * The entry was inserted at toIndex.
+         */
+        ADDED,
+        /**
+         * The entry at fromIndex (equal to toIndex) was changed but stays at its position.
+         */
+        UPDATED,
+        /**
+         * The entry was removed from fromIndex.
+         */
+        REMOVED,
+        /**
+         * The entry was changed and moved from fromIndex to toIndex.
+         */
+        MOVED
+    }
+
+    /**
+     * Creates the change of an added entry.
+     *
+     * @param entry The added entry
+     * @param index The position of the added entry
+     * @return The change
+     */
+    static EntryChange added(MainModelEntry entry, int index) {
+        return new EntryChange(Type.ADDED, entry, -1, index);
+    }
+
+    /**
+     * Creates the change of an entry that was changed in place.
+     *
+     * @param entry The changed entry
+     * @param index The position of the entry
+     * @return The change
+     */
+    static EntryChange updated(MainModelEntry entry, int index) {
+        return new EntryChange(Type.UPDATED, entry, index, index);
+    }
+
+    /**
+     * Creates the change of a removed entry.
+     *
+     * @param entry The removed entry
+     * @param index The position of the entry before it was removed
+     * @return The change
+     */
+    static EntryChange removed(MainModelEntry entry, int index) {
+        return new EntryChange(Type.REMOVED, entry, index, -1);
+    }
+
+    /**
+     * Creates the change of an edited entry, which is moved if its position has changed.
+     *
+     * @param entry     The edited entry
+     * @param fromIndex The position of the entry before it was edited
+     * @param toIndex   The position of the entry after it was edited
+     * @return The change, of the type UPDATED if the position has not changed
+     */
+    static EntryChange moved(MainModelEntry entry, int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return updated(entry, toIndex);
+        }
+        return new EntryChange(Type.MOVED, entry, fromIndex, toIndex);
+    }
+
+    /**
+     * Applies the change to a copy of the sorted entry list, e.g. the ObservableList of a view.
+     * Only the changed position is touched, replacing an entry with itself informs the listeners of the list that it has changed.
+     * If the copy differs from the model at the given positions (e.g. because changes are applied later on another thread),
+     * the entry is looked up by identity instead.
+     *
+     * @param entries The copy of the sorted entry list
+     */
+    public void applyTo(List<MainModelEntry> entries) {
+        switch (type) {
+            case ADDED -> entries.add(Math.min(toIndex, entries.size()), entry);
+            case UPDATED -> {
+                int index = locate(entries, fromIndex);
+                if (index >= 0) {
+                    entries.set(index, entry);
+                }
+            }
+            case REMOVED -> {
+                int index = locate(entries, fromIndex);
+                if (index >= 0) {
+                    entries.remove(index);
+                }
+            }
+            case MOVED -> {
+                int index = locate(entries, fromIndex);
+                if (index >= 0) {
+                    entries.remove(index);
+                }
+                entries.add(Math.min(toIndex, entries.size()), entry);
+            }
+        }
+    }
+
+    /**
+     * Applies a batch of changes in their order to a copy of the sorted entry list, e.g. the ObservableList of a view.
+     * Added entries at consecutive positions are inserted at once and removed entries at consecutive positions are removed at once,
+     * so the listeners of the list are informed once per run of positions instead of once per entry.
+     *
+     * @param changes The changes in the order in which they were published
+     * @param entries The copy of the sorted entry list
+     */
+    public static void applyAll(List<EntryChange> changes, List<MainModelEntry> entries) {
+        int start = 0;
+        while (start < changes.size()) {
+            int end = endOfRun(changes, start);
+            EntryChange first = changes.get(start);
+            List<EntryChange> run = changes.subList(start, end);
+            if (run.size() > 1 && first.type == Type.ADDED && first.toIndex <= entries.size()) {
+                entries.addAll(first.toIndex, run.stream().map(EntryChange::entry).toList());
+            } else if (run.size() > 1 && first.type == Type.REMOVED && isAtItsPosition(run, entries)) {
+                entries.subList(run.getLast().fromIndex, first.fromIndex + 1).clear();
+            } else {
+                run.forEach(change -> change.applyTo(entries));
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Helper method that returns the end of the run of added entries at ascending consecutive positions
+     * or removed entries at descending consecutive positions that starts at the given change.
+     *
+     * @param changes The changes
+     * @param start   The index of the first change of the run
+     * @return The index after the last change of the run
+     */
+    private static int endOfRun(List<EntryChange> changes, int start) {
+        EntryChange previous = changes.get(start);
+        int end = start + 1;
+        while (end < changes.size()) {
+            EntryChange next = changes.get(end);
+            boolean continuesRun = next.type == previous.type
+                    && (next.type == Type.ADDED && next.toIndex == previous.toIndex + 1
+                    || next.type == Type.REMOVED && next.fromIndex == previous.fromIndex - 1);
+            if (!continuesRun) {
+                break;
+            }
+            previous = next;
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Helper method that checks if the copy contains every removed entry of a run at the position it had in the model.
+     *
+     * @param run     The run of removed entries
+     * @param entries The copy of the sorted entry list
+     * @return true if every entry is at its position
+     */
+    private static boolean isAtItsPosition(List<EntryChange> run, List<MainModelEntry> entries) {
+        for (EntryChange change : run) {
+            if (change.fromIndex < 0 || change.fromIndex >= entries.size() || entries.get(change.fromIndex) != change.entry) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Helper method that returns the position of the entry in the copy, checking the expected position first.
+     *
+     * @param entries       The copy of the sorted entry list
+     * @param expectedIndex The position of the entry in the model
+     * @return The position of the entry or -1 if the copy does not contain it
+     */
+    private int locate(List<MainModelEntry> entries, int expectedIndex) {
+        if (expectedIndex >= 0 && expectedIndex < entries.size() && entries.get(expectedIndex) == entry) {
+            return expectedIndex;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i) == entry) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,324 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import me.xdrop.fuzzywuzzy.FuzzySearch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+/**
+ * The EntrySearchIndex is a trigram inverted index over the title, website, username and email of the entries.
+ * Every field is split into lower case trigrams (all substrings of three characters) and every trigram points to the entries containing it.
+ * A search only scores the entries sharing at least half of the trigrams of the query with the fuzzy matcher,
+ * instead of scoring every entry of the vault.
+ * Queries shorter than three characters have no trigrams, in that case all entries are scored.
+ * The index has to be informed about every added, removed and edited entry, every change increments the version of the index.
+ * Long running lookups stop with a CancellationException when the searching thread is interrupted.
+ */
+public class EntrySearchIndex {
+
+    static final int MIN_SCORE = 85;
+    private static final int GRAM_LENGTH = 3;
+    private static final int CANCEL_CHECK_INTERVAL = 256;
+
+    private final Map<String, Set<MainModelEntry>> postings = new HashMap<>();
+    private final Map<MainModelEntry, Set<String>> indexedGrams = new HashMap<>();
+    private long version;
+
+    /**
+     * Adds an entry to the index.
+     *
+     * @param entry The entry to add
+     */
+    public synchronized void add(MainModelEntry entry) {
+        Set<String> grams = entryGrams(entry);
+        indexedGrams.put(entry, grams);
+        version++;
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(entry);
+        }
+    }
+
+    /**
+     * Removes an entry from the index.
+     *
+     * @param entry The entry to remove
+     */
+    public synchronized void remove(MainModelEntry entry) {
+        Set<String> grams = indexedGrams.remove(entry);
+        if (grams == null) {
+            return;
+        }
+        version++;
+        for (String gram : grams) {
+            Set<MainModelEntry> posting = postings.get(gram);
+            posting.remove(entry);
+            if (posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Updates the index after the searchable fields of an entry have been edited.
+     *
+     * @param entry The edited entry
+     */
+    public synchronized void update(MainModelEntry entry) {
+        remove(entry);
+        add(entry);
+    }
+
+    /**
+     * Removes all entries from the index.
+     */
+    public synchronized void clear() {
+        postings.clear();
+        indexedGrams.clear();
+        version++;
+    }
+
+    /**
+     * Returns the version of the index, which changes whenever an entry is added, removed or edited.
+     * Cached candidates are only valid as long as the version has not changed.
+     *
+     * @return The version of the index
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of indexed entries.
+     *
+     * @return The number of indexed entries
+     */
+    public synchronized int size() {
+        return indexedGrams.size();
+    }
+
+    /**
+     * Searches the index and returns the matching entries, the best match first.
+     * Entries with the same score are ordered by title.
+     *
+     * @param searchValue The value to be searched for
+     * @return The matching entries ranked by score
+     */
+    public List<MainModelEntry> search(String searchValue) {
+        return rank(searchValue, candidates(searchValue));
+    }
+
+    /**
+     * Returns the entries that share at least half of the trigrams of the search value.
+     * The posting lists are visited from the smallest to the largest. An entry missing from all of the smallest lists
+     * cannot reach the required number of shared trigrams, so only these lists are used to collect candidates
+     * and the larger lists are only probed.
+     *
+     * @param searchValue The value to be searched for
+     * @return The candidate entries, all entries if the search value is shorter than three characters
+     */
+    public synchronized Set<MainModelEntry> candidates(String searchValue) {
+        Set<String> queryGrams = grams(searchValue);
+        if (queryGrams.isEmpty()) {
+            return new LinkedHashSet<>(indexedGrams.keySet());
+        }
+        List<Set<MainModelEntry>> lists = new ArrayList<>();
+        for (String gram : queryGrams) {
+            lists.add(postings.getOrDefault(gram, Set.of()));
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        int requiredHits = (queryGrams.size() + 1) / 2;
+        int seedLists = lists.size() - requiredHits + 1;
+
+        Map<MainModelEntry, Integer> hits = new HashMap<>();
+        for (int i = 0; i < seedLists; i++) {
+            checkCancelled();
+            for (MainModelEntry entry : lists.get(i)) {
+                hits.merge(entry, 1, Integer::sum);
+            }
+        }
+        Set<MainModelEntry> result = new LinkedHashSet<>();
+        for (Map.Entry<MainModelEntry, Integer> candidate : hits.entrySet()) {
+            int count = candidate.getValue();
+            for (int i = seedLists; i < lists.size() && count < requiredHits; i++) {
+                if (lists.get(i).contains(candidate.getKey())) {
+                    count++;
+                }
+            }
+            if (count >= requiredHits) {
+                result.add(candidate.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the candidates of a search value that extends a previous search value, e.g. "gith" after "git".
+     * Sharing half of the trigrams is not monotone: the extended value needs more shared trigrams, but it also has new
+     * trigrams, so it can match entries that the previous value did not. The trigrams of the previous value are all
+     * trigrams of the extended value, so an entry that was no candidate before can only become one if it contains
+     * one of the new trigrams. Therefore only the previous candidates and the entries of the new trigrams are checked.
+     *
+     * @param previousSearchValue The previous search value
+     * @param previousCandidates  The candidates of the previous search value, with the index unchanged since then
+     * @param searchValue         The value to be searched for, which starts with the previous search value
+     * @return The candidate entries, the same as the ones of candidates(searchValue)
+     */
+    public synchronized Set<MainModelEntry> candidatesExtending(String previousSearchValue, Set<MainModelEntry> previousCandidates,
+                                                                String searchValue) {
+        Set<String> newGrams = grams(searchValue);
+        newGrams.removeAll(grams(previousSearchValue));
+        Set<MainModelEntry> within = new LinkedHashSet<>(previousCandidates);
+        for (String gram : newGrams) {
+            within.addAll(postings.getOrDefault(gram, Set.of()));
+        }
+        return candidatesWithin(searchValue, within);
+    }
+
+    /**
+     * Helper method that returns the entries of the given set that share at least half of the trigrams of the search value.
+     * Entries that are no longer indexed are dropped.
+     *
+     * @param searchValue The value to be searched for
+     * @param within      The entries to check
+     * @return The candidate entries among the given entries
+     */
+    private Set<MainModelEntry> candidatesWithin(String searchValue, Set<MainModelEntry> within) {
+        Set<String> queryGrams = grams(searchValue);
+        List<Set<MainModelEntry>> lists = new ArrayList<>();
+        for (String gram : queryGrams) {
+            lists.add(postings.getOrDefault(gram, Set.of()));
+        }
+        int requiredHits = (queryGrams.size() + 1) / 2;
+        Set<MainModelEntry> result = new LinkedHashSet<>();
+        int checked = 0;
+        for (MainModelEntry entry : within) {
+            if (++checked % CANCEL_CHECK_INTERVAL == 0) {
+                checkCancelled();
+            }
+            if (!indexedGrams.containsKey(entry)) {
+                continue;
+            }
+            int count = 0;
+            for (int i = 0; i < lists.size() && count < requiredHits; i++) {
+                if (lists.get(i).contains(entry)) {
+                    count++;
+                }
+            }
+            if (count >= requiredHits) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Scores the candidates with the fuzzy matcher and returns the ones reaching the minimal score, the best match first.
+     *
+     * @param searchValue The value to be searched for
+     * @param candidates  The entries to score
+     * @return The matching entries ranked by score
+     */
+    public List<MainModelEntry> rank(String searchValue, Iterable<MainModelEntry> candidates) {
+        List<ScoredEntry> scored = new ArrayList<>();
+        int checked = 0;
+        for (MainModelEntry entry : candidates) {
+            if (++checked % CANCEL_CHECK_INTERVAL == 0) {
+                checkCancelled();
+            }
+            int score = score(searchValue, entry);
+            if (score >= MIN_SCORE) {
+                scored.add(new ScoredEntry(entry, score));
+            }
+        }
+        scored.sort(Comparator.comparingInt(ScoredEntry::score).reversed()
+                .thenComparing(scoredEntry -> scoredEntry.entry().getPasswordTitel(), String::compareToIgnoreCase));
+        return scored.stream().map(ScoredEntry::entry).toList();
+    }
+
+    /**
+     * Returns the best fuzzy score of the search value against the searchable fields of an entry.
+     *
+     * @param searchValue The value to be searched for
+     * @param entry       The entry to score
+     * @return The best score between 0 and 100
+     */
+    static int score(String searchValue, MainModelEntry entry) {
+        int best = 0;
+        for (String field : searchableFields(entry)) {
+            if (field != null && !field.isEmpty()) {
+                best = Math.max(best, FuzzySearch.weightedRatio(searchValue, field));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Stops the search if the searching thread was interrupted, because a newer search value replaced it.
+     *
+     * @throws CancellationException if the current thread was interrupted
+     */
+    private static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Search was cancelled");
+        }
+    }
+
+    /**
+     * Returns the trigrams of all searchable fields of an entry.
+     *
+     * @param entry The entry
+     * @return The trigrams of the entry
+     */
+    private static Set<String> entryGrams(MainModelEntry entry) {
+        Set<String> grams = new HashSet<>();
+        for (String field : searchableFields(entry)) {
+            grams.addAll(grams(field));
+        }
+        return grams;
+    }
+
+    /**
+     * Returns the searchable fields of an entry.
+     *
+     * @param entry The entry
+     * @return The title, website, username and email of the entry
+     */
+    private static String[] searchableFields(MainModelEntry entry) {
+        return new String[]{entry.getPasswordTitel(), entry.getWebsite(), entry.getUsername(), entry.getEmail()};
+    }
+
+    /**
+     * Splits a text into its lower case trigrams.
+     *
+     * @param text The text, may be null
+     * @return The trigrams of the text, empty if the text is shorter than three characters
+     */
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        if (text == null || text.length() < GRAM_LENGTH) {
+            return grams;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * An entry together with its search score.
+     *
+     * @param entry The entry
+     * @param score The score of the entry
+     */
+    private record ScoredEntry(MainModelEntry entry, int score) {
+    }
+}
@@ -0,0 +1,86 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The EntrySearchSession remembers the candidates of the last search value typed into the search field.
+ * When the next search value extends the last one (e.g. "gith" after "git"), only the remembered candidates and the entries
+ * of the new trigrams are checked instead of looking the search value up in the whole index, see EntrySearchIndex.candidatesExtending.
+ * On any other change (e.g. backspace) or after the index was changed, the search value is looked up in the whole index again.
+ */
+public class EntrySearchSession {
+
+    private final EntrySearchIndex index;
+    private String lastSearchValue;
+    private Set<MainModelEntry> lastCandidates;
+    private long lastVersion = -1;
+    private boolean lastRefined;
+
+    /**
+     * Constructor of the EntrySearchSession
+     *
+     * @param index The search index of the vault
+     */
+    public EntrySearchSession(EntrySearchIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Searches the entries matching the search value, the best match first.
+     * The candidates are only remembered when the lookup was not cancelled.
+     *
+     * @param searchValue The value to be searched for
+     * @return The matching entries ranked by score
+     */
+    public synchronized List<MainModelEntry> search(String searchValue) {
+        String normalized = searchValue.toLowerCase(Locale.ROOT);
+        long version = index.getVersion();
+        Set<MainModelEntry> candidates;
+        if (extendsLastSearch(normalized, version)) {
+            candidates = index.candidatesExtending(lastSearchValue, lastCandidates, normalized);
+            lastRefined = true;
+        } else {
+            candidates = index.candidates(normalized);
+            lastRefined = false;
+        }
+        lastSearchValue = normalized;
+        lastCandidates = candidates;
+        lastVersion = version;
+        return index.rank(searchValue, candidates);
+    }
+
+    /**
+     * Forgets the remembered candidates, so the next search uses the whole index.
+     */
+    public synchronized void reset() {
+        lastSearchValue = null;
+        lastCandidates = null;
+        lastVersion = -1;
+        lastRefined = false;
+    }
+
+    /**
+     * Returns whether the last search only checked the candidates of the search before.
+     *
+     * @return true if the last search was refined
+     */
+    synchronized boolean wasLastSearchRefined() {
+        return lastRefined;
+    }
+
+    /**
+     * Checks if the search value extends the last search value and the remembered candidates are still valid.
+     *
+     * @param searchValue The normalized search value
+     * @param version     The current version of the index
+     * @return true if the remembered candidates can be refined
+     */
+    private boolean extendsLastSearch(String searchValue, long version) {
+        return lastSearchValue != null
+                && version == lastVersion
+                && searchValue.length() > lastSearchValue.length()
+                && searchValue.startsWith(lastSearchValue);
+    }
+}
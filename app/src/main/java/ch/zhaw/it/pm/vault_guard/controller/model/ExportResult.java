@@ -0,0 +1,30 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ExportResult record describes a finished export: the number of exported entries and the time it took.
+ *
+ * @param exportedCount The number of exported entries
+ * @param exportNanos   The time to write the export in nanoseconds
+ */
+public record ExportResult(int exportedCount, long exportNanos) {
+
+    /**
+     * Returns the time of the export in milliseconds.
+     *
+     * @return The time in milliseconds
+     */
+    public long totalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(exportNanos);
+    }
+
+    /**
+     * Returns the throughput of the export.
+     *
+     * @return The exported entries per second
+     */
+    public double entriesPerSecond() {
+        return exportedCount * (double) TimeUnit.SECONDS.toNanos(1) / Math.max(1, exportNanos);
+    }
+}
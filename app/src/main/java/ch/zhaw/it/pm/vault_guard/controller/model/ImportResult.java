@@ -0,0 +1,43 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ImportResult record describes a finished import: the added entries, the skipped entries and the time it took.
+ *
+ * @param importedEntries The entries that were added to the vault
+ * @param skippedEntries  The number of entries without username, website and password, which were not added
+ * @param importNanos     The time to read the export and add the entries in nanoseconds
+ * @param saveNanos       The time to save the vault in nanoseconds
+ */
+public record ImportResult(List<MainModelEntry> importedEntries, int skippedEntries, long importNanos, long saveNanos) {
+
+    /**
+     * Returns the number of added entries.
+     *
+     * @return The number of added entries
+     */
+    public int importedCount() {
+        return importedEntries.size();
+    }
+
+    /**
+     * Returns the time of the whole import including the save in milliseconds.
+     *
+     * @return The time in milliseconds
+     */
+    public long totalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(importNanos + saveNanos);
+    }
+
+    /**
+     * Returns the throughput of the whole import including the save.
+     *
+     * @return The added entries per second
+     */
+    public double entriesPerSecond() {
+        long nanos = Math.max(1, importNanos + saveNanos);
+        return importedCount() * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+}
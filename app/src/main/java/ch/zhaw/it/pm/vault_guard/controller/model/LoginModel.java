@@ -12,6 +12,7 @@ import java.beans.PropertyChangeSupport;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static ch.zhaw.it.pm.vault_guard.controller.model.LoginState.*;
 
@@ -19,11 +20,14 @@ import static ch.zhaw.it.pm.vault_guard.controller.model.LoginState.*;
  * The class LoginModel is responsible for the login approval and creation of new users.
  * It uses the CryptographyHandler to encrypt and decrypt the content and the StorageService to read and write the content.
  * The class uses the PropertyChangeSupport to inform the listeners about the login state.
+ * The asynchronous login opens the vault with the VaultUnlockPipeline and informs the listeners about every stage of the pipeline.
  */
 public class LoginModel {
     private final CryptographyHandler crypter;
     private final StorageService storageService;
+    private final VaultUnlockPipeline unlockPipeline;
     private String decryptedContent = "";
+    private MainModel unlockedMainModel;
     private LoginState loginState = LoginState.LOGOUT;
     private final PropertyChangeSupport support = new PropertyChangeSupport(this);
 
@@ -34,8 +38,20 @@ public class LoginModel {
      * @param storageService StorageService
      */
     public LoginModel(CryptographyHandler crypter, StorageService storageService) {
+        this(crypter, storageService, new VaultUnlockPipeline(crypter, storageService));
+    }
+
+    /**
+     * Constructor of the class LoginModel used for testing with a custom unlock pipeline
+     *
+     * @param crypter        CryptographyHandler
+     * @param storageService StorageService
+     * @param unlockPipeline VaultUnlockPipeline used by the asynchronous login
+     */
+    public LoginModel(CryptographyHandler crypter, StorageService storageService, VaultUnlockPipeline unlockPipeline) {
         this.crypter = crypter;
         this.storageService = storageService;
+        this.unlockPipeline = unlockPipeline;
     }
 
     /**
@@ -78,6 +94,51 @@ public class LoginModel {
         informListeners(tempState);
     }
 
+    /**
+     * Method to log in the user without blocking the calling thread
+     * The vault is read, decrypted, parsed and indexed by the VaultUnlockPipeline on a background thread
+     * When a stage of the pipeline starts, the listeners are informed with the property name "unlockStage",
+     * the stage is the new value of the event
+     * if the vault was opened the login state is set to LOGIN and the unlocked MainModel can be taken with takeUnlockedMainModel
+     * if there is no vault for the account name or the password is wrong the login state is set to FAIL
+     * if the vault could not be read, decrypted or parsed the login state is set to ERROR
+     * All listeners are informed on the background thread
+     *
+     * @param accountName String
+     * @param password    String
+     * @return the future of the login state, which is completed after the listeners were informed
+     */
+    public CompletableFuture<LoginState> loginAsync(String accountName, String password) {
+        return unlockPipeline.unlock(this, accountName, password, stage -> support.firePropertyChange("unlockStage", null, stage))
+                .handle((mainModel, error) -> {
+                    LoginState tempState;
+                    if (error != null) {
+                        tempState = ERROR;
+                    } else if (mainModel.isPresent()) {
+                        synchronized (this) {
+                            unlockedMainModel = mainModel.get();
+                        }
+                        tempState = LOGIN;
+                    } else {
+                        tempState = FAIL;
+                    }
+                    informListeners(tempState);
+                    return tempState;
+                });
+    }
+
+    /**
+     * Method to take the MainModel opened by the asynchronous login
+     * The MainModel can only be taken once
+     *
+     * @return the unlocked MainModel or an empty Optional if the user was not logged in asynchronously
+     */
+    public synchronized Optional<MainModel> takeUnlockedMainModel() {
+        Optional<MainModel> mainModel = Optional.ofNullable(unlockedMainModel);
+        unlockedMainModel = null;
+        return mainModel;
+    }
+
     /**
      * Method to get the decrypted content (used by the MainModel to get the decrypted content to show it in the view)
      *
@@ -150,11 +211,13 @@ public class LoginModel {
      * it returns ERROR when an exception occurred while reading the file
      * it returns USERNAME_ERROR when the account name already exists
      * it returns FAIL when login data (account name and password) are incorrect or the file content could not be read or decrypted
+     * The event is fired without old value, so the listeners are also informed when the state is the same as before,
+     * e.g. after a second wrong password
      *
      * @param loginState LoginState
      */
     public void informListeners(LoginState loginState) {
-        support.firePropertyChange("state", this.loginState, loginState);
+        support.firePropertyChange("state", null, loginState);
         this.loginState = loginState;
     }
 
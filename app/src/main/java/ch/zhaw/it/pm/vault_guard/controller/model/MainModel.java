@@ -1,17 +1,28 @@
 package ch.zhaw.it.pm.vault_guard.controller.model;
 
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.io.IOException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.Iterator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.function.Function;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import ch.zhaw.it.pm.vault_guard.controller.VaultViewState;
+import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCategories;
 import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
 import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
 import ch.zhaw.it.pm.vault_guard.util.StorageException;
@@ -23,29 +34,45 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
 
-import me.xdrop.fuzzywuzzy.FuzzySearch;
-import me.xdrop.fuzzywuzzy.model.ExtractedResult;
-
 
 /**
  * The MainModel class provides methods for managing the data of the main window.
  * It stores the decrypted content of the JSON file handle and sort the Entries and provides methods for adding, deleting, and saving entries.
  * It also provides methods for adding and removing PropertyChangeListeners.
  * The List holds all the entries objects that are displayed in the main window View
+ * Every entry has a unique id, the entries are looked up by their id in a hash map
+ * The List is always kept sorted by the title, new and edited entries are inserted at their position by binary search
+ * Secondary indexes (favourites, compromised entries and entries per password strength) are kept up to date,
+ * because every entry informs the model when its favourite flag, compromised flag or password strength changes
+ * Every change of the sorted list is published as EntryChange with the property name "entryChange",
+ * so views can apply it to their copy of the list instead of rebuilding it
+ * The sorted list and the secondary indexes are read through immutable snapshots, which are read without the lock of the model
+ * and are only copied again after the list or index has changed
  */
 public class MainModel {
 
-    List<MainModelEntry> entryContentList = new ArrayList<>();
+    final SortedEntryList entryContentList = new SortedEntryList();
+    private final Map<String, MainModelEntry> entriesById = new HashMap<>();
+    private final SortedEntryList favourites = new SortedEntryList();
+    private final SortedEntryList compromised = new SortedEntryList();
+    private final Map<PasswordStrengthCategories, Set<MainModelEntry>> strengthBuckets = createStrengthBuckets();
+    private final AtomicReferenceArray<Set<MainModelEntry>> strengthSnapshots = new AtomicReferenceArray<>(PasswordStrengthCategories.values().length);
+    private final PropertyChangeListener entryChangeListener = this::entryChanged;
     private final CryptographyHandler crypter;
     private final StorageService storageService;
     private final LoginModel loginModel;
     private final HaveIBeenPawnedService haveIBeenPawnedService;
     private final PropertyChangeSupport support = new PropertyChangeSupport(this);
+    private final BreachScanScheduler breachScanScheduler;
+    private final EntrySearchIndex searchIndex = new EntrySearchIndex();
+    private final EntrySearchSession searchSession = new EntrySearchSession(searchIndex);
     private String accountPassword = "";
     private String accountName = "";
+    private boolean bulkUpdate;
 
     /**
      * Constructor of the MainModel
+     * The entries are not checked against the breach check service, this is started with checkAllEntriesIfCompromisedInBackground
      *
      * @param loginModel LoginModel object
      */
@@ -54,8 +81,8 @@ public class MainModel {
         this.storageService = new StorageService();
         this.haveIBeenPawnedService = new HaveIBeenPawnedService();
         this.loginModel = loginModel;
+        this.breachScanScheduler = new BreachScanScheduler(this);
         setupMainModel();
-        checkAllEntriesIfCompromised();
     }
 
     /**
@@ -66,102 +93,461 @@ public class MainModel {
      * @param loginModel     LoginModel
      */
     public MainModel(CryptographyHandler crypter, StorageService storageService, LoginModel loginModel) {
+        this(crypter, storageService, loginModel, new HaveIBeenPawnedService());
+    }
+
+    /**
+     * Constructor of the MainModel used for testing with a custom breach check service (e.g. backed by a local stub server)
+     *
+     * @param crypter                CryptographyHandler
+     * @param storageService         StorageService
+     * @param loginModel             LoginModel
+     * @param haveIBeenPawnedService HaveIBeenPawnedService
+     */
+    public MainModel(CryptographyHandler crypter, StorageService storageService, LoginModel loginModel, HaveIBeenPawnedService haveIBeenPawnedService) {
         this.crypter = crypter;
         this.storageService = storageService;
-        this.haveIBeenPawnedService = new HaveIBeenPawnedService();
+        this.haveIBeenPawnedService = haveIBeenPawnedService;
         this.loginModel = loginModel;
+        this.breachScanScheduler = new BreachScanScheduler(this);
         setupMainModel();
     }
 
+    /**
+     * Constructor of the MainModel with an already parsed vault, used by the VaultUnlockPipeline
+     * The entries are sorted and indexed, the decrypted content of the loginModel is not used
+     *
+     * @param crypter                CryptographyHandler
+     * @param storageService         StorageService
+     * @param loginModel             LoginModel
+     * @param haveIBeenPawnedService HaveIBeenPawnedService
+     * @param vaultContent           the parsed content of the vault file
+     */
+    public MainModel(CryptographyHandler crypter, StorageService storageService, LoginModel loginModel,
+                     HaveIBeenPawnedService haveIBeenPawnedService, VaultContent vaultContent) {
+        this.crypter = crypter;
+        this.storageService = storageService;
+        this.haveIBeenPawnedService = haveIBeenPawnedService;
+        this.loginModel = loginModel;
+        this.breachScanScheduler = new BreachScanScheduler(this);
+        loadVaultContent(vaultContent);
+    }
+
 
     /**
      * Method that sets up the MainModel (is called in the MainWindowController after the login was successful)
-     * It gets the decrypted content from the loginModel and sorts the content in JSON file format
+     * It gets the decrypted content from the loginModel, parses it and sorts the entries
      */
     public void setupMainModel() {
-        sortDecryptedContent(new JSONObject(loginModel.getDecryptedContent()));
+        loadVaultContent(VaultContent.parse(loginModel.getDecryptedContent()));
     }
 
 
     /**
      * Method that returns the sorted entryContentList
-     * It sorts the entryContentList alphabetically by the passwordTitel
+     * The entryContentList is always kept sorted alphabetically (ignoring case) by the passwordTitel,
+     * so this method returns its snapshot without sorting
+     * The snapshot is only copied again under the lock of the model if the list has changed since the last call
      *
-     * @return sorted entryContentList
+     * @return immutable snapshot of the sorted entryContentList
      */
     public List<MainModelEntry> getSortedEntryContentList() {
-        entryContentList.sort(Comparator.comparing(MainModelEntry::getPasswordTitel, String::compareToIgnoreCase));
-        return entryContentList;
+        return snapshotOf(entryContentList);
     }
 
     /**
-     * This method performs a fuzzy search on the entries in the MainModel based on the provided search value.
-     * It searches both the website and password title fields of the entries.
-     * The method returns a list of MainModelEntry objects that match the search value in either of these fields.
+     * Helper method that returns the snapshot of a sorted list of the model
+     * The snapshot is read without the lock, only a list that has changed since its last snapshot is copied under the lock
      *
-     * @param searchValue The value to be searched for in the website and password title fields of the entries.
-     * @return A list of MainModelEntry objects that match the search value in either the website or password title field.
+     * @param list the sorted list
+     * @return immutable snapshot of the list
      */
-    public List<MainModelEntry> searchEntry(String searchValue, VaultViewState viewState) {
-        List<MainModelEntry> searchableEntries = switch (viewState) {
-            case FAVORITES -> getFavorites();
-            case LEAKMONITOR -> getCompromised();
-            default -> getSortedEntryContentList();
-        };
-
-        List<ExtractedResult> mergedResults = new ArrayList<>();
-        mergedResults.addAll(fuzzySearchResults(searchValue, searchableEntries, MainModelEntry::getWebsite));
-        mergedResults.addAll(fuzzySearchResults(searchValue, searchableEntries, MainModelEntry::getPasswordTitel));
+    private List<MainModelEntry> snapshotOf(SortedEntryList list) {
+        List<MainModelEntry> snapshot = list.currentSnapshot();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            return list.snapshot();
+        }
+    }
 
-        mergedResults.removeIf(result -> result.getScore() < 85);
+    /**
+     * Method that returns the entry with the title, the case of the title is ignored
+     * The entry is looked up by binary search in the sorted entryContentList
+     *
+     * @param title the title of the entry
+     * @return the first entry with the title in sorted order or null if there is none
+     */
+    public synchronized MainModelEntry findEntryByTitle(String title) {
+        return entryContentList.findByTitle(title);
+    }
 
-        return mergedResults.stream()
-                .map(result -> searchableEntries.get(result.getIndex()))
-                .distinct()
+    /**
+     * This method performs a fuzzy search on the entries in the MainModel based on the provided search value.
+     * It searches the title, website, username and email fields of the entries.
+     * The candidates are looked up in the trigram search index, so only entries sharing parts of the search value are scored.
+     * If the search value extends the previous one, only the candidates of the previous search value are checked.
+     * The search stops with a CancellationException if the calling thread is interrupted.
+     * The method returns a list of MainModelEntry objects that match the search value, the best match first.
+     *
+     * @param searchValue The value to be searched for in the title, website, username and email fields of the entries.
+     * @param viewState   The current view, in the favorites and leak monitor views only the shown entries are returned.
+     * @return A list of MainModelEntry objects that match the search value, ranked by score.
+     */
+    public List<MainModelEntry> searchEntry(String searchValue, VaultViewState viewState) {
+        return searchSession.search(searchValue).stream()
+                .filter(entry -> isShownIn(entry, viewState))
                 .toList();
     }
 
     /**
-     * Helper method to perform a fuzzy search on a specific field of the MainModelEntry objects.
+     * Helper method that checks if an entry is shown in a view.
      *
-     * @param searchValue      The value to be searched for in the specified field.
-     * @param mainModelEntries The list of MainModelEntry objects to be searched.
-     * @param mapper           A function that takes a MainModelEntry object and returns the field to be searched.
-     * @return A list of ExtractedResult objects that match the search value in the specified field.
+     * @param entry     The entry to check.
+     * @param viewState The view.
+     * @return true if the entry is shown in the view.
      */
-    private List<ExtractedResult> fuzzySearchResults(String searchValue, List<MainModelEntry> mainModelEntries, Function<MainModelEntry, String> mapper) {
-        return FuzzySearch.extractAll(searchValue, mainModelEntries.stream().map(mapper).toList());
+    private static boolean isShownIn(MainModelEntry entry, VaultViewState viewState) {
+        return switch (viewState) {
+            case FAVORITES -> entry.getFavourite();
+            case LEAKMONITOR -> entry.getCompromised();
+            default -> true;
+        };
     }
 
 
+    /**
+     * Method that returns the entry with the given id
+     *
+     * @param entryId the id of the entry
+     * @return the entry or null if there is no entry with the id
+     */
+    public synchronized MainModelEntry getEntry(String entryId) {
+        return entriesById.get(entryId);
+    }
+
     /**
      * Method that adds a new entry to the entryContentList
-     * It creates a new MainModelEntry object and adds it to the entryContentList
+     * It inserts the entry at its sorted position and adds it to the search index and the secondary indexes
+     * It informs the listeners about the added entry with the property names "addEntry" and "entryChange"
      *
      * @param mainModelEntry MainModelEntry object
+     * @throws IllegalArgumentException if the model already contains an entry with the same id
      */
     public void addEntry(MainModelEntry mainModelEntry) {
-        entryContentList.add(mainModelEntry);
+        EntryChange change;
+        synchronized (this) {
+            if (entriesById.putIfAbsent(mainModelEntry.getId(), mainModelEntry) != null) {
+                throw new IllegalArgumentException("Entry with id " + mainModelEntry.getId() + " already exists");
+            }
+            change = EntryChange.added(mainModelEntry, entryContentList.insert(mainModelEntry));
+            indexEntry(mainModelEntry);
+        }
+        informListeners("entryChange", null, change);
+        informListeners("addEntry", null, mainModelEntry);
+    }
+
+    /**
+     * Method that adds many entries at once, e.g. the entries of an import
+     * The entries are inserted into the sorted list with one sort and indexed, but not saved
+     * Entries with an id that the model already contains are not added
+     * It informs the listeners once with the property name "entriesAdded", the new value is the list of EntryChanges
+     * of the added entries, ordered by ascending position, so they can be applied with EntryChange.applyAll
+     *
+     * @param newEntries the entries to add
+     * @return the added entries
+     */
+    public List<MainModelEntry> addEntries(Collection<MainModelEntry> newEntries) {
+        List<MainModelEntry> addedEntries = new ArrayList<>(newEntries.size());
+        List<EntryChange> changes = new ArrayList<>(newEntries.size());
+        synchronized (this) {
+            for (MainModelEntry entry : newEntries) {
+                if (entriesById.putIfAbsent(entry.getId(), entry) == null) {
+                    addedEntries.add(entry);
+                }
+            }
+            entryContentList.insertAll(addedEntries);
+            for (MainModelEntry entry : addedEntries) {
+                indexEntry(entry);
+                changes.add(EntryChange.added(entry, entryContentList.indexOf(entry)));
+            }
+        }
+        changes.sort(Comparator.comparingInt(EntryChange::toIndex));
+        if (!changes.isEmpty()) {
+            informListeners("entriesAdded", null, changes);
+        }
+        return addedEntries;
+    }
+
+    /**
+     * Method that removes many entries at once without saving, e.g. the entries of an import that failed
+     * It informs the listeners once with the property name "entriesRemoved", the new value is the list of EntryChanges
+     * of the removed entries, ordered by descending position, so they can be applied with EntryChange.applyAll
+     *
+     * @param entries the entries to remove
+     */
+    public void removeEntries(Collection<MainModelEntry> entries) {
+        List<MainModelEntry> removedEntries = new ArrayList<>(entries.size());
+        List<EntryChange> changes = new ArrayList<>(entries.size());
+        synchronized (this) {
+            for (MainModelEntry entry : entries) {
+                if (entriesById.remove(entry.getId(), entry)) {
+                    removedEntries.add(entry);
+                    changes.add(EntryChange.removed(entry, entryContentList.indexOf(entry)));
+                }
+            }
+            Set<MainModelEntry> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+            removed.addAll(removedEntries);
+            entryContentList.removeAll(removed);
+            removedEntries.forEach(this::unindexEntry);
+        }
+        changes.sort(Comparator.comparingInt(EntryChange::fromIndex).reversed());
+        if (!changes.isEmpty()) {
+            informListeners("entriesRemoved", null, changes);
+        }
+    }
+
+    /**
+     * Method that sets the password strength of many entries at once, e.g. after the strength of imported entries was calculated
+     * The strength buckets are updated, but the listeners are informed only once with the property name "entriesChanged",
+     * the new value is the list of EntryChanges of the entries whose strength has changed, which keep their position. Nothing is saved
+     *
+     * @param strengths the new strength per entry, entries that the model does not contain are ignored
+     * @return the entries whose strength has changed
+     */
+    public List<MainModelEntry> updatePasswordStrengths(Map<MainModelEntry, PasswordStrengthCategories> strengths) {
+        List<MainModelEntry> changedEntries = new ArrayList<>();
+        List<EntryChange> changes = new ArrayList<>();
+        synchronized (this) {
+            bulkUpdate = true;
+            try {
+                strengths.forEach((entry, strength) -> {
+                    if (entriesById.get(entry.getId()) == entry && entry.getPasswordStrengthCategories() != strength) {
+                        entry.setPasswordStrengthCategories(strength.name());
+                        changedEntries.add(entry);
+                        changes.add(EntryChange.updated(entry, entryContentList.indexOf(entry)));
+                    }
+                });
+            } finally {
+                bulkUpdate = false;
+            }
+        }
+        if (!changes.isEmpty()) {
+            informListeners("entriesChanged", null, changes);
+        }
+        return changedEntries;
+    }
+
+    /**
+     * Method that has to be called after an entry was edited
+     * It moves the entry to the sorted position of its new title and updates the search index
+     * with the new title, website, username and email of the entry
+     * It informs the listeners about the edited entry with the property names "entryChange" (moved or updated) and "updateEntry"
+     * An entry that is not in the model, e.g. because it was deleted while it was edited, is ignored
+     *
+     * @param mainModelEntry the edited MainModelEntry object
+     */
+    public void updateEntry(MainModelEntry mainModelEntry) {
+        EntryChange change = null;
+        synchronized (this) {
+            if (entriesById.get(mainModelEntry.getId()) == mainModelEntry) {
+                int fromIndex = entryContentList.remove(mainModelEntry);
+                boolean isFavourite = favourites.remove(mainModelEntry) >= 0;
+                boolean isCompromised = compromised.remove(mainModelEntry) >= 0;
+                mainModelEntry.refreshSortKey();
+                change = EntryChange.moved(mainModelEntry, fromIndex, entryContentList.insert(mainModelEntry));
+                if (isFavourite) {
+                    favourites.insert(mainModelEntry);
+                }
+                if (isCompromised) {
+                    compromised.insert(mainModelEntry);
+                }
+                searchIndex.update(mainModelEntry);
+            }
+        }
+        if (change != null) {
+            informListeners("entryChange", null, change);
+            informListeners("updateEntry", null, mainModelEntry);
+        }
+    }
+
+    /**
+     * Method that has to be called after the icon of an entry was loaded from its website
+     * The icon is not part of the saved data, so nothing is saved
+     * It informs the listeners about the updated entry with the property names "entryChange" and "iconLoaded",
+     * the entry is the new value of the event
+     * It can be called from any thread
+     *
+     * @param mainModelEntry the entry with the loaded icon
+     */
+    public void entryIconLoaded(MainModelEntry mainModelEntry) {
+        int index;
+        synchronized (this) {
+            if (entriesById.get(mainModelEntry.getId()) != mainModelEntry) {
+                return;
+            }
+            index = entryContentList.indexOf(mainModelEntry);
+        }
+        if (index >= 0) {
+            informListeners("entryChange", null, EntryChange.updated(mainModelEntry, index));
+        }
+        informListeners("iconLoaded", null, mainModelEntry);
     }
 
     /**
      * Method that deletes an entry from the entryContentList
-     * It iterates over the entryContentList and removes the entry with the given passwordTitel
-     * It informs the listeners that the content has changed
-     *
-     * @param entryTitel String entryTitel
-     */
-    public void deleteEntry(String entryTitel) throws IOException, EncryptErrorException, StorageException {
-        Iterator<MainModelEntry> iterator = entryContentList.iterator();
-        while (iterator.hasNext()) {
-            MainModelEntry entry = iterator.next();
-            if (entry.getPasswordTitel().equals(entryTitel)) {
-                iterator.remove();
-                break;
+     * It looks up the entry by its id and removes it from its sorted position, which is found by binary search
+     * If there is no entry with the id, nothing is changed and saved
+     * It informs the listeners about the removed entry with the property name "entryChange"
+     * and with the property name "deleteEntry", where the id is the old value and the removed entry is the new value of the event
+     *
+     * @param entryId the id of the entry
+     */
+    public void deleteEntry(String entryId) throws IOException, EncryptErrorException, StorageException {
+        MainModelEntry removedEntry;
+        EntryChange change;
+        synchronized (this) {
+            removedEntry = entriesById.remove(entryId);
+            if (removedEntry == null) {
+                return;
             }
+            change = EntryChange.removed(removedEntry, entryContentList.remove(removedEntry));
+            unindexEntry(removedEntry);
         }
+        informListeners("entryChange", null, change);
         saveData();
-        informListeners("deleteEntry", "", entryTitel);
+        informListeners("deleteEntry", entryId, removedEntry);
+    }
+
+    /**
+     * Helper method that adds an entry to the search index and the secondary indexes
+     * and registers the model as listener of the entry
+     *
+     * @param entry the entry
+     */
+    private void indexEntry(MainModelEntry entry) {
+        searchIndex.add(entry);
+        if (entry.getFavourite()) {
+            favourites.insert(entry);
+        }
+        if (entry.getCompromised()) {
+            compromised.insert(entry);
+        }
+        addToStrengthBucket(entry, entry.getPasswordStrengthCategories());
+        entry.setChangeListener(entryChangeListener);
+    }
+
+    /**
+     * Helper method that creates an empty set of entries for every password strength
+     *
+     * @return the empty strength buckets
+     */
+    private static Map<PasswordStrengthCategories, Set<MainModelEntry>> createStrengthBuckets() {
+        Map<PasswordStrengthCategories, Set<MainModelEntry>> buckets = new EnumMap<>(PasswordStrengthCategories.class);
+        for (PasswordStrengthCategories category : PasswordStrengthCategories.values()) {
+            buckets.put(category, new HashSet<>());
+        }
+        return buckets;
+    }
+
+    /**
+     * Helper method that removes an entry from the search index and the secondary indexes
+     * and unregisters the model as listener of the entry
+     *
+     * @param entry the entry
+     */
+    private void unindexEntry(MainModelEntry entry) {
+        entry.setChangeListener(null);
+        searchIndex.remove(entry);
+        favourites.remove(entry);
+        compromised.remove(entry);
+        removeFromStrengthBucket(entry, entry.getPasswordStrengthCategories());
+    }
+
+    /**
+     * Helper method that adds an entry to the set of its password strength and discards the snapshot of the set
+     * It must be called under the lock of the model
+     *
+     * @param entry    the entry
+     * @param category the password strength of the entry
+     */
+    private void addToStrengthBucket(MainModelEntry entry, PasswordStrengthCategories category) {
+        if (strengthBuckets.get(category).add(entry)) {
+            strengthSnapshots.set(category.ordinal(), null);
+        }
+    }
+
+    /**
+     * Helper method that removes an entry from the set of a password strength and discards the snapshot of the set
+     * It must be called under the lock of the model
+     *
+     * @param entry    the entry
+     * @param category the password strength the entry had
+     */
+    private void removeFromStrengthBucket(MainModelEntry entry, PasswordStrengthCategories category) {
+        if (strengthBuckets.get(category).remove(entry)) {
+            strengthSnapshots.set(category.ordinal(), null);
+        }
+    }
+
+    /**
+     * Method that is called by an entry of the model when its favourite flag, compromised flag or password strength has changed
+     * It updates the secondary indexes and informs the listeners with the property names "favouriteChanged",
+     * "compromisedChanged" or "strengthChanged", the changed entry is the new value of the event,
+     * and with the property name "entryChange" about the updated entry
+     * During updatePasswordStrengths only the indexes are updated, the listeners are informed once at the end
+     * It can be called from any thread
+     *
+     * @param evt the event of the entry
+     */
+    private void entryChanged(PropertyChangeEvent evt) {
+        MainModelEntry entry = (MainModelEntry) evt.getSource();
+        String modelPropertyName;
+        int index;
+        synchronized (this) {
+            switch (evt.getPropertyName()) {
+                case "isFavourite" -> {
+                    updateMembership(favourites, entry, entry.getFavourite());
+                    modelPropertyName = "favouriteChanged";
+                }
+                case "isCompromised" -> {
+                    updateMembership(compromised, entry, entry.getCompromised());
+                    modelPropertyName = "compromisedChanged";
+                }
+                case "passwordStrength" -> {
+                    removeFromStrengthBucket(entry, (PasswordStrengthCategories) evt.getOldValue());
+                    addToStrengthBucket(entry, entry.getPasswordStrengthCategories());
+                    modelPropertyName = "strengthChanged";
+                }
+                default -> {
+                    return;
+                }
+            }
+            if (bulkUpdate) {
+                return;
+            }
+            index = entryContentList.indexOf(entry);
+        }
+        if (index >= 0) {
+            informListeners("entryChange", null, EntryChange.updated(entry, index));
+        }
+        informListeners(modelPropertyName, evt.getOldValue(), entry);
+    }
+
+    /**
+     * Helper method that adds an entry to a secondary index or removes it from the index
+     *
+     * @param index    the secondary index
+     * @param entry    the entry
+     * @param isMember true if the entry belongs into the index
+     */
+    private static void updateMembership(SortedEntryList index, MainModelEntry entry, boolean isMember) {
+        if (isMember && !index.contains(entry)) {
+            index.insert(entry);
+        } else if (!isMember) {
+            index.remove(entry);
+        }
     }
 
     /**
@@ -182,18 +568,8 @@ public class MainModel {
         jsonMainObject.put("accountName", accountName);
         jsonMainObject.put("accountPassword", accountPassword);
 
-        for (MainModelEntry entryToBeSaved : entryContentList) {
-            JSONObject currentSavingObject = new JSONObject();
-            currentSavingObject.put("passwordTitel", entryToBeSaved.getPasswordTitel());
-            currentSavingObject.put("username", entryToBeSaved.getUsername());
-            currentSavingObject.put("website", entryToBeSaved.getWebsite());
-            currentSavingObject.put("email", entryToBeSaved.getEmail());
-            currentSavingObject.put("oneTimePassword", entryToBeSaved.getOneTimePassword());
-            currentSavingObject.put("password", entryToBeSaved.getPassword());
-            currentSavingObject.put("isFavourite", entryToBeSaved.getFavourite());
-            currentSavingObject.put("isCompromised", entryToBeSaved.getCompromised());
-            currentSavingObject.put("passwordStrength", entryToBeSaved.getPasswordStrengthCategories().toString());
-            jsonArray.put(currentSavingObject);
+        for (MainModelEntry entryToBeSaved : getEntrySnapshot()) {
+            jsonArray.put(VaultContent.toJson(entryToBeSaved));
         }
         jsonMainObject.put("Entries", jsonArray);
         String encryptedContent;
@@ -204,60 +580,100 @@ public class MainModel {
             throw new EncryptErrorException("File could not be encrypted");
         }
         storageService.write(encryptedContent, accountName);
-        informListeners("saveData", "", entryContentList);
-    }
-
-    /**
-     * Method that sorts the decrypted content in JSON file format
-     * It gets the accountName and accountPassword from the decryptedContent
-     * For each entry in the JSON file, it creates a new MainModelEntry and adds it to the entryContentList
-     *
-     * @param decryptedContent JSONObject decryptedContent
-     */
-    private void sortDecryptedContent(JSONObject decryptedContent) {
-        accountName = decryptedContent.getString("accountName");
-        accountPassword = decryptedContent.getString("accountPassword");
-        JSONArray tt = decryptedContent.getJSONArray("Entries");
-        for (int i = 0; i < tt.length(); i++) {
-            JSONObject currentEntryObject = tt.getJSONObject(i);
-            entryContentList.add(new MainModelEntry
-                    (
-                            currentEntryObject.getString("passwordTitel"),
-                            currentEntryObject.getString("username"),
-                            currentEntryObject.getString("website"),
-                            currentEntryObject.getString("email"),
-                            currentEntryObject.getString("oneTimePassword"),
-                            currentEntryObject.getString("password"),
-                            currentEntryObject.getString("passwordStrength"),
-                            currentEntryObject.getBoolean("isFavourite"),
-                            currentEntryObject.getBoolean("isCompromised")
-                    ));
+        informListeners("saveData", "", getSortedEntryContentList());
+    }
+
+    /**
+     * Method that loads the parsed content of the vault file
+     * It takes the accountName and accountPassword and inserts the entries into the sorted list and the indexes
+     *
+     * @param vaultContent the parsed content of the vault file
+     */
+    private void loadVaultContent(VaultContent vaultContent) {
+        accountName = vaultContent.accountName();
+        accountPassword = vaultContent.accountPassword();
+        List<MainModelEntry> loadedEntries = vaultContent.entries();
+        synchronized (this) {
+            loadedEntries.forEach(entry -> entriesById.put(entry.getId(), entry));
+            entryContentList.insertAll(loadedEntries);
+            loadedEntries.forEach(this::indexEntry);
         }
     }
 
+    /**
+     * Method that returns a snapshot of the entryContentList
+     * The snapshot can be iterated by background tasks while the entryContentList is changed by the view
+     * It is the same immutable snapshot as returned by getSortedEntryContentList
+     *
+     * @return immutable snapshot of the entryContentList in its current order
+     */
+    public List<MainModelEntry> getEntrySnapshot() {
+        return snapshotOf(entryContentList);
+    }
+
     /**
      * Method that checks if the entry is compromised
      * It calls the HaveIBeenPwned service to check if the password is compromised
      * if the password is compromised, it sets the compromised flag in the MainModelEntry object
+     * The time of the check is remembered only if the service answered, so the background breach scan can skip recently
+     * checked entries but checks entries again that could not be checked because there was no internet connection
      *
      * @param entry MainModelEntry entry
      */
     public void checkEntryIfCompromised(MainModelEntry entry) {
-        if (!entry.getPassword().isEmpty() && haveIBeenPawnedService.checkPassword(entry.getPassword()) > 0) {
-            entry.setCompromised(true);
+        if (!entry.getPassword().isEmpty()) {
+            OptionalInt leaks = haveIBeenPawnedService.lookupPassword(entry.getPassword());
+            if (leaks.isEmpty()) {
+                return;
+            }
+            if (leaks.getAsInt() > 0) {
+                entry.setCompromised(true);
+            }
+            entry.setLastBreachCheck(System.currentTimeMillis());
         }
     }
 
     /**
      * Method that checks all entries if they are compromised
-     * It iterates over the entryContentList and calls the checkEntryIfCompromised method for each entry
+     * It iterates over a snapshot of the entryContentList and calls the checkEntryIfCompromised method for each entry
+     * It stops when the calling thread is interrupted
      */
     public void checkAllEntriesIfCompromised() {
-        for (MainModelEntry entry : entryContentList) {
+        for (MainModelEntry entry : getEntrySnapshot()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
             checkEntryIfCompromised(entry);
         }
     }
 
+    /**
+     * Method that checks all entries if they are compromised on the thread of the background breach scan, e.g. right after the login
+     * Entries that were checked within the recheck time of the breach scan are skipped
+     * Entries that become compromised are published with the property name "compromisedChanged"
+     */
+    public void checkAllEntriesIfCompromisedInBackground() {
+        breachScanScheduler.checkAll();
+    }
+
+    /**
+     * Method that starts the periodic background breach scan
+     * Entries that become compromised are published with the property name "compromisedChanged"
+     *
+     * @param period the time between two scan runs
+     * @param unit   the time unit of the period
+     */
+    public void startBackgroundBreachScan(long period, TimeUnit unit) {
+        breachScanScheduler.start(period, period, unit);
+    }
+
+    /**
+     * Method that stops the periodic background breach scan
+     */
+    public void stopBackgroundBreachScan() {
+        breachScanScheduler.stop();
+    }
+
     /**
      * Method that sets the accountPassword
      *
@@ -344,33 +760,46 @@ public class MainModel {
     }
 
     /**
-     * Method that creates a favorites list of MainModelEntry objects
+     * Method that returns the favorites list of MainModelEntry objects
+     * The list is kept up to date when the favourite flag of an entry changes, its snapshot is only copied again after a change
      *
-     * @return the List of all entries that are marked as favorites
+     * @return immutable snapshot of all entries that are marked as favorites, sorted by title
      */
     public List<MainModelEntry> getFavorites() {
-        List<MainModelEntry> favorites = new ArrayList<>();
-        for (MainModelEntry entry : entryContentList) {
-            if (entry.getFavourite()) {
-                favorites.add(entry);
-            }
-        }
-        return favorites;
+        return snapshotOf(favourites);
     }
 
     /**
-     * Method that creates a list of compromised MainModelEntry objects
+     * Method that returns the list of compromised MainModelEntry objects
+     * The list is kept up to date when the compromised flag of an entry changes, its snapshot is only copied again after a change
      *
-     * @return the List of all entries that are compromised
+     * @return immutable snapshot of all entries that are compromised, sorted by title
      */
     public List<MainModelEntry> getCompromised() {
-        List<MainModelEntry> compromised = new ArrayList<>();
-        for (MainModelEntry entry : entryContentList) {
-            if (entry.getCompromised()) {
-                compromised.add(entry);
+        return snapshotOf(compromised);
+    }
+
+    /**
+     * Method that returns the entries with the given password strength
+     * The sets are kept up to date when the password strength of an entry changes,
+     * the snapshot of a set is read without the lock and only copied again under the lock of the model after the set has changed
+     *
+     * @param category the password strength
+     * @return immutable snapshot of all entries with the password strength
+     */
+    public Set<MainModelEntry> getEntriesWithStrength(PasswordStrengthCategories category) {
+        Set<MainModelEntry> snapshot = strengthSnapshots.get(category.ordinal());
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = strengthSnapshots.get(category.ordinal());
+            if (snapshot == null) {
+                snapshot = Set.copyOf(strengthBuckets.get(category));
+                strengthSnapshots.set(category.ordinal(), snapshot);
             }
+            return snapshot;
         }
-        return compromised;
     }
 
 }
@@ -2,16 +2,24 @@ package ch.zhaw.it.pm.vault_guard.controller.model;
 
 import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCategories;
 import ch.zhaw.it.pm.vault_guard.util.IconLoader;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 
-import java.io.File;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Optional;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
 
 
 /**
  * The MainModelEntry class represents a single entry in the main window list pane.
  * It contains all the information from an Entry which includes:
+ * - A unique id which never changes and is stored in the vault file (id)
  * - The Title of the Entry (passwordTitle)
  * - The Username used in the Entry (Username)
  * - The Website where the password is used (website)
@@ -23,19 +31,45 @@ import java.util.Map;
  * <p>
  * The password strength in MainModelEntry is initially set to "WEAK". This is a precaution until the password is analyzed and confirmed strong.
  * This approach promotes strong password usage and prevents misjudging weak passwords as strong. The password strength is updated according to its actual characteristics.
+ * <p>
+ * Large vaults hold many entries, so an entry is kept compact: the favourite flag, the compromised flag and the password strength
+ * are packed into a single byte, usernames, websites and emails, which repeat across many entries, are shared between the entries,
+ * and the IconLoader is shared by all entries.
+ * <p>
+ * The icon is not looked up when the entry is created. It is resolved later by the IconResolver of the view,
+ * or when it is requested for the first time. The icon is the key of the icon in the IconArchive.
  */
 public class MainModelEntry {
+    private final String id;
     String passwordTitel;
     String username;
     String website;
     String email;
     String oneTimePassword;
     String password;
-    boolean isFavourite;
-    boolean isCompromised;
-    PasswordStrengthCategories passwordStrengthCategories = PasswordStrengthCategories.WEAK;
-    private File icon;
-    private final IconLoader iconLoader;
+    long lastBreachCheck;
+    String sortKey;
+    private volatile byte flags;
+    private PropertyChangeListener changeListener;
+    private volatile String icon;
+
+    private static final IconLoader ICON_LOADER = new IconLoader();
+    private static final String NO_ICON = "";
+    private static final Interner<String> SHARED_VALUES = Interners.newWeakInterner();
+    private static final PasswordStrengthCategories[] STRENGTHS = PasswordStrengthCategories.values();
+    private static final int FAVOURITE_FLAG = 1;
+    private static final int COMPROMISED_FLAG = 1 << 1;
+    private static final int STRENGTH_SHIFT = 2;
+    private static final int STRENGTH_MASK = 0b111 << STRENGTH_SHIFT;
+    private static final VarHandle FLAGS;
+
+    static {
+        try {
+            FLAGS = MethodHandles.lookup().findVarHandle(MainModelEntry.class, "flags", byte.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     /**
      * Constructor for the MainModelEntry class.
@@ -50,17 +84,111 @@ public class MainModelEntry {
      * @param isCompromised              A boolean if the password is compromised
      */
     public MainModelEntry(String passwordTitel, String username, String website, String email, String oneTimePassword, String password, String passwordStrengthCategories, boolean isFavourite, boolean isCompromised) {
+        this(newId(), passwordTitel, username, website, email, oneTimePassword, password, passwordStrengthCategories, isFavourite, isCompromised);
+    }
+
+    /**
+     * Constructor for the MainModelEntry class with an existing id, used for entries read from the vault file.
+     *
+     * @param id                         The unique id of the Entry
+     * @param passwordTitel              The Titel of the Entry
+     * @param username                   The Username used in the Entry
+     * @param website                    The Website where the password is used
+     * @param oneTimePassword            A one time password
+     * @param password                   The password itself
+     * @param passwordStrengthCategories The strength of the password
+     * @param isFavourite                A boolean if the entry is a favourite
+     * @param isCompromised              A boolean if the password is compromised
+     */
+    public MainModelEntry(String id, String passwordTitel, String username, String website, String email, String oneTimePassword, String password, String passwordStrengthCategories, boolean isFavourite, boolean isCompromised) {
+        this.id = id;
         this.passwordTitel = passwordTitel;
-        this.username = username;
-        this.website = website;
-        this.email = email;
-        this.oneTimePassword = oneTimePassword;
-        this.password = password;
-        this.isFavourite = isFavourite;
-        this.isCompromised = isCompromised;
+        this.username = share(username);
+        this.website = share(website);
+        this.email = share(email);
+        this.oneTimePassword = emptyToShared(oneTimePassword);
+        this.password = emptyToShared(password);
+        setFlag(FAVOURITE_FLAG, isFavourite);
+        setFlag(COMPROMISED_FLAG, isCompromised);
+        this.sortKey = sortKeyOf(passwordTitel);
         setPasswordStrengthCategories(passwordStrengthCategories);
-        iconLoader = new IconLoader();
-        readIconFromFile();
+    }
+
+    /**
+     * Creates a new unique id for an entry.
+     *
+     * @return The new id
+     */
+    static String newId() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Returns the shared instance of a value that repeats across many entries (e.g. a website or a username).
+     * Only values that are not secret are shared.
+     *
+     * @param value The value, may be null
+     * @return The shared instance of the value
+     */
+    private static String share(String value) {
+        return value == null ? null : SHARED_VALUES.intern(value);
+    }
+
+    /**
+     * Returns the shared empty String for an empty secret value, other values are kept as they are.
+     *
+     * @param value The value, may be null
+     * @return The value
+     */
+    private static String emptyToShared(String value) {
+        return value != null && value.isEmpty() ? "" : value;
+    }
+
+    /**
+     * Sets or clears a flag in the packed flags.
+     *
+     * @param flag  The flag
+     * @param value true to set the flag
+     * @return The packed flags before the change
+     */
+    private byte setFlag(int flag, boolean value) {
+        return updateFlags(flag, value ? flag : 0);
+    }
+
+    /**
+     * Sets the strength in the packed flags.
+     *
+     * @param category The strength
+     * @return The packed flags before the change
+     */
+    private byte setStrength(PasswordStrengthCategories category) {
+        return updateFlags(STRENGTH_MASK, category.ordinal() << STRENGTH_SHIFT);
+    }
+
+    /**
+     * Helper method that clears and sets bits of the packed flags with compare-and-set.
+     * The flags are written by the FX thread and by background threads (e.g. the breach checks) and read without a lock,
+     * so the field is volatile and a change of one flag never overwrites a concurrent change of another flag.
+     *
+     * @param clear The bits to clear
+     * @param set   The bits to set
+     * @return The packed flags before the change
+     */
+    private byte updateFlags(int clear, int set) {
+        byte current;
+        do {
+            current = flags;
+        } while (!FLAGS.compareAndSet(this, current, (byte) ((current & ~clear) | set)));
+        return current;
+    }
+
+    /**
+     * Returns the unique id of the entry, which stays the same when the entry is edited
+     *
+     * @return The id
+     */
+    public String getId() {
+        return id;
     }
 
     /**
@@ -81,6 +209,43 @@ public class MainModelEntry {
         this.passwordTitel = passwordTitel;
     }
 
+    /**
+     * Returns the precomputed key the entries are sorted by in the MainModel.
+     * The key is only updated by the MainModel when the edited entry is moved to its new position,
+     * until then it still contains the key of the old title.
+     *
+     * @return The sort key
+     */
+    String getSortKey() {
+        return sortKey;
+    }
+
+    /**
+     * Computes the sort key of the current passwordTitel.
+     */
+    void refreshSortKey() {
+        this.sortKey = sortKeyOf(passwordTitel);
+    }
+
+    /**
+     * Computes the sort key of a title.
+     * Comparing two keys with String.compareTo gives the same order as comparing the titles with String.CASE_INSENSITIVE_ORDER,
+     * but the case of every character is only folded once.
+     *
+     * @param title The title
+     * @return The sort key of the title, the title itself if folding the case does not change it
+     */
+    static String sortKeyOf(String title) {
+        char[] key = title.toCharArray();
+        boolean changed = false;
+        for (int i = 0; i < key.length; i++) {
+            char folded = Character.toLowerCase(Character.toUpperCase(key[i]));
+            changed |= folded != key[i];
+            key[i] = folded;
+        }
+        return changed ? new String(key) : title;
+    }
+
     /**
      * Returns the Username used in the entry
      *
@@ -96,7 +261,7 @@ public class MainModelEntry {
      * @param username The Username
      */
     public void setUsername(String username) {
-        this.username = username;
+        this.username = share(username);
     }
 
     /**
@@ -114,7 +279,10 @@ public class MainModelEntry {
      * @param website The Website
      */
     public void setWebsite(String website) {
-        this.website = website;
+        if (!Objects.equals(this.website, website)) {
+            icon = null;
+        }
+        this.website = share(website);
     }
 
     /**
@@ -123,7 +291,7 @@ public class MainModelEntry {
      * @param email The Email
      */
     public void setEmail(String email) {
-        this.email = email;
+        this.email = share(email);
     }
 
     /**
@@ -150,7 +318,7 @@ public class MainModelEntry {
      * @param oneTimePassword The one time password
      */
     public void setOneTimePassword(String oneTimePassword) {
-        this.oneTimePassword = oneTimePassword;
+        this.oneTimePassword = emptyToShared(oneTimePassword);
     }
 
     /**
@@ -168,7 +336,7 @@ public class MainModelEntry {
      * @param password The password
      */
     public void setPassword(String password) {
-        this.password = password;
+        this.password = emptyToShared(password);
     }
 
     /**
@@ -177,7 +345,7 @@ public class MainModelEntry {
      * @return A boolean if the entry is a favourite
      */
     public boolean getFavourite() {
-        return isFavourite;
+        return (flags & FAVOURITE_FLAG) != 0;
     }
 
     /**
@@ -186,7 +354,8 @@ public class MainModelEntry {
      * @param favourite A boolean if the entry is a favourite
      */
     public void setFavourite(boolean favourite) {
-        isFavourite = favourite;
+        boolean oldFavourite = (setFlag(FAVOURITE_FLAG, favourite) & FAVOURITE_FLAG) != 0;
+        fireChange("isFavourite", oldFavourite, favourite);
     }
 
     /**
@@ -195,7 +364,7 @@ public class MainModelEntry {
      * @return A boolean if the password is compromised
      */
     public boolean getCompromised() {
-        return isCompromised;
+        return (flags & COMPROMISED_FLAG) != 0;
     }
 
     /**
@@ -204,7 +373,27 @@ public class MainModelEntry {
      * @param compromised A boolean if the password is compromised
      */
     public void setCompromised(boolean compromised) {
-        isCompromised = compromised;
+        boolean oldCompromised = (setFlag(COMPROMISED_FLAG, compromised) & COMPROMISED_FLAG) != 0;
+        fireChange("isCompromised", oldCompromised, compromised);
+    }
+
+    /**
+     * Returns the point in time (epoch milliseconds) the password was last checked against the breach database.
+     * The value is kept in memory only and is 0 if the password was not checked in this session.
+     *
+     * @return The time of the last breach check in epoch milliseconds
+     */
+    long getLastBreachCheck() {
+        return lastBreachCheck;
+    }
+
+    /**
+     * Sets the point in time (epoch milliseconds) the password was last checked against the breach database.
+     *
+     * @param lastBreachCheck The time of the last breach check in epoch milliseconds
+     */
+    void setLastBreachCheck(long lastBreachCheck) {
+        this.lastBreachCheck = lastBreachCheck;
     }
 
     /**
@@ -213,7 +402,17 @@ public class MainModelEntry {
      * @return The strength of the password
      */
     public PasswordStrengthCategories getPasswordStrengthCategories() {
-        return passwordStrengthCategories;
+        return strengthOf(flags);
+    }
+
+    /**
+     * Helper method that returns the strength in the packed flags.
+     *
+     * @param packedFlags The packed flags
+     * @return The strength
+     */
+    private static PasswordStrengthCategories strengthOf(byte packedFlags) {
+        return STRENGTHS[(packedFlags & STRENGTH_MASK) >> STRENGTH_SHIFT];
     }
 
     /**
@@ -222,42 +421,77 @@ public class MainModelEntry {
      * @param passwordStrengthCategories The strength of the password as a String (Default is WEAK)
      */
     public void setPasswordStrengthCategories(String passwordStrengthCategories) {
-        switch (passwordStrengthCategories) {
-            case "VERY_WEAK" -> this.passwordStrengthCategories = PasswordStrengthCategories.VERY_WEAK;
-            case "MODERATE" -> this.passwordStrengthCategories = PasswordStrengthCategories.MODERATE;
-            case "STRONG" -> this.passwordStrengthCategories = PasswordStrengthCategories.STRONG;
-            case "VERY_STRONG" -> this.passwordStrengthCategories = PasswordStrengthCategories.VERY_STRONG;
-            default -> this.passwordStrengthCategories = PasswordStrengthCategories.WEAK;
+        PasswordStrengthCategories newCategory = switch (passwordStrengthCategories) {
+            case "VERY_WEAK" -> PasswordStrengthCategories.VERY_WEAK;
+            case "MODERATE" -> PasswordStrengthCategories.MODERATE;
+            case "STRONG" -> PasswordStrengthCategories.STRONG;
+            case "VERY_STRONG" -> PasswordStrengthCategories.VERY_STRONG;
+            default -> PasswordStrengthCategories.WEAK;
+        };
+        PasswordStrengthCategories oldCategory = strengthOf(setStrength(newCategory));
+        fireChange("passwordStrength", oldCategory, newCategory);
+    }
+
+    /**
+     * Sets the listener that is informed when the favourite flag, the compromised flag or the password strength changes.
+     * An entry has at most one listener, the MainModel that holds the entry, which keeps its secondary indexes up to date.
+     *
+     * @param changeListener The listener or null to remove the listener
+     */
+    void setChangeListener(PropertyChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Informs the listener about a changed value, if the value has actually changed.
+     *
+     * @param propertyName The name of the changed property
+     * @param oldValue     The old value
+     * @param newValue     The new value
+     */
+    private void fireChange(String propertyName, Object oldValue, Object newValue) {
+        if (changeListener != null && !oldValue.equals(newValue)) {
+            changeListener.propertyChange(new PropertyChangeEvent(this, propertyName, oldValue, newValue));
         }
     }
 
     /**
      * Returns the icon of the entry
+     * If the icon was not resolved yet, the stored icon of the website is looked up
      *
-     * @return The icon of the entry
+     * @return The key of the icon of the entry
      */
-    public Optional<File> getIcon() {
-        return (icon == null) ? Optional.empty() : Optional.of(icon);
+    public Optional<String> getIcon() {
+        if (icon == null) {
+            readStoredIcon();
+        }
+        String currentIcon = icon;
+        return (currentIcon == null || currentIcon.isEmpty()) ? Optional.empty() : Optional.of(currentIcon);
     }
 
     /**
      * Sets the icon of the entry
      *
-     * @param icon The icon of the entry
+     * @param icon The key of the icon of the entry, null if the entry has no icon
      */
-    public void setIcon(File icon) {
-        this.icon = icon;
+    public void setIcon(String icon) {
+        this.icon = (icon == null) ? NO_ICON : icon;
     }
 
     /**
-     * Reads the icon from the file
+     * Returns whether the icon of the entry has been resolved, so getIcon does not look up the icon archive
+     *
+     * @return true if the icon is resolved
      */
-    public void readIconFromFile() {
-        String cleanedUrl = iconLoader.cleanupURL(getWebsite());
-        File iconFile = new File("src/main/resources/ch/zhaw/it/pm/vault_guard/images/icons/" + cleanedUrl.replace("https://", "").replace("http://", "").replace("/", "").replace("www.", "").replace("favicon.ico", "") + ".png");
-        if (iconFile.exists()) {
-            setIcon(iconFile);
-        }
+    public boolean isIconResolved() {
+        return icon != null;
+    }
+
+    /**
+     * Looks up the stored icon of the website in the icon archive
+     */
+    public void readStoredIcon() {
+        setIcon(ICON_LOADER.findStoredIcon(getWebsite()).orElse(null));
     }
 
     /**
@@ -284,11 +518,4 @@ public class MainModelEntry {
         }
         return noneEmptyElements;
     }
-
-    /**
-     * This method loads the icon from the website.
-     */
-    public void loadIcon() {
-        iconLoader.loadIconFromWebsite(this);
-    }
 }
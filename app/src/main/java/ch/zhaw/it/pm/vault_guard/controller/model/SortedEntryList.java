@@ -0,0 +1,205 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The SortedEntryList keeps entries sorted alphabetically (ignoring case) by their title.
+ * The entries are compared by their precomputed sort key and are inserted and looked up by binary search.
+ * Entries with the same sort key keep the order in which they were inserted.
+ * The list can be read through a read-only view, which always reflects the current content,
+ * or through an immutable snapshot, which is only copied again after the list has changed.
+ * The list itself is not thread-safe, only the snapshot that has already been taken can be read without a lock.
+ */
+class SortedEntryList {
+
+    private final List<MainModelEntry> entries = new ArrayList<>();
+    private final List<MainModelEntry> view = Collections.unmodifiableList(entries);
+    private volatile List<MainModelEntry> snapshot = List.of();
+
+    /**
+     * Returns the read-only view of the sorted entries.
+     *
+     * @return The sorted entries
+     */
+    List<MainModelEntry> view() {
+        return view;
+    }
+
+    /**
+     * Returns the immutable snapshot of the sorted entries if it is up to date.
+     * It can be called without holding the lock that guards the changes of the list.
+     *
+     * @return The snapshot of the sorted entries or null if the list has changed since the last snapshot
+     */
+    List<MainModelEntry> currentSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the immutable snapshot of the sorted entries and copies the list again if it has changed since the last snapshot.
+     * It must be called while holding the lock that guards the changes of the list.
+     *
+     * @return The snapshot of the sorted entries
+     */
+    List<MainModelEntry> snapshot() {
+        List<MainModelEntry> current = snapshot;
+        if (current == null) {
+            current = List.copyOf(entries);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return The number of entries
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Inserts an entry at its sorted position, after all entries with the same sort key.
+     *
+     * @param entry The entry to insert
+     * @return The position of the inserted entry
+     */
+    int insert(MainModelEntry entry) {
+        int index = upperBound(entry.getSortKey());
+        entries.add(index, entry);
+        snapshot = null;
+        return index;
+    }
+
+    /**
+     * Adds many entries at once and sorts the list only once afterward.
+     *
+     * @param newEntries The entries to add
+     */
+    void insertAll(Collection<MainModelEntry> newEntries) {
+        entries.addAll(newEntries);
+        entries.sort(Comparator.comparing(MainModelEntry::getSortKey));
+        snapshot = null;
+    }
+
+    /**
+     * Removes many entries at once with one pass over the list.
+     *
+     * @param removedEntries The entries to remove
+     */
+    void removeAll(Set<MainModelEntry> removedEntries) {
+        if (entries.removeIf(removedEntries::contains)) {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Removes an entry, which is looked up by its cached sort key.
+     *
+     * @param entry The entry to remove
+     * @return The position of the removed entry or -1 if the entry was not found
+     */
+    int remove(MainModelEntry entry) {
+        int index = indexOf(entry);
+        if (index >= 0) {
+            entries.remove(index);
+            snapshot = null;
+        }
+        return index;
+    }
+
+    /**
+     * Checks if the list contains the entry.
+     *
+     * @param entry The entry
+     * @return true if the entry is in the list
+     */
+    boolean contains(MainModelEntry entry) {
+        return indexOf(entry) >= 0;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    void clear() {
+        entries.clear();
+        snapshot = List.of();
+    }
+
+    /**
+     * Returns the first entry whose title equals the given title, ignoring case, which is looked up by binary search.
+     *
+     * @param title The title
+     * @return The first entry with the title in sorted order or null if there is none
+     */
+    MainModelEntry findByTitle(String title) {
+        String sortKey = MainModelEntry.sortKeyOf(title);
+        int index = lowerBound(sortKey);
+        if (index < entries.size() && entries.get(index).getSortKey().equals(sortKey)) {
+            return entries.get(index);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of an entry, which is looked up by its cached sort key.
+     *
+     * @param entry The entry
+     * @return The index of the entry or -1 if it is not in the list
+     */
+    int indexOf(MainModelEntry entry) {
+        String sortKey = entry.getSortKey();
+        for (int i = lowerBound(sortKey); i < entries.size() && entries.get(i).getSortKey().equals(sortKey); i++) {
+            if (entries.get(i) == entry) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first entry whose sort key is not less than the given key.
+     *
+     * @param sortKey The sort key
+     * @return The index of the first entry with a sort key greater than or equal to the given key
+     */
+    private int lowerBound(String sortKey) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries.get(middle).getSortKey().compareTo(sortKey) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first entry whose sort key is greater than the given key.
+     *
+     * @param sortKey The sort key
+     * @return The index of the first entry with a sort key greater than the given key
+     */
+    private int upperBound(String sortKey) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries.get(middle).getSortKey().compareTo(sortKey) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
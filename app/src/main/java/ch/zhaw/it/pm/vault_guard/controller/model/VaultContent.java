@@ -0,0 +1,79 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The VaultContent record holds the parsed content of a decrypted vault file: the account and its entries.
+ * The entries are not sorted or indexed yet, this is done by the MainModel.
+ * The record also converts entries back to the JSON format of the vault file.
+ *
+ * @param accountName     The name of the account
+ * @param accountPassword The password of the account
+ * @param entries         The entries in the order of the vault file
+ */
+public record VaultContent(String accountName, String accountPassword, List<MainModelEntry> entries) {
+
+    /**
+     * Method that parses the decrypted content in JSON file format
+     * For each entry in the JSON file, it creates a new MainModelEntry
+     * Entries of older vault files have no id yet, they (and entries with a duplicate id) get a new id, which is stored with the next save
+     *
+     * @param decryptedContent the decrypted content of the vault file
+     * @return the parsed content
+     * @throws org.json.JSONException if the content is not a valid vault
+     */
+    public static VaultContent parse(String decryptedContent) {
+        JSONObject vault = new JSONObject(decryptedContent);
+        JSONArray entryArray = vault.getJSONArray("Entries");
+        List<MainModelEntry> entries = new ArrayList<>(entryArray.length());
+        Set<String> loadedIds = new HashSet<>();
+        for (int i = 0; i < entryArray.length(); i++) {
+            JSONObject currentEntryObject = entryArray.getJSONObject(i);
+            String id = currentEntryObject.optString("id", "");
+            if (id.isEmpty() || !loadedIds.add(id)) {
+                id = MainModelEntry.newId();
+            }
+            entries.add(new MainModelEntry
+                    (
+                            id,
+                            currentEntryObject.getString("passwordTitel"),
+                            currentEntryObject.getString("username"),
+                            currentEntryObject.getString("website"),
+                            currentEntryObject.getString("email"),
+                            currentEntryObject.getString("oneTimePassword"),
+                            currentEntryObject.getString("password"),
+                            currentEntryObject.getString("passwordStrength"),
+                            currentEntryObject.getBoolean("isFavourite"),
+                            currentEntryObject.getBoolean("isCompromised")
+                    ));
+        }
+        return new VaultContent(vault.getString("accountName"), vault.getString("accountPassword"), entries);
+    }
+
+    /**
+     * Method that converts an entry to the JSON format of the vault file
+     *
+     * @param entry the entry
+     * @return the entry as JSONObject
+     */
+    public static JSONObject toJson(MainModelEntry entry) {
+        JSONObject entryObject = new JSONObject();
+        entryObject.put("id", entry.getId());
+        entryObject.put("passwordTitel", entry.getPasswordTitel());
+        entryObject.put("username", entry.getUsername());
+        entryObject.put("website", entry.getWebsite());
+        entryObject.put("email", entry.getEmail());
+        entryObject.put("oneTimePassword", entry.getOneTimePassword());
+        entryObject.put("password", entry.getPassword());
+        entryObject.put("isFavourite", entry.getFavourite());
+        entryObject.put("isCompromised", entry.getCompromised());
+        entryObject.put("passwordStrength", entry.getPasswordStrengthCategories().toString());
+        return entryObject;
+    }
+}
@@ -0,0 +1,175 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import ch.zhaw.it.pm.vault_guard.service.pwexport.EncryptedArchiveOutputStream;
+import ch.zhaw.it.pm.vault_guard.service.pwexport.ExportFormat;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * The VaultExporter writes the entries of a vault to a CSV file, a JSON file or an encrypted archive.
+ * The entries are written one at a time from a snapshot of the MainModel straight into the file (through the
+ * EncryptedArchiveOutputStream for the archive), so the export is never built as one document in memory like in saveData.
+ * The CSV columns are the ones the CsvEntryReader and most password managers import. The JSON export has the format
+ * of the vault file without the account password, and the archive is the JSON export encrypted with the account password.
+ * An export file is written to a temporary file, which is readable only by the owner on POSIX file systems,
+ * and then moved to its place, so a failed export does not leave a half written file.
+ */
+public class VaultExporter {
+
+    static final String CSV_HEADER = "name,url,username,password,totp,email";
+    private static final Log log = LogFactory.getLog(VaultExporter.class);
+
+    private final MainModel mainModel;
+
+    /**
+     * Constructor of the VaultExporter
+     *
+     * @param mainModel The MainModel of the vault to be exported
+     */
+    public VaultExporter(MainModel mainModel) {
+        this.mainModel = mainModel;
+    }
+
+    /**
+     * Exports the vault to a file, an existing file is replaced.
+     *
+     * @param file   The export file
+     * @param format The format of the export
+     * @return The result of the export
+     * @throws IOException If the file cannot be written
+     */
+    public ExportResult exportFile(Path file, ExportFormat format) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporaryFile = Files.createTempFile(directory, ".vault-guard-export", ".tmp");
+        try {
+            ExportResult result;
+            try (OutputStream output = Files.newOutputStream(temporaryFile)) {
+                result = export(output, format);
+            }
+            move(temporaryFile, file);
+            log.info(String.format("Exported %d entries to %s in %d ms, %.0f entries/s",
+                    result.exportedCount(), format.getShortName(), result.totalMillis(), result.entriesPerSecond()));
+            return result;
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Exports the vault to a stream. The stream is flushed but not closed.
+     *
+     * @param output The stream the export is written to
+     * @param format The format of the export
+     * @return The result of the export
+     * @throws IOException If the stream cannot be written
+     */
+    public ExportResult export(OutputStream output, ExportFormat format) throws IOException {
+        long start = System.nanoTime();
+        List<MainModelEntry> entries = mainModel.getEntrySnapshot();
+        EncryptedArchiveOutputStream archive = format.isEncrypted()
+                ? new EncryptedArchiveOutputStream(output, mainModel.getAccountPassword()) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(archive != null ? archive : output, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writeCsv(writer, entries);
+        } else {
+            writeJson(writer, entries);
+        }
+        writer.flush();
+        if (archive != null) {
+            archive.finish();
+        }
+        return new ExportResult(entries.size(), System.nanoTime() - start);
+    }
+
+    /**
+     * Helper method that writes the entries as CSV, one record per entry.
+     *
+     * @param writer  The writer of the export
+     * @param entries The entries
+     * @throws IOException If the export cannot be written
+     */
+    private static void writeCsv(Writer writer, List<MainModelEntry> entries) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        for (MainModelEntry entry : entries) {
+            writeCsvField(writer, entry.getPasswordTitel());
+            writer.write(',');
+            writeCsvField(writer, entry.getWebsite());
+            writer.write(',');
+            writeCsvField(writer, entry.getUsername());
+            writer.write(',');
+            writeCsvField(writer, entry.getPassword());
+            writer.write(',');
+            writeCsvField(writer, entry.getOneTimePassword());
+            writer.write(',');
+            writeCsvField(writer, entry.getEmail());
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Helper method that writes a CSV field, in double quotes if it contains a comma, a double quote or a line break (RFC 4180).
+     *
+     * @param writer The writer of the export
+     * @param value  The value of the field
+     * @throws IOException If the export cannot be written
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Helper method that writes the entries in the JSON format of the vault file, one entry object at a time.
+     *
+     * @param writer  The writer of the export
+     * @param entries The entries
+     * @throws IOException If the export cannot be written
+     */
+    private void writeJson(Writer writer, List<MainModelEntry> entries) throws IOException {
+        writer.write("{\"accountName\":");
+        writer.write(JSONObject.quote(mainModel.getAccountName()));
+        writer.write(",\"Entries\":[");
+        for (int i = 0; i < entries.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write('\n');
+            writer.write(VaultContent.toJson(entries.get(i)).toString());
+        }
+        writer.write("\n]}\n");
+    }
+
+    /**
+     * Helper method that moves the finished export to its place, atomically if the file system supports it.
+     *
+     * @param temporaryFile The finished export
+     * @param file          The export file
+     * @throws IOException If the export cannot be moved
+     */
+    private static void move(Path temporaryFile, Path file) throws IOException {
+        try {
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import ch.zhaw.it.pm.vault_guard.service.pwexport.EncryptedArchiveInputStream;
+import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCalculator;
+import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCategories;
+import ch.zhaw.it.pm.vault_guard.service.pwimport.ImportException;
+import ch.zhaw.it.pm.vault_guard.service.pwimport.ImportFormat;
+import ch.zhaw.it.pm.vault_guard.service.pwimport.ImportedEntry;
+import ch.zhaw.it.pm.vault_guard.service.pwned.PasswordCheckException;
+import ch.zhaw.it.pm.vault_guard.util.ExecutorManager;
+import ch.zhaw.it.pm.vault_guard.util.StorageException;
+import com.google.common.collect.Lists;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * The VaultImporter adds the entries of an export of another password manager (CSV, Bitwarden JSON or KeePass XML)
+ * or of an encrypted archive exported by Vault Guard to a vault.
+ * The export is read as a stream and the entries are added to the MainModel in batches, so neither the export nor
+ * the model events grow with the size of the file. The vault is saved once at the end. If the import fails,
+ * the entries added so far are removed again.
+ * The imported entries get the strength WEAK first. The real strength and the breach check are calculated afterward
+ * by checkImportedEntriesInBackground in two parallel background stages. All importers share the executors of the stages,
+ * which are registered once, the threads of the strength stage are stopped when no import ran for a while.
+ */
+public class VaultImporter {
+
+    static final int DEFAULT_BATCH_SIZE = 1_000;
+    static final int MAX_PARALLEL_BREACH_CHECKS = 8;
+    private static final int STRENGTH_CHUNKS_PER_THREAD = 4;
+    private static final int STRENGTH_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final long IDLE_SECONDS = 30;
+    private static final Log log = LogFactory.getLog(VaultImporter.class);
+    private static final ExecutorService strengthExecutor = createStrengthExecutor();
+    private static final ExecutorService breachExecutor = createBreachExecutor();
+
+    private final MainModel mainModel;
+    private final PasswordStrengthCalculator strengthCalculator;
+    private final int batchSize;
+
+    /**
+     * Constructor of the VaultImporter
+     *
+     * @param mainModel The MainModel of the vault the entries are added to
+     */
+    public VaultImporter(MainModel mainModel) {
+        this(mainModel, new PasswordStrengthCalculator(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor of the VaultImporter used for testing
+     *
+     * @param mainModel          The MainModel of the vault the entries are added to
+     * @param strengthCalculator The calculator of the password strength
+     * @param batchSize          The number of entries that are added to the MainModel at once
+     */
+    VaultImporter(MainModel mainModel, PasswordStrengthCalculator strengthCalculator, int batchSize) {
+        this.mainModel = mainModel;
+        this.strengthCalculator = strengthCalculator;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports an export file (UTF-8) and saves the vault. An archive is decrypted with the account password of the vault
+     * while it is read.
+     *
+     * @param file   The export file
+     * @param format The format of the export
+     * @return The result of the import
+     * @throws IOException                     If the export cannot be read or the vault cannot be saved
+     * @throws ImportException                 If the export is not valid
+     * @throws MainModel.EncryptErrorException If the vault cannot be encrypted
+     * @throws StorageException                If the vault cannot be written
+     */
+    public ImportResult importFile(Path file, ImportFormat format)
+            throws IOException, ImportException, MainModel.EncryptErrorException, StorageException {
+        if (!format.isEncrypted()) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                return importEntries(reader, format);
+            }
+        }
+        try (InputStream input = Files.newInputStream(file);
+             Reader reader = new BufferedReader(new InputStreamReader(
+                     new EncryptedArchiveInputStream(input, mainModel.getAccountPassword()), StandardCharsets.UTF_8))) {
+            return importEntries(reader, format);
+        }
+    }
+
+    /**
+     * Imports an export and saves the vault. Entries without username, website and password (e.g. secure notes) are skipped.
+     *
+     * @param reader The reader of the export
+     * @param format The format of the export
+     * @return The result of the import
+     * @throws IOException                     If the export cannot be read or the vault cannot be saved
+     * @throws ImportException                 If the export is not valid
+     * @throws MainModel.EncryptErrorException If the vault cannot be encrypted
+     * @throws StorageException                If the vault cannot be written
+     */
+    public ImportResult importEntries(Reader reader, ImportFormat format)
+            throws IOException, ImportException, MainModel.EncryptErrorException, StorageException {
+        long start = System.nanoTime();
+        List<MainModelEntry> importedEntries = new ArrayList<>();
+        List<MainModelEntry> batch = new ArrayList<>(batchSize);
+        int[] skippedEntries = {0};
+        try {
+            format.createReader().read(reader, importedEntry -> {
+                if (importedEntry.isEmpty()) {
+                    skippedEntries[0]++;
+                    return;
+                }
+                batch.add(toEntry(importedEntry));
+                if (batch.size() == batchSize) {
+                    importedEntries.addAll(mainModel.addEntries(batch));
+                    batch.clear();
+                }
+            });
+            importedEntries.addAll(mainModel.addEntries(batch));
+        } catch (IOException | ImportException | RuntimeException e) {
+            mainModel.removeEntries(importedEntries);
+            throw e;
+        }
+        long imported = System.nanoTime();
+        if (!importedEntries.isEmpty()) {
+            try {
+                mainModel.saveData();
+            } catch (IOException | MainModel.EncryptErrorException | StorageException e) {
+                mainModel.removeEntries(importedEntries);
+                throw e;
+            }
+        }
+        ImportResult result = new ImportResult(importedEntries, skippedEntries[0], imported - start, System.nanoTime() - imported);
+        log.info(String.format("Imported %d entries (%d skipped) in %d ms, %.0f entries/s",
+                result.importedCount(), result.skippedEntries(), result.totalMillis(), result.entriesPerSecond()));
+        return result;
+    }
+
+    /**
+     * Calculates the password strength of imported entries and checks them against Have I Been Pwned in two parallel
+     * background stages. The strengths are calculated on one thread per processor, the breach checks run on virtual threads
+     * with at most MAX_PARALLEL_BREACH_CHECKS requests at a time, and every distinct password is calculated and checked only once.
+     * The vault is saved once after both stages if a strength or a compromised flag has changed.
+     * The breach check stops at the first failed request, like the background breach scan.
+     *
+     * @param entries       The imported entries
+     * @param checkBreaches false to calculate the strengths only
+     * @return The future that is completed when both stages are done and the vault is saved
+     */
+    public CompletableFuture<Void> checkImportedEntriesInBackground(List<MainModelEntry> entries, boolean checkBreaches) {
+        CompletableFuture<Boolean> strengths = calculateStrengths(entries);
+        CompletableFuture<Boolean> breaches = checkBreaches ? checkBreaches(entries) : CompletableFuture.completedFuture(false);
+        return strengths.thenCombine(breaches, (strengthChanged, compromisedFound) -> strengthChanged || compromisedFound)
+                .thenAccept(changed -> {
+                    if (changed) {
+                        save();
+                    }
+                });
+    }
+
+    /**
+     * Helper method that calculates the strength of the entries in parallel and updates them in the MainModel at once.
+     *
+     * @param entries The imported entries
+     * @return The future that is completed with true if a strength has changed
+     */
+    private CompletableFuture<Boolean> calculateStrengths(List<MainModelEntry> entries) {
+        long start = System.nanoTime();
+        Map<String, PasswordStrengthCategories> strengthByPassword = new ConcurrentHashMap<>();
+        int chunkSize = Math.max(1, entries.size() / (STRENGTH_THREADS * STRENGTH_CHUNKS_PER_THREAD));
+        List<CompletableFuture<Map<MainModelEntry, PasswordStrengthCategories>>> chunks = Lists.partition(entries, chunkSize).stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> calculateStrengths(chunk, strengthByPassword), strengthExecutor))
+                .toList();
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    Map<MainModelEntry, PasswordStrengthCategories> strengths = new HashMap<>(entries.size());
+                    chunks.forEach(chunk -> strengths.putAll(chunk.join()));
+                    List<MainModelEntry> changedEntries = mainModel.updatePasswordStrengths(strengths);
+                    log.info("Calculated the strength of " + entries.size() + " imported entries in "
+                            + (System.nanoTime() - start) / 1_000_000 + " ms");
+                    return !changedEntries.isEmpty();
+                });
+    }
+
+    /**
+     * Helper method that calculates the strength of a part of the entries. The strength of a password that was
+     * already calculated by another thread is reused.
+     *
+     * @param entries            The part of the entries
+     * @param strengthByPassword The strengths calculated so far by password
+     * @return The strength by entry
+     */
+    private Map<MainModelEntry, PasswordStrengthCategories> calculateStrengths(List<MainModelEntry> entries,
+                                                                               Map<String, PasswordStrengthCategories> strengthByPassword) {
+        Map<MainModelEntry, PasswordStrengthCategories> strengths = new HashMap<>(entries.size() * 2);
+        for (MainModelEntry entry : entries) {
+            PasswordStrengthCategories strength = strengthByPassword.get(entry.getPassword());
+            if (strength == null) {
+                strength = strengthCalculator.calculateStrength(entry.getPassword());
+                strengthByPassword.put(entry.getPassword(), strength);
+            }
+            strengths.put(entry, strength);
+        }
+        return strengths;
+    }
+
+    /**
+     * Helper method that checks every distinct password of the entries against Have I Been Pwned on virtual threads.
+     * The result of a password is set on all entries with the password.
+     *
+     * @param entries The imported entries
+     * @return The future that is completed with true if an entry is compromised
+     */
+    private CompletableFuture<Boolean> checkBreaches(List<MainModelEntry> entries) {
+        long start = System.nanoTime();
+        Map<String, List<MainModelEntry>> entriesByPassword = entries.stream()
+                .filter(entry -> !entry.getPassword().isEmpty())
+                .collect(Collectors.groupingBy(MainModelEntry::getPassword, LinkedHashMap::new, Collectors.toList()));
+        Semaphore requests = new Semaphore(MAX_PARALLEL_BREACH_CHECKS);
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicBoolean compromisedFound = new AtomicBoolean();
+        List<CompletableFuture<Void>> checks = entriesByPassword.values().stream()
+                .map(samePassword -> CompletableFuture.runAsync(() -> {
+                    requests.acquireUninterruptibly();
+                    try {
+                        if (!stopped.get() && checkBreach(samePassword)) {
+                            compromisedFound.set(true);
+                        }
+                    } catch (PasswordCheckException e) {
+                        if (stopped.compareAndSet(false, true)) {
+                            log.info("Breach check of the imported entries stopped: " + e.getMessage());
+                        }
+                    } finally {
+                        requests.release();
+                    }
+                }, breachExecutor))
+                .toList();
+        return CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    log.info("Checked " + entriesByPassword.size() + " distinct passwords of the imported entries in "
+                            + (System.nanoTime() - start) / 1_000_000 + " ms");
+                    return compromisedFound.get();
+                });
+    }
+
+    /**
+     * Helper method that checks the password of entries with the same password once and sets the result on all of them.
+     *
+     * @param samePassword The entries with the same password
+     * @return true if the password is compromised
+     * @throws PasswordCheckException If the breach check service cannot be reached
+     */
+    private boolean checkBreach(List<MainModelEntry> samePassword) throws PasswordCheckException {
+        MainModelEntry checkedEntry = samePassword.getFirst();
+        mainModel.checkEntryIfCompromised(checkedEntry);
+        for (MainModelEntry entry : samePassword.subList(1, samePassword.size())) {
+            if (checkedEntry.getCompromised()) {
+                entry.setCompromised(true);
+            }
+            entry.setLastBreachCheck(checkedEntry.getLastBreachCheck());
+        }
+        return checkedEntry.getCompromised();
+    }
+
+    /**
+     * Helper method that saves the vault after the background stages.
+     */
+    private void save() {
+        try {
+            mainModel.saveData();
+        } catch (IOException | MainModel.EncryptErrorException | StorageException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Helper method that creates the entry of the vault for an imported entry, with the strength WEAK until it is calculated.
+     *
+     * @param importedEntry The imported entry
+     * @return The entry of the vault
+     */
+    private static MainModelEntry toEntry(ImportedEntry importedEntry) {
+        return new MainModelEntry(importedEntry.displayTitle(), importedEntry.username(), importedEntry.website(), importedEntry.email(),
+                importedEntry.oneTimePassword(), importedEntry.password(), PasswordStrengthCategories.WEAK.name(), false, false);
+    }
+
+    /**
+     * Helper method that creates the executor of the strength stage shared by all importers, with a thread per processor.
+     * The threads are stopped when they are idle.
+     *
+     * @return The registered executor
+     */
+    private static ExecutorService createStrengthExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(STRENGTH_THREADS, STRENGTH_THREADS, IDLE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "vault-import-strength");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        ExecutorManager.registerExecutor(executor);
+        return executor;
+    }
+
+    /**
+     * Helper method that creates the executor of the breach stage shared by all importers, which starts a virtual thread per check.
+     *
+     * @return The registered executor
+     */
+    private static ExecutorService createBreachExecutor() {
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("vault-import-breach-", 0).factory());
+        ExecutorManager.registerExecutor(executor);
+        return executor;
+    }
+}
@@ -0,0 +1,145 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import ch.zhaw.it.pm.vault_guard.service.pwned.HaveIBeenPawnedService;
+import ch.zhaw.it.pm.vault_guard.util.ExecutorManager;
+import ch.zhaw.it.pm.vault_guard.util.StorageException;
+
+import javax.crypto.NoSuchPaddingException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The VaultUnlockPipeline opens a vault in four stages on a background thread: read the file, decrypt it, parse the entries
+ * and index them in a new MainModel. Every stage is a separate asynchronous step, the progress callback is informed
+ * when a stage starts, so the login window can show the progress while the JavaFX application thread stays free.
+ * The entries are not checked against the breach check service by the pipeline, this is done after the entry list is shown.
+ * All pipelines share one executor, which is registered once and stops its thread when no vault was unlocked for a while,
+ * so a long running process (e.g. the VaultAgent) does not keep an executor per unlock.
+ */
+public class VaultUnlockPipeline {
+
+    private static final long IDLE_SECONDS = 30;
+    private static final ExecutorService executor = createExecutor();
+
+    /**
+     * The stages of the pipeline in the order they are run.
+     */
+    public enum UnlockStage {
+        READ, DECRYPT, PARSE, INDEX
+    }
+
+    private final CryptographyHandler crypter;
+    private final StorageService storageService;
+    private final HaveIBeenPawnedService haveIBeenPawnedService;
+
+    /**
+     * Constructor of the VaultUnlockPipeline
+     *
+     * @param crypter        CryptographyHandler used to decrypt the vault file
+     * @param storageService StorageService used to read the vault file
+     */
+    public VaultUnlockPipeline(CryptographyHandler crypter, StorageService storageService) {
+        this(crypter, storageService, new HaveIBeenPawnedService());
+    }
+
+    /**
+     * Constructor of the VaultUnlockPipeline used for testing with a custom breach check service
+     *
+     * @param crypter                CryptographyHandler used to decrypt the vault file
+     * @param storageService         StorageService used to read the vault file
+     * @param haveIBeenPawnedService HaveIBeenPawnedService of the unlocked MainModel
+     */
+    public VaultUnlockPipeline(CryptographyHandler crypter, StorageService storageService, HaveIBeenPawnedService haveIBeenPawnedService) {
+        this.crypter = crypter;
+        this.storageService = storageService;
+        this.haveIBeenPawnedService = haveIBeenPawnedService;
+    }
+
+    /**
+     * Opens the vault of an account in the background.
+     * The returned future is completed with an empty Optional if there is no vault for the account name or the password is wrong,
+     * and completed exceptionally if the vault file cannot be read, decrypted or parsed.
+     *
+     * @param loginModel  The LoginModel of the login, passed to the unlocked MainModel
+     * @param accountName The name of the account
+     * @param password    The password of the account
+     * @param onStage     Informed on the pipeline thread when a stage starts
+     * @return The future of the unlocked MainModel
+     */
+    public CompletableFuture<Optional<MainModel>> unlock(LoginModel loginModel, String accountName, String password,
+                                                         Consumer<UnlockStage> onStage) {
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    onStage.accept(UnlockStage.READ);
+                    return read(accountName);
+                }, executor)
+                .thenApplyAsync(rawContent -> rawContent.flatMap(content -> {
+                    onStage.accept(UnlockStage.DECRYPT);
+                    return decrypt(content, password);
+                }), executor)
+                .thenApplyAsync(decryptedContent -> decryptedContent.map(content -> {
+                    onStage.accept(UnlockStage.PARSE);
+                    return VaultContent.parse(content);
+                }), executor)
+                .thenApplyAsync(vaultContent -> vaultContent.map(content -> {
+                    onStage.accept(UnlockStage.INDEX);
+                    return new MainModel(crypter, storageService, loginModel, haveIBeenPawnedService, content);
+                }), executor);
+    }
+
+    /**
+     * Helper method that creates the executor shared by all pipelines, with one thread that is stopped when it is idle.
+     *
+     * @return The registered executor
+     */
+    private static ExecutorService createExecutor() {
+        ThreadPoolExecutor unlockExecutor = new ThreadPoolExecutor(1, 1, IDLE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "vault-unlock");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        unlockExecutor.allowCoreThreadTimeOut(true);
+        ExecutorManager.registerExecutor(unlockExecutor);
+        return unlockExecutor;
+    }
+
+    /**
+     * Helper method that reads the vault file of an account.
+     *
+     * @param accountName The name of the account
+     * @return The encrypted content or an empty Optional if there is no vault for the account name
+     */
+    private Optional<String> read(String accountName) {
+        try {
+            return storageService.read(accountName);
+        } catch (StorageException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Helper method that decrypts the content of a vault file.
+     *
+     * @param content  The encrypted content
+     * @param password The password of the account
+     * @return The decrypted content or an empty Optional if the password is wrong
+     */
+    private Optional<String> decrypt(String content, String password) {
+        try {
+            return crypter.decrypt(content, password);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package ch.zhaw.it.pm.vault_guard.service.pwexport;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+import static ch.zhaw.it.pm.vault_guard.service.pwexport.EncryptedArchiveOutputStream.CHUNK_SIZE;
+import static ch.zhaw.it.pm.vault_guard.service.pwexport.EncryptedArchiveOutputStream.HEADER_LENGTH;
+import static ch.zhaw.it.pm.vault_guard.service.pwexport.EncryptedArchiveOutputStream.MAGIC;
+import static ch.zhaw.it.pm.vault_guard.service.pwexport.EncryptedArchiveOutputStream.SALT_LENGTH;
+import static ch.zhaw.it.pm.vault_guard.service.pwexport.EncryptedArchiveOutputStream.TAG_BITS;
+
+/**
+ * The EncryptedArchiveInputStream decrypts an archive written by the EncryptedArchiveOutputStream chunk by chunk,
+ * so an archive of any size is read with a fixed amount of memory. Every chunk is authenticated before its bytes are returned.
+ * A wrong password, a changed chunk and a truncated archive are reported with an IOException.
+ */
+public class EncryptedArchiveInputStream extends InputStream {
+
+    private static final int MAX_ITERATIONS = 10_000_000;
+
+    private final InputStream input;
+    private final Cipher cipher;
+    private final SecretKeySpec key;
+    private final byte[] header;
+    private final byte[] nonce = new byte[12];
+    private final byte[] encryptedChunk = new byte[CHUNK_SIZE + TAG_BITS / 8];
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+    private int chunkLength;
+    private int position;
+    private int chunkNumber;
+    private int lookahead = -1;
+    private boolean lastChunkRead;
+
+    /**
+     * Constructor of the EncryptedArchiveInputStream, reads the header of the archive and derives the key.
+     *
+     * @param input    The stream the archive is read from
+     * @param password The password of the archive
+     * @throws IOException If the header cannot be read or is not the header of an archive
+     */
+    public EncryptedArchiveInputStream(InputStream input, String password) throws IOException {
+        this.input = input;
+        this.header = input.readNBytes(HEADER_LENGTH);
+        if (header.length < HEADER_LENGTH || !Arrays.equals(header, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new IOException("The file is not a Vault Guard archive");
+        }
+        ByteBuffer headerBuffer = ByteBuffer.wrap(header, MAGIC.length, HEADER_LENGTH - MAGIC.length);
+        int iterations = headerBuffer.getInt();
+        if (iterations <= 0 || iterations > MAX_ITERATIONS) {
+            throw new IOException("The archive has an invalid header");
+        }
+        byte[] salt = new byte[SALT_LENGTH];
+        headerBuffer.get(salt);
+        headerBuffer.get(nonce, 0, EncryptedArchiveOutputStream.NONCE_PREFIX_LENGTH);
+        try {
+            this.key = EncryptedArchiveOutputStream.deriveKey(password, salt, iterations);
+            this.cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IOException("The archive cannot be decrypted: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads a byte of the archive.
+     *
+     * @return The byte or -1 at the end of the archive
+     * @throws IOException If the archive cannot be read or decrypted
+     */
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    /**
+     * Reads bytes of the archive.
+     *
+     * @param bytes  The buffer
+     * @param offset The offset in the buffer
+     * @param length The maximum number of bytes
+     * @return The number of bytes read or -1 at the end of the archive
+     * @throws IOException If the archive cannot be read or decrypted
+     */
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (position == chunkLength) {
+            if (lastChunkRead) {
+                return -1;
+            }
+            readChunk();
+        }
+        int copied = Math.min(length, chunkLength - position);
+        System.arraycopy(chunk, position, bytes, offset, copied);
+        position += copied;
+        return copied;
+    }
+
+    /**
+     * Closes the underlying stream.
+     *
+     * @throws IOException If the stream cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Helper method that reads and decrypts the next chunk. A chunk is the last one if the archive ends after it,
+     * which is checked by reading one byte ahead.
+     *
+     * @throws IOException If the archive is truncated, changed or the password is wrong
+     */
+    private void readChunk() throws IOException {
+        int encryptedLength = 0;
+        if (lookahead >= 0) {
+            encryptedChunk[encryptedLength++] = (byte) lookahead;
+        }
+        encryptedLength += input.readNBytes(encryptedChunk, encryptedLength, encryptedChunk.length - encryptedLength);
+        lookahead = encryptedLength == encryptedChunk.length ? input.read() : -1;
+        boolean last = lookahead < 0;
+        if (encryptedLength < TAG_BITS / 8) {
+            throw new IOException("The archive is truncated");
+        }
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS,
+                    EncryptedArchiveOutputStream.chunkNonce(nonce, chunkNumber, last)));
+            cipher.updateAAD(header);
+            chunkLength = cipher.doFinal(encryptedChunk, 0, encryptedLength, chunk, 0);
+        } catch (AEADBadTagException e) {
+            throw new IOException("The password is wrong or the archive is damaged or truncated", e);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("The archive cannot be decrypted: " + e.getMessage(), e);
+        }
+        position = 0;
+        chunkNumber++;
+        lastChunkRead = last;
+    }
+}
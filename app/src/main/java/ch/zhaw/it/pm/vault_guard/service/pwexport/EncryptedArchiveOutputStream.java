@@ -0,0 +1,195 @@
+package ch.zhaw.it.pm.vault_guard.service.pwexport;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * The EncryptedArchiveOutputStream encrypts a stream in chunks of 64 KiB with AES-256-GCM, so an archive of any size
+ * is written with a fixed amount of memory and every chunk is authenticated.
+ * The archive starts with a header: the magic bytes "VGA1", the PBKDF2 iterations, the salt and a random nonce prefix.
+ * The key is derived from the password with PBKDF2WithHmacSHA256. The nonce of a chunk is the nonce prefix, the number
+ * of the chunk and a flag for the last chunk, and the header is authenticated with every chunk, so chunks cannot be
+ * reordered, removed or taken from another archive and a truncated archive is detected.
+ * The archive is read with the EncryptedArchiveInputStream.
+ */
+public class EncryptedArchiveOutputStream extends OutputStream {
+
+    static final byte[] MAGIC = "VGA1".getBytes(StandardCharsets.US_ASCII);
+    static final int CHUNK_SIZE = 64 * 1024;
+    static final int TAG_BITS = 128;
+    static final int SALT_LENGTH = 16;
+    static final int NONCE_PREFIX_LENGTH = 7;
+    static final int HEADER_LENGTH = MAGIC.length + Integer.BYTES + SALT_LENGTH + NONCE_PREFIX_LENGTH;
+    static final int DEFAULT_ITERATIONS = 310_000;
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final String KEY_DERIVATION = "PBKDF2WithHmacSHA256";
+    private static final int KEY_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final OutputStream output;
+    private final Cipher cipher;
+    private final SecretKeySpec key;
+    private final byte[] header;
+    private final byte[] nonce = new byte[12];
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+    private final byte[] encryptedChunk = new byte[CHUNK_SIZE + TAG_BITS / 8];
+    private int chunkLength;
+    private int chunkNumber;
+    private boolean finished;
+
+    /**
+     * Constructor of the EncryptedArchiveOutputStream, writes the header of the archive.
+     *
+     * @param output   The stream the archive is written to
+     * @param password The password of the archive
+     * @throws IOException If the header cannot be written or AES-GCM is not available
+     */
+    public EncryptedArchiveOutputStream(OutputStream output, String password) throws IOException {
+        this(output, password, DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * Constructor of the EncryptedArchiveOutputStream with a number of PBKDF2 iterations, used for testing.
+     *
+     * @param output     The stream the archive is written to
+     * @param password   The password of the archive
+     * @param iterations The number of PBKDF2 iterations
+     * @throws IOException If the header cannot be written or AES-GCM is not available
+     */
+    EncryptedArchiveOutputStream(OutputStream output, String password, int iterations) throws IOException {
+        this.output = output;
+        byte[] salt = new byte[SALT_LENGTH];
+        RANDOM.nextBytes(salt);
+        RANDOM.nextBytes(nonce);
+        this.header = ByteBuffer.allocate(HEADER_LENGTH).put(MAGIC).putInt(iterations).put(salt).put(nonce, 0, NONCE_PREFIX_LENGTH).array();
+        try {
+            this.key = deriveKey(password, salt, iterations);
+            this.cipher = Cipher.getInstance(CIPHER);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("The archive cannot be encrypted: " + e.getMessage(), e);
+        }
+        output.write(header);
+    }
+
+    /**
+     * Writes a byte to the archive.
+     *
+     * @param value The byte
+     * @throws IOException If the archive cannot be written
+     */
+    @Override
+    public void write(int value) throws IOException {
+        write(new byte[]{(byte) value}, 0, 1);
+    }
+
+    /**
+     * Writes bytes to the archive. A full chunk is encrypted as soon as more bytes follow, so the last chunk is known when it is encrypted.
+     *
+     * @param bytes  The bytes
+     * @param offset The offset of the first byte
+     * @param length The number of bytes
+     * @throws IOException If the archive cannot be written
+     */
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (finished) {
+            throw new IOException("The archive is already finished");
+        }
+        while (length > 0) {
+            if (chunkLength == CHUNK_SIZE) {
+                writeChunk(false);
+            }
+            int copied = Math.min(length, CHUNK_SIZE - chunkLength);
+            System.arraycopy(bytes, offset, chunk, chunkLength, copied);
+            chunkLength += copied;
+            offset += copied;
+            length -= copied;
+        }
+    }
+
+    /**
+     * Encrypts the last chunk without closing the underlying stream. Nothing can be written afterward.
+     *
+     * @throws IOException If the archive cannot be written
+     */
+    public void finish() throws IOException {
+        if (!finished) {
+            writeChunk(true);
+            finished = true;
+            output.flush();
+        }
+    }
+
+    /**
+     * Encrypts the last chunk and closes the underlying stream.
+     *
+     * @throws IOException If the archive cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * Helper method that encrypts the buffered chunk and writes it.
+     *
+     * @param last true if it is the last chunk of the archive
+     * @throws IOException If the archive cannot be written or the chunk cannot be encrypted
+     */
+    private void writeChunk(boolean last) throws IOException {
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, chunkNonce(nonce, chunkNumber, last)));
+            cipher.updateAAD(header);
+            int encryptedLength = cipher.doFinal(chunk, 0, chunkLength, encryptedChunk, 0);
+            output.write(encryptedChunk, 0, encryptedLength);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("The archive cannot be encrypted: " + e.getMessage(), e);
+        }
+        chunkNumber++;
+        chunkLength = 0;
+    }
+
+    /**
+     * Returns the nonce of a chunk: the nonce prefix of the archive, the number of the chunk and the flag for the last chunk.
+     *
+     * @param nonce       The buffer of the nonce, starting with the nonce prefix
+     * @param chunkNumber The number of the chunk
+     * @param last        true if it is the last chunk
+     * @return The buffer with the nonce of the chunk
+     */
+    static byte[] chunkNonce(byte[] nonce, int chunkNumber, boolean last) {
+        ByteBuffer.wrap(nonce, NONCE_PREFIX_LENGTH, 5).putInt(chunkNumber).put((byte) (last ? 1 : 0));
+        return nonce;
+    }
+
+    /**
+     * Derives the AES key of an archive from the password.
+     *
+     * @param password   The password of the archive
+     * @param salt       The salt of the archive
+     * @param iterations The number of PBKDF2 iterations
+     * @return The AES key
+     * @throws GeneralSecurityException If PBKDF2 is not available
+     */
+    static SecretKeySpec deriveKey(String password, byte[] salt, int iterations) throws GeneralSecurityException {
+        PBEKeySpec keySpec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return new SecretKeySpec(SecretKeyFactory.getInstance(KEY_DERIVATION).generateSecret(keySpec).getEncoded(), "AES");
+        } finally {
+            keySpec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ch.zhaw.it.pm.vault_guard.service.pwexport;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * The formats a vault can be exported to, with the file extension and the short name used on the command line.
+ * CSV and JSON are plain text, the archive is the JSON export encrypted with an EncryptedArchiveOutputStream.
+ */
+public enum ExportFormat {
+    CSV("csv", ".csv", false),
+    JSON("json", ".json", false),
+    ARCHIVE("archive", ".vgarchive", true);
+
+    private final String shortName;
+    private final String fileExtension;
+    private final boolean encrypted;
+
+    ExportFormat(String shortName, String fileExtension, boolean encrypted) {
+        this.shortName = shortName;
+        this.fileExtension = fileExtension;
+        this.encrypted = encrypted;
+    }
+
+    /**
+     * Returns the short name used on the command line, e.g. "archive".
+     *
+     * @return The short name
+     */
+    public String getShortName() {
+        return shortName;
+    }
+
+    /**
+     * Returns the file extension of the format including the dot, e.g. ".csv".
+     *
+     * @return The file extension
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Returns whether the export is encrypted.
+     *
+     * @return true for the archive, false for the plain text formats
+     */
+    public boolean isEncrypted() {
+        return encrypted;
+    }
+
+    /**
+     * Returns the format with the short name, the case is ignored.
+     *
+     * @param shortName The short name, e.g. "csv"
+     * @return The format or an empty Optional if there is no format with the name
+     */
+    public static Optional<ExportFormat> fromShortName(String shortName) {
+        return Arrays.stream(values()).filter(format -> format.shortName.equalsIgnoreCase(shortName)).findFirst();
+    }
+
+    /**
+     * Returns the format of a file by its extension, the case is ignored.
+     *
+     * @param fileName The name of the file
+     * @return The format or an empty Optional if the extension is unknown
+     */
+    public static Optional<ExportFormat> fromFileName(String fileName) {
+        String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+        return Arrays.stream(values()).filter(format -> lowerCaseName.endsWith(format.fileExtension)).findFirst();
+    }
+}
@@ -0,0 +1,240 @@
+package ch.zhaw.it.pm.vault_guard.service.pwgenerator;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * The PasswordPolicy class generates random passwords for a fixed set of parameters.
+ * The allowed alphabet is computed once when the policy is created, so a policy can be reused for any number of passwords.
+ * The characters are picked with a SecureRandom by unbiased rejection sampling, every thread uses its own
+ * SecureRandom and reads the random bytes in batches.
+ * A password contains at least one character of every selected category that has allowed characters.
+ * Passwords missing a category are generated again, which keeps the result uniformly distributed over all valid passwords.
+ * Passwords are written into char arrays, which can be cleared by the caller after use.
+ */
+public class PasswordPolicy {
+
+    static final String LOWERCASE_CHARS = "abcdefghijklmnopqrstuvwxyz";
+    static final String UPPERCASE_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    static final String NUMERALS = "0123456789";
+    static final String SPECIAL_SYMBOLS = "!@#$%&*()_+-=[]|/?><";
+    static final int MIN_PASSWORD_LENGTH = 4;
+
+    private static final int UPPERCASE = 1;
+    private static final int NUMERAL = 2;
+    private static final int SPECIAL_SYMBOL = 4;
+    private static final int RANDOM_BATCH_SIZE = 1024;
+    private static final ThreadLocal<RandomBytes> RANDOM_BYTES = ThreadLocal.withInitial(RandomBytes::new);
+
+    private final int length;
+    private final char[] alphabet;
+    private final byte[] categories;
+    private final int requiredCategories;
+    private final int samplingLimit;
+
+    /**
+     * Constructor of the PasswordPolicy.
+     * Lowercase characters are always included, the other categories are included on demand.
+     *
+     * @param length                The length of the passwords.
+     * @param includeNumerals       Whether to include numerals in the passwords.
+     * @param includeUppercase      Whether to include uppercase characters in the passwords.
+     * @param includeSpecialSymbols Whether to include special symbols in the passwords.
+     * @param forbiddenChars        A string containing characters that should not be included in the passwords, may be null.
+     * @throws IllegalArgumentException if the length is less than 4.
+     */
+    public PasswordPolicy(int length, boolean includeNumerals, boolean includeUppercase, boolean includeSpecialSymbols, String forbiddenChars) {
+        if (length < MIN_PASSWORD_LENGTH) {
+            throw new IllegalArgumentException("Password length must be at least 4 characters.");
+        }
+        String forbidden = forbiddenChars == null ? "" : forbiddenChars;
+        StringBuilder allowed = new StringBuilder();
+        StringBuilder allowedCategories = new StringBuilder();
+        int required = 0;
+        required |= appendAllowed(allowed, allowedCategories, LOWERCASE_CHARS, 0, forbidden);
+        if (includeUppercase) {
+            required |= appendAllowed(allowed, allowedCategories, UPPERCASE_CHARS, UPPERCASE, forbidden);
+        }
+        if (includeNumerals) {
+            required |= appendAllowed(allowed, allowedCategories, NUMERALS, NUMERAL, forbidden);
+        }
+        if (includeSpecialSymbols) {
+            required |= appendAllowed(allowed, allowedCategories, SPECIAL_SYMBOLS, SPECIAL_SYMBOL, forbidden);
+        }
+        this.length = length;
+        this.alphabet = allowed.toString().toCharArray();
+        this.categories = new byte[alphabet.length];
+        for (int i = 0; i < alphabet.length; i++) {
+            categories[i] = (byte) allowedCategories.charAt(i);
+        }
+        this.requiredCategories = required;
+        this.samplingLimit = alphabet.length == 0 ? 0 : 256 - 256 % alphabet.length;
+    }
+
+    /**
+     * Returns the length of the passwords.
+     *
+     * @return The length of the passwords.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns whether no characters are allowed, in which case no passwords can be generated.
+     *
+     * @return true if the alphabet is empty.
+     */
+    public boolean isEmpty() {
+        return alphabet.length == 0;
+    }
+
+    /**
+     * Generates a password as String.
+     *
+     * @return A randomly generated password or an empty String if the alphabet is empty.
+     */
+    public String generate() {
+        if (isEmpty()) {
+            return "";
+        }
+        char[] password = new char[length];
+        fill(password, 0);
+        return new String(password);
+    }
+
+    /**
+     * Writes a password into the buffer, starting at the given offset.
+     *
+     * @param buffer The buffer to write the password into.
+     * @param offset The index of the first character of the password.
+     * @throws IllegalStateException     if the alphabet is empty.
+     * @throws IndexOutOfBoundsException if the password does not fit into the buffer.
+     */
+    public void fill(char[] buffer, int offset) {
+        if (isEmpty()) {
+            throw new IllegalStateException("No characters are allowed by the password policy.");
+        }
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        RandomBytes randomBytes = RANDOM_BYTES.get();
+        int end = offset + length;
+        int containedCategories;
+        do {
+            containedCategories = 0;
+            for (int i = offset; i < end; i++) {
+                int index = nextIndex(randomBytes);
+                buffer[i] = alphabet[index];
+                containedCategories |= categories[index];
+            }
+        } while (containedCategories != requiredCategories);
+    }
+
+    /**
+     * Fills the whole buffer with consecutive passwords, the passwords are generated in parallel on all cores.
+     * The buffer length has to be a multiple of the password length.
+     *
+     * @param buffer The buffer to write the passwords into.
+     * @return The number of passwords written.
+     * @throws IllegalArgumentException if the buffer length is not a multiple of the password length.
+     */
+    public int fillAll(char[] buffer) {
+        if (buffer.length % length != 0) {
+            throw new IllegalArgumentException("Buffer length must be a multiple of the password length.");
+        }
+        int count = buffer.length / length;
+        IntStream.range(0, count).parallel().forEach(i -> fill(buffer, i * length));
+        return count;
+    }
+
+    /**
+     * Returns a parallel stream of the given number of newly generated passwords.
+     *
+     * @param count The number of passwords.
+     * @return The stream of passwords.
+     */
+    public Stream<char[]> stream(long count) {
+        return LongStream.range(0, count).parallel().mapToObj(i -> {
+            char[] password = new char[length];
+            fill(password, 0);
+            return password;
+        });
+    }
+
+    /**
+     * Picks an index into the alphabet. Random bytes at or above the sampling limit are rejected,
+     * so every character of the alphabet has exactly the same probability.
+     *
+     * @param randomBytes The random bytes of the current thread.
+     * @return The index into the alphabet.
+     */
+    private int nextIndex(RandomBytes randomBytes) {
+        int value;
+        do {
+            value = randomBytes.next();
+        } while (value >= samplingLimit);
+        return value % alphabet.length;
+    }
+
+    /**
+     * Appends the allowed characters of a category to the alphabet.
+     *
+     * @param allowed           The alphabet.
+     * @param allowedCategories The categories of the characters in the alphabet, one char per character.
+     * @param chars             The characters of the category.
+     * @param category          The category bit.
+     * @param forbiddenChars    The characters that should not be included.
+     * @return The category bit if at least one character of the category is allowed, otherwise 0.
+     */
+    private static int appendAllowed(StringBuilder allowed, StringBuilder allowedCategories, String chars, int category, String forbiddenChars) {
+        int added = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (forbiddenChars.indexOf(c) == -1) {
+                allowed.append(c);
+                allowedCategories.append((char) category);
+                added = category;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * The SecureRandom of one thread, which is read in batches of random bytes.
+     * A DRBG instance per thread is used, so threads do not contend for the shared lock of the native PRNG.
+     */
+    private static class RandomBytes {
+        private final SecureRandom random = createRandom();
+        private final byte[] bytes = new byte[RANDOM_BATCH_SIZE];
+        private int position = bytes.length;
+
+        /**
+         * Returns the next random byte as unsigned value.
+         *
+         * @return A random value between 0 and 255.
+         */
+        int next() {
+            if (position == bytes.length) {
+                random.nextBytes(bytes);
+                position = 0;
+            }
+            return bytes[position++] & 0xff;
+        }
+
+        /**
+         * Creates the SecureRandom of a thread.
+         *
+         * @return A DRBG SecureRandom or the default SecureRandom if DRBG is not available.
+         */
+        private static SecureRandom createRandom() {
+            try {
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        }
+    }
+}
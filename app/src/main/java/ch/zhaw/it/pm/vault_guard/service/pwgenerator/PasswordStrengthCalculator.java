@@ -1,12 +1,14 @@
 package ch.zhaw.it.pm.vault_guard.service.pwgenerator;
 
+import com.google.common.base.Suppliers;
 import me.xdrop.fuzzywuzzy.FuzzySearch;
 
-import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -19,10 +21,15 @@ import org.apache.commons.logging.LogFactory;
  * The strength of the password is categorized into five categories: VERY_WEAK, WEAK, MODERATE, STRONG, VERY_STRONG.
  * The class uses the FuzzySearch library to perform a fuzzy search on the password against a list of English words and known passwords.
  * The class reads the English words and known passwords from files in the resources/dictionaries directory.
+ * The files are read once on the first use and shared by all instances.
  */
 public class PasswordStrengthCalculator {
 
     private static final Log log = LogFactory.getLog(PasswordStrengthCalculator.class);
+    private static final Supplier<List<String>> englishVocabulary =
+            Suppliers.memoize(() -> readPasswordReferenceFiles("ch/zhaw/it/pm/vault_guard/dictionaries/english.txt"));
+    private static final Supplier<List<String>> commonPasswords =
+            Suppliers.memoize(() -> readPasswordReferenceFiles("ch/zhaw/it/pm/vault_guard/dictionaries/known_passwords.txt"));
 
     /**
      * Calculates the strength of a password.
@@ -173,7 +180,7 @@ public class PasswordStrengthCalculator {
      * @return A list of English words.
      */
     private List<String> getEnglishVocabulary() {
-        return readPasswordReferenceFiles("ch/zhaw/it/pm/vault_guard/dictionaries/english.txt");
+        return englishVocabulary.get();
     }
 
     /**
@@ -182,7 +189,7 @@ public class PasswordStrengthCalculator {
      * @return A list of common passwords.
      */
     private List<String> getCommonPasswords() {
-        return readPasswordReferenceFiles("ch/zhaw/it/pm/vault_guard/dictionaries/known_passwords.txt");
+        return commonPasswords.get();
     }
 
     /**
@@ -206,18 +213,19 @@ public class PasswordStrengthCalculator {
     }
 
     /**
-     * Reads password reference files.
+     * Reads password reference files from the classpath.
      *
      * @param pathToFile The path to the file to read.
      * @return A list of lines from the file.
      */
-    private List<String> readPasswordReferenceFiles(String pathToFile) {
-        try {
-            ClassLoader classLoader = getClass().getClassLoader();
-            URL ressourceUrl = classLoader.getResource(pathToFile);
-            assert ressourceUrl != null;
-            Path path = Paths.get(ressourceUrl.toURI());
-            return Files.readAllLines(path);
+    private static List<String> readPasswordReferenceFiles(String pathToFile) {
+        InputStream resource = PasswordStrengthCalculator.class.getClassLoader().getResourceAsStream(pathToFile);
+        if (resource == null) {
+            log.error("Error reading password reference files: " + pathToFile + " not found");
+            return List.of();
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource, StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
         } catch (Exception ex) {
             log.error("Error reading password reference files: " + ex.getMessage());
             return List.of();
@@ -0,0 +1,187 @@
+package ch.zhaw.it.pm.vault_guard.service.pwgenerator;
+
+import com.google.common.io.BaseEncoding;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The TOTPCalculator class computes Time-based One-Time Passwords according to RFC 6238.
+ * The secret is decoded once when the calculator is created. Every thread keeps its own Mac, which is initialised with the
+ * secret only once, and its own buffers, the HMAC is written into the reused buffer with doFinal(buffer, 0).
+ * The codes are returned as primitive ints, format pads them with leading zeros for display.
+ */
+public class TOTPCalculator {
+
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+    private static final int DEFAULT_DIGITS = 6;
+    private static final int DEFAULT_PERIOD_SECONDS = 30;
+
+    private final int digits;
+    private final long periodMillis;
+    private final ThreadLocal<HmacState> hmacState;
+
+    /**
+     * Constructor of the TOTPCalculator with the defaults of most authenticator apps (SHA1, 6 digits, 30 seconds).
+     *
+     * @param base32Secret The Base32 encoded secret key.
+     * @throws IllegalArgumentException if the secret key is not valid Base32.
+     */
+    public TOTPCalculator(String base32Secret) {
+        this(base32Secret, TOTPHashAlgorithm.SHA1, DEFAULT_DIGITS, DEFAULT_PERIOD_SECONDS);
+    }
+
+    /**
+     * Constructor of the TOTPCalculator.
+     *
+     * @param base32Secret  The Base32 encoded secret key. Spaces, hyphens, padding and lower case letters are accepted.
+     * @param algorithm     The hash algorithm of the HMAC.
+     * @param digits        The number of digits of the code (1 to 8).
+     * @param periodSeconds The time step of the code in seconds.
+     * @throws IllegalArgumentException if the secret key is not valid Base32 or a parameter is out of range.
+     */
+    public TOTPCalculator(String base32Secret, TOTPHashAlgorithm algorithm, int digits, int periodSeconds) {
+        this(decodeBase32(base32Secret), algorithm, digits, periodSeconds);
+    }
+
+    /**
+     * Constructor of the TOTPCalculator with a raw secret key.
+     *
+     * @param secret        The raw secret key.
+     * @param algorithm     The hash algorithm of the HMAC.
+     * @param digits        The number of digits of the code (1 to 8).
+     * @param periodSeconds The time step of the code in seconds.
+     * @throws IllegalArgumentException if the secret key is empty or a parameter is out of range.
+     */
+    public TOTPCalculator(byte[] secret, TOTPHashAlgorithm algorithm, int digits, int periodSeconds) {
+        if (secret.length == 0) {
+            throw new IllegalArgumentException("Secret key must not be empty");
+        }
+        if (digits < 1 || digits >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Digits must be between 1 and 8");
+        }
+        if (periodSeconds < 1) {
+            throw new IllegalArgumentException("Period must be at least one second");
+        }
+        this.digits = digits;
+        this.periodMillis = periodSeconds * 1000L;
+        Key key = new SecretKeySpec(secret, algorithm.getMacName());
+        this.hmacState = ThreadLocal.withInitial(() -> new HmacState(algorithm, key));
+    }
+
+    /**
+     * Computes the code that is valid at the given point in time.
+     *
+     * @param epochMillis The point in time in epoch milliseconds.
+     * @return The code as int, without leading zeros.
+     */
+    public int codeAt(long epochMillis) {
+        return codeForTimeStep(timeStep(epochMillis));
+    }
+
+    /**
+     * Computes the code of a time step.
+     *
+     * @param timeStep The time step (epoch milliseconds divided by the period).
+     * @return The code as int, without leading zeros.
+     */
+    public int codeForTimeStep(long timeStep) {
+        HmacState state = hmacState.get();
+        byte[] counter = state.counter;
+        for (int i = 7; i >= 0; i--) {
+            counter[i] = (byte) timeStep;
+            timeStep >>>= 8;
+        }
+        byte[] hash = state.hash;
+        try {
+            state.mac.update(counter);
+            state.mac.doFinal(hash, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException("HMAC could not be computed", e);
+        }
+        int offset = hash[hash.length - 1] & 0x0f;
+        int binary = ((hash[offset] & 0x7f) << 24)
+                | ((hash[offset + 1] & 0xff) << 16)
+                | ((hash[offset + 2] & 0xff) << 8)
+                | (hash[offset + 3] & 0xff);
+        return binary % POWERS_OF_TEN[digits];
+    }
+
+    /**
+     * Returns the time step of a point in time.
+     *
+     * @param epochMillis The point in time in epoch milliseconds.
+     * @return The time step.
+     */
+    public long timeStep(long epochMillis) {
+        return epochMillis / periodMillis;
+    }
+
+    /**
+     * Returns the period of the codes in milliseconds.
+     *
+     * @return The period in milliseconds.
+     */
+    public long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    /**
+     * Formats a code with leading zeros to the configured number of digits.
+     *
+     * @param code The code.
+     * @return The formatted code.
+     */
+    public String format(int code) {
+        char[] formatted = new char[digits];
+        for (int i = digits - 1; i >= 0; i--) {
+            formatted[i] = (char) ('0' + code % 10);
+            code /= 10;
+        }
+        return new String(formatted);
+    }
+
+    /**
+     * Decodes a Base32 secret key. Spaces, hyphens, padding and lower case letters are accepted.
+     *
+     * @param base32Secret The Base32 encoded secret key.
+     * @return The decoded secret key.
+     * @throws IllegalArgumentException if the secret key is not valid Base32.
+     */
+    static byte[] decodeBase32(String base32Secret) {
+        String normalized = base32Secret.replaceAll("[\\s=-]", "").toUpperCase();
+        return BaseEncoding.base32().omitPadding().decode(normalized);
+    }
+
+    /**
+     * The keyed Mac and buffers of one thread.
+     */
+    private static class HmacState {
+        private final Mac mac;
+        private final byte[] counter = new byte[8];
+        private final byte[] hash;
+
+        /**
+         * Constructor of the HmacState. The Mac is initialised with the secret key once,
+         * doFinal resets it for the next code with the same key.
+         *
+         * @param algorithm The hash algorithm.
+         * @param key       The secret key.
+         */
+        HmacState(TOTPHashAlgorithm algorithm, Key key) {
+            try {
+                mac = Mac.getInstance(algorithm.getMacName());
+                mac.init(key);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(algorithm.getMacName() + " is not available", e);
+            } catch (InvalidKeyException e) {
+                throw new IllegalArgumentException("Secret key is not valid", e);
+            }
+            hash = new byte[mac.getMacLength()];
+        }
+    }
+}
@@ -1,88 +1,227 @@
 package ch.zhaw.it.pm.vault_guard.service.pwgenerator;
 
 import ch.zhaw.it.pm.vault_guard.util.ExecutorManager;
-import com.warrenstrange.googleauth.GoogleAuthenticator;
-import com.warrenstrange.googleauth.GoogleAuthenticatorConfig;
 
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
- * The TOTPGenerator class is responsible for generating a Time-based One-Time Password (TOTP).
- * It uses the GoogleAuthenticator library to generate the TOTP.
- * The class provides a method to start the TOTP generation and a method to stop the TOTP generation.
- * The class uses the PropertyChangeSupport to inform the listeners about the TOTP.
+ * The TOTPGenerator class is responsible for generating Time-based One-Time Passwords (TOTP).
+ * Every secret is decoded once into a TOTPCalculator, which computes the codes without allocating per call.
+ * One shared ticker thread serves all subscribed secrets, so showing many TOTP entries does not need a thread per entry.
+ * The code of every secret is computed only once per time step, the current and the next code are cached.
+ * Subscribers are informed with the property "TOTP" when the code changes and with the property "TOTPCountdown"
+ * (the remaining seconds of the current code) once per second.
  */
 public class TOTPGenerator {
 
+    private static final long TIME_STEP_MILLIS = 30000;
 
+    private final Map<String, SecretState> secrets = new HashMap<>();
+    private final PropertyChangeSupport countdownSupport = new PropertyChangeSupport(this);
     private ScheduledExecutorService scheduler;
-    private final PropertyChangeSupport support = new PropertyChangeSupport(this);
+    private ScheduledFuture<?> tickTask;
 
     /**
-     * Starts the TOTP generation in a separate thread.
+     * Subscribes a listener to the TOTP of the given secret key.
+     * The listener immediately receives the current code and countdown and is then informed by the shared ticker.
+     * If the secret key is invalid, the listener receives no events.
      *
      * @param secretKey The secret key used to generate the TOTP.
+     * @param listener  The PropertyChangeListener to inform about the TOTP and the countdown.
+     * @return The subscription, which has to be cancelled when the TOTP is no longer shown.
      */
-    public synchronized void runTOTPGenerator(String secretKey) {
-        GoogleAuthenticator gAuth;
-
-        if (scheduler == null || scheduler.isShutdown()) {
-            scheduler = Executors.newSingleThreadScheduledExecutor();
-            ExecutorManager.registerExecutor(scheduler);
+    public synchronized TOTPSubscription subscribe(String secretKey, PropertyChangeListener listener) {
+        long now = System.currentTimeMillis();
+        SecretState state = secrets.computeIfAbsent(secretKey, SecretState::new);
+        state.update(now / TIME_STEP_MILLIS);
+        state.support.addPropertyChangeListener(listener);
+        if (state.isValid()) {
+            countdownSupport.addPropertyChangeListener(listener);
+            listener.propertyChange(new PropertyChangeEvent(this, "TOTP", "", state.currentCode));
+            listener.propertyChange(new PropertyChangeEvent(this, "TOTPCountdown", -1, secondsRemaining(now)));
+            startTicker();
         }
+        return new TOTPSubscription(secretKey, listener);
+    }
 
-        GoogleAuthenticatorConfig config = new GoogleAuthenticatorConfig.GoogleAuthenticatorConfigBuilder()
-                .setTimeStepSizeInMillis(30000)
-                .setCodeDigits(6)
-                .build();
+    /**
+     * Returns the cached next code of the given secret key, if it is subscribed and valid.
+     *
+     * @param secretKey The secret key.
+     * @return The code of the next time step or an empty String.
+     */
+    public synchronized String getNextCode(String secretKey) {
+        SecretState state = secrets.get(secretKey);
+        return (state == null || !state.isValid()) ? "" : state.nextCode;
+    }
 
-        gAuth = new GoogleAuthenticator(config);
-        Runnable totpTask = () -> {
-            int totp = gAuth.getTotpPassword(secretKey);
-            long timeRemaining = (30000 - (System.currentTimeMillis() % 30000)) / 1000;
-            informListeners(totp + " (" + timeRemaining + " seconds)");
-        };
+    /**
+     * Stops the ticker and removes all subscriptions.
+     */
+    public synchronized void shutdown() {
+        secrets.clear();
+        for (PropertyChangeListener listener : countdownSupport.getPropertyChangeListeners()) {
+            countdownSupport.removePropertyChangeListener(listener);
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+            tickTask = null;
+        }
+    }
 
-        scheduler.scheduleAtFixedRate(totpTask, 0, 1, TimeUnit.SECONDS);
+    /**
+     * Removes a subscription. The ticker is paused when there are no subscriptions left.
+     *
+     * @param secretKey The secret key of the subscription.
+     * @param listener  The listener of the subscription.
+     */
+    private synchronized void unsubscribe(String secretKey, PropertyChangeListener listener) {
+        countdownSupport.removePropertyChangeListener(listener);
+        SecretState state = secrets.get(secretKey);
+        if (state != null) {
+            state.support.removePropertyChangeListener(listener);
+            if (!state.support.hasListeners(null)) {
+                secrets.remove(secretKey);
+            }
+        }
+        if (secrets.isEmpty() && tickTask != null) {
+            tickTask.cancel(false);
+            tickTask = null;
+        }
     }
 
     /**
-     * Stops the TOTP generation.
+     * Starts the shared ticker, aligned to the start of the next second, if it is not running yet.
      */
-    private synchronized void stopGenerator() {
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(1, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
+    private void startTicker() {
+        if (tickTask != null) {
+            return;
+        }
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "totp-ticker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ExecutorManager.registerExecutor(scheduler);
+        }
+        long initialDelay = 1000 - System.currentTimeMillis() % 1000;
+        tickTask = scheduler.scheduleAtFixedRate(this::tick, initialDelay, 1000, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs once per second. New codes are computed and published only when the time step changes,
+     * the countdown is published to all subscribers on every tick.
+     */
+    private synchronized void tick() {
+        long now = System.currentTimeMillis();
+        long timeStep = now / TIME_STEP_MILLIS;
+        for (SecretState state : secrets.values()) {
+            if (state.timeStep != timeStep) {
+                String previousCode = state.currentCode;
+                state.update(timeStep);
+                if (state.isValid()) {
+                    state.support.firePropertyChange("TOTP", previousCode, state.currentCode);
+                }
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
         }
+        countdownSupport.firePropertyChange("TOTPCountdown", -1, secondsRemaining(now));
     }
 
     /**
-     * Adds a PropertyChangeListener to the TOTPGenerator.
+     * Returns the remaining seconds of the code of the current time step.
      *
-     * @param listener The PropertyChangeListener to add.
+     * @param now The current time in milliseconds.
+     * @return The remaining seconds.
+     */
+    private static int secondsRemaining(long now) {
+        return (int) ((TIME_STEP_MILLIS - now % TIME_STEP_MILLIS) / 1000);
+    }
+
+    /**
+     * The cached codes and the subscribers of one secret key.
      */
-    public void addPropertyChangeListener(PropertyChangeListener listener) {
-        if (support.getPropertyChangeListeners().length != 0) {
-            support.removePropertyChangeListener(support.getPropertyChangeListeners()[0]);
-            stopGenerator();
+    private class SecretState {
+        private final TOTPCalculator calculator;
+        private final PropertyChangeSupport support = new PropertyChangeSupport(TOTPGenerator.this);
+        private long timeStep = -1;
+        private String currentCode;
+        private String nextCode;
+
+        /**
+         * Constructor of the SecretState. The secret key is decoded only once here.
+         * If the secret key is not valid Base32, the state stays invalid.
+         *
+         * @param secretKey The secret key.
+         */
+        SecretState(String secretKey) {
+            TOTPCalculator decoded;
+            try {
+                decoded = new TOTPCalculator(secretKey);
+            } catch (IllegalArgumentException e) {
+                decoded = null;
+            }
+            this.calculator = decoded;
+        }
+
+        /**
+         * Updates the cached codes to the given time step.
+         * If the time step directly follows the cached one, the cached next code becomes the current code.
+         *
+         * @param newTimeStep The new time step.
+         */
+        void update(long newTimeStep) {
+            if (newTimeStep == timeStep || calculator == null) {
+                return;
+            }
+            currentCode = (newTimeStep == timeStep + 1 && nextCode != null)
+                    ? nextCode : calculator.format(calculator.codeForTimeStep(newTimeStep));
+            nextCode = calculator.format(calculator.codeForTimeStep(newTimeStep + 1));
+            timeStep = newTimeStep;
+        }
+
+        /**
+         * Returns whether codes could be computed for the secret key.
+         *
+         * @return true if the secret key is valid.
+         */
+        boolean isValid() {
+            return currentCode != null;
         }
-        support.addPropertyChangeListener(listener);
     }
 
     /**
-     * Informs the listeners about the TOTP.
-     *
-     * @param totp The TOTP to inform the listeners about.
+     * A subscription to the TOTP of one secret key.
      */
-    private void informListeners(String totp) {
-        support.firePropertyChange("TOTP", "", totp);
+    public class TOTPSubscription {
+        private final String secretKey;
+        private final PropertyChangeListener listener;
+
+        /**
+         * Constructor of the TOTPSubscription.
+         *
+         * @param secretKey The secret key.
+         * @param listener  The subscribed listener.
+         */
+        private TOTPSubscription(String secretKey, PropertyChangeListener listener) {
+            this.secretKey = secretKey;
+            this.listener = listener;
+        }
+
+        /**
+         * Cancels the subscription. The listener receives no further events.
+         */
+        public void cancel() {
+            unsubscribe(secretKey, listener);
+        }
     }
 }
@@ -0,0 +1,31 @@
+package ch.zhaw.it.pm.vault_guard.service.pwgenerator;
+
+/**
+ * Enum representing the hash algorithms that can be used for the HMAC of a Time-based One-Time Password (RFC 6238).
+ * The algorithms are SHA1 (the default of most authenticator apps), SHA256 and SHA512.
+ */
+public enum TOTPHashAlgorithm {
+    SHA1("HmacSHA1"),
+    SHA256("HmacSHA256"),
+    SHA512("HmacSHA512");
+
+    private final String macName;
+
+    /**
+     * Constructor for the TOTPHashAlgorithm enum.
+     *
+     * @param macName The name of the Mac algorithm.
+     */
+    TOTPHashAlgorithm(String macName) {
+        this.macName = macName;
+    }
+
+    /**
+     * Returns the name of the Mac algorithm.
+     *
+     * @return The name of the Mac algorithm.
+     */
+    public String getMacName() {
+        return macName;
+    }
+}
@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.NoSuchAlgorithmException;
 import java.util.Optional;
 
@@ -97,6 +98,28 @@ public class StorageService {
         }
     }
 
+    /**
+     * Hashes the account username and returns the version of the corresponding file without reading its content.
+     * The version consists of the size, the time of the last modification and the file key (e.g. the inode) of the file,
+     * so it changes when the file is written again, because write replaces the file.
+     *
+     * @param accountUser the account username to be hashed and used as the filename
+     * @return an Optional containing the version of the file if found, or an empty Optional if not found
+     * @throws StorageException if there is a failure in hashing the account username or in reading the attributes of the file
+     */
+    public Optional<String> version(String accountUser) throws StorageException {
+        try {
+            Path path = Paths.get(System.getProperty(USER_DIR) + PATH_TO_STORAGE + Hashing.hash(accountUser));
+            if (!Files.exists(path)) {
+                return Optional.empty();
+            }
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return Optional.of(attributes.size() + ":" + attributes.lastModifiedTime().toMillis() + ":" + attributes.fileKey());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new StorageException("Failed to read the attributes of the file", e);
+        }
+    }
+
     /**
      * Hashes the account username and creates a file with the hashed name.
      * If a file with the same name already exists, it returns false. Otherwise, it creates the file and returns true.
@@ -0,0 +1,131 @@
+package ch.zhaw.it.pm.vault_guard.service.pwimport;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * The BitwardenEntryReader reads the unencrypted JSON export of Bitwarden item by item.
+ * Only one item of the "items" array is parsed into a JSONObject at a time, the other members of the export
+ * (e.g. the folders) are skipped. Items that are no logins (secure notes, cards and identities) have no username,
+ * website and password and are skipped by the importer.
+ */
+public class BitwardenEntryReader implements EntryReader {
+
+    private static final int LOGIN_TYPE = 1;
+
+    /**
+     * Reads the items of a Bitwarden export.
+     *
+     * @param reader  The reader of the export
+     * @param entries Receives the entry of every item
+     * @throws IOException     If the export cannot be read
+     * @throws ImportException If the export is not valid JSON or encrypted
+     */
+    @Override
+    public void read(Reader reader, Consumer<ImportedEntry> entries) throws IOException, ImportException {
+        JSONTokener tokener = new JSONTokener(reader);
+        try {
+            expect(tokener, '{');
+            if (tokener.nextClean() == '}') {
+                return;
+            }
+            tokener.back();
+            do {
+                expect(tokener, '"');
+                String key = tokener.nextString('"');
+                expect(tokener, ':');
+                if (key.equals("items")) {
+                    readItems(tokener, entries);
+                } else {
+                    Object value = tokener.nextValue();
+                    if (key.equals("encrypted") && Boolean.TRUE.equals(value)) {
+                        throw new ImportException("Encrypted Bitwarden exports cannot be imported, export the vault as JSON without encryption");
+                    }
+                }
+            } while (nextMember(tokener, '}'));
+        } catch (JSONException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new ImportException("The Bitwarden export is not valid: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Helper method that reads the items array one item at a time.
+     *
+     * @param tokener The tokener before the array
+     * @param entries Receives the entry of every item
+     * @throws ImportException If an item is not a JSON object
+     */
+    private static void readItems(JSONTokener tokener, Consumer<ImportedEntry> entries) throws ImportException {
+        expect(tokener, '[');
+        if (tokener.nextClean() == ']') {
+            return;
+        }
+        tokener.back();
+        do {
+            if (!(tokener.nextValue() instanceof JSONObject item)) {
+                throw new ImportException("An item of the Bitwarden export is not an object");
+            }
+            entries.accept(toEntry(item));
+        } while (nextMember(tokener, ']'));
+    }
+
+    /**
+     * Helper method that converts an item to an entry. The first URI of a login is its website.
+     *
+     * @param item The item of the export
+     * @return The entry, without username, website and password if the item is no login
+     */
+    private static ImportedEntry toEntry(JSONObject item) {
+        String title = item.optString("name");
+        JSONObject login = item.optJSONObject("login");
+        if (item.optInt("type", LOGIN_TYPE) != LOGIN_TYPE || login == null) {
+            return ImportedEntry.of(title, null, null, null, null, null);
+        }
+        JSONArray uris = login.optJSONArray("uris");
+        JSONObject firstUri = uris != null ? uris.optJSONObject(0) : null;
+        return ImportedEntry.of(title, login.optString("username"), firstUri != null ? firstUri.optString("uri") : null,
+                null, login.optString("totp"), login.optString("password"));
+    }
+
+    /**
+     * Helper method that reads the separator after a member of an object or an array.
+     *
+     * @param tokener The tokener after the member
+     * @param end     The character that ends the object or the array
+     * @return true if another member follows, false if the object or array has ended
+     * @throws ImportException If neither a comma nor the end follows
+     */
+    private static boolean nextMember(JSONTokener tokener, char end) throws ImportException {
+        char separator = tokener.nextClean();
+        if (separator == ',') {
+            return true;
+        }
+        if (separator == end) {
+            return false;
+        }
+        throw new ImportException("Expected ',' or '" + end + "' in the Bitwarden export " + tokener);
+    }
+
+    /**
+     * Helper method that reads the next character that is not white space and checks it.
+     *
+     * @param tokener  The tokener
+     * @param expected The expected character
+     * @throws ImportException If another character follows
+     */
+    private static void expect(JSONTokener tokener, char expected) throws ImportException {
+        char next = tokener.nextClean();
+        if (next != expected) {
+            throw new ImportException("Expected '" + expected + "' in the Bitwarden export " + tokener);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package ch.zhaw.it.pm.vault_guard.service.pwimport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The CsvEntryReader reads CSV exports (RFC 4180) record by record, e.g. the CSV exports of Bitwarden, KeePassXC, Chrome or Firefox.
+ * The first record is the header, the columns are found by their name (ignoring the case), e.g. "name" or "title" for the title
+ * and "login_password" or "password" for the password. Fields in double quotes may contain commas, line breaks and doubled quotes.
+ * A field may have at most 64 KiB, so a broken file cannot fill the memory.
+ */
+public class CsvEntryReader implements EntryReader {
+
+    static final int MAX_FIELD_LENGTH = 64 * 1024;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    private static final Map<String, List<String>> COLUMN_NAMES = Map.of(
+            "title", List.of("title", "name", "account", "entry"),
+            "username", List.of("username", "login_username", "user name", "user", "login"),
+            "website", List.of("url", "website", "login_uri", "web site", "uri"),
+            "email", List.of("email", "e-mail"),
+            "oneTimePassword", List.of("totp", "login_totp", "otp", "onetimepassword"),
+            "password", List.of("password", "login_password"));
+
+    /**
+     * Reads the records of a CSV export. Empty lines are skipped.
+     *
+     * @param reader  The reader of the export
+     * @param entries Receives the entry of every record
+     * @throws IOException     If the export cannot be read
+     * @throws ImportException If the export has no header with a password column or a quoted field is not closed
+     */
+    @Override
+    public void read(Reader reader, Consumer<ImportedEntry> entries) throws IOException, ImportException {
+        BufferedReader input = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+        StringBuilder field = new StringBuilder();
+        skipByteOrderMark(input);
+        List<String> header = nextRecord(input, field, 1);
+        if (header == null) {
+            return;
+        }
+        int[] columns = findColumns(header);
+        int recordNumber = 1;
+        List<String> record;
+        while ((record = nextRecord(input, field, ++recordNumber)) != null) {
+            if (record.size() == 1 && record.getFirst().isEmpty()) {
+                continue;
+            }
+            entries.accept(ImportedEntry.of(value(record, columns[0]), value(record, columns[1]), value(record, columns[2]),
+                    value(record, columns[3]), value(record, columns[4]), value(record, columns[5])));
+        }
+    }
+
+    /**
+     * Helper method that finds the columns of the values of an entry in the header.
+     *
+     * @param header The names of the columns
+     * @return The index of the column of the title, username, website, email, one time password and password, -1 if missing
+     * @throws ImportException If there is no password column
+     */
+    private static int[] findColumns(List<String> header) throws ImportException {
+        int[] columns = new int[6];
+        String[] values = {"title", "username", "website", "email", "oneTimePassword", "password"};
+        for (int i = 0; i < values.length; i++) {
+            columns[i] = -1;
+            for (String name : COLUMN_NAMES.get(values[i])) {
+                int column = indexOfIgnoreCase(header, name);
+                if (column >= 0) {
+                    columns[i] = column;
+                    break;
+                }
+            }
+        }
+        if (columns[5] < 0) {
+            throw new ImportException("The CSV file has no password column, the header is " + String.join(",", header));
+        }
+        return columns;
+    }
+
+    /**
+     * Helper method that returns the index of a column name, ignoring the case and surrounding white space.
+     *
+     * @param header The names of the columns
+     * @param name   The name to look for
+     * @return The index or -1 if the header has no column with the name
+     */
+    private static int indexOfIgnoreCase(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).strip().toLowerCase(Locale.ROOT).equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Helper method that returns the value of a column of a record.
+     *
+     * @param record The fields of the record
+     * @param column The index of the column or -1 if the column is missing
+     * @return The value or null if the column is missing or the record is shorter
+     */
+    private static String value(List<String> record, int column) {
+        return column >= 0 && column < record.size() ? record.get(column) : null;
+    }
+
+    /**
+     * Helper method that skips the byte order mark at the start of the export, which some programs write.
+     *
+     * @param input The reader at the start of the export
+     * @throws IOException If the export cannot be read
+     */
+    private static void skipByteOrderMark(BufferedReader input) throws IOException {
+        input.mark(1);
+        if (input.read() != BYTE_ORDER_MARK) {
+            input.reset();
+        }
+    }
+
+    /**
+     * Helper method that reads the fields of the next record.
+     *
+     * @param input        The reader
+     * @param field        The buffer of the current field, reused for all fields
+     * @param recordNumber The number of the record, used in error messages
+     * @return The fields or null at the end of the export
+     * @throws IOException     If the export cannot be read
+     * @throws ImportException If a quoted field is not closed or a field is too long
+     */
+    private static List<String> nextRecord(BufferedReader input, StringBuilder field, int recordNumber) throws IOException, ImportException {
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean inRecord = false;
+        int character;
+        while ((character = input.read()) != -1) {
+            inRecord = true;
+            if (quoted) {
+                if (character == '"') {
+                    input.mark(1);
+                    int next = input.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            input.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) character);
+                }
+            } else if (character == '"') {
+                quoted = true;
+            } else if (character == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (character == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (character != '\r') {
+                field.append((char) character);
+            }
+            if (field.length() > MAX_FIELD_LENGTH) {
+                throw new ImportException("Record " + recordNumber + " of the CSV file has a field longer than " + MAX_FIELD_LENGTH + " characters");
+            }
+        }
+        if (quoted) {
+            throw new ImportException("Record " + recordNumber + " of the CSV file has a quoted field that is not closed");
+        }
+        if (!inRecord) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
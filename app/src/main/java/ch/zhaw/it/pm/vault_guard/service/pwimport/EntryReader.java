@@ -0,0 +1,22 @@
+package ch.zhaw.it.pm.vault_guard.service.pwimport;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * An EntryReader reads the entries of an export file and hands them over one by one while reading,
+ * so the whole file is never held in memory.
+ */
+public interface EntryReader {
+
+    /**
+     * Reads all entries of an export.
+     *
+     * @param reader  The reader of the export
+     * @param entries Receives every entry as soon as it is read
+     * @throws IOException     If the export cannot be read
+     * @throws ImportException If the export is not valid
+     */
+    void read(Reader reader, Consumer<ImportedEntry> entries) throws IOException, ImportException;
+}
@@ -0,0 +1,25 @@
+package ch.zhaw.it.pm.vault_guard.service.pwimport;
+
+/**
+ * Exception class for files that cannot be imported, e.g. because they are not valid or encrypted.
+ */
+public class ImportException extends Exception {
+    /**
+     * Constructor for the ImportException class.
+     *
+     * @param message The error message.
+     * @param cause   The cause of the error.
+     */
+    public ImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Constructor for the ImportException class.
+     *
+     * @param message The error message.
+     */
+    public ImportException(String message) {
+        super(message);
+    }
+}
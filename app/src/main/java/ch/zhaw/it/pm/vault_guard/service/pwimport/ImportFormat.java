@@ -0,0 +1,86 @@
+package ch.zhaw.it.pm.vault_guard.service.pwimport;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The formats that can be imported, with the file extension and the short name used on the command line.
+ * The exports of other password managers are plain text, the archive is the encrypted export of Vault Guard.
+ */
+public enum ImportFormat {
+    CSV("csv", ".csv", CsvEntryReader::new, false),
+    BITWARDEN_JSON("bitwarden", ".json", BitwardenEntryReader::new, false),
+    KEEPASS_XML("keepass", ".xml", KeePassEntryReader::new, false),
+    ARCHIVE("archive", ".vgarchive", VaultGuardEntryReader::new, true);
+
+    private final String shortName;
+    private final String fileExtension;
+    private final Supplier<EntryReader> readerFactory;
+    private final boolean encrypted;
+
+    ImportFormat(String shortName, String fileExtension, Supplier<EntryReader> readerFactory, boolean encrypted) {
+        this.shortName = shortName;
+        this.fileExtension = fileExtension;
+        this.readerFactory = readerFactory;
+        this.encrypted = encrypted;
+    }
+
+    /**
+     * Returns the short name used on the command line, e.g. "bitwarden".
+     *
+     * @return The short name
+     */
+    public String getShortName() {
+        return shortName;
+    }
+
+    /**
+     * Returns the file extension of the format including the dot, e.g. ".json".
+     *
+     * @return The file extension
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Returns whether the export is encrypted and has to be decrypted before it is read.
+     *
+     * @return true for the archive, false for the plain text exports
+     */
+    public boolean isEncrypted() {
+        return encrypted;
+    }
+
+    /**
+     * Creates a reader for the format.
+     *
+     * @return The reader
+     */
+    public EntryReader createReader() {
+        return readerFactory.get();
+    }
+
+    /**
+     * Returns the format with the short name, the case is ignored.
+     *
+     * @param shortName The short name, e.g. "keepass"
+     * @return The format or an empty Optional if there is no format with the name
+     */
+    public static Optional<ImportFormat> fromShortName(String shortName) {
+        return Arrays.stream(values()).filter(format -> format.shortName.equalsIgnoreCase(shortName)).findFirst();
+    }
+
+    /**
+     * Returns the format of a file by its extension, the case is ignored.
+     *
+     * @param fileName The name of the file
+     * @return The format or an empty Optional if the extension is unknown
+     */
+    public static Optional<ImportFormat> fromFileName(String fileName) {
+        String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+        return Arrays.stream(values()).filter(format -> lowerCaseName.endsWith(format.fileExtension)).findFirst();
+    }
+}
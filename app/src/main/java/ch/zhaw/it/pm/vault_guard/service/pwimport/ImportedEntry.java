@@ -0,0 +1,86 @@
+package ch.zhaw.it.pm.vault_guard.service.pwimport;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An entry read from the export of another password manager, before it is added to a vault.
+ * Missing values are empty Strings.
+ *
+ * @param title           The title of the entry
+ * @param username        The username
+ * @param website         The website
+ * @param email           The email address
+ * @param oneTimePassword The secret key of the one time password
+ * @param password        The password
+ */
+public record ImportedEntry(String title, String username, String website, String email, String oneTimePassword, String password) {
+
+    private static final String OTP_URI_PREFIX = "otpauth://";
+
+    /**
+     * Creates an entry from the values of an export. Missing values (null) become empty Strings
+     * and a one time password given as otpauth:// URI is reduced to its secret key.
+     *
+     * @param title           The title of the entry
+     * @param username        The username
+     * @param website         The website
+     * @param email           The email address
+     * @param oneTimePassword The secret key or the otpauth:// URI of the one time password
+     * @param password        The password
+     * @return The entry
+     */
+    public static ImportedEntry of(String title, String username, String website, String email, String oneTimePassword, String password) {
+        return new ImportedEntry(valueOf(title), valueOf(username), valueOf(website), valueOf(email),
+                oneTimePasswordSecret(valueOf(oneTimePassword)), valueOf(password));
+    }
+
+    /**
+     * Returns whether the entry has nothing to store, i.e. no username, no website and no password (e.g. a secure note).
+     *
+     * @return true if the entry has no username, website and password
+     */
+    public boolean isEmpty() {
+        return username.isEmpty() && website.isEmpty() && password.isEmpty();
+    }
+
+    /**
+     * Returns the title of the entry or, if it has no title, the website or the username.
+     *
+     * @return The title to be shown in the vault
+     */
+    public String displayTitle() {
+        if (!title.isEmpty()) {
+            return title;
+        }
+        return website.isEmpty() ? username : website;
+    }
+
+    /**
+     * Helper method that returns the trimmed value or an empty String for a missing value.
+     *
+     * @param value The value, may be null
+     * @return The value
+     */
+    private static String valueOf(String value) {
+        return value == null ? "" : value.strip();
+    }
+
+    /**
+     * Helper method that returns the secret key of an otpauth:// URI, other values are returned as they are.
+     *
+     * @param oneTimePassword The secret key or the URI
+     * @return The secret key
+     */
+    private static String oneTimePasswordSecret(String oneTimePassword) {
+        if (!oneTimePassword.regionMatches(true, 0, OTP_URI_PREFIX, 0, OTP_URI_PREFIX.length()) || !oneTimePassword.contains("?")) {
+            return oneTimePassword;
+        }
+        for (String parameter : oneTimePassword.substring(oneTimePassword.indexOf('?') + 1).split("&")) {
+            if (parameter.regionMatches(true, 0, "secret=", 0, 7)) {
+                return URLDecoder.decode(parameter.substring(7), StandardCharsets.UTF_8);
+            }
+        }
+        return oneTimePassword;
+    }
+}
@@ -0,0 +1,126 @@
+package ch.zhaw.it.pm.vault_guard.service.pwimport;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The KeePassEntryReader reads the unencrypted XML export of KeePass and KeePassXC entry by entry with a StAX stream reader,
+ * so the document is never built in memory. The values of an entry are its String elements with the keys Title, UserName,
+ * URL, Password and otp (the one time password of KeePassXC), an "Email" or "E-Mail" String is used as email address.
+ * Only the Key and Value of String elements are read, so custom data of an entry is ignored.
+ * Older versions of an entry in its History element are skipped. DTDs and external entities are not processed.
+ */
+public class KeePassEntryReader implements EntryReader {
+
+    /**
+     * Reads the entries of a KeePass export.
+     *
+     * @param reader  The reader of the export
+     * @param entries Receives every entry
+     * @throws IOException     If the export cannot be read
+     * @throws ImportException If the export is not valid XML
+     */
+    @Override
+    public void read(Reader reader, Consumer<ImportedEntry> entries) throws IOException, ImportException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XMLStreamReader xml = null;
+        try {
+            xml = factory.createXMLStreamReader(reader);
+            Map<String, String> values = null;
+            String key = null;
+            boolean inString = false;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "Entry" -> values = new HashMap<>();
+                        case "History" -> skipElement(xml);
+                        case "String" -> {
+                            inString = true;
+                            key = null;
+                        }
+                        case "Key" -> key = inString ? xml.getElementText() : null;
+                        case "Value" -> {
+                            if (values != null && inString && key != null) {
+                                values.put(key, xml.getElementText());
+                            }
+                        }
+                        default -> {
+                            // other elements of the export are not imported
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (xml.getLocalName().equals("String")) {
+                        inString = false;
+                    } else if (xml.getLocalName().equals("Entry") && values != null) {
+                        entries.accept(toEntry(values));
+                        values = null;
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            if (e.getNestedException() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new ImportException("The KeePass export is not valid: " + e.getMessage(), e);
+        } finally {
+            close(xml);
+        }
+    }
+
+    /**
+     * Helper method that converts the String values of an entry to an entry.
+     *
+     * @param values The values by key
+     * @return The entry
+     */
+    private static ImportedEntry toEntry(Map<String, String> values) {
+        String email = values.containsKey("Email") ? values.get("Email") : values.get("E-Mail");
+        return ImportedEntry.of(values.get("Title"), values.get("UserName"), values.get("URL"), email,
+                values.get("otp"), values.get("Password"));
+    }
+
+    /**
+     * Helper method that skips an element with all its children.
+     *
+     * @param xml The reader at the start of the element
+     * @throws XMLStreamException If the export is not valid XML
+     */
+    private static void skipElement(XMLStreamReader xml) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Helper method that closes the XML reader, the underlying reader is closed by the caller.
+     *
+     * @param xml The XML reader or null if it was not created
+     * @throws ImportException If the XML reader cannot be closed
+     */
+    private static void close(XMLStreamReader xml) throws ImportException {
+        if (xml == null) {
+            return;
+        }
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new ImportException("The KeePass export could not be closed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ch.zhaw.it.pm.vault_guard.service.pwimport;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * The VaultGuardEntryReader reads the JSON export of Vault Guard, which has the format of the vault file without
+ * the account password, entry by entry. It is the content of an encrypted archive, which is decrypted while it is read.
+ * Only one entry of the "Entries" array is parsed into a JSONObject at a time, the other members of the export are skipped.
+ * The favourite and compromised flags are not imported, the breach check of the importer sets the compromised flag again.
+ */
+public class VaultGuardEntryReader implements EntryReader {
+
+    /**
+     * Reads the entries of a Vault Guard export.
+     *
+     * @param reader  The reader of the export
+     * @param entries Receives every entry
+     * @throws IOException     If the export cannot be read or decrypted
+     * @throws ImportException If the export is not valid JSON
+     */
+    @Override
+    public void read(Reader reader, Consumer<ImportedEntry> entries) throws IOException, ImportException {
+        JSONTokener tokener = new JSONTokener(reader);
+        try {
+            expect(tokener, '{');
+            if (tokener.nextClean() == '}') {
+                return;
+            }
+            tokener.back();
+            do {
+                expect(tokener, '"');
+                String key = tokener.nextString('"');
+                expect(tokener, ':');
+                if (key.equals("Entries")) {
+                    readEntries(tokener, entries);
+                } else {
+                    tokener.nextValue();
+                }
+            } while (nextMember(tokener, '}'));
+        } catch (JSONException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new ImportException("The Vault Guard export is not valid: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Helper method that reads the entries array one entry at a time.
+     *
+     * @param tokener The tokener before the array
+     * @param entries Receives every entry
+     * @throws ImportException If an entry is not a JSON object
+     */
+    private static void readEntries(JSONTokener tokener, Consumer<ImportedEntry> entries) throws ImportException {
+        expect(tokener, '[');
+        if (tokener.nextClean() == ']') {
+            return;
+        }
+        tokener.back();
+        do {
+            if (!(tokener.nextValue() instanceof JSONObject entry)) {
+                throw new ImportException("An entry of the Vault Guard export is not an object");
+            }
+            entries.accept(ImportedEntry.of(entry.optString("passwordTitel"), entry.optString("username"), entry.optString("website"),
+                    entry.optString("email"), entry.optString("oneTimePassword"), entry.optString("password")));
+        } while (nextMember(tokener, ']'));
+    }
+
+    /**
+     * Helper method that reads the separator after a member of an object or an array.
+     *
+     * @param tokener The tokener after the member
+     * @param end     The character that ends the object or the array
+     * @return true if another member follows, false if the object or array has ended
+     * @throws ImportException If neither a comma nor the end follows
+     */
+    private static boolean nextMember(JSONTokener tokener, char end) throws ImportException {
+        char separator = tokener.nextClean();
+        if (separator == ',') {
+            return true;
+        }
+        if (separator == end) {
+            return false;
+        }
+        throw new ImportException("Expected ',' or '" + end + "' in the Vault Guard export " + tokener);
+    }
+
+    /**
+     * Helper method that reads the next character that is not white space and checks it.
+     *
+     * @param tokener  The tokener
+     * @param expected The expected character
+     * @throws ImportException If another character follows
+     */
+    private static void expect(JSONTokener tokener, char expected) throws ImportException {
+        char next = tokener.nextClean();
+        if (next != expected) {
+            throw new ImportException("Expected '" + expected + "' in the Vault Guard export " + tokener);
+        }
+    }
+}
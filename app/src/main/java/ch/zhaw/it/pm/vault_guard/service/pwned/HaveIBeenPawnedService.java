@@ -8,6 +8,7 @@ import java.security.NoSuchAlgorithmException;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.net.URL;
+import java.util.OptionalInt;
 
 import java.net.HttpURLConnection;
 
@@ -26,6 +27,24 @@ public class HaveIBeenPawnedService {
     private static final String HIBPURL = "https://api.pwnedpasswords.com/range/";
     private static final String HASH_ALGORITHM = "SHA-1";
 
+    private final String rangeUrl;
+
+    /**
+     * Constructor of the HaveIBeenPawnedService that uses the public Have I Been Pwned API.
+     */
+    public HaveIBeenPawnedService() {
+        this(HIBPURL);
+    }
+
+    /**
+     * Constructor of the HaveIBeenPawnedService that uses an API compatible server, e.g. a local stub for load tests.
+     *
+     * @param rangeUrl The URL of the range endpoint including the trailing slash, e.g. "http://localhost:8080/range/"
+     */
+    public HaveIBeenPawnedService(String rangeUrl) {
+        this.rangeUrl = rangeUrl;
+    }
+
     /**
      * Checks if the given password has been leaked in a data breach.
      * The password is hashed using the SHA-1 algorithm and the first 5 characters of the hash are sent to the Have I Been Pwned API.
@@ -33,7 +52,7 @@ public class HaveIBeenPawnedService {
      * The method then checks if the full hash of the password is in the list.
      * If the full hash is in the list, the password has been leaked and the method returns the number of times it has been leaked.
      * If the full hash is not in the list, the password has not been leaked and the method returns 0.
-     * If there is no internet connection available, the method returns 0.
+     * If there is no internet connection available, the method returns 0, use lookupPassword to tell this case apart.
      * If there is an exception during the process, a PasswordCheckException is thrown.
      *
      * @param password The password to check
@@ -41,8 +60,21 @@ public class HaveIBeenPawnedService {
      * @throws PasswordCheckException If there is an exception during the process
      */
     public int checkPassword(String password) throws PasswordCheckException {
+        return lookupPassword(password).orElse(0);
+    }
+
+    /**
+     * Checks if the given password has been leaked in a data breach like checkPassword,
+     * but reports separately that the API could not be reached.
+     *
+     * @param password The password to check
+     * @return The number of times the password has been leaked (0 if it has not been leaked),
+     * or an empty OptionalInt if there is no internet connection and the password was not checked
+     * @throws PasswordCheckException If there is an exception during the process
+     */
+    public OptionalInt lookupPassword(String password) throws PasswordCheckException {
         if (!isInternetAvailable()) {
-            return 0;
+            return OptionalInt.empty();
         }
 
         try {
@@ -51,7 +83,7 @@ public class HaveIBeenPawnedService {
             String shaSuffix = sha1Password.substring(5).toUpperCase();
 
             String response = checkPwnedApi(shaPrefix);
-            return parseResponse(shaSuffix, response);
+            return OptionalInt.of(parseResponse(shaSuffix, response));
 
         } catch (NoSuchAlgorithmException | IOException | URISyntaxException e) {
             throw new PasswordCheckException("Failed to check password: " + e.getMessage(), e);
@@ -63,9 +95,9 @@ public class HaveIBeenPawnedService {
      *
      * @return true if a connection to api can be established, otherwise false.
      */
-    private static boolean isInternetAvailable() {
+    private boolean isInternetAvailable() {
         try {
-            URI uri = new URI(HIBPURL + "00000");
+            URI uri = new URI(rangeUrl + "00000");
             URL url = uri.toURL();
             HttpURLConnection connection = (HttpURLConnection) url.openConnection();
             connection.setConnectTimeout(5000);
@@ -100,8 +132,8 @@ public class HaveIBeenPawnedService {
      * @param shaPrefix The SHA-1 prefix to send to the API
      * @return The prepared connection
      */
-    private static HttpURLConnection prepareConnection(String shaPrefix) throws IOException, URISyntaxException {
-        String urlString = HIBPURL + shaPrefix;
+    private HttpURLConnection prepareConnection(String shaPrefix) throws IOException, URISyntaxException {
+        String urlString = rangeUrl + shaPrefix;
         URI uri = new URI(urlString);
         URL url = uri.toURL();
         HttpURLConnection connection = (HttpURLConnection) url.openConnection();
@@ -137,7 +169,7 @@ public class HaveIBeenPawnedService {
      * @param shaPrefix The SHA-1 prefix to check
      * @return The response from the API
      */
-    static String checkPwnedApi(String shaPrefix) throws IOException, URISyntaxException {
+    String checkPwnedApi(String shaPrefix) throws IOException, URISyntaxException {
         HttpURLConnection connection = prepareConnection(shaPrefix);
         return readResponse(connection);
     }
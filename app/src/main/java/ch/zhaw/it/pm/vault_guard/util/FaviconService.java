@@ -0,0 +1,251 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * The FaviconService loads the icons of websites on a bounded background pool, so the download and decoding of an icon
+ * never blocks the JavaFX application thread.
+ * Concurrent requests for the same host share a single download. Hosts whose icon could not be loaded are not requested
+ * again until their backoff has expired, the backoff is doubled with every further failure.
+ * The result is returned as a CompletableFuture, which is completed on a background thread.
+ * The failed hosts are saved when the service is shut down and loaded when it is created,
+ * so the backoff of a host continues in the next session.
+ */
+public class FaviconService {
+
+    private static final int WORKERS = 3;
+    private static final String FAILED_HOSTS_NAME = "failed-hosts.json";
+    static final long INITIAL_BACKOFF_MILLIS = 60_000;
+    static final long MAX_BACKOFF_MILLIS = 60 * 60_000;
+    private static final Log log = LogFactory.getLog(FaviconService.class);
+
+    private final IconLoader iconLoader;
+    private final ExecutorService executor;
+    private final LongSupplier clock;
+    private final Path failedHostsFile;
+    private final Map<String, CompletableFuture<Optional<String>>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, FailedHost> failedHosts = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor of the FaviconService
+     */
+    public FaviconService() {
+        this(new IconLoader(), System::currentTimeMillis, Paths.get(IconArchive.ICONS_PATH, FAILED_HOSTS_NAME));
+    }
+
+    /**
+     * Constructor of the FaviconService with a custom IconLoader and clock, which does not save the failed hosts, used for testing
+     *
+     * @param iconLoader The IconLoader used to load and store the icons
+     * @param clock      The clock of the backoff in milliseconds
+     */
+    FaviconService(IconLoader iconLoader, LongSupplier clock) {
+        this(iconLoader, clock, null);
+    }
+
+    /**
+     * Constructor of the FaviconService
+     *
+     * @param iconLoader      The IconLoader used to load and store the icons
+     * @param clock           The clock of the backoff in milliseconds
+     * @param failedHostsFile The file the failed hosts are saved in or null if they are not saved
+     */
+    FaviconService(IconLoader iconLoader, LongSupplier clock, Path failedHostsFile) {
+        this.iconLoader = iconLoader;
+        this.clock = clock;
+        this.failedHostsFile = failedHostsFile;
+        if (failedHostsFile != null) {
+            loadFailedHosts();
+        }
+        this.executor = Executors.newFixedThreadPool(WORKERS, runnable -> {
+            Thread thread = new Thread(runnable, "favicon-fetch");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        ExecutorManager.registerExecutor(executor);
+    }
+
+    /**
+     * Requests the icon of a website. If the icon of the host is already being loaded, the running request is returned.
+     * The future is completed with an empty Optional if the website is not valid, the icon could not be loaded
+     * or the host is in its backoff after a failed request.
+     *
+     * @param website The website of the entry
+     * @return The future of the key of the stored icon
+     */
+    public CompletableFuture<Optional<String>> fetchIcon(String website) {
+        String iconKey = iconLoader.getIconKeyOf(website);
+        if (iconKey.isEmpty() || isFailedHost(iconKey)) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        CompletableFuture<Optional<String>> running = inFlight.get(iconKey);
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture<Optional<String>> request = new CompletableFuture<>();
+        running = inFlight.putIfAbsent(iconKey, request);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> load(website, iconKey, request));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(iconKey, request);
+            request.complete(Optional.empty());
+        }
+        return request;
+    }
+
+    /**
+     * Returns whether the host of a website is in its backoff after a failed request.
+     *
+     * @param website The website of the entry
+     * @return True if the icon of the host is not requested at the moment
+     */
+    boolean isBackingOff(String website) {
+        return isFailedHost(iconLoader.getIconKeyOf(website));
+    }
+
+    /**
+     * Returns the number of hosts whose icon is being loaded.
+     *
+     * @return The number of running requests
+     */
+    int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Stops the background pool, completes the running requests with an empty Optional and saves the failed hosts.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        inFlight.values().forEach(request -> request.complete(Optional.empty()));
+        inFlight.clear();
+        if (failedHostsFile != null) {
+            saveFailedHosts();
+        }
+    }
+
+    /**
+     * Helper method that checks whether the backoff of a failed host has not expired yet.
+     *
+     * @param iconKey The key of the icon of the host
+     * @return True if the host is in its backoff
+     */
+    private boolean isFailedHost(String iconKey) {
+        FailedHost failedHost = failedHosts.get(iconKey);
+        return failedHost != null && clock.getAsLong() < failedHost.retryAt();
+    }
+
+    /**
+     * Helper method that loads the icon of a host on the background pool and completes the request.
+     * The request is removed from the running requests before it is completed, so later requests start a new download.
+     *
+     * @param website The website of the entry
+     * @param iconKey The key of the icon of the host
+     * @param request The request to complete
+     */
+    private void load(String website, String iconKey, CompletableFuture<Optional<String>> request) {
+        Optional<String> icon = Optional.empty();
+        try {
+            icon = iconLoader.fetchIcon(website);
+        } catch (RuntimeException e) {
+            log.error("Error while loading the icon of " + website + ": " + e.getMessage());
+        }
+        if (icon.isPresent()) {
+            failedHosts.remove(iconKey);
+        } else {
+            long now = clock.getAsLong();
+            failedHosts.merge(iconKey, FailedHost.first(now), (failed, first) -> failed.next(now));
+        }
+        inFlight.remove(iconKey, request);
+        request.complete(icon);
+    }
+
+    /**
+     * Helper method that saves the failed hosts whose backoff has not expired yet.
+     */
+    private void saveFailedHosts() {
+        long now = clock.getAsLong();
+        JSONObject hosts = new JSONObject();
+        failedHosts.forEach((iconKey, failedHost) -> {
+            if (failedHost.retryAt() > now) {
+                hosts.put(iconKey, new JSONObject()
+                        .put("failures", failedHost.failures())
+                        .put("retryAt", failedHost.retryAt()));
+            }
+        });
+        try {
+            Files.writeString(failedHostsFile, hosts.toString(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.error("Error while saving the failed hosts: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Helper method that loads the failed hosts saved in the last session.
+     */
+    private void loadFailedHosts() {
+        if (!Files.isRegularFile(failedHostsFile)) {
+            return;
+        }
+        try {
+            JSONObject hosts = new JSONObject(Files.readString(failedHostsFile, StandardCharsets.UTF_8));
+            for (String iconKey : hosts.keySet()) {
+                JSONObject failedHost = hosts.getJSONObject(iconKey);
+                failedHosts.put(iconKey, new FailedHost(failedHost.getInt("failures"), failedHost.getLong("retryAt")));
+            }
+        } catch (IOException | JSONException e) {
+            log.error("Error while loading the failed hosts: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A host whose icon could not be loaded.
+     *
+     * @param failures The number of failed requests in a row
+     * @param retryAt  The time in milliseconds after which the icon is requested again
+     */
+    private record FailedHost(int failures, long retryAt) {
+
+        /**
+         * Creates the first failure of a host.
+         *
+         * @param now The current time in milliseconds
+         * @return The failed host
+         */
+        static FailedHost first(long now) {
+            return new FailedHost(1, now + INITIAL_BACKOFF_MILLIS);
+        }
+
+        /**
+         * Creates the next failure of a host, with the double backoff of the previous failure.
+         *
+         * @param now The current time in milliseconds
+         * @return The failed host
+         */
+        FailedHost next(long now) {
+            long backoff = Math.min(INITIAL_BACKOFF_MILLIS << Math.min(failures, 16), MAX_BACKOFF_MILLIS);
+            return new FailedHost(failures + 1, now + backoff);
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The IconArchive stores the icons of all websites in a single file instead of one PNG file per host,
+ * so loading the icons of a vault opens one file instead of one file per entry.
+ * <p>
+ * The archive is log-structured: after a header, every record holds the key of an icon (the host of the website)
+ * followed by the PNG data of the icon. New icons are appended, a record replaces all earlier records with the same key.
+ * When the archive is opened, the keys are read in a single pass into an index of the offsets of the icons,
+ * and the archive is compacted if more than half of it are replaced records. The icons are read from a memory mapping of the archive.
+ * An incomplete record at the end of the archive (e.g. after a crash while an icon was appended) is cut off when the archive is opened.
+ * <p>
+ * The archive is thread safe.
+ */
+public class IconArchive implements Closeable {
+
+    static final String ICONS_PATH = "src/main/resources/ch/zhaw/it/pm/vault_guard/images/icons/";
+    private static final String ARCHIVE_NAME = "icons.pack";
+    private static final String DEFAULT_ICON_NAME = "entry_default_icon.png";
+    private static final String PNG_SUFFIX = ".png";
+    private static final int MAGIC = 0x56474943;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_KEY_LENGTH = 1024;
+    private static final Log log = LogFactory.getLog(IconArchive.class);
+    private static final Supplier<IconArchive> DEFAULT_ARCHIVE = Suppliers.memoize(IconArchive::openDefault);
+
+    private final Path path;
+    private final Map<String, Slot> index = new HashMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer mapping;
+    private long size;
+    private long replacedBytes;
+
+    /**
+     * Constructor of the IconArchive, use open to create an archive
+     *
+     * @param path The path of the archive
+     */
+    private IconArchive(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns the archive of the application, which is shared by all IconLoaders.
+     * The archive is opened the first time it is requested. If it does not exist yet,
+     * the icons stored as single PNG files in the icons folder are migrated into it.
+     * If the archive cannot be opened, an empty archive which does not store any icons is returned.
+     *
+     * @return The archive of the application
+     */
+    public static IconArchive getDefault() {
+        return DEFAULT_ARCHIVE.get();
+    }
+
+    /**
+     * Opens an archive and reads its index. The archive is created if it does not exist.
+     *
+     * @param path The path of the archive
+     * @return The opened archive
+     * @throws IOException If the archive cannot be read or is not an icon archive
+     */
+    public static IconArchive open(Path path) throws IOException {
+        IconArchive archive = new IconArchive(path);
+        archive.load();
+        if (archive.replacedBytes > archive.getLiveBytes()) {
+            archive.compact();
+        }
+        return archive;
+    }
+
+    /**
+     * Returns whether the archive holds an icon with the given key.
+     *
+     * @param key The key of the icon
+     * @return True if the icon is stored
+     */
+    public synchronized boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Reads the PNG data of an icon from the mapping of the archive.
+     *
+     * @param key The key of the icon
+     * @return The PNG data or an empty Optional if the icon is not stored
+     */
+    public synchronized Optional<byte[]> read(String key) {
+        Slot slot = index.get(key);
+        if (slot == null || channel == null) {
+            return Optional.empty();
+        }
+        try {
+            if (mapping == null || mapping.capacity() < slot.offset() + slot.length()) {
+                mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            byte[] data = new byte[slot.length()];
+            mapping.get((int) slot.offset(), data);
+            return Optional.of(data);
+        } catch (IOException e) {
+            log.error("Error while reading the icon " + key + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Appends an icon to the archive, the icon replaces an earlier icon with the same key.
+     *
+     * @param key  The key of the icon
+     * @param data The PNG data of the icon
+     * @return True if the icon was stored, false otherwise
+     */
+    public synchronized boolean append(String key, byte[] data) {
+        if (channel == null) {
+            return false;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(recordSize(keyBytes.length, data.length));
+        record.putInt(keyBytes.length).put(keyBytes).putInt(data.length).put(data).flip();
+        try {
+            long position = size;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+        } catch (IOException e) {
+            log.error("Error while storing the icon " + key + ": " + e.getMessage());
+            return false;
+        }
+        Slot replaced = index.put(key, new Slot(size + Integer.BYTES + keyBytes.length + Integer.BYTES, data.length));
+        if (replaced != null) {
+            replacedBytes += recordSize(keyBytes.length, replaced.length());
+        }
+        size += record.capacity();
+        return true;
+    }
+
+    /**
+     * Appends all icons stored as single PNG files in a folder, which are not in the archive yet.
+     * The key of an icon is the name of its file without the suffix, the default icon of the entries is not migrated.
+     * The files are not deleted.
+     *
+     * @param directory The folder of the PNG files
+     * @return The number of migrated icons
+     * @throws IOException If the folder cannot be read
+     */
+    public int migrate(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int migrated = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + PNG_SUFFIX)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String key = fileName.substring(0, fileName.length() - PNG_SUFFIX.length());
+                if (!fileName.equals(DEFAULT_ICON_NAME) && !contains(key) && append(key, Files.readAllBytes(file))) {
+                    migrated++;
+                }
+            }
+        }
+        return migrated;
+    }
+
+    /**
+     * Rewrites the archive without the replaced records.
+     * The compacted archive is written to a temporary file, which replaces the archive when it is complete.
+     * If the archive cannot be replaced, it stays unchanged.
+     *
+     * @throws IOException If the compacted archive cannot be written
+     */
+    public synchronized void compact() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        List<Map.Entry<String, Slot>> records = new ArrayList<>(index.entrySet());
+        records.sort(Comparator.comparingLong(record -> record.getValue().offset()));
+        try (OutputStream file = Files.newOutputStream(compacted);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            for (Map.Entry<String, Slot> record : records) {
+                byte[] keyBytes = record.getKey().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(keyBytes.length);
+                out.write(keyBytes);
+                out.writeInt(record.getValue().length());
+                out.write(readData(record.getValue()));
+            }
+        }
+        close();
+        try {
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(compacted);
+            throw e;
+        } finally {
+            load();
+        }
+    }
+
+    /**
+     * Returns the number of icons in the archive.
+     *
+     * @return The number of icons
+     */
+    public synchronized int getIconCount() {
+        return index.size();
+    }
+
+    /**
+     * Returns the number of bytes of the records which are replaced by later records.
+     *
+     * @return The number of replaced bytes
+     */
+    public synchronized long getReplacedBytes() {
+        return replacedBytes;
+    }
+
+    /**
+     * Returns the size of the archive in bytes.
+     *
+     * @return The size of the archive
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Closes the archive, the icons cannot be read or appended afterward.
+     *
+     * @throws IOException If the archive cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        mapping = null;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Helper method that opens the archive of the application and migrates the single PNG files if the archive is new.
+     *
+     * @return The archive of the application or an empty archive if it cannot be opened
+     */
+    private static IconArchive openDefault() {
+        Path directory = Paths.get(ICONS_PATH);
+        Path archivePath = directory.resolve(ARCHIVE_NAME);
+        try {
+            boolean isNew = !Files.exists(archivePath);
+            Files.createDirectories(directory);
+            IconArchive archive = open(archivePath);
+            if (isNew) {
+                log.info("Migrated " + archive.migrate(directory) + " icons into " + archivePath);
+            }
+            return archive;
+        } catch (IOException e) {
+            log.error("Error while opening the icon archive: " + e.getMessage());
+            return new IconArchive(archivePath);
+        }
+    }
+
+    /**
+     * Helper method that reads the index of the archive in a single pass and cuts off an incomplete record at the end.
+     * The archive is created with its header if it is empty.
+     *
+     * @throws IOException If the archive cannot be read or is not an icon archive
+     */
+    private void load() throws IOException {
+        index.clear();
+        replacedBytes = 0;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+                channel.truncate(0);
+                channel.write(header, 0);
+                size = HEADER_SIZE;
+                return;
+            }
+            size = readIndex(fileSize);
+            if (size < fileSize) {
+                log.warn("Cutting off an incomplete icon at the end of " + path);
+                channel.truncate(size);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Helper method that reads the keys and offsets of all records.
+     *
+     * @param fileSize The size of the archive file
+     * @return The end of the last complete record
+     * @throws IOException If the archive cannot be read or is not an icon archive
+     */
+    private long readIndex(long fileSize) throws IOException {
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(path + " is not an icon archive");
+            }
+            long position = HEADER_SIZE;
+            while (position + 2L * Integer.BYTES <= fileSize) {
+                int keyLength = in.readInt();
+                if (keyLength <= 0 || keyLength > MAX_KEY_LENGTH || position + Integer.BYTES + keyLength + Integer.BYTES > fileSize) {
+                    break;
+                }
+                byte[] keyBytes = new byte[keyLength];
+                in.readFully(keyBytes);
+                int dataLength = in.readInt();
+                long dataOffset = position + Integer.BYTES + keyLength + Integer.BYTES;
+                if (dataLength < 0 || dataOffset + dataLength > fileSize) {
+                    break;
+                }
+                in.skipNBytes(dataLength);
+                Slot replaced = index.put(new String(keyBytes, StandardCharsets.UTF_8), new Slot(dataOffset, dataLength));
+                if (replaced != null) {
+                    replacedBytes += recordSize(keyLength, replaced.length());
+                }
+                position = dataOffset + dataLength;
+            }
+            return position;
+        } catch (EOFException e) {
+            throw new IOException(path + " is not an icon archive", e);
+        }
+    }
+
+    /**
+     * Helper method that reads the PNG data of an icon from the file instead of the mapping.
+     *
+     * @param slot The position of the data
+     * @return The PNG data
+     * @throws IOException If the data cannot be read
+     */
+    private byte[] readData(Slot slot) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(slot.length());
+        long position = slot.offset();
+        while (data.hasRemaining()) {
+            int read = channel.read(data, position);
+            if (read < 0) {
+                throw new EOFException("The icon at " + slot.offset() + " is incomplete");
+            }
+            position += read;
+        }
+        return data.array();
+    }
+
+    /**
+     * Helper method that returns the number of bytes of the records which are not replaced.
+     *
+     * @return The number of live bytes
+     */
+    private long getLiveBytes() {
+        return size - HEADER_SIZE - replacedBytes;
+    }
+
+    /**
+     * Helper method that returns the size of a record.
+     *
+     * @param keyLength  The length of the encoded key
+     * @param dataLength The length of the PNG data
+     * @return The size of the record in bytes
+     */
+    private static int recordSize(int keyLength, int dataLength) {
+        return Integer.BYTES + keyLength + Integer.BYTES + dataLength;
+    }
+
+    /**
+     * The position of the PNG data of an icon in the archive.
+     *
+     * @param offset The offset of the data
+     * @param length The length of the data
+     */
+    private record Slot(long offset, int length) {
+    }
+}
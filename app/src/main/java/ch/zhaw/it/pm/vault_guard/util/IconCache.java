@@ -0,0 +1,177 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import ch.zhaw.it.pm.vault_guard.controller.model.MainModelEntry;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import javafx.scene.image.Image;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * The IconCache holds the decoded icons of the entries, so a stored icon is only decoded once and not on every update of a list cell.
+ * The icons are stored per host (every host has one icon in the IconArchive) and are decoded at the size they are shown.
+ * The cache is bounded by the memory of the decoded icons, the least recently used icons are evicted first.
+ * All entries without an icon share a single instance of the default icon.
+ * getIcon decodes a missing icon on the calling thread, so the list cells only take decoded icons with getDecodedIcon
+ * on the JavaFX application thread and decode the others on the pool of the IconResolver.
+ * The hits and misses of the cache are recorded and can be read with getStats.
+ */
+public class IconCache {
+
+    static final int ICON_SIZE = 44;
+    static final int ICON_WEIGHT = ICON_SIZE * ICON_SIZE * 4;
+    private static final long DEFAULT_MAX_WEIGHT = 8L * 1024 * 1024;
+    private static final String DEFAULT_ICON_PATH = "/ch/zhaw/it/pm/vault_guard/images/icons/entry_default_icon.png";
+    private static final Log log = LogFactory.getLog(IconCache.class);
+
+    private final Cache<String, Image> icons;
+    private final Function<String, Optional<Image>> decoder;
+    private final Supplier<Image> defaultIcon;
+
+    /**
+     * Constructor of the IconCache with a bound of 8 MiB of decoded icons
+     */
+    public IconCache() {
+        this(DEFAULT_MAX_WEIGHT, IconCache::decode, () -> new Image(DEFAULT_ICON_PATH));
+    }
+
+    /**
+     * Constructor of the IconCache, used for testing
+     *
+     * @param maxWeight   The maximal memory of the decoded icons in bytes
+     * @param decoder     The function decoding a stored icon, an empty Optional if the icon is not stored
+     * @param defaultIcon The supplier of the default icon, it is called at most once
+     */
+    IconCache(long maxWeight, Function<String, Optional<Image>> decoder, Supplier<Image> defaultIcon) {
+        this.icons = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String iconKey, Image icon) -> ICON_WEIGHT)
+                .recordStats()
+                .build();
+        this.decoder = decoder;
+        this.defaultIcon = Suppliers.memoize(defaultIcon);
+    }
+
+    /**
+     * Returns the decoded icon of an entry, the default icon if the entry has no icon.
+     *
+     * @param entry The entry
+     * @return The decoded icon
+     */
+    public Image getIcon(MainModelEntry entry) {
+        return getIcon(entry.getIcon());
+    }
+
+    /**
+     * Returns the decoded icon with the given key in the icon archive, the default icon if there is no icon.
+     * An icon that could not be decoded is removed from the cache and the default icon is returned instead.
+     *
+     * @param iconKey The key of the icon
+     * @return The decoded icon
+     */
+    public Image getIcon(Optional<String> iconKey) {
+        if (iconKey.isEmpty()) {
+            return getDefaultIcon();
+        }
+        String key = iconKey.get();
+        try {
+            Image icon = icons.get(key, () -> decoder.apply(key).orElseThrow(() -> new IOException("the icon is not stored")));
+            if (icon.isError()) {
+                icons.invalidate(key);
+                return getDefaultIcon();
+            }
+            return icon;
+        } catch (ExecutionException e) {
+            log.error("Error while decoding the icon " + key + ": " + e.getCause().getMessage());
+            return getDefaultIcon();
+        }
+    }
+
+    /**
+     * Returns the icon of an entry if it does not have to be decoded, see getDecodedIcon(Optional).
+     *
+     * @param entry The entry
+     * @return The decoded icon or an empty Optional if the icon has to be decoded with getIcon first
+     */
+    public Optional<Image> getDecodedIcon(MainModelEntry entry) {
+        return getDecodedIcon(entry.getIcon());
+    }
+
+    /**
+     * Returns the icon with the given key if it does not have to be decoded: the default icon if there is no icon,
+     * or the icon if it is in the cache. This never decodes an icon, so it can be called on the JavaFX application thread.
+     *
+     * @param iconKey The key of the icon
+     * @return The decoded icon or an empty Optional if the icon has to be decoded with getIcon first
+     */
+    public Optional<Image> getDecodedIcon(Optional<String> iconKey) {
+        if (iconKey.isEmpty()) {
+            return Optional.of(getDefaultIcon());
+        }
+        return Optional.ofNullable(icons.getIfPresent(iconKey.get()));
+    }
+
+    /**
+     * Returns the shared instance of the default icon.
+     *
+     * @return The default icon
+     */
+    public Image getDefaultIcon() {
+        return defaultIcon.get();
+    }
+
+    /**
+     * Removes the decoded icon with the given key, e.g. after the icon was replaced by a newly loaded icon.
+     *
+     * @param iconKey The key of the icon
+     */
+    public void invalidate(String iconKey) {
+        icons.invalidate(iconKey);
+    }
+
+    /**
+     * Returns the hit and miss counts of the cache.
+     *
+     * @return The statistics of the cache
+     */
+    public CacheStats getStats() {
+        return icons.stats();
+    }
+
+    /**
+     * Returns the number of decoded icons in the cache.
+     *
+     * @return The number of icons
+     */
+    long size() {
+        return icons.size();
+    }
+
+    /**
+     * Removes all decoded icons.
+     */
+    public void clear() {
+        icons.invalidateAll();
+    }
+
+    /**
+     * Decodes an icon of the icon archive at the size it is shown.
+     * The PNG data is read from the memory mapping of the archive, so no file is opened.
+     *
+     * @param iconKey The key of the icon
+     * @return The icon or an empty Optional if the icon is not stored
+     */
+    private static Optional<Image> decode(String iconKey) {
+        return IconArchive.getDefault().read(iconKey)
+                .map(png -> new Image(new ByteArrayInputStream(png), ICON_SIZE, ICON_SIZE, true, true));
+    }
+}
@@ -1,6 +1,6 @@
 package ch.zhaw.it.pm.vault_guard.util;
 
-import ch.zhaw.it.pm.vault_guard.controller.model.MainModelEntry;
+import com.google.common.base.Supplier;
 import net.sf.image4j.codec.ico.ICODecoder;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -8,103 +8,145 @@ import org.apache.commons.validator.routines.UrlValidator;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.File;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.net.HttpURLConnection;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URL;
-import java.util.HashMap;
+import java.net.URLConnection;
 import java.util.Map;
 import java.util.Optional;
 
 /**
- * The IconLoader class is used to load the icon of a password entry. From the website or from the resources' folder.
+ * The IconLoader class is used to load the icon of a password entry. From the website or from the icon archive.
+ * The icons are stored in the IconArchive, the key of an icon is the host of its website.
+ * The IconLoader keeps no state besides the archive, one instance is shared by all entries.
  */
 public class IconLoader {
 
-    private static final String ICONS_PATH = "src/main/resources/ch/zhaw/it/pm/vault_guard/images/icons/";
+    private static final int TIMEOUT_MILLIS = 5000;
     private static final Log log = LogFactory.getLog(IconLoader.class);
+    private static final UrlValidator URL_VALIDATOR = new UrlValidator(new String[]{"http", "https"});
+    private static final Map<Character, String> UMLAUT_REPLACEMENTS = Map.of(
+            'ü', "ue",
+            'ö', "oe",
+            'ä', "ae",
+            'Ü', "Ue",
+            'Ö', "Oe",
+            'Ä', "Ae",
+            'ß', "ss");
+
+    private final Supplier<IconArchive> iconArchive;
+
+    /**
+     * Constructor of the IconLoader, which stores the icons in the archive of the application
+     */
+    public IconLoader() {
+        this(IconArchive::getDefault);
+    }
 
     /**
-     * Loads the image of the password entry.
+     * Constructor of the IconLoader with a custom archive, used for testing
      *
-     * @param entry The password entry
+     * @param iconArchive The archive of the icons
      */
-    public void loadIconFromWebsite(MainModelEntry entry) {
-        String website = cleanupURL(entry.getWebsite());
-        if (!website.isEmpty() && isValidURL(website)) {
-            String pathname = getIconPath(website);
-            File f = new File(pathname);
-            if (f.exists() && !f.isDirectory()) {
-                entry.setIcon(f);
-            } else if (isWebsiteReachable()) {
-                Optional<BufferedImage> optionalIcon = loadIcon(website);
-                if (optionalIcon.isPresent()) {
-                    BufferedImage icon = optionalIcon.get();
-                    storeIcon(icon, pathname);
-                    entry.readIconFromFile();
-                } else {
-                    loadDefaultIcon(entry);
-                }
-            } else {
-                loadDefaultIcon(entry);
-            }
-        } else {
-            loadDefaultIcon(entry);
+    IconLoader(IconArchive iconArchive) {
+        this(() -> iconArchive);
+    }
+
+    /**
+     * Constructor of the IconLoader
+     *
+     * @param iconArchive The supplier of the archive, the archive is only opened when it is needed
+     */
+    private IconLoader(Supplier<IconArchive> iconArchive) {
+        this.iconArchive = iconArchive;
+    }
+
+    /**
+     * Returns the stored icon of a website and loads it from the website if it is not stored yet.
+     * The loaded icon is stored, so it is only loaded once per host.
+     * This method accesses the network, it must not be called on the JavaFX application thread.
+     *
+     * @param website The website of the entry
+     * @return The key of the stored icon or an empty Optional if the website is not valid or the icon could not be loaded
+     */
+    public Optional<String> fetchIcon(String website) {
+        Optional<String> storedIcon = findStoredIcon(website);
+        if (storedIcon.isPresent()) {
+            return storedIcon;
         }
+        String iconKey = getIconKeyOf(website);
+        if (iconKey.isEmpty()) {
+            return Optional.empty();
+        }
+        return loadIcon(cleanupURL(website))
+                .filter(icon -> storeIcon(icon, iconKey))
+                .map(icon -> iconKey);
     }
 
     /**
-     * Checks if the website is reachable.
+     * Returns the key of the icon of a website in the icon archive, which is the same for all websites with the same host.
      *
-     * @return True if the website is reachable, false otherwise
+     * @param website The website of the entry
+     * @return The key of the icon or an empty String if the website is not a valid URL
      */
-    private boolean isWebsiteReachable() {
-        try {
-            URI uri = new URI("https://www.google.com");
-            URL url = uri.toURL();
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setConnectTimeout(5000);
-            connection.setUseCaches(false);
-            int responseCode = connection.getResponseCode();
-            return (responseCode == 200);
-        } catch (IOException | URISyntaxException e) {
-            return false;
+    public String getIconKeyOf(String website) {
+        String cleanedUrl = cleanupURL(website);
+        if (cleanedUrl.isEmpty() || !isValidURL(cleanedUrl)) {
+            return "";
+        }
+        return getIconKey(cleanedUrl);
+    }
+
+    /**
+     * Looks up the stored icon of a website, without loading it from the website.
+     *
+     * @param website The website of the entry
+     * @return The key of the stored icon or an empty Optional if there is no stored icon for the website
+     */
+    public Optional<String> findStoredIcon(String website) {
+        String iconKey = getIconKeyOf(website);
+        if (iconKey.isEmpty() || !iconArchive.get().contains(iconKey)) {
+            return Optional.empty();
         }
+        return Optional.of(iconKey);
     }
 
     /**
-     * Loads the default icon.
+     * Reads the PNG data of a stored icon.
      *
-     * @param entry The password entry
+     * @param iconKey The key of the icon
+     * @return The PNG data or an empty Optional if the icon is not stored
      */
-    private void loadDefaultIcon(MainModelEntry entry) {
-        entry.setIcon(new File(ICONS_PATH + "entry_default_icon.png"));
+    public Optional<byte[]> readStoredIcon(String iconKey) {
+        return iconArchive.get().read(iconKey);
     }
 
     /**
-     * Returns the pathname of the icon.
+     * Returns the key of the icon.
      *
      * @param website The website of the icon
-     * @return The pathname of the icon
+     * @return The key of the icon
      */
-    private String getIconPath(String website) {
-        return ICONS_PATH + website.replace("https://", "").replace("http://", "").replace("/", "").replace("www.", "").replace("favicon.ico", "") + ".png";
+    private String getIconKey(String website) {
+        return website.replace("https://", "").replace("http://", "").replace("/", "").replace("www.", "").replace("favicon.ico", "");
     }
 
     /**
-     * Stores the icon in the resources' folder.
+     * Stores the icon in the icon archive.
      *
-     * @param icon     The icon to be stored
-     * @param pathname The pathname of the icon
+     * @param icon    The icon to be stored
+     * @param iconKey The key of the icon
+     * @return True if the icon was stored, false otherwise
      */
-    private void storeIcon(BufferedImage icon, String pathname) {
+    private boolean storeIcon(BufferedImage icon, String iconKey) {
         try {
-            File file = new File(pathname);
-            ImageIO.write(icon, "png", file);
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            return ImageIO.write(icon, "png", png) && iconArchive.get().append(iconKey, png.toByteArray());
         } catch (IOException e) {
             log.error("Error while storing the icon: " + e.getMessage());
+            return false;
         }
     }
 
@@ -115,9 +157,7 @@ public class IconLoader {
      * @return True if the URL is valid, false otherwise
      */
     boolean isValidURL(String url) {
-        String[] schemes = {"http", "https"};
-        UrlValidator urlValidator = new UrlValidator(schemes);
-        return urlValidator.isValid(url);
+        return URL_VALIDATOR.isValid(url);
     }
 
     /**
@@ -154,17 +194,14 @@ public class IconLoader {
      * @return The cleaned up URL
      */
     private String replaceUmlaute(String url) {
-        Map<Character, String> replacements = new HashMap<>();
-        replacements.put('ü', "ue");
-        replacements.put('ö', "oe");
-        replacements.put('ä', "ae");
-        replacements.put('Ü', "Ue");
-        replacements.put('Ö', "Oe");
-        replacements.put('Ä', "Ae");
-        replacements.put('ß', "ss");
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(url.length());
         for (char c : url.toCharArray()) {
-            sb.append(replacements.getOrDefault(c, String.valueOf(c)));
+            String replacement = UMLAUT_REPLACEMENTS.get(c);
+            if (replacement == null) {
+                sb.append(c);
+            } else {
+                sb.append(replacement);
+            }
         }
         return sb.toString();
     }
@@ -180,8 +217,12 @@ public class IconLoader {
         BufferedImage icon = null;
         try {
             URI uri = new URI(url);
-            URL fullUrl = uri.toURL();
-            icon = ICODecoder.read(fullUrl.openStream()).getFirst();
+            URLConnection connection = uri.toURL().openConnection();
+            connection.setConnectTimeout(TIMEOUT_MILLIS);
+            connection.setReadTimeout(TIMEOUT_MILLIS);
+            try (InputStream stream = connection.getInputStream()) {
+                icon = ICODecoder.read(stream).getFirst();
+            }
         } catch (Exception e) {
             log.error("Error while loading the icon: " + e.getMessage());
         }
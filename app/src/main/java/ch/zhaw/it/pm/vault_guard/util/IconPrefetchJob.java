@@ -0,0 +1,225 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import ch.zhaw.it.pm.vault_guard.controller.model.MainModelEntry;
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The IconPrefetchJob loads the missing icons of all entries of a vault in the background after the vault is unlocked,
+ * instead of loading an icon only when the website of an entry is edited.
+ * <p>
+ * The job collects the distinct hosts of the entries which have no stored icon and requests every host once through the FaviconService,
+ * which shares the download with other requests of the same host and skips hosts in their backoff after a failed request.
+ * The requests are started at a limited global rate and only a few of them run at the same time.
+ * <p>
+ * The progress is published with the property name "prefetchProgress", the new value of the event is a Progress.
+ * The job can be cancelled at any time. Loaded icons are stored in the IconArchive and failed hosts are saved by the FaviconService,
+ * so a job started in the next session continues with the hosts that are still missing.
+ */
+public class IconPrefetchJob {
+
+    private static final double REQUESTS_PER_SECOND = 4.0;
+    private static final int MAX_RUNNING_REQUESTS = 4;
+    private static final long ACQUIRE_TIMEOUT_MILLIS = 200;
+    private static final Log log = LogFactory.getLog(IconPrefetchJob.class);
+
+    private final FaviconService faviconService;
+    private final IconLoader iconLoader;
+    private final RateLimiter rateLimiter;
+    private final Semaphore runningRequests = new Semaphore(MAX_RUNNING_REQUESTS);
+    private final PropertyChangeSupport support = new PropertyChangeSupport(this);
+    private final ExecutorService executor;
+    private volatile boolean cancelled;
+
+    /**
+     * Constructor of the IconPrefetchJob
+     *
+     * @param faviconService The service which loads the icons
+     */
+    public IconPrefetchJob(FaviconService faviconService) {
+        this(faviconService, new IconLoader(), REQUESTS_PER_SECOND);
+    }
+
+    /**
+     * Constructor of the IconPrefetchJob with a custom IconLoader and rate, used for testing
+     *
+     * @param faviconService     The service which loads the icons
+     * @param iconLoader         The IconLoader used to look up the stored icons
+     * @param requestsPerSecond  The maximal number of requests started per second
+     */
+    IconPrefetchJob(FaviconService faviconService, IconLoader iconLoader, double requestsPerSecond) {
+        this.faviconService = faviconService;
+        this.iconLoader = iconLoader;
+        this.rateLimiter = RateLimiter.create(requestsPerSecond);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "icon-prefetch");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        ExecutorManager.registerExecutor(executor);
+    }
+
+    /**
+     * Starts loading the missing icons of the given entries in the background.
+     * The callback is called on a background thread for every entry whose icon was loaded, after the icon was set on the entry.
+     *
+     * @param entries      The entries of the vault
+     * @param onIconLoaded The callback, called with the entry
+     */
+    public void start(Collection<MainModelEntry> entries, Consumer<MainModelEntry> onIconLoaded) {
+        List<MainModelEntry> snapshot = new ArrayList<>(entries);
+        try {
+            executor.execute(() -> prefetch(snapshot, onIconLoaded));
+        } catch (RejectedExecutionException e) {
+            log.debug("The icon prefetch job was cancelled before it was started");
+        }
+    }
+
+    /**
+     * Cancels the job. Running requests are completed, but no further requests are started.
+     */
+    public void cancel() {
+        cancelled = true;
+        executor.shutdownNow();
+    }
+
+    /**
+     * Adds a listener which is informed about the progress of the job.
+     *
+     * @param listener The listener
+     */
+    public void addPropertyChangeListener(PropertyChangeListener listener) {
+        support.addPropertyChangeListener(listener);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener The listener
+     */
+    public void removePropertyChangeListener(PropertyChangeListener listener) {
+        support.removePropertyChangeListener(listener);
+    }
+
+    /**
+     * Helper method that requests the icons of all missing hosts, at the limited rate.
+     *
+     * @param entries      The entries of the vault
+     * @param onIconLoaded The callback for the entries with a loaded icon
+     */
+    private void prefetch(List<MainModelEntry> entries, Consumer<MainModelEntry> onIconLoaded) {
+        Map<String, List<MainModelEntry>> missingHosts = collectMissingHosts(entries);
+        int total = missingHosts.size();
+        AtomicInteger completed = new AtomicInteger();
+        log.debug("Prefetching the icons of " + total + " hosts");
+        support.firePropertyChange("prefetchProgress", null, new Progress(0, total));
+        try {
+            for (Map.Entry<String, List<MainModelEntry>> host : missingHosts.entrySet()) {
+                if (!acquire()) {
+                    return;
+                }
+                String website = host.getValue().getFirst().getWebsite();
+                faviconService.fetchIcon(website).whenComplete((icon, error) -> {
+                    runningRequests.release();
+                    if (icon != null && icon.isPresent()) {
+                        applyIcon(host.getKey(), icon.get(), host.getValue(), onIconLoaded);
+                    }
+                    support.firePropertyChange("prefetchProgress", null, new Progress(completed.incrementAndGet(), total));
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Helper method that groups the entries without stored icon by the key of the icon of their host.
+     * Hosts which are in their backoff after a failed request are skipped.
+     *
+     * @param entries The entries of the vault
+     * @return The entries of every missing host
+     */
+    private Map<String, List<MainModelEntry>> collectMissingHosts(List<MainModelEntry> entries) {
+        Map<String, List<MainModelEntry>> missingHosts = new LinkedHashMap<>();
+        for (MainModelEntry entry : entries) {
+            String website = entry.getWebsite();
+            String iconKey = iconLoader.getIconKeyOf(website);
+            if (!iconKey.isEmpty() && !faviconService.isBackingOff(website) && iconLoader.findStoredIcon(website).isEmpty()) {
+                missingHosts.computeIfAbsent(iconKey, key -> new ArrayList<>()).add(entry);
+            }
+        }
+        return missingHosts;
+    }
+
+    /**
+     * Helper method that waits until the next request may be started.
+     *
+     * @return True if the request may be started, false if the job was cancelled
+     * @throws InterruptedException If the job was cancelled while waiting
+     */
+    private boolean acquire() throws InterruptedException {
+        while (!cancelled) {
+            if (rateLimiter.tryAcquire(ACQUIRE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                runningRequests.acquire();
+                if (cancelled) {
+                    runningRequests.release();
+                    return false;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Helper method that sets a loaded icon on the entries of its host, which still have the same host.
+     *
+     * @param iconKey      The key of the icon
+     * @param icon         The key of the stored icon
+     * @param entries      The entries of the host
+     * @param onIconLoaded The callback for the entries
+     */
+    private void applyIcon(String iconKey, String icon, List<MainModelEntry> entries, Consumer<MainModelEntry> onIconLoaded) {
+        for (MainModelEntry entry : entries) {
+            if (iconKey.equals(iconLoader.getIconKeyOf(entry.getWebsite()))) {
+                entry.setIcon(icon);
+                onIconLoaded.accept(entry);
+            }
+        }
+    }
+
+    /**
+     * The progress of the job.
+     *
+     * @param completed The number of hosts whose request is completed
+     * @param total     The number of hosts to request
+     */
+    public record Progress(int completed, int total) {
+
+        /**
+         * Returns whether the requests of all hosts are completed.
+         *
+         * @return True if the job is done
+         */
+        public boolean isDone() {
+            return completed == total;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import ch.zhaw.it.pm.vault_guard.controller.model.MainModelEntry;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The IconResolver looks up the stored icons of the entries on a background pool, so the icon archive is not opened
+ * while the vault is loaded or on the JavaFX application thread.
+ * Icons requested by visible cells are resolved first, the remaining entries of the vault are resolved afterward.
+ * The result of the lookup is remembered per host, so entries of the same website share a single lookup.
+ * Icons that are stored after the lookup (e.g. loaded from the website when an entry is edited) are set on the edited entry directly
+ * and replace the remembered result of their host.
+ */
+public class IconResolver {
+
+    private static final int WORKERS = 2;
+
+    private final IconLoader iconLoader;
+    private final ExecutorService executor;
+    private final BlockingDeque<IconRequest> pending = new LinkedBlockingDeque<>();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final Map<String, Optional<String>> iconsByHost = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor of the IconResolver
+     */
+    public IconResolver() {
+        this(new IconLoader());
+    }
+
+    /**
+     * Constructor of the IconResolver with a custom IconLoader, used for testing
+     *
+     * @param iconLoader The IconLoader used to look up the stored icons
+     */
+    IconResolver(IconLoader iconLoader) {
+        this.iconLoader = iconLoader;
+        this.executor = Executors.newFixedThreadPool(WORKERS, runnable -> {
+            Thread thread = new Thread(runnable, "icon-resolver");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        ExecutorManager.registerExecutor(executor);
+    }
+
+    /**
+     * Requests the icon of an entry shown in a visible cell. The request is handled before all other pending requests.
+     * The callback is called on a background thread once the icon is resolved.
+     *
+     * @param entry      The entry
+     * @param onResolved The callback, called with the entry
+     */
+    public void resolveVisible(MainModelEntry entry, Consumer<MainModelEntry> onResolved) {
+        pending.offerFirst(new IconRequest(entry, onResolved));
+        startWorkers();
+    }
+
+    /**
+     * Requests the icons of all given entries in the background, after the icons of the visible cells.
+     *
+     * @param entries The entries
+     */
+    public void resolveAll(Collection<MainModelEntry> entries) {
+        for (MainModelEntry entry : entries) {
+            if (!entry.isIconResolved()) {
+                pending.offerLast(new IconRequest(entry, null));
+            }
+        }
+        startWorkers();
+    }
+
+    /**
+     * Resolves the icon of an entry on the calling thread, using the remembered result of its host.
+     *
+     * @param entry The entry
+     */
+    public void resolve(MainModelEntry entry) {
+        if (entry.isIconResolved()) {
+            return;
+        }
+        String iconKey = iconLoader.getIconKeyOf(entry.getWebsite());
+        Optional<String> icon = iconKey.isEmpty()
+                ? Optional.empty()
+                : iconsByHost.computeIfAbsent(iconKey, key -> iconLoader.findStoredIcon(entry.getWebsite()));
+        entry.setIcon(icon.orElse(null));
+    }
+
+    /**
+     * Replaces the remembered result of the host of an entry with the icon of the entry,
+     * e.g. after the icon was loaded from the website of the entry.
+     *
+     * @param entry The entry with the new icon
+     */
+    public void iconStored(MainModelEntry entry) {
+        String iconKey = iconLoader.getIconKeyOf(entry.getWebsite());
+        if (!iconKey.isEmpty()) {
+            iconsByHost.put(iconKey, entry.getIcon());
+        }
+    }
+
+    /**
+     * Returns the number of hosts whose icon lookup is remembered.
+     *
+     * @return The number of hosts
+     */
+    int getResolvedHostCount() {
+        return iconsByHost.size();
+    }
+
+    /**
+     * Stops the background pool and drops the pending requests.
+     */
+    public void shutdown() {
+        pending.clear();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Helper method that starts workers until all workers are busy or no requests are pending.
+     */
+    private void startWorkers() {
+        while (!pending.isEmpty()) {
+            int workers = activeWorkers.get();
+            if (workers >= WORKERS) {
+                return;
+            }
+            if (activeWorkers.compareAndSet(workers, workers + 1)) {
+                try {
+                    executor.execute(this::resolvePending);
+                } catch (RejectedExecutionException e) {
+                    activeWorkers.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method that resolves the pending requests, the first request of the queue first, until no request is left.
+     */
+    private void resolvePending() {
+        try {
+            IconRequest request;
+            while (!Thread.currentThread().isInterrupted() && (request = pending.pollFirst()) != null) {
+                resolve(request.entry());
+                if (request.onResolved() != null) {
+                    request.onResolved().accept(request.entry());
+                }
+            }
+        } finally {
+            activeWorkers.decrementAndGet();
+        }
+        if (!Thread.currentThread().isInterrupted()) {
+            startWorkers();
+        }
+    }
+
+    /**
+     * A pending request for the icon of an entry.
+     *
+     * @param entry      The entry
+     * @param onResolved The callback or null
+     */
+    private record IconRequest(MainModelEntry entry, Consumer<MainModelEntry> onResolved) {
+    }
+}
@@ -1,71 +1,125 @@
 package ch.zhaw.it.pm.vault_guard.util;
 
 import ch.zhaw.it.pm.vault_guard.controller.model.MainModelEntry;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-
+import javafx.application.Platform;
+import javafx.geometry.HPos;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.geometry.VPos;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.image.Image;
-import javafx.scene.layout.GridPane;
-
 import javafx.scene.image.ImageView;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
 
-import java.io.IOException;
+import java.util.Optional;
 
 /**
  * This class is used to create a custom cell factory for the password list view.
  * It is used to display the password entries in the list view.
+ * The nodes of a cell are built once in code and reused for every entry the cell shows, so an update only sets the texts and the icon.
+ * The colors of the cell are defined in style.css, a selected cell is styled through the selected pseudo-class of the ListCell.
+ * Icons that are not resolved yet are requested from the IconResolver, the default icon is shown until the icon is resolved.
+ * The decoded icons are taken from the IconCache shared by all cells. An icon that is not decoded yet is decoded on the pool
+ * of the IconResolver, never on the JavaFX application thread.
  */
 public class PasswordEntryCellFactory extends ListCell<MainModelEntry> {
 
-    @FXML
-    private GridPane passwordListElementPane;
-    @FXML
-    private Label entryTitle;
-    @FXML
-    private Label entryUsername;
-    @FXML
-    private ImageView entryIcon;
+    /**
+     * The height of a cell, used as the fixed cell size of the list view.
+     */
+    public static final double CELL_HEIGHT = 50.0;
+    private static final double CELL_WIDTH = 258.0;
+    private static final double ICON_SIZE = 44.0;
 
-    private FXMLLoader mLLoader;
-    private static final Log log = LogFactory.getLog(PasswordEntryCellFactory.class);
+    private final GridPane passwordListElementPane = new GridPane();
+    private final Label entryTitle = new Label();
+    private final Label entryUsername = new Label();
+    private final ImageView entryIcon = new ImageView();
+    private final IconResolver iconResolver;
+    private final IconCache iconCache;
+
+    /**
+     * Constructor of the PasswordEntryCellFactory
+     *
+     * @param iconResolver The IconResolver which resolves the icons of the shown entries
+     * @param iconCache    The IconCache which holds the decoded icons
+     */
+    public PasswordEntryCellFactory(IconResolver iconResolver, IconCache iconCache) {
+        this.iconResolver = iconResolver;
+        this.iconCache = iconCache;
+        getStyleClass().add("password-entry-cell");
+        buildLayout();
+        setText(null);
+    }
 
     @Override
     protected void updateItem(MainModelEntry entry, boolean empty) {
         super.updateItem(entry, empty);
-        setStyle("-fx-background-color: #262626;");
         if (empty || entry == null) {
-            setText(null);
+            entryIcon.setImage(null);
             setGraphic(null);
         } else {
-            if (mLLoader == null) {
-                mLLoader = new FXMLLoader(getClass().getResource("../FXML/PasswordListElement.fxml"));
-                mLLoader.setController(this);
-                try {
-                    mLLoader.load();
-                } catch (IOException e) {
-                    log.error("Error loading PasswordListElement.fxml", e);
-                }
-            }
-            setStyle("-fx-padding: 0px;");
             entryTitle.setText(entry.getPasswordTitel());
             entryUsername.setText(entry.getUsername());
-            if (entry.getIcon().isPresent() && entry.getIcon().get().exists() && !entry.getIcon().get().isDirectory()) {
-                entryIcon.setImage(new Image(entry.getIcon().get().toURI().toString()));
+            Optional<Image> icon = entry.isIconResolved() ? iconCache.getDecodedIcon(entry) : Optional.empty();
+            if (icon.isPresent()) {
+                entryIcon.setImage(icon.get());
             } else {
-                entryIcon.setImage(new Image("/ch/zhaw/it/pm/vault_guard/images/icons/entry_default_icon.png"));
+                entryIcon.setImage(iconCache.getDefaultIcon());
+                iconResolver.resolveVisible(entry, this::iconResolved);
             }
-            setText(null);
             setGraphic(passwordListElementPane);
+        }
+    }
 
-            if (getListView().getSelectionModel().getSelectedItems().contains(entry)) {
-                passwordListElementPane.setStyle("-fx-background-color: #5B858C;  -fx-border-color: #FFFFFF; -fx-border-width: 0.5;");
-            } else {
-                passwordListElementPane.setStyle("-fx-background-color: #3D3D3D;  -fx-border-color: #FFFFFF; -fx-border-width: 0.2;");
+    /**
+     * This method is used to build the nodes of the cell, with the icon on the left and the title above the username.
+     */
+    private void buildLayout() {
+        ColumnConstraints iconColumn = new ColumnConstraints(CELL_HEIGHT);
+        ColumnConstraints textColumn = new ColumnConstraints();
+        textColumn.setHgrow(Priority.ALWAYS);
+        textColumn.setMinWidth(10.0);
+        ColumnConstraints endColumn = new ColumnConstraints(25.0);
+        passwordListElementPane.getColumnConstraints().addAll(iconColumn, textColumn, endColumn);
+        passwordListElementPane.getStyleClass().add("password-entry");
+        passwordListElementPane.setPrefSize(CELL_WIDTH, CELL_HEIGHT);
+        passwordListElementPane.setMinHeight(CELL_HEIGHT);
+        passwordListElementPane.setMaxHeight(CELL_HEIGHT);
+
+        entryIcon.setFitWidth(ICON_SIZE);
+        entryIcon.setFitHeight(ICON_SIZE);
+        entryIcon.setPreserveRatio(true);
+        entryIcon.setPickOnBounds(true);
+        GridPane.setHalignment(entryIcon, HPos.CENTER);
+        GridPane.setValignment(entryIcon, VPos.CENTER);
+
+        entryTitle.getStyleClass().add("password-entry-title");
+        entryUsername.getStyleClass().add("password-entry-username");
+        VBox texts = new VBox(entryTitle, entryUsername);
+        texts.setAlignment(Pos.CENTER_LEFT);
+        texts.setPadding(new Insets(0, 0, 0, 3.0));
+
+        passwordListElementPane.add(entryIcon, 0, 0);
+        passwordListElementPane.add(texts, 1, 0);
+    }
+
+    /**
+     * This method is called by the IconResolver on a background thread when the icon of an entry is resolved.
+     * The icon is decoded on this thread and only shown if the cell still shows the entry.
+     *
+     * @param entry The entry
+     */
+    private void iconResolved(MainModelEntry entry) {
+        Image icon = iconCache.getIcon(entry);
+        Platform.runLater(() -> {
+            if (getItem() == entry) {
+                entryIcon.setImage(icon);
             }
-        }
+        });
     }
 }
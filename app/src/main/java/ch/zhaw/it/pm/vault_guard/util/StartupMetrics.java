@@ -0,0 +1,90 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The StartupMetrics class records when the steps of the startup are reached, e.g. when the login window is shown.
+ * Every step is recorded once as the current time in milliseconds, the times are logged relative to the start of the process.
+ * If the system property vaultguard.startupMetrics is set, the steps are also printed to the standard output,
+ * where they are read by the startup benchmark.
+ */
+public class StartupMetrics {
+
+    /**
+     * The step when the login window is shown.
+     */
+    public static final String LOGIN_WINDOW = "loginWindow";
+    /**
+     * The step when the login is submitted.
+     */
+    public static final String LOGIN_SUBMITTED = "loginSubmitted";
+    /**
+     * The step when the entry list of the vault is shown.
+     */
+    public static final String VAULT_LIST = "vaultList";
+    static final String PRINT_PROPERTY = "vaultguard.startupMetrics";
+    private static final String PRINT_PREFIX = "startup-metric ";
+
+    private static final Map<String, Long> steps = new ConcurrentHashMap<>();
+    private static final Log log = LogFactory.getLog(StartupMetrics.class);
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private StartupMetrics() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Records that a step of the startup is reached. Only the first time of a step is recorded.
+     *
+     * @param step The name of the step
+     */
+    public static void mark(String step) {
+        long now = System.currentTimeMillis();
+        if (steps.putIfAbsent(step, now) != null) {
+            return;
+        }
+        ProcessHandle.current().info().startInstant().ifPresent(start ->
+                log.debug("Startup step " + step + " reached after " + (now - start.toEpochMilli()) + " ms"));
+        if (Boolean.getBoolean(PRINT_PROPERTY)) {
+            System.out.println(PRINT_PREFIX + step + " " + now);
+        }
+    }
+
+    /**
+     * Returns the time when a step was reached.
+     *
+     * @param step The name of the step
+     * @return The time in milliseconds or an empty Optional if the step is not reached yet
+     */
+    public static Optional<Long> getTime(String step) {
+        return Optional.ofNullable(steps.get(step));
+    }
+
+    /**
+     * Parses a step printed to the standard output.
+     *
+     * @param line A line of the standard output
+     * @return The name and time of the step or an empty Optional if the line is not a printed step
+     */
+    public static Optional<Map.Entry<String, Long>> parse(String line) {
+        if (!line.startsWith(PRINT_PREFIX)) {
+            return Optional.empty();
+        }
+        String[] parts = line.substring(PRINT_PREFIX.length()).trim().split(" ");
+        if (parts.length != 2) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Map.entry(parts[0], Long.parseLong(parts[1])));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
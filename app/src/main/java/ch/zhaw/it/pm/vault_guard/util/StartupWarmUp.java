@@ -0,0 +1,80 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCalculator;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The StartupWarmUp class prepares the work after the login while the user is still entering the password.
+ * It initializes the cryptography provider by encrypting and decrypting a dummy text, hashes a dummy account name,
+ * and reads the dictionaries of the password strength calculation. The work runs once on a low priority background thread.
+ * The warm-up is part of the fast-start mode, which is enabled unless the system property vaultguard.fastStart is false.
+ */
+public class StartupWarmUp {
+
+    static final String FAST_START_PROPERTY = "vaultguard.fastStart";
+    private static final String WARM_UP_TEXT = "vault-guard-warm-up";
+
+    private static final AtomicBoolean started = new AtomicBoolean();
+    private static final Log log = LogFactory.getLog(StartupWarmUp.class);
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private StartupWarmUp() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Returns whether the fast-start mode is enabled.
+     *
+     * @return True if the startup work is prepared in the background
+     */
+    public static boolean isFastStartEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty(FAST_START_PROPERTY));
+    }
+
+    /**
+     * Starts the warm-up in the background, if the fast-start mode is enabled. Only the first call starts the warm-up.
+     */
+    public static void start() {
+        if (!isFastStartEnabled() || !started.compareAndSet(false, true)) {
+            return;
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "startup-warm-up");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        ExecutorManager.registerExecutor(executor);
+        try {
+            executor.execute(StartupWarmUp::warmUp);
+        } catch (RejectedExecutionException e) {
+            log.debug("The startup warm-up was not started");
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Helper method that runs the warm-up. A failed warm-up is only logged, the work is done again when it is needed.
+     */
+    private static void warmUp() {
+        long start = System.currentTimeMillis();
+        try {
+            CryptographyHandler cryptographyHandler = new CryptographyHandler();
+            cryptographyHandler.decrypt(cryptographyHandler.encrypt(WARM_UP_TEXT, WARM_UP_TEXT), WARM_UP_TEXT);
+            Hashing.hash(WARM_UP_TEXT);
+            new PasswordStrengthCalculator().calculateStrength(WARM_UP_TEXT);
+            log.debug("Startup warm-up finished after " + (System.currentTimeMillis() - start) + " ms");
+        } catch (Exception e) {
+            log.warn("Startup warm-up failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import org.girod.javafx.svgimage.SVGImage;
+import org.girod.javafx.svgimage.SVGLoader;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * The SvgIconCache holds the SVG graphics of the buttons, e.g. the copy icon and the favorite star.
+ * Every graphic is loaded and rasterized once per size, the image is shared by all buttons showing it.
+ * The cache has to be used on the JavaFX application thread, because the graphics are rasterized with a snapshot.
+ */
+public class SvgIconCache {
+
+    private final Map<String, Image> images = new HashMap<>();
+    private final BiFunction<String, Double, Image> rasterizer;
+
+    /**
+     * Constructor of the SvgIconCache
+     */
+    public SvgIconCache() {
+        this(SvgIconCache::rasterize);
+    }
+
+    /**
+     * Constructor of the SvgIconCache with a custom rasterizer, used for testing
+     *
+     * @param rasterizer The function which rasterizes the graphic at the given resource path to the given size
+     */
+    SvgIconCache(BiFunction<String, Double, Image> rasterizer) {
+        this.rasterizer = rasterizer;
+    }
+
+    /**
+     * Returns the rasterized image of an SVG graphic, which is rasterized on the first request.
+     *
+     * @param path The resource path of the SVG graphic
+     * @param size The size of the image
+     * @return The image
+     */
+    public Image getImage(String path, double size) {
+        return images.computeIfAbsent(path + "@" + size, key -> rasterizer.apply(path, size));
+    }
+
+    /**
+     * Creates a new view of an SVG graphic, e.g. for the graphic of a button.
+     *
+     * @param path The resource path of the SVG graphic
+     * @param size The size of the view
+     * @return The view showing the rasterized image
+     */
+    public ImageView createView(String path, double size) {
+        ImageView view = new ImageView(getImage(path, size));
+        view.setFitWidth(size);
+        view.setFitHeight(size);
+        view.setPreserveRatio(true);
+        return view;
+    }
+
+    /**
+     * Returns the number of rasterized images.
+     *
+     * @return The number of images
+     */
+    public int size() {
+        return images.size();
+    }
+
+    /**
+     * Helper method that loads an SVG graphic and rasterizes it to the given size.
+     *
+     * @param path The resource path of the SVG graphic
+     * @param size The size of the image
+     * @return The image
+     */
+    private static Image rasterize(String path, double size) {
+        SVGImage svgImage = SVGLoader.load(SvgIconCache.class.getResource(path));
+        return svgImage.toImage(size);
+    }
+}
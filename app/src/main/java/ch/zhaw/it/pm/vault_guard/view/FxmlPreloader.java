@@ -0,0 +1,95 @@
+package ch.zhaw.it.pm.vault_guard.view;
+
+import ch.zhaw.it.pm.vault_guard.util.ExecutorManager;
+import ch.zhaw.it.pm.vault_guard.util.StartupWarmUp;
+import javafx.fxml.FXMLLoader;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The FxmlPreloader loads FXML files on a background thread before they are shown, e.g. the main window while the login window is idle.
+ * A preloaded file can be taken once, it has to be preloaded again for the next use.
+ * The nodes of a preloaded file are created outside the JavaFX application thread, which is allowed as long as they are not shown.
+ * Only files whose controllers do not create windows (e.g. tooltips) while they are loaded may be preloaded.
+ */
+public class FxmlPreloader {
+
+    private static final Map<String, Future<FXMLLoader>> preloaded = new ConcurrentHashMap<>();
+    private static final Log log = LogFactory.getLog(FxmlPreloader.class);
+    private static ExecutorService executor;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private FxmlPreloader() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Starts loading an FXML file in the background, if the fast-start mode is enabled and the file is not preloaded yet.
+     *
+     * @param path The resource path of the FXML file
+     */
+    public static void preload(String path) {
+        if (!StartupWarmUp.isFastStartEnabled() || preloaded.containsKey(path)) {
+            return;
+        }
+        try {
+            preloaded.put(path, getExecutor().submit(() -> {
+                FXMLLoader loader = new FXMLLoader(FxmlPreloader.class.getResource(path));
+                loader.load();
+                return loader;
+            }));
+        } catch (RejectedExecutionException e) {
+            log.debug("The preload of " + path + " was not started");
+        }
+    }
+
+    /**
+     * Takes a preloaded FXML file. If the file is still being loaded, the method waits until it is loaded.
+     *
+     * @param path The resource path of the FXML file
+     * @return The loader of the loaded file or an empty Optional if the file was not preloaded or could not be loaded
+     */
+    public static Optional<FXMLLoader> take(String path) {
+        Future<FXMLLoader> loader = preloaded.remove(path);
+        if (loader == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(loader.get());
+        } catch (ExecutionException e) {
+            log.warn("Preloading " + path + " failed: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Helper method that returns the background thread, which is created on the first preload.
+     *
+     * @return The executor of the background thread
+     */
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "fxml-preload");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+            ExecutorManager.registerExecutor(executor);
+        }
+        return executor;
+    }
+}
@@ -4,7 +4,9 @@ import ch.zhaw.it.pm.vault_guard.controller.LoginController;
 import ch.zhaw.it.pm.vault_guard.controller.MainWindowController;
 import ch.zhaw.it.pm.vault_guard.controller.model.LoginModel;
 import ch.zhaw.it.pm.vault_guard.util.ExecutorManager;
+import ch.zhaw.it.pm.vault_guard.util.StartupMetrics;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.stage.Stage;
 import javafx.scene.Scene;
@@ -15,9 +17,11 @@ import java.io.IOException;
 /**
  * This class is used to generate the view of the application.
  * It is used to open the login window and the main window.
+ * The main window is preloaded in the background while the login window is shown.
  */
 public class ViewGenerator extends Application {
 
+    private static final String MAIN_WINDOW_FXML = "/ch/zhaw/it/pm/vault_guard/FXML/MainWindow.fxml";
 
     /**
      * This method is used to open the login window.
@@ -52,6 +56,8 @@ public class ViewGenerator extends Application {
         stage.setScene(scene);
         stage.setResizable(false);
         stage.show();
+        StartupMetrics.mark(StartupMetrics.LOGIN_WINDOW);
+        Platform.runLater(() -> FxmlPreloader.preload(MAIN_WINDOW_FXML));
     }
 
     /**
@@ -59,13 +65,8 @@ public class ViewGenerator extends Application {
      * It replaces the scene of the stage with the main window.
      */
     public void loginToMain(Stage stage, LoginModel loginModel) {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/ch/zhaw/it/pm/vault_guard/FXML/MainWindow.fxml"));
-        Pane rootNode;
-        try {
-            rootNode = loader.load();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        FXMLLoader loader = FxmlPreloader.take(MAIN_WINDOW_FXML).orElseGet(this::loadMainWindow);
+        Pane rootNode = loader.getRoot();
 
         MainWindowController mainWindowController = loader.getController();
         mainWindowController.initialize(loginModel);
@@ -77,5 +78,21 @@ public class ViewGenerator extends Application {
         stage.setMinHeight(500);
         stage.setMinWidth(900);
         stage.show();
+        Platform.runLater(() -> StartupMetrics.mark(StartupMetrics.VAULT_LIST));
+    }
+
+    /**
+     * This method is used to load the main window, if it was not preloaded.
+     *
+     * @return The loader of the loaded main window
+     */
+    private FXMLLoader loadMainWindow() {
+        FXMLLoader loader = new FXMLLoader(getClass().getResource(MAIN_WINDOW_FXML));
+        try {
+            loader.load();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return loader;
     }
 }
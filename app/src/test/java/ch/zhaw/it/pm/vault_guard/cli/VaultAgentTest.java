@@ -0,0 +1,253 @@
+package ch.zhaw.it.pm.vault_guard.cli;
+
+import ch.zhaw.it.pm.vault_guard.controller.model.LoginModel;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the VaultAgent and the VaultAgentClient
+ * The agent listens on a socket in a temporary folder, the vault files are kept in memory and the idle time is given by a test clock
+ */
+class VaultAgentTest {
+    private static final String ACCOUNT_NAME = "testAccount";
+    private static final String ACCOUNT_PASSWORD = "testPassword123.";
+    private static final String VAULT = "{\"accountName\":\"" + ACCOUNT_NAME + "\",\"accountPassword\":\"" + ACCOUNT_PASSWORD + "\",\"Entries\":["
+            + "{\"id\":\"b\",\"passwordTitel\":\"Bank\",\"username\":\"bank-user\",\"website\":\"bank.ch\",\"email\":\"\",\"oneTimePassword\":\"\","
+            + "\"password\":\"bank-secret\",\"passwordStrength\":\"WEAK\",\"isFavourite\":false,\"isCompromised\":false}]}";
+
+    private final CryptographyHandler crypter = new CryptographyHandler();
+    private final Map<String, String> vaultFiles = new ConcurrentHashMap<>();
+    private final AtomicInteger unlocks = new AtomicInteger();
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<String, String> environment = new ConcurrentHashMap<>();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private Path directory;
+    private VaultAgent agent;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        vaultFiles.put(ACCOUNT_NAME, crypter.encrypt(VAULT, ACCOUNT_PASSWORD));
+        StorageService storageService = new StorageService() {
+            @Override
+            public Optional<String> read(String accountUser) {
+                return Optional.ofNullable(vaultFiles.get(accountUser));
+            }
+
+            @Override
+            public void write(String fileContent, String accountUser) {
+                vaultFiles.put(accountUser, fileContent);
+            }
+
+            @Override
+            public Optional<String> version(String accountUser) {
+                return Optional.ofNullable(vaultFiles.get(accountUser)).map(content -> content.length() + ":" + content.hashCode());
+            }
+        };
+        directory = Files.createTempDirectory("vault-agent");
+        agent = new VaultAgent(directory.resolve("agent.sock"), Duration.ofMinutes(1), () -> {
+            unlocks.incrementAndGet();
+            return new LoginModel(crypter, storageService);
+        }, storageService, clock::get);
+        agent.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        agent.close();
+        Files.deleteIfExists(directory.resolve("agent.sock"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    void testLockedVaultIsUnlockedOnceWithThePasswordOfTheEnvironment() {
+        environment.put(VaultCli.PASSWORD_VARIABLE, ACCOUNT_PASSWORD);
+
+        assertEquals(VaultCli.OK, run("get", ACCOUNT_NAME, "Bank"));
+        environment.clear();
+        assertEquals(VaultCli.OK, run("get", ACCOUNT_NAME, "bank"));
+
+        assertEquals(List.of("bank-secret", "bank-secret"), outputLines());
+        assertEquals(1, unlocks.get());
+    }
+
+    @Test
+    void testLockedVaultWithoutPassword() {
+        assertEquals(VaultCli.UNLOCK_FAILED, run("list", ACCOUNT_NAME));
+        assertEquals(0, unlocks.get());
+    }
+
+    @Test
+    void testWrongPasswordKeepsTheVaultLocked() {
+        environment.put(VaultCli.PASSWORD_VARIABLE, "wrongPassword");
+
+        assertEquals(VaultCli.UNLOCK_FAILED, run("list", ACCOUNT_NAME));
+        assertEquals("", agent.respond("[\"status\"]").getString("out"));
+    }
+
+    @Test
+    void testIdleVaultIsLocked() {
+        assertEquals(VaultCli.OK, agent.respond("[\"unlock\",\"" + ACCOUNT_NAME + "\",\"" + ACCOUNT_PASSWORD + "\"]").getInt("exit"));
+        clock.addAndGet(Duration.ofSeconds(59).toNanos());
+        agent.expireIdleSessions();
+        assertEquals(ACCOUNT_NAME + "\t59\n", agent.respond("[\"status\"]").getString("out"));
+
+        assertEquals(VaultCli.OK, agent.respond("[\"list\",\"" + ACCOUNT_NAME + "\"]").getInt("exit"));
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        agent.expireIdleSessions();
+
+        assertEquals(VaultCli.UNLOCK_FAILED, agent.respond("[\"list\",\"" + ACCOUNT_NAME + "\"]").getInt("exit"));
+    }
+
+    @Test
+    void testLock() {
+        agent.respond("[\"unlock\",\"" + ACCOUNT_NAME + "\",\"" + ACCOUNT_PASSWORD + "\"]");
+
+        assertEquals("Locked 1 vault(s)\n", agent.respond("[\"lock\",\"" + ACCOUNT_NAME + "\"]").getString("out"));
+        assertEquals(VaultCli.UNLOCK_FAILED, agent.respond("[\"get\",\"" + ACCOUNT_NAME + "\",\"Bank\"]").getInt("exit"));
+    }
+
+    @Test
+    void testInvalidRequests() {
+        assertEquals(VaultCli.USAGE_ERROR, agent.respond("list testAccount").getInt("exit"));
+        assertEquals(VaultCli.USAGE_ERROR, agent.respond("[]").getInt("exit"));
+        assertEquals(VaultCli.USAGE_ERROR, agent.respond("[\"batch\"]").getInt("exit"));
+    }
+
+    @Test
+    void testAddSendsTheEntryPasswordOutsideTheArguments() throws Exception {
+        environment.put(VaultCli.PASSWORD_VARIABLE, ACCOUNT_PASSWORD);
+        environment.put(VaultCli.ENTRY_PASSWORD_VARIABLE, "mail-secret");
+
+        assertEquals(VaultCli.OK, run("add", ACCOUNT_NAME, "Mail"));
+        assertEquals(VaultCli.OK, VaultAgentClient.run(agent.getSocketPath(), new String[]{"add", ACCOUNT_NAME, "Forum", "--password-stdin"},
+                new ByteArrayInputStream("forum-secret\n".getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8), environment::get));
+        assertEquals(VaultCli.OK, run("get", ACCOUNT_NAME, "Forum"));
+
+        assertEquals("forum-secret", outputLines().getLast());
+        String savedVault = crypter.decrypt(vaultFiles.get(ACCOUNT_NAME), ACCOUNT_PASSWORD).orElseThrow();
+        assertTrue(savedVault.contains("\"password\":\"mail-secret\""));
+        assertEquals(VaultCli.USAGE_ERROR, run("add", ACCOUNT_NAME, "Bank", "--password=bank-secret"));
+    }
+
+    @Test
+    void testWriteCommandKeepsTheChangesOfAnotherProcess() throws Exception {
+        environment.put(VaultCli.PASSWORD_VARIABLE, ACCOUNT_PASSWORD);
+        environment.put(VaultCli.ENTRY_PASSWORD_VARIABLE, "mail-secret");
+        assertEquals(VaultCli.OK, run("add", ACCOUNT_NAME, "Mail"));
+        assertEquals(1, unlocks.get());
+
+        String changedVault = crypter.decrypt(vaultFiles.get(ACCOUNT_NAME), ACCOUNT_PASSWORD).orElseThrow()
+                .replace("\"Entries\":[", "\"Entries\":[{\"id\":\"f\",\"passwordTitel\":\"Forum\",\"username\":\"\",\"website\":\"\","
+                        + "\"email\":\"\",\"oneTimePassword\":\"\",\"password\":\"forum-secret\",\"passwordStrength\":\"WEAK\","
+                        + "\"isFavourite\":false,\"isCompromised\":false},");
+        vaultFiles.put(ACCOUNT_NAME, crypter.encrypt(changedVault, ACCOUNT_PASSWORD));
+        environment.put(VaultCli.ENTRY_PASSWORD_VARIABLE, "shop-secret");
+        assertEquals(VaultCli.OK, run("add", ACCOUNT_NAME, "Shop"));
+
+        assertEquals(2, unlocks.get());
+        String savedVault = crypter.decrypt(vaultFiles.get(ACCOUNT_NAME), ACCOUNT_PASSWORD).orElseThrow();
+        assertTrue(savedVault.contains("\"password\":\"forum-secret\""));
+        assertTrue(savedVault.contains("\"password\":\"mail-secret\""));
+        assertTrue(savedVault.contains("\"password\":\"shop-secret\""));
+
+        environment.put(VaultCli.ENTRY_PASSWORD_VARIABLE, "news-secret");
+        assertEquals(VaultCli.OK, run("add", ACCOUNT_NAME, "News"));
+        assertEquals(2, unlocks.get());
+    }
+
+    @Test
+    void testReadCommandSeesTheChangesOfAnotherProcess() throws Exception {
+        environment.put(VaultCli.PASSWORD_VARIABLE, ACCOUNT_PASSWORD);
+        assertEquals(VaultCli.FAILED, run("get", ACCOUNT_NAME, "Forum"));
+        assertEquals(VaultCli.OK, run("list", ACCOUNT_NAME));
+        assertEquals(1, unlocks.get());
+
+        String changedVault = crypter.decrypt(vaultFiles.get(ACCOUNT_NAME), ACCOUNT_PASSWORD).orElseThrow()
+                .replace("\"Entries\":[", "\"Entries\":[{\"id\":\"f\",\"passwordTitel\":\"Forum\",\"username\":\"\",\"website\":\"\","
+                        + "\"email\":\"\",\"oneTimePassword\":\"\",\"password\":\"forum-secret\",\"passwordStrength\":\"WEAK\","
+                        + "\"isFavourite\":false,\"isCompromised\":false},");
+        vaultFiles.put(ACCOUNT_NAME, crypter.encrypt(changedVault, ACCOUNT_PASSWORD));
+        out.reset();
+
+        assertEquals(VaultCli.OK, run("get", ACCOUNT_NAME, "Forum"));
+        assertEquals("forum-secret", out.toString(StandardCharsets.UTF_8).strip());
+        assertEquals(2, unlocks.get());
+    }
+
+    @Test
+    void testGenerateNeedsNoVault() {
+        assertEquals(VaultCli.OK, run("generate", "--count=2"));
+        assertEquals(2, outputLines().size());
+    }
+
+    @Test
+    void testSocketFolderMayOnlyBeUsedByTheOwner() throws IOException {
+        Path sharedDirectory = directory.resolve("shared");
+        Files.createDirectory(sharedDirectory);
+        Files.setPosixFilePermissions(sharedDirectory, PosixFilePermissions.fromString("rwxr-xr-x"));
+        VaultAgent sharedAgent = new VaultAgent(sharedDirectory.resolve("agent.sock"), Duration.ofMinutes(1), LoginModel::new, clock::get);
+
+        assertThrows(IOException.class, sharedAgent::start);
+        assertFalse(Files.exists(sharedDirectory.resolve("agent.sock")));
+
+        Path newDirectory = sharedDirectory.resolve("new");
+        VaultAgent.createOwnerOnlyDirectory(newDirectory);
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(newDirectory)));
+        Files.delete(newDirectory);
+        Files.delete(sharedDirectory);
+    }
+
+    @Test
+    void testSecondAgentOnTheSameSocketFails() {
+        VaultAgent secondAgent = new VaultAgent(agent.getSocketPath(), Duration.ofMinutes(1), LoginModel::new, clock::get);
+
+        assertThrows(IOException.class, secondAgent::start);
+    }
+
+    /**
+     * Helper method that runs a command with the VaultAgentClient
+     *
+     * @param args The command and its arguments
+     * @return The exit code
+     */
+    private int run(String... args) {
+        return VaultAgentClient.run(agent.getSocketPath(), args, InputStream.nullInputStream(),
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8), environment::get);
+    }
+
+    /**
+     * Helper method that returns the printed lines
+     *
+     * @return The lines of the output
+     */
+    private List<String> outputLines() {
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
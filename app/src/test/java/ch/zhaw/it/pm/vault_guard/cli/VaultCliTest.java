@@ -0,0 +1,225 @@
+package ch.zhaw.it.pm.vault_guard.cli;
+
+import ch.zhaw.it.pm.vault_guard.controller.model.LoginModel;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the VaultCli
+ * The vault files are kept in memory by a StorageService stub, the passwords are given by a map instead of the environment
+ */
+class VaultCliTest {
+    private static final String ACCOUNT_NAME = "testAccount";
+    private static final String ACCOUNT_PASSWORD = "testPassword123.";
+    private static final String VAULT = "{\"accountName\":\"" + ACCOUNT_NAME + "\",\"accountPassword\":\"" + ACCOUNT_PASSWORD + "\",\"Entries\":["
+            + "{\"id\":\"b\",\"passwordTitel\":\"Bank\",\"username\":\"bank-user\",\"website\":\"bank.ch\",\"email\":\"\",\"oneTimePassword\":\"\","
+            + "\"password\":\"bank-secret\",\"passwordStrength\":\"WEAK\",\"isFavourite\":false,\"isCompromised\":false},"
+            + "{\"id\":\"a\",\"passwordTitel\":\"Access\",\"username\":\"access-user\",\"website\":\"access.ch\",\"email\":\"\",\"oneTimePassword\":\"\","
+            + "\"password\":\"access-secret\",\"passwordStrength\":\"WEAK\",\"isFavourite\":false,\"isCompromised\":false}]}";
+
+    private final CryptographyHandler crypter = new CryptographyHandler();
+    private final Map<String, String> vaultFiles = new ConcurrentHashMap<>();
+    private final AtomicInteger unlocks = new AtomicInteger();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private final Map<String, String> environment = new ConcurrentHashMap<>(Map.of(VaultCli.PASSWORD_VARIABLE, ACCOUNT_PASSWORD));
+    private VaultCli cli;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        vaultFiles.put(ACCOUNT_NAME, crypter.encrypt(VAULT, ACCOUNT_PASSWORD));
+        StorageService storageService = new StorageService() {
+            @Override
+            public Optional<String> read(String accountUser) {
+                return Optional.ofNullable(vaultFiles.get(accountUser));
+            }
+
+            @Override
+            public void write(String fileContent, String accountUser) {
+                vaultFiles.put(accountUser, fileContent);
+            }
+        };
+        cli = new VaultCli(new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8),
+                environment::get, () -> {
+            unlocks.incrementAndGet();
+            return new LoginModel(crypter, storageService);
+        });
+    }
+
+    @Test
+    void testListPrintsEntriesSortedByTitle() {
+        assertEquals(VaultCli.OK, run("list", ACCOUNT_NAME));
+        assertEquals(List.of("Access\taccess-user\taccess.ch", "Bank\tbank-user\tbank.ch"), outputLines());
+    }
+
+    @Test
+    void testGetPrintsPassword() {
+        assertEquals(VaultCli.OK, run("get", ACCOUNT_NAME, "bank"));
+        assertEquals(List.of("bank-secret"), outputLines());
+        assertEquals(VaultCli.FAILED, run("get", ACCOUNT_NAME, "Unknown"));
+    }
+
+    @Test
+    void testAddSavesTheVault() throws Exception {
+        assertEquals(VaultCli.OK, cli.run(new String[]{"add", ACCOUNT_NAME, "Mail", "--username=me", "--password-stdin"},
+                input("mail-secret\n")));
+
+        String savedVault = crypter.decrypt(vaultFiles.get(ACCOUNT_NAME), ACCOUNT_PASSWORD).orElseThrow();
+        assertTrue(savedVault.contains("\"passwordTitel\":\"Mail\""));
+        assertTrue(savedVault.contains("\"password\":\"mail-secret\""));
+    }
+
+    @Test
+    void testAddTakesThePasswordFromTheEnvironment() throws Exception {
+        environment.put(VaultCli.ENTRY_PASSWORD_VARIABLE, "forum-secret");
+
+        assertEquals(VaultCli.OK, run("add", ACCOUNT_NAME, "Forum"));
+
+        String savedVault = crypter.decrypt(vaultFiles.get(ACCOUNT_NAME), ACCOUNT_PASSWORD).orElseThrow();
+        assertTrue(savedVault.contains("\"password\":\"forum-secret\""));
+    }
+
+    @Test
+    void testAddNeedsAPassword() {
+        assertEquals(VaultCli.USAGE_ERROR, run("add", ACCOUNT_NAME, "Mail"));
+        assertEquals(VaultCli.USAGE_ERROR, run("add", ACCOUNT_NAME, "Mail", "--password-stdin"));
+    }
+
+    @Test
+    void testAddRefusesThePasswordInTheArguments() throws Exception {
+        environment.put(VaultCli.ENTRY_PASSWORD_VARIABLE, "forum-secret");
+
+        assertEquals(VaultCli.USAGE_ERROR, run("add", ACCOUNT_NAME, "Mail", "--password=mail-secret"));
+        String savedVault = crypter.decrypt(vaultFiles.get(ACCOUNT_NAME), ACCOUNT_PASSWORD).orElseThrow();
+        assertFalse(savedVault.contains("mail-secret"));
+    }
+
+    @Test
+    void testImportSavesTheVault() throws Exception {
+        Path export = tempDir.resolve("export.csv");
+        Files.writeString(export, "name,url,username,password\nMail,mail.ch,me,mail-secret\nForum,forum.ch,me,forum-secret\n");
+
+        assertEquals(VaultCli.OK, run("import", ACCOUNT_NAME, export.toString(), "--no-breach-check"));
+
+        assertTrue(outputLines().getFirst().startsWith("Imported 2 entries (0 skipped)"));
+        String savedVault = crypter.decrypt(vaultFiles.get(ACCOUNT_NAME), ACCOUNT_PASSWORD).orElseThrow();
+        assertTrue(savedVault.contains("\"password\":\"forum-secret\""));
+        assertEquals(VaultCli.USAGE_ERROR, run("import", ACCOUNT_NAME, export.toString(), "--format=lastpass"));
+    }
+
+    @Test
+    void testExportStreamsCsvAndWritesArchive() throws Exception {
+        assertEquals(VaultCli.OK, run("export", ACCOUNT_NAME, "--format=csv"));
+        assertEquals(List.of("name,url,username,password,totp,email", "Access,access.ch,access-user,access-secret,,",
+                "Bank,bank.ch,bank-user,bank-secret,,"), outputLines());
+
+        Path archive = tempDir.resolve("vault.vgarchive");
+        assertEquals(VaultCli.OK, run("export", ACCOUNT_NAME, archive.toString()));
+        assertTrue(Files.size(archive) > 0);
+        assertEquals(VaultCli.USAGE_ERROR, run("export", ACCOUNT_NAME, "--format=archive"));
+    }
+
+    @Test
+    void testImportOfAnExportedArchive() throws Exception {
+        Path archive = tempDir.resolve("vault.vgarchive");
+        assertEquals(VaultCli.OK, run("export", ACCOUNT_NAME, archive.toString()));
+
+        assertEquals(VaultCli.OK, run("import", ACCOUNT_NAME, archive.toString(), "--no-breach-check"));
+
+        assertTrue(outputLines().getLast().startsWith("Imported 2 entries (0 skipped)"));
+        String savedVault = crypter.decrypt(vaultFiles.get(ACCOUNT_NAME), ACCOUNT_PASSWORD).orElseThrow();
+        assertEquals(2, savedVault.split("\"password\":\"bank-secret\"", -1).length - 1);
+    }
+
+    @Test
+    void testWrongPassword() {
+        environment.put(VaultCli.passwordVariable(ACCOUNT_NAME), "wrongPassword");
+
+        assertEquals(VaultCli.UNLOCK_FAILED, run("list", ACCOUNT_NAME));
+    }
+
+    @Test
+    void testGenerate() {
+        assertEquals(VaultCli.OK, run("generate", "--length=12", "--count=3", "--no-symbols"));
+
+        List<String> passwords = outputLines();
+        assertEquals(3, passwords.size());
+        assertTrue(passwords.stream().allMatch(password -> password.matches("[A-Za-z0-9]{12}")));
+    }
+
+    @Test
+    void testBatchUnlocksEveryVaultOnce() {
+        String batch = """
+                # comment
+                list testAccount
+                add testAccount "My Mail" --password-stdin
+                mail-secret
+                get testAccount "my mail"
+                unknown
+                get testAccount Access
+                """;
+
+        assertEquals(VaultCli.USAGE_ERROR, cli.run(new String[]{"batch"}, input(batch)));
+        List<String> lines = outputLines();
+        assertEquals("mail-secret", lines.get(3));
+        assertEquals("access-secret", lines.get(4));
+        assertEquals(1, unlocks.get());
+    }
+
+    @Test
+    void testTokenize() {
+        assertEquals(List.of("add", "me", "My Bank", "--username=a b", ""), VaultCli.tokenize("add  me \"My Bank\" --username=\"a b\" \"\""));
+    }
+
+    /**
+     * Helper method that runs a single command
+     *
+     * @param args The command and its arguments
+     * @return The exit code
+     */
+    private int run(String... args) {
+        return cli.run(args, input(""));
+    }
+
+    /**
+     * Helper method that returns the printed lines
+     *
+     * @return The lines of the output
+     */
+    private List<String> outputLines() {
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    /**
+     * Helper method that returns a standard input with the given text
+     *
+     * @param text The text
+     * @return The input stream
+     */
+    private static InputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
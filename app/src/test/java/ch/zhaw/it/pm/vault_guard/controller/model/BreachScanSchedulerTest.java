@@ -0,0 +1,82 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static ch.zhaw.it.pm.vault_guard.testdata.MainModelTestData.getMainModelEntryTestData00;
+import static ch.zhaw.it.pm.vault_guard.testdata.MainModelTestData.getMainModelEntryTestData01;
+import static ch.zhaw.it.pm.vault_guard.testdata.MainModelTestData.getMainModelEntryTestData02;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the BreachScanScheduler
+ * The MainModel is mocked, every checked entry is marked as compromised by the mock
+ * The tests verify that recently checked entries are skipped by the scan and the check after the login and that a scan run is limited
+ * Newly compromised entries are published by the MainModel itself (see MainModelTest)
+ */
+class BreachScanSchedulerTest {
+    MainModel mainModel = mock(MainModel.class);
+    MainModelEntry checkedRecently = getMainModelEntryTestData00();
+    MainModelEntry neverChecked = getMainModelEntryTestData01();
+    MainModelEntry checkedLongAgo = getMainModelEntryTestData02();
+
+    @BeforeEach
+    void setUp() {
+        checkedRecently.setLastBreachCheck(System.currentTimeMillis());
+        checkedLongAgo.setLastBreachCheck(System.currentTimeMillis() - 10_000);
+        when(mainModel.getEntrySnapshot()).thenReturn(List.of(checkedRecently, neverChecked, checkedLongAgo));
+        doAnswer(invocation -> {
+            MainModelEntry entry = invocation.getArgument(0);
+            entry.setCompromised(true);
+            entry.setLastBreachCheck(System.currentTimeMillis());
+            return null;
+        }).when(mainModel).checkEntryIfCompromised(any(MainModelEntry.class));
+    }
+
+    @Test
+    void testScanSkipsRecentlyCheckedEntries() {
+        BreachScanScheduler scheduler = new BreachScanScheduler(mainModel, 5_000, 0, 10);
+        scheduler.runScan();
+
+        verify(mainModel, never()).checkEntryIfCompromised(checkedRecently);
+        verify(mainModel).checkEntryIfCompromised(neverChecked);
+        verify(mainModel).checkEntryIfCompromised(checkedLongAgo);
+    }
+
+    @Test
+    void testCheckAllSkipsRecentlyCheckedEntries() {
+        BreachScanScheduler scheduler = new BreachScanScheduler(mainModel, 5_000, 200, 1);
+        scheduler.runCheckAll();
+
+        verify(mainModel, never()).checkEntryIfCompromised(checkedRecently);
+        verify(mainModel).checkEntryIfCompromised(neverChecked);
+        verify(mainModel).checkEntryIfCompromised(checkedLongAgo);
+        verify(mainModel, never()).checkAllEntriesIfCompromised();
+    }
+
+    @Test
+    void testScanIsLimitedPerRun() {
+        BreachScanScheduler scheduler = new BreachScanScheduler(mainModel, 5_000, 0, 1);
+        scheduler.runScan();
+
+        verify(mainModel, times(1)).checkEntryIfCompromised(any(MainModelEntry.class));
+    }
+
+    @Test
+    void testScanIsRateLimited() {
+        BreachScanScheduler scheduler = new BreachScanScheduler(mainModel, 5_000, 200, 10);
+        long start = System.currentTimeMillis();
+        scheduler.runScan();
+
+        assertTrue(System.currentTimeMillis() - start >= 200);
+    }
+}
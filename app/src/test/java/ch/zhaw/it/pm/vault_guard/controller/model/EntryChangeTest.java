@@ -0,0 +1,145 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCategories;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the EntryChange
+ * A copy of the sorted entry list is only updated by applying the published changes of the MainModel
+ * The tests verify that the copy stays equal to the list of the model and that the changes have the expected type
+ */
+class EntryChangeTest {
+    private static final String VAULT_CONTENT = "{\"accountName\":\"test\",\"accountPassword\":\"test\",\"Entries\":[]}";
+
+    MainModel model;
+    List<MainModelEntry> copy;
+    List<EntryChange> changes;
+
+    @BeforeEach
+    void setUp() {
+        LoginModel loginModel = mock(LoginModel.class);
+        when(loginModel.getDecryptedContent()).thenReturn(VAULT_CONTENT);
+        model = new MainModel(mock(CryptographyHandler.class), mock(StorageService.class), loginModel);
+        copy = new ArrayList<>(model.getSortedEntryContentList());
+        changes = new ArrayList<>();
+        model.addPropertyChangeListener(evt -> {
+            if (evt.getPropertyName().equals("entryChange")) {
+                EntryChange change = (EntryChange) evt.getNewValue();
+                changes.add(change);
+                change.applyTo(copy);
+            } else if (evt.getPropertyName().startsWith("entries")) {
+                List<EntryChange> batch = (List<EntryChange>) evt.getNewValue();
+                changes.addAll(batch);
+                EntryChange.applyAll(batch, copy);
+            }
+        });
+        for (String title : List.of("Delta", "alpha", "Charlie", "bravo")) {
+            model.addEntry(createEntry(title));
+        }
+    }
+
+    @Test
+    void testAddedEntriesAreInsertedAtTheirPosition() {
+        assertEquals(model.getSortedEntryContentList(), copy);
+        assertEquals(EntryChange.Type.ADDED, changes.getLast().type());
+        assertEquals(1, changes.getLast().toIndex());
+    }
+
+    @Test
+    void testRenamedEntryIsMoved() {
+        MainModelEntry entry = model.getSortedEntryContentList().getFirst();
+        entry.setPasswordTitel("echo");
+        model.updateEntry(entry);
+
+        assertEquals(model.getSortedEntryContentList(), copy);
+        assertEquals(new EntryChange(EntryChange.Type.MOVED, entry, 0, 3), changes.getLast());
+    }
+
+    @Test
+    void testEditedEntryKeepingItsPositionIsUpdated() {
+        MainModelEntry entry = model.getSortedEntryContentList().get(2);
+        entry.setUsername("changed");
+        model.updateEntry(entry);
+
+        assertEquals(model.getSortedEntryContentList(), copy);
+        assertEquals(EntryChange.Type.UPDATED, changes.getLast().type());
+        assertEquals(2, changes.getLast().fromIndex());
+    }
+
+    @Test
+    void testChangedFlagIsUpdated() {
+        MainModelEntry entry = model.getSortedEntryContentList().get(1);
+        entry.setFavourite(true);
+
+        assertEquals(EntryChange.updated(entry, 1), changes.getLast());
+    }
+
+    @Test
+    void testDeletedEntryIsRemoved() throws Exception {
+        MainModelEntry entry = model.getSortedEntryContentList().get(1);
+        model.deleteEntry(entry.getId());
+
+        assertEquals(model.getSortedEntryContentList(), copy);
+        assertEquals(EntryChange.removed(entry, 1), changes.getLast());
+    }
+
+    @Test
+    void testAddedBatchIsInsertedAtItsPositions() {
+        List<MainModelEntry> added = List.of(createEntry("echo"), createEntry("0 first"), createEntry("beta"), createEntry("bf"));
+        model.addEntries(added);
+
+        assertEquals(model.getSortedEntryContentList(), copy);
+        assertEquals(List.of(0, 2, 3, 7), changes.subList(4, 8).stream().map(EntryChange::toIndex).toList());
+    }
+
+    @Test
+    void testRemovedBatchIsRemovedFromItsPositions() {
+        List<MainModelEntry> entries = model.getSortedEntryContentList();
+        model.removeEntries(List.of(entries.get(0), entries.get(2), entries.get(1)));
+
+        assertEquals(model.getSortedEntryContentList(), copy);
+        assertEquals(List.of(2, 1, 0), changes.subList(4, 7).stream().map(EntryChange::fromIndex).toList());
+    }
+
+    @Test
+    void testChangedStrengthsUpdateTheEntriesInPlace() {
+        MainModelEntry entry = model.getSortedEntryContentList().get(2);
+        model.updatePasswordStrengths(Map.of(entry, PasswordStrengthCategories.STRONG));
+
+        assertEquals(model.getSortedEntryContentList(), copy);
+        assertEquals(EntryChange.updated(entry, 2), changes.getLast());
+    }
+
+    @Test
+    void testStalePositionFallsBackToIdentity() {
+        MainModelEntry entry = copy.get(3);
+        List<MainModelEntry> shifted = new ArrayList<>(copy);
+        shifted.addFirst(createEntry("0 new"));
+
+        EntryChange.removed(entry, 3).applyTo(shifted);
+
+        assertEquals(4, shifted.size());
+        assertEquals(-1, shifted.indexOf(entry));
+    }
+
+    /**
+     * Creates an entry with the given title
+     *
+     * @param title the title of the entry
+     * @return the entry
+     */
+    private static MainModelEntry createEntry(String title) {
+        return new MainModelEntry(title, "", "", "", "", "", "WEAK", false, false);
+    }
+}
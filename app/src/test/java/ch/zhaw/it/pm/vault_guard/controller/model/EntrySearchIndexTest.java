@@ -0,0 +1,92 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the EntrySearchIndex
+ */
+class EntrySearchIndexTest {
+
+    private EntrySearchIndex index;
+    private MainModelEntry github;
+    private MainModelEntry gitlab;
+    private MainModelEntry bank;
+
+    @BeforeEach
+    void setUp() {
+        index = new EntrySearchIndex();
+        github = createEntry("GitHub", "github.com", "octocat", "octo@example.com");
+        gitlab = createEntry("GitLab", "gitlab.com", "tanuki", "tanuki@example.com");
+        bank = createEntry("Bank", "ebanking.example.ch", "max", "max.muster@example.ch");
+        index.add(github);
+        index.add(gitlab);
+        index.add(bank);
+    }
+
+    @Test
+    void testCandidatesAreNarrowedByTrigrams() {
+        Set<MainModelEntry> candidates = index.candidates("github");
+
+        assertTrue(candidates.contains(github));
+        assertFalse(candidates.contains(bank));
+    }
+
+    @Test
+    void testShortQueryUsesAllEntries() {
+        assertEquals(3, index.candidates("gi").size());
+    }
+
+    @Test
+    void testSearchRanksBestMatchFirst() {
+        List<MainModelEntry> results = index.search("gitlab");
+
+        assertEquals(gitlab, results.getFirst());
+        assertFalse(results.contains(bank));
+    }
+
+    @Test
+    void testSearchToleratesTypos() {
+        assertTrue(index.search("gitthub").contains(github));
+    }
+
+    @Test
+    void testSearchFindsUsernameAndEmail() {
+        assertEquals(List.of(gitlab), index.search("tanuki"));
+        assertTrue(index.search("max.muster").contains(bank));
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        bank.setPasswordTitel("Savings");
+        bank.setWebsite("savings.example.ch");
+        index.update(bank);
+
+        assertTrue(index.search("savings").contains(bank));
+        assertFalse(index.candidates("ebanking").contains(bank));
+
+        index.remove(bank);
+        assertFalse(index.search("savings").contains(bank));
+        assertEquals(2, index.size());
+    }
+
+    /**
+     * Creates an entry with the given searchable fields.
+     *
+     * @param title    The title of the entry
+     * @param website  The website of the entry
+     * @param username The username of the entry
+     * @param email    The email of the entry
+     * @return The entry
+     */
+    private static MainModelEntry createEntry(String title, String website, String username, String email) {
+        return new MainModelEntry(title, username, website, email, "", "password", "WEAK", false, false);
+    }
+}
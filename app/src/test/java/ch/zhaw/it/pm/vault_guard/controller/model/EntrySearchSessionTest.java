@@ -0,0 +1,98 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the EntrySearchSession
+ */
+class EntrySearchSessionTest {
+
+    private EntrySearchIndex index;
+    private EntrySearchSession session;
+    private MainModelEntry github;
+    private MainModelEntry gitlab;
+
+    @BeforeEach
+    void setUp() {
+        index = new EntrySearchIndex();
+        github = new MainModelEntry("GitHub", "octocat", "github.com", "", "", "password", "WEAK", false, false);
+        gitlab = new MainModelEntry("GitLab", "tanuki", "gitlab.com", "", "", "password", "WEAK", false, false);
+        index.add(github);
+        index.add(gitlab);
+        for (int i = 0; i < 100; i++) {
+            index.add(new MainModelEntry("Entry " + i, "user" + i, "site" + i + ".ch", "", "", "password", "WEAK", false, false));
+        }
+        session = new EntrySearchSession(index);
+    }
+
+    @Test
+    void testExtendedSearchValueRefinesLastCandidates() {
+        session.search("git");
+        assertFalse(session.wasLastSearchRefined());
+
+        List<MainModelEntry> results = session.search("gith");
+
+        assertTrue(session.wasLastSearchRefined());
+        assertEquals(index.search("gith"), results);
+        assertTrue(results.contains(github));
+    }
+
+    @Test
+    void testExtendedSearchValueFindsEntriesThePreviousValueDidNotMatch() {
+        MainModelEntry split = new MainModelEntry("abc defg", "someone", "example.ch", "", "", "password", "WEAK", false, false);
+        index.add(split);
+        session.search("abcde");
+        assertFalse(index.candidates("abcde").contains(split));
+
+        List<MainModelEntry> results = session.search("abcdefg");
+
+        assertTrue(session.wasLastSearchRefined());
+        assertEquals(index.search("abcdefg"), results);
+        assertTrue(results.contains(split));
+    }
+
+    @Test
+    void testBackspaceUsesWholeIndex() {
+        session.search("gith");
+        session.search("gitl");
+        assertFalse(session.wasLastSearchRefined());
+
+        List<MainModelEntry> results = session.search("git");
+
+        assertFalse(session.wasLastSearchRefined());
+        assertTrue(results.contains(gitlab));
+    }
+
+    @Test
+    void testChangedIndexUsesWholeIndex() {
+        session.search("site");
+        MainModelEntry added = new MainModelEntry("Site admin", "admin", "sites.example.ch", "", "", "password", "WEAK", false, false);
+        index.add(added);
+
+        List<MainModelEntry> results = session.search("sites");
+
+        assertFalse(session.wasLastSearchRefined());
+        assertTrue(results.contains(added));
+    }
+
+    @Test
+    void testInterruptedSearchIsCancelled() {
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, () -> session.search("ent"));
+        } finally {
+            Thread.interrupted();
+        }
+        session.search("entr");
+        assertFalse(session.wasLastSearchRefined());
+    }
+}
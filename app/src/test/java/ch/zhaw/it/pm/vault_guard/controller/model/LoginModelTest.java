@@ -1,5 +1,6 @@
 package ch.zhaw.it.pm.vault_guard.controller.model;
 
+import ch.zhaw.it.pm.vault_guard.controller.model.VaultUnlockPipeline.UnlockStage;
 import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
 import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
 import ch.zhaw.it.pm.vault_guard.util.StorageException;
@@ -15,14 +16,18 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.atLeastOnce;
 
 /**
  * The class LoginModelTest tests the class LoginModel
@@ -32,6 +37,7 @@ import static org.mockito.Mockito.times;
  * The createNewUserSuccess method test the creation of a new user
  * The createNewUserFail method test the creation of a new user with an already existing account name
  * The PropertyChangeEvent is tested with a valid login, a valid new user creation and an invalid login
+ * The asynchronous login is tested with a correct and a wrong password, its events are the stages of the unlock and the login state
  * The setUpMocking method set up the mocking for the crypter and storageService
  */
 class LoginModelTest {
@@ -118,6 +124,40 @@ class LoginModelTest {
         assertEquals(LoginState.FAIL, event.getNewValue());
     }
 
+    @Test
+    void testLoginAsync() throws Exception {
+        LoginState state = model.loginAsync(testAccountName, testAccountPassword).get(5, TimeUnit.SECONDS);
+        assertEquals(LoginState.LOGIN, state);
+        MainModel mainModel = model.takeUnlockedMainModel().orElseThrow();
+        assertEquals(testAccountName, mainModel.getAccountName());
+        assertTrue(model.takeUnlockedMainModel().isEmpty());
+    }
+
+    @Test
+    void testLoginAsyncFailed() throws Exception {
+        LoginState state = model.loginAsync(testAccountName, "some String").get(5, TimeUnit.SECONDS);
+        assertEquals(LoginState.FAIL, state);
+        assertTrue(model.takeUnlockedMainModel().isEmpty());
+    }
+
+    @Test
+    void testEveryFailedLoginAsyncInformsTheListeners() throws Exception {
+        model.loginAsync(testAccountName, "some String").get(5, TimeUnit.SECONDS);
+        model.loginAsync(testAccountName, "some String").get(5, TimeUnit.SECONDS);
+        verify(Listener, atLeastOnce()).propertyChange(argumentCaptor.capture());
+        List<Object> states = argumentCaptor.getAllValues().stream().filter(event -> event.getPropertyName().equals("state"))
+                .map(PropertyChangeEvent::getNewValue).toList();
+        assertEquals(List.of(LoginState.FAIL, LoginState.FAIL), states);
+    }
+
+    @Test
+    void testPropertyChangeEventLoginAsync() throws Exception {
+        model.loginAsync(testAccountName, testAccountPassword).get(5, TimeUnit.SECONDS);
+        verify(Listener, times(5)).propertyChange(argumentCaptor.capture());
+        List<Object> values = argumentCaptor.getAllValues().stream().map(PropertyChangeEvent::getNewValue).toList();
+        assertEquals(List.of(UnlockStage.READ, UnlockStage.DECRYPT, UnlockStage.PARSE, UnlockStage.INDEX, LoginState.LOGIN), values);
+    }
+
 
     /**
      * Set up the mocking for the crypter, loginModel and storageService
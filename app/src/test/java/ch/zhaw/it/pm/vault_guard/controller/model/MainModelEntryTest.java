@@ -0,0 +1,78 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCategories;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the MainModelEntry
+ * Tests that the packed flags and password strength are independent of each other, also when they are changed concurrently,
+ * and that repeating values are shared between entries while secrets are not
+ */
+class MainModelEntryTest {
+
+    @Test
+    void testFlagsAndStrengthAreIndependent() {
+        MainModelEntry entry = new MainModelEntry("Title", "", "", "", "", "", "VERY_STRONG", true, false);
+        assertTrue(entry.getFavourite());
+        assertFalse(entry.getCompromised());
+        assertEquals(PasswordStrengthCategories.VERY_STRONG, entry.getPasswordStrengthCategories());
+
+        entry.setCompromised(true);
+        entry.setFavourite(false);
+        entry.setPasswordStrengthCategories("VERY_WEAK");
+
+        assertFalse(entry.getFavourite());
+        assertTrue(entry.getCompromised());
+        assertEquals(PasswordStrengthCategories.VERY_WEAK, entry.getPasswordStrengthCategories());
+    }
+
+    @Test
+    void testConcurrentChangesOfDifferentFlagsAreNotLost() throws InterruptedException {
+        for (int round = 0; round < 1000; round++) {
+            MainModelEntry entry = new MainModelEntry("Title", "", "", "", "", "", "WEAK", false, false);
+            Thread favourite = new Thread(() -> entry.setFavourite(true));
+            Thread strength = new Thread(() -> entry.setPasswordStrengthCategories("STRONG"));
+            favourite.start();
+            strength.start();
+            entry.setCompromised(true);
+            favourite.join();
+            strength.join();
+
+            assertTrue(entry.getFavourite());
+            assertTrue(entry.getCompromised());
+            assertEquals(PasswordStrengthCategories.STRONG, entry.getPasswordStrengthCategories());
+        }
+    }
+
+    @Test
+    void testUnknownStrengthIsWeak() {
+        MainModelEntry entry = new MainModelEntry("Title", "", "", "", "", "", "UNKNOWN", true, true);
+        assertEquals(PasswordStrengthCategories.WEAK, entry.getPasswordStrengthCategories());
+        assertTrue(entry.getFavourite());
+        assertTrue(entry.getCompromised());
+    }
+
+    @Test
+    void testRepeatingValuesAreShared() {
+        MainModelEntry first = new MainModelEntry("First", new String("octocat"), new String("github.com"), "", "", new String("secret"), "WEAK", false, false);
+        MainModelEntry second = new MainModelEntry("Second", new String("octocat"), "", "", "", new String("secret"), "WEAK", false, false);
+        second.setWebsite(new String("github.com"));
+
+        assertSame(first.getUsername(), second.getUsername());
+        assertSame(first.getWebsite(), second.getWebsite());
+        assertNotSame(first.getPassword(), second.getPassword());
+    }
+
+    @Test
+    void testSortKeyReusesLowerCaseTitle() {
+        String title = "already lower case";
+        assertSame(title, MainModelEntry.sortKeyOf(title));
+        assertEquals("github", MainModelEntry.sortKeyOf("GitHub"));
+    }
+}
@@ -1,9 +1,12 @@
 package ch.zhaw.it.pm.vault_guard.controller.model;
 
 import ch.zhaw.it.pm.vault_guard.controller.VaultViewState;
+import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCategories;
 import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
 import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import ch.zhaw.it.pm.vault_guard.service.pwned.HaveIBeenPawnedService;
 import ch.zhaw.it.pm.vault_guard.util.StorageException;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,15 +18,23 @@ import java.io.IOException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
 
 import static ch.zhaw.it.pm.vault_guard.testdata.MainModelTestData.getMainModelEntryTestData00;
 import static ch.zhaw.it.pm.vault_guard.testdata.MainModelTestData.getMainModelEntryTestData01;
 import static ch.zhaw.it.pm.vault_guard.testdata.MainModelTestData.getMainModelEntryTestData02;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.doNothing;
@@ -40,9 +51,9 @@ import static org.mockito.ArgumentMatchers.eq;
  * The setUpMocking method sets up the mocking for the crypter, loginModel and storageService
  * The setUpMainModel method initializes the model with the test data
  * The testSetupMainModel method tests the setupMainModel method and the sorting algorithm in the getSortedEntryContentList method
- * The testDeleteEntry method tests the deleteEntry method to delete an Entry from the model list
+ * The testDeleteEntry method tests the deleteEntry method to delete an Entry by its id from the model list
  * The testAddEntry method tests the addEntry method to add a new Entry to the model list
- * The testSaveData method verifies that the crypter.encrypt and storageService.writeFile is called with the correct parameters
+ * The testSaveData method verifies that the crypter.encrypt and storageService.writeFile is called with the correct parameters (the entries are saved sorted by title)
  */
 class MainModelTest {
     MainModel model;
@@ -143,7 +154,7 @@ class MainModelTest {
 
         assertEquals(3, model.getSortedEntryContentList().size());
 
-        model.deleteEntry("BtestPasswordTitel Nr.2");
+        model.deleteEntry("testId2");
         List<MainModelEntry> testManuallySortedList = new ArrayList<>();
         testManuallySortedList.add(getMainModelEntryTestData00());
         testManuallySortedList.add(getMainModelEntryTestData01());
@@ -161,18 +172,208 @@ class MainModelTest {
         }
     }
 
+    @Test
+    void testDeleteEntryWithDuplicateTitle() throws IOException, MainModel.EncryptErrorException, StorageException {
+        MainModelEntry first = new MainModelEntry("Duplicate", "first", "", "", "", "", "WEAK", false, false);
+        MainModelEntry second = new MainModelEntry("Duplicate", "second", "", "", "", "", "WEAK", false, false);
+        model.addEntry(first);
+        model.addEntry(second);
+
+        model.deleteEntry(second.getId());
+
+        assertEquals(4, model.getSortedEntryContentList().size());
+        assertTrue(model.getSortedEntryContentList().contains(first));
+        assertFalse(model.getSortedEntryContentList().contains(second));
+        assertEquals(first, model.getEntry(first.getId()));
+        assertNull(model.getEntry(second.getId()));
+    }
+
+    @Test
+    void testDeleteUnknownEntryDoesNotSave() throws IOException, MainModel.EncryptErrorException, StorageException {
+        model.deleteEntry("unknownId");
+
+        assertEquals(3, model.getSortedEntryContentList().size());
+        verify(storageService, never()).write(anyString(), anyString());
+    }
+
+    @Test
+    void testAddEntryWithExistingIdIsRejected() {
+        MainModelEntry entry = new MainModelEntry("testId0", "Copy", "", "", "", "", "", "WEAK", false, false);
+        assertThrows(IllegalArgumentException.class, () -> model.addEntry(entry));
+        assertEquals(3, model.getSortedEntryContentList().size());
+    }
+
+    @Test
+    void testEntriesWithoutIdGetNewIds() {
+        JSONObject oldVaultContent = new JSONObject(testFileContent);
+        JSONArray entries = oldVaultContent.getJSONArray("Entries");
+        for (int i = 0; i < entries.length(); i++) {
+            entries.getJSONObject(i).remove("id");
+        }
+        when(loginModel.getDecryptedContent()).thenReturn(oldVaultContent.toString());
+        MainModel oldVaultModel = new MainModel(crypter, storageService, loginModel);
+
+        Set<String> ids = new HashSet<>();
+        for (MainModelEntry entry : oldVaultModel.getSortedEntryContentList()) {
+            assertFalse(entry.getId().isEmpty());
+            ids.add(entry.getId());
+            assertEquals(entry, oldVaultModel.getEntry(entry.getId()));
+        }
+        assertEquals(3, ids.size());
+    }
+
     @Test
     void testSaveData() throws StorageException {
         model.setAccountPassword(testAccountPassword);
+        String sortedFileContent = getSortedTestFileContent();
         try {
             model.saveData();
-            verify(crypter).encrypt(testFileContent, testAccountPassword);
+            verify(crypter).encrypt(sortedFileContent, testAccountPassword);
         } catch (NoSuchAlgorithmException | IOException | MainModel.EncryptErrorException | InvalidKeyException |
                  BadPaddingException | IllegalBlockSizeException | NoSuchPaddingException | StorageException e) {
             System.err.println("Error in testSaveDate()");
             throw new RuntimeException(e);
         }
-        verify(storageService).write(testFileContent, testAccountName);
+        verify(storageService).write(sortedFileContent, testAccountName);
+    }
+
+    @Test
+    void testAddEntryKeepsSortOrder() {
+        MainModelEntry entry = new MainModelEntry("bAdded", "", "", "", "", "", "WEAK", false, false);
+        model.addEntry(entry);
+
+        List<MainModelEntry> sortedList = model.getSortedEntryContentList();
+        assertEquals(4, sortedList.size());
+        assertEquals(entry, sortedList.get(1));
+        assertEquals("BtestPasswordTitel Nr.2", sortedList.get(2).getPasswordTitel());
+    }
+
+    @Test
+    void testUpdateEntryMovesEntry() {
+        MainModelEntry entry = model.getSortedEntryContentList().getFirst();
+        entry.setPasswordTitel("ZtestPasswordTitel Nr.0");
+        model.updateEntry(entry);
+
+        List<MainModelEntry> sortedList = model.getSortedEntryContentList();
+        assertEquals(3, sortedList.size());
+        assertEquals(entry, sortedList.getLast());
+        assertEquals(List.of(entry), model.searchEntry("ZtestPasswordTitel Nr.0", VaultViewState.VAULT).subList(0, 1));
+    }
+
+    @Test
+    void testSortedEntryContentListIsReadOnly() {
+        List<MainModelEntry> sortedList = model.getSortedEntryContentList();
+        assertThrows(UnsupportedOperationException.class, () -> sortedList.add(getMainModelEntryTestData00()));
+    }
+
+    @Test
+    void testFavouriteAndCompromisedViewsFollowEntries() {
+        List<String> events = new ArrayList<>();
+        model.addPropertyChangeListener(evt -> {
+            if (!evt.getPropertyName().equals("entryChange")) {
+                events.add(evt.getPropertyName());
+            }
+        });
+        MainModelEntry entry = model.getSortedEntryContentList().get(1);
+
+        entry.setFavourite(true);
+        entry.setCompromised(true);
+        assertEquals(List.of(entry), model.getFavorites());
+        assertEquals(List.of(entry), model.getCompromised());
+        assertEquals(List.of("favouriteChanged", "compromisedChanged"), events);
+
+        entry.setFavourite(false);
+        assertTrue(model.getFavorites().isEmpty());
+        assertEquals(List.of(entry), model.getCompromised());
+    }
+
+    @Test
+    void testReturnedListsAreSnapshots() {
+        List<MainModelEntry> sortedList = model.getSortedEntryContentList();
+        List<MainModelEntry> favourites = model.getFavorites();
+
+        MainModelEntry entry = new MainModelEntry("aAdded", "", "", "", "", "", "WEAK", true, false);
+        model.addEntry(entry);
+
+        assertEquals(3, sortedList.size());
+        assertTrue(favourites.isEmpty());
+        assertEquals(List.of(entry), model.getFavorites());
+    }
+
+    @Test
+    void testSnapshotsAreOnlyCopiedAfterAChange() {
+        List<MainModelEntry> sortedList = model.getSortedEntryContentList();
+        Set<MainModelEntry> weakEntries = model.getEntriesWithStrength(PasswordStrengthCategories.WEAK);
+        assertSame(sortedList, model.getSortedEntryContentList());
+        assertSame(sortedList, model.getEntrySnapshot());
+        assertSame(weakEntries, model.getEntriesWithStrength(PasswordStrengthCategories.WEAK));
+
+        model.addEntry(new MainModelEntry("aAdded", "", "", "", "", "", "WEAK", false, false));
+
+        assertNotSame(sortedList, model.getSortedEntryContentList());
+        assertEquals(4, model.getSortedEntryContentList().size());
+        assertEquals(4, model.getEntriesWithStrength(PasswordStrengthCategories.WEAK).size());
+    }
+
+    @Test
+    void testFindEntryByTitleIgnoresCase() {
+        MainModelEntry entry = model.getSortedEntryContentList().getFirst();
+
+        assertSame(entry, model.findEntryByTitle(entry.getPasswordTitel().toUpperCase()));
+        assertNull(model.findEntryByTitle("no such title"));
+    }
+
+    @Test
+    void testStrengthIndexFollowsEntries() {
+        MainModelEntry entry = model.getSortedEntryContentList().getFirst();
+        assertEquals(3, model.getEntriesWithStrength(PasswordStrengthCategories.WEAK).size());
+
+        entry.setPasswordStrengthCategories("STRONG");
+
+        assertEquals(2, model.getEntriesWithStrength(PasswordStrengthCategories.WEAK).size());
+        assertEquals(Set.of(entry), model.getEntriesWithStrength(PasswordStrengthCategories.STRONG));
+    }
+
+    @Test
+    void testDeletedEntryIsNotIndexed() throws IOException, MainModel.EncryptErrorException, StorageException {
+        MainModelEntry entry = model.getSortedEntryContentList().getFirst();
+        entry.setFavourite(true);
+        model.deleteEntry(entry.getId());
+
+        assertTrue(model.getFavorites().isEmpty());
+        entry.setCompromised(true);
+        assertTrue(model.getCompromised().isEmpty());
+    }
+
+    @Test
+    void testUpdateOfDeletedEntryIsIgnored() throws IOException, MainModel.EncryptErrorException, StorageException {
+        List<String> events = new ArrayList<>();
+        MainModelEntry entry = model.getSortedEntryContentList().getFirst();
+        model.deleteEntry(entry.getId());
+        model.addPropertyChangeListener(evt -> events.add(evt.getPropertyName()));
+
+        entry.setPasswordTitel("UniqueDeletedTitle");
+        model.updateEntry(entry);
+
+        assertTrue(model.searchEntry("UniqueDeletedTitle", VaultViewState.VAULT).isEmpty());
+        assertFalse(events.contains("updateEntry"));
+        assertFalse(events.contains("entryChange"));
+    }
+
+    @Test
+    void testBreachCheckIsOnlyRememberedAfterAnAnswer() {
+        HaveIBeenPawnedService haveIBeenPawnedService = mock(HaveIBeenPawnedService.class);
+        MainModel checkedModel = new MainModel(crypter, storageService, loginModel, haveIBeenPawnedService);
+        MainModelEntry entry = checkedModel.getSortedEntryContentList().getFirst();
+
+        when(haveIBeenPawnedService.lookupPassword(anyString())).thenReturn(OptionalInt.empty());
+        checkedModel.checkEntryIfCompromised(entry);
+        assertEquals(0, entry.getLastBreachCheck());
+
+        when(haveIBeenPawnedService.lookupPassword(anyString())).thenReturn(OptionalInt.of(0));
+        checkedModel.checkEntryIfCompromised(entry);
+        assertTrue(entry.getLastBreachCheck() > 0);
+        assertFalse(entry.getCompromised());
     }
 
     /**
@@ -198,6 +399,20 @@ class MainModelTest {
         doNothing().when(storageService).write(testAccountName + startFileContent, testAccountName);
     }
 
+    /**
+     * Returns the test file content with the entries sorted by title, as the model saves them
+     *
+     * @return the sorted test file content
+     */
+    String getSortedTestFileContent() {
+        JSONObject sortedFileContent = new JSONObject(testFileContent);
+        JSONArray entries = sortedFileContent.getJSONArray("Entries");
+        Object entryC = entries.get(1);
+        entries.put(1, entries.get(2));
+        entries.put(2, entryC);
+        return sortedFileContent.toString();
+    }
+
     /**
      * Set up the test data as it would be (similar) in the read File for all test methods
      * The Test Content contains 3 Entries with the test data
@@ -214,6 +429,7 @@ class MainModelTest {
                 default -> 'Z';
             };
             JSONObject currentSavingObject = new JSONObject();
+            currentSavingObject.put("id", "testId" + i);
             currentSavingObject.put("passwordTitel", preChar + "testPasswordTitel Nr." + i);
             currentSavingObject.put("username", "testUsername Nr." + i);
             currentSavingObject.put("website", "testWebseite Nr." + i);
@@ -0,0 +1,100 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import ch.zhaw.it.pm.vault_guard.service.pwexport.EncryptedArchiveInputStream;
+import ch.zhaw.it.pm.vault_guard.service.pwexport.ExportFormat;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import ch.zhaw.it.pm.vault_guard.service.pwimport.CsvEntryReader;
+import ch.zhaw.it.pm.vault_guard.service.pwimport.ImportedEntry;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the VaultExporter
+ */
+class VaultExporterTest {
+    private static final String ACCOUNT_PASSWORD = "testPassword123.";
+
+    private VaultExporter exporter;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        List<MainModelEntry> entries = new ArrayList<>(List.of(
+                new MainModelEntry("b", "Bank, private", "alice", "bank.ch", "alice@bank.ch", "JBSWY3DPEHPK3PXP", "pa\"ss\nword", "STRONG", true, false),
+                new MainModelEntry("a", "Access", "bob", "access.ch", "", "", "secret", "WEAK", false, true)));
+        MainModel mainModel = new MainModel(new CryptographyHandler(), new StorageService(), null, null,
+                new VaultContent("testAccount", ACCOUNT_PASSWORD, entries));
+        exporter = new VaultExporter(mainModel);
+    }
+
+    @Test
+    void testCsvExportCanBeImported() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        ExportResult result = exporter.export(output, ExportFormat.CSV);
+
+        List<ImportedEntry> entries = new ArrayList<>();
+        new CsvEntryReader().read(new StringReader(output.toString(StandardCharsets.UTF_8)), entries::add);
+        assertEquals(2, result.exportedCount());
+        assertEquals(List.of(
+                new ImportedEntry("Access", "bob", "access.ch", "", "", "secret"),
+                new ImportedEntry("Bank, private", "alice", "bank.ch", "alice@bank.ch", "JBSWY3DPEHPK3PXP", "pa\"ss\nword")), entries);
+    }
+
+    @Test
+    void testJsonExportHasTheEntriesWithoutTheAccountPassword() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exporter.export(output, ExportFormat.JSON);
+
+        JSONObject export = new JSONObject(output.toString(StandardCharsets.UTF_8));
+        assertEquals("testAccount", export.getString("accountName"));
+        assertFalse(export.has("accountPassword"));
+        assertEquals(2, export.getJSONArray("Entries").length());
+        assertEquals("pa\"ss\nword", export.getJSONArray("Entries").getJSONObject(1).getString("password"));
+    }
+
+    @Test
+    void testArchiveIsEncryptedWithTheAccountPassword() throws Exception {
+        Path archive = tempDir.resolve("vault.vgarchive");
+
+        exporter.exportFile(archive, ExportFormat.ARCHIVE);
+
+        assertFalse(Files.readString(archive, StandardCharsets.ISO_8859_1).contains("secret"));
+        try (InputStream input = new EncryptedArchiveInputStream(Files.newInputStream(archive), ACCOUNT_PASSWORD)) {
+            JSONObject export = new JSONObject(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+            assertEquals(2, export.getJSONArray("Entries").length());
+        }
+    }
+
+    @Test
+    void testExportFileReplacesTheFileAndLeavesNoTemporaryFile() throws Exception {
+        Path csv = tempDir.resolve("vault.csv");
+        Files.writeString(csv, "old content");
+
+        exporter.exportFile(csv, ExportFormat.CSV);
+
+        assertTrue(Files.readString(csv).startsWith(VaultExporter.CSV_HEADER));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(List.of(csv), files.toList());
+        }
+    }
+}
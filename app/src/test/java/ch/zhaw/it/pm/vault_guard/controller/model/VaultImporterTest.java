@@ -0,0 +1,180 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import ch.zhaw.it.pm.vault_guard.service.pwexport.ExportFormat;
+import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCalculator;
+import ch.zhaw.it.pm.vault_guard.service.pwgenerator.PasswordStrengthCategories;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import ch.zhaw.it.pm.vault_guard.service.pwimport.ImportException;
+import ch.zhaw.it.pm.vault_guard.service.pwimport.ImportFormat;
+import ch.zhaw.it.pm.vault_guard.service.pwned.HaveIBeenPawnedService;
+import ch.zhaw.it.pm.vault_guard.service.pwned.HibpStubServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the VaultImporter
+ * The vault is saved with the real CryptographyHandler into a StorageService stub that counts the writes,
+ * the breach checks are answered by a HibpStubServer
+ */
+class VaultImporterTest {
+    private static final String STRONG_PASSWORD = "k8#Qz!v2Lw@9rTx$Mn4&";
+    private static final String ACCOUNT_PASSWORD = "testPassword123.";
+
+    private final AtomicInteger writes = new AtomicInteger();
+    private final List<String> events = new CopyOnWriteArrayList<>();
+    private HibpStubServer server;
+    private MainModel mainModel;
+    private VaultImporter importer;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new HibpStubServer(10, 0, 0.0, 0);
+        server.addBreachedPassword("password123", 42);
+        server.start(2);
+        StorageService storage = new StorageService() {
+            @Override
+            public void write(String fileContent, String accountUser) {
+                writes.incrementAndGet();
+            }
+        };
+        mainModel = new MainModel(new CryptographyHandler(), storage, null, new HaveIBeenPawnedService(server.getRangeUrl()),
+                new VaultContent("testAccount", ACCOUNT_PASSWORD, new ArrayList<>()));
+        mainModel.addPropertyChangeListener(event -> events.add(event.getPropertyName()));
+        importer = new VaultImporter(mainModel, new PasswordStrengthCalculator(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void testImportAddsEntriesInBatchesAndSavesOnce() throws Exception {
+        String csv = "name,url,username,password\n"
+                + "A,https://a.example,alice,password123\n"
+                + "B,https://b.example,bob,password123\n"
+                + "C,https://c.example,carol," + STRONG_PASSWORD + "\n"
+                + "Note only,,,\n"
+                + ",https://d.example,dave,secret\n"
+                + "E,,erin,secret\n";
+
+        ImportResult result = importer.importEntries(new StringReader(csv), ImportFormat.CSV);
+
+        assertEquals(5, result.importedCount());
+        assertEquals(1, result.skippedEntries());
+        assertEquals(5, mainModel.getEntrySnapshot().size());
+        assertTrue(mainModel.getEntrySnapshot().stream().anyMatch(entry -> entry.getPasswordTitel().equals("https://d.example")));
+        assertEquals(List.of("entriesAdded", "entriesAdded", "entriesAdded", "saveData"), events);
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void testFailedImportRemovesAddedEntries() {
+        String csv = "name,password\nA,one\nB,two\nC,three\nD,\"four\n";
+
+        assertThrows(ImportException.class, () -> importer.importEntries(new StringReader(csv), ImportFormat.CSV));
+
+        assertTrue(mainModel.getEntrySnapshot().isEmpty());
+        assertTrue(events.contains("entriesRemoved"));
+        assertEquals(0, writes.get());
+    }
+
+    @Test
+    void testImportOfAnExportedArchive() throws Exception {
+        Path archive = tempDir.resolve("vault.vgarchive");
+        new VaultExporter(exportedVault(ACCOUNT_PASSWORD)).exportFile(archive, ExportFormat.ARCHIVE);
+
+        ImportResult result = importer.importFile(archive, ImportFormat.ARCHIVE);
+
+        assertEquals(2, result.importedCount());
+        List<MainModelEntry> entries = mainModel.getSortedEntryContentList();
+        assertEquals("Bank", entries.get(0).getPasswordTitel());
+        assertEquals("bank-secret", entries.get(0).getPassword());
+        assertEquals("JBSWY3DPEHPK3PXP", entries.get(0).getOneTimePassword());
+        assertEquals("Mail", entries.get(1).getPasswordTitel());
+        assertEquals("me@mail.example", entries.get(1).getEmail());
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void testImportOfAnArchiveWithAnotherPasswordFails() throws Exception {
+        Path archive = tempDir.resolve("vault.vgarchive");
+        new VaultExporter(exportedVault("otherPassword456.")).exportFile(archive, ExportFormat.ARCHIVE);
+
+        assertThrows(IOException.class, () -> importer.importFile(archive, ImportFormat.ARCHIVE));
+
+        assertTrue(mainModel.getEntrySnapshot().isEmpty());
+        assertEquals(0, writes.get());
+    }
+
+    @Test
+    void testEmptyImportIsNotSaved() throws Exception {
+        ImportResult result = importer.importEntries(new StringReader("{\"items\": []}"), ImportFormat.BITWARDEN_JSON);
+
+        assertEquals(0, result.importedCount());
+        assertEquals(0, writes.get());
+    }
+
+    @Test
+    void testBackgroundChecksSetStrengthAndCompromisedOncePerPassword() throws Exception {
+        String csv = "name,password\nA,password123\nB,password123\nC," + STRONG_PASSWORD + "\n";
+        ImportResult result = importer.importEntries(new StringReader(csv), ImportFormat.CSV);
+
+        importer.checkImportedEntriesInBackground(result.importedEntries(), true).get(10, TimeUnit.SECONDS);
+
+        List<MainModelEntry> entries = mainModel.getSortedEntryContentList();
+        assertTrue(entries.get(0).getCompromised());
+        assertTrue(entries.get(1).getCompromised());
+        assertFalse(entries.get(2).getCompromised());
+        assertNotEquals(PasswordStrengthCategories.WEAK, entries.get(2).getPasswordStrengthCategories());
+        // two distinct passwords, every check sends the connectivity request and the range request
+        assertEquals(4, server.getRequestCount());
+        assertEquals(1, events.stream().filter("entriesChanged"::equals).count());
+        assertEquals(2, writes.get());
+    }
+
+    /**
+     * Helper method that creates a vault with two entries to be exported, which is never saved
+     *
+     * @param accountPassword The account password, which encrypts the archive
+     * @return The MainModel of the vault
+     */
+    private static MainModel exportedVault(String accountPassword) {
+        List<MainModelEntry> entries = new ArrayList<>(List.of(
+                new MainModelEntry("Bank", "alice", "https://bank.example", "", "JBSWY3DPEHPK3PXP", "bank-secret", "WEAK", true, false),
+                new MainModelEntry("Mail", "alice", "https://mail.example", "me@mail.example", "", "mail-secret", "WEAK", false, false)));
+        return new MainModel(new CryptographyHandler(), new StorageService(), null, null, new VaultContent("otherAccount", accountPassword, entries));
+    }
+
+    @Test
+    void testBackgroundChecksWithoutBreachCheck() throws Exception {
+        String csv = "name,password\nA,password123\nB," + STRONG_PASSWORD + "\n";
+        ImportResult result = importer.importEntries(new StringReader(csv), ImportFormat.CSV);
+
+        importer.checkImportedEntriesInBackground(result.importedEntries(), false).get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, server.getRequestCount());
+        assertFalse(mainModel.getSortedEntryContentList().getFirst().getCompromised());
+    }
+}
@@ -0,0 +1,122 @@
+package ch.zhaw.it.pm.vault_guard.controller.model;
+
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import ch.zhaw.it.pm.vault_guard.util.StorageException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static ch.zhaw.it.pm.vault_guard.controller.model.VaultUnlockPipeline.UnlockStage.DECRYPT;
+import static ch.zhaw.it.pm.vault_guard.controller.model.VaultUnlockPipeline.UnlockStage.INDEX;
+import static ch.zhaw.it.pm.vault_guard.controller.model.VaultUnlockPipeline.UnlockStage.PARSE;
+import static ch.zhaw.it.pm.vault_guard.controller.model.VaultUnlockPipeline.UnlockStage.READ;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the VaultUnlockPipeline
+ * The vault files are encrypted with the real CryptographyHandler and kept in memory by a StorageService stub
+ */
+class VaultUnlockPipelineTest {
+    private static final String ACCOUNT_NAME = "testAccount";
+    private static final String ACCOUNT_PASSWORD = "testPassword123.";
+    private static final String VAULT = "{\"accountName\":\"" + ACCOUNT_NAME + "\",\"accountPassword\":\"" + ACCOUNT_PASSWORD + "\",\"Entries\":["
+            + "{\"id\":\"b\",\"passwordTitel\":\"Bank\",\"username\":\"user\",\"website\":\"\",\"email\":\"\",\"oneTimePassword\":\"\","
+            + "\"password\":\"secret\",\"passwordStrength\":\"WEAK\",\"isFavourite\":true,\"isCompromised\":false},"
+            + "{\"id\":\"a\",\"passwordTitel\":\"Access\",\"username\":\"user\",\"website\":\"\",\"email\":\"\",\"oneTimePassword\":\"\","
+            + "\"password\":\"secret\",\"passwordStrength\":\"WEAK\",\"isFavourite\":false,\"isCompromised\":false}]}";
+
+    private final CryptographyHandler crypter = new CryptographyHandler();
+    private final List<VaultUnlockPipeline.UnlockStage> stages = new CopyOnWriteArrayList<>();
+    private final List<Thread> stageThreads = new CopyOnWriteArrayList<>();
+    private VaultUnlockPipeline pipeline;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pipeline = new VaultUnlockPipeline(crypter, storedVaults(Map.of(ACCOUNT_NAME, crypter.encrypt(VAULT, ACCOUNT_PASSWORD))));
+    }
+
+    @Test
+    void testUnlockRunsAllStagesInTheBackground() throws Exception {
+        MainModel mainModel = unlock(ACCOUNT_PASSWORD).orElseThrow();
+
+        assertEquals(List.of(READ, DECRYPT, PARSE, INDEX), stages);
+        assertTrue(stageThreads.stream().noneMatch(thread -> thread == Thread.currentThread()));
+        assertEquals(ACCOUNT_NAME, mainModel.getAccountName());
+        assertEquals(List.of("Access", "Bank"), mainModel.getSortedEntryContentList().stream().map(MainModelEntry::getPasswordTitel).toList());
+        assertEquals(1, mainModel.getFavorites().size());
+    }
+
+    @Test
+    void testUnlockWithWrongPasswordStopsAfterDecrypt() throws Exception {
+        assertTrue(unlock("wrongPassword").isEmpty());
+        assertEquals(List.of(READ, DECRYPT), stages);
+    }
+
+    @Test
+    void testUnlockWithoutVaultStopsAfterRead() throws Exception {
+        Optional<MainModel> mainModel = pipeline.unlock(null, "unknownAccount", ACCOUNT_PASSWORD, stages::add).get(5, TimeUnit.SECONDS);
+
+        assertTrue(mainModel.isEmpty());
+        assertEquals(List.of(READ), stages);
+    }
+
+    @Test
+    void testUnlockFailsIfTheVaultCannotBeRead() {
+        pipeline = new VaultUnlockPipeline(crypter, new StorageService() {
+            @Override
+            public Optional<String> read(String accountUser) throws StorageException {
+                throw new StorageException("Failed to read file");
+            }
+        });
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> unlock(ACCOUNT_PASSWORD));
+        assertInstanceOf(StorageException.class, exception.getCause());
+    }
+
+    @Test
+    void testUnlockedEntriesKeepTheirIds() throws Exception {
+        MainModel mainModel = unlock(ACCOUNT_PASSWORD).orElseThrow();
+
+        assertEquals("Access", mainModel.getEntry("a").getPasswordTitel());
+        assertNotNull(mainModel.getEntry("b"));
+    }
+
+    /**
+     * Helper method that unlocks the vault of the test account and records the stages and their threads
+     *
+     * @param password The password used to unlock
+     * @return The unlocked MainModel
+     */
+    private Optional<MainModel> unlock(String password) throws Exception {
+        return pipeline.unlock(null, ACCOUNT_NAME, password, stage -> {
+            stages.add(stage);
+            stageThreads.add(Thread.currentThread());
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Helper method that returns a StorageService reading the vault files from memory
+     *
+     * @param vaults The encrypted vault files by account name
+     * @return The StorageService
+     */
+    private static StorageService storedVaults(Map<String, String> vaults) {
+        return new StorageService() {
+            @Override
+            public Optional<String> read(String accountUser) {
+                return Optional.ofNullable(vaults.get(accountUser));
+            }
+        };
+    }
+}
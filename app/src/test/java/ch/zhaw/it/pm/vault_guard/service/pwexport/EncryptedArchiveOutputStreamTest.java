@@ -0,0 +1,100 @@
+package ch.zhaw.it.pm.vault_guard.service.pwexport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test class for the EncryptedArchiveOutputStream and the EncryptedArchiveInputStream
+ * The archives are written with few PBKDF2 iterations to keep the tests fast
+ */
+class EncryptedArchiveOutputStreamTest {
+    private static final String PASSWORD = "archivePassword1.";
+    private static final int ITERATIONS = 1_000;
+
+    @Test
+    void testRoundTripOfSeveralChunks() throws Exception {
+        byte[] content = randomBytes(EncryptedArchiveOutputStream.CHUNK_SIZE * 2 + 123);
+
+        byte[] archive = encrypt(content);
+
+        assertEquals(EncryptedArchiveOutputStream.HEADER_LENGTH + content.length + 3 * 16, archive.length);
+        assertArrayEquals(content, decrypt(archive, PASSWORD));
+    }
+
+    @Test
+    void testRoundTripOfExactChunksAndEmptyContent() throws Exception {
+        byte[] content = randomBytes(EncryptedArchiveOutputStream.CHUNK_SIZE);
+
+        assertArrayEquals(content, decrypt(encrypt(content), PASSWORD));
+        assertArrayEquals(new byte[0], decrypt(encrypt(new byte[0]), PASSWORD));
+    }
+
+    @Test
+    void testWrongPassword() throws Exception {
+        byte[] archive = encrypt(randomBytes(100));
+
+        assertThrows(IOException.class, () -> decrypt(archive, "wrongPassword"));
+    }
+
+    @Test
+    void testChangedArchive() throws Exception {
+        byte[] archive = encrypt(randomBytes(100));
+        archive[EncryptedArchiveOutputStream.HEADER_LENGTH + 5] ^= 1;
+
+        assertThrows(IOException.class, () -> decrypt(archive, PASSWORD));
+    }
+
+    @Test
+    void testTruncatedArchive() throws Exception {
+        byte[] archive = encrypt(randomBytes(EncryptedArchiveOutputStream.CHUNK_SIZE + 10));
+        byte[] withoutLastChunk = Arrays.copyOf(archive, EncryptedArchiveOutputStream.HEADER_LENGTH + EncryptedArchiveOutputStream.CHUNK_SIZE + 16);
+
+        assertThrows(IOException.class, () -> decrypt(withoutLastChunk, PASSWORD));
+    }
+
+    @Test
+    void testNoArchive() {
+        assertThrows(IOException.class, () -> decrypt("name,password\n".getBytes(), PASSWORD));
+    }
+
+    @Test
+    void testWriteAfterFinish() throws Exception {
+        EncryptedArchiveOutputStream archive = new EncryptedArchiveOutputStream(new ByteArrayOutputStream(), PASSWORD, ITERATIONS);
+        archive.finish();
+
+        assertThrows(IOException.class, () -> archive.write(1));
+    }
+
+    private static byte[] encrypt(byte[] content) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (EncryptedArchiveOutputStream archive = new EncryptedArchiveOutputStream(output, PASSWORD, ITERATIONS)) {
+            // written in odd pieces to cross the chunk boundaries
+            for (int offset = 0; offset < content.length; offset += 1000) {
+                archive.write(content, offset, Math.min(1000, content.length - offset));
+            }
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] decrypt(byte[] archive, String password) throws IOException {
+        try (InputStream input = new EncryptedArchiveInputStream(new ByteArrayInputStream(archive), password)) {
+            return input.readAllBytes();
+        }
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
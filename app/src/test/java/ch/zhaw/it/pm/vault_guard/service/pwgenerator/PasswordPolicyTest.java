@@ -0,0 +1,90 @@
+package ch.zhaw.it.pm.vault_guard.service.pwgenerator;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordPolicyTest {
+
+    @RepeatedTest(100)
+    void testFillContainsEveryRequiredCategory() {
+        PasswordPolicy policy = new PasswordPolicy(4, true, true, true, "");
+        char[] buffer = new char[6];
+        policy.fill(buffer, 1);
+        String password = new String(buffer, 1, 4);
+
+        assertTrue(password.matches(".*[0-9].*"), password);
+        assertTrue(password.matches(".*[A-Z].*"), password);
+        assertTrue(password.matches(".*[!@#$%&*()_+\\-=\\[\\]|/?><].*"), password);
+        assertEquals(0, buffer[0]);
+        assertEquals(0, buffer[5]);
+    }
+
+    @Test
+    void testForbiddenCharactersAreNeverUsed() {
+        PasswordPolicy policy = new PasswordPolicy(20, true, true, true, "abc0123ABC!@#");
+        char[] buffer = new char[20 * 500];
+        policy.fillAll(buffer);
+
+        for (char c : buffer) {
+            assertEquals(-1, "abc0123ABC!@#".indexOf(c), "Forbidden character " + c);
+        }
+    }
+
+    @Test
+    void testCategoryWithoutAllowedCharactersIsNotRequired() {
+        PasswordPolicy policy = new PasswordPolicy(8, true, false, false, PasswordPolicy.NUMERALS);
+
+        assertTrue(policy.generate().matches("[a-z]{8}"));
+    }
+
+    @Test
+    void testCharactersAreUniformlyDistributed() {
+        PasswordPolicy policy = new PasswordPolicy(100, false, false, false, "");
+        char[] buffer = new char[100 * 2600];
+        policy.fillAll(buffer);
+        int[] counts = new int[26];
+        for (char c : buffer) {
+            counts[c - 'a']++;
+        }
+
+        for (int count : counts) {
+            assertTrue(Math.abs(count - 10000) < 1000, "Unexpected count " + count);
+        }
+    }
+
+    @Test
+    void testFillAllAndStream() {
+        PasswordPolicy policy = new PasswordPolicy(16, true, true, false, "");
+        char[] buffer = new char[16 * 1000];
+        assertEquals(1000, policy.fillAll(buffer));
+        Set<String> passwords = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            passwords.add(new String(buffer, i * 16, 16));
+        }
+
+        assertEquals(1000, passwords.size());
+        List<char[]> streamed = policy.stream(1000).toList();
+        assertEquals(1000, streamed.size());
+        streamed.forEach(password -> assertEquals(16, password.length));
+        assertThrows(IllegalArgumentException.class, () -> policy.fillAll(new char[17]));
+    }
+
+    @Test
+    void testInvalidPolicies() {
+        PasswordPolicy empty = new PasswordPolicy(10, false, false, false, PasswordPolicy.LOWERCASE_CHARS);
+
+        assertThrows(IllegalArgumentException.class, () -> new PasswordPolicy(3, true, true, true, ""));
+        assertTrue(empty.isEmpty());
+        assertEquals("", empty.generate());
+        assertThrows(IllegalStateException.class, () -> empty.fill(new char[10], 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> new PasswordPolicy(10, true, true, true, "").fill(new char[10], 1));
+    }
+}
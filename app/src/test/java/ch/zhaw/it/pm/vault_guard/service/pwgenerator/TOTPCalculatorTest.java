@@ -0,0 +1,112 @@
+package ch.zhaw.it.pm.vault_guard.service.pwgenerator;
+
+import com.warrenstrange.googleauth.GoogleAuthenticator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test class for the TOTPCalculator
+ * The test vectors are taken from Appendix B of RFC 6238 (8 digits, 30 second period)
+ * The codes of Base32 secrets are compared with the GoogleAuthenticator library that computed them before
+ */
+class TOTPCalculatorTest {
+
+    private static final byte[] SHA1_SECRET = "12345678901234567890".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SHA256_SECRET = "12345678901234567890123456789012".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SHA512_SECRET = "1234567890123456789012345678901234567890123456789012345678901234".getBytes(StandardCharsets.US_ASCII);
+
+    @ParameterizedTest
+    @CsvSource({
+            "59, 94287082, 46119246, 90693936",
+            "1111111109, 07081804, 68084774, 25091201",
+            "1111111111, 14050471, 67062674, 99943326",
+            "1234567890, 89005924, 91819424, 93441116",
+            "2000000000, 69279037, 90698825, 38618901",
+            "20000000000, 65353130, 77737706, 47863826"
+    })
+    void testRfc6238TestVectors(long epochSeconds, String sha1Code, String sha256Code, String sha512Code) {
+        TOTPCalculator sha1 = new TOTPCalculator(SHA1_SECRET, TOTPHashAlgorithm.SHA1, 8, 30);
+        TOTPCalculator sha256 = new TOTPCalculator(SHA256_SECRET, TOTPHashAlgorithm.SHA256, 8, 30);
+        TOTPCalculator sha512 = new TOTPCalculator(SHA512_SECRET, TOTPHashAlgorithm.SHA512, 8, 30);
+        long epochMillis = epochSeconds * 1000;
+
+        assertEquals(sha1Code, sha1.format(sha1.codeAt(epochMillis)));
+        assertEquals(sha256Code, sha256.format(sha256.codeAt(epochMillis)));
+        assertEquals(sha512Code, sha512.format(sha512.codeAt(epochMillis)));
+    }
+
+    @Test
+    void testSixDigitCodesAreTheLastDigitsOfTheEightDigitCodes() {
+        TOTPCalculator eightDigits = new TOTPCalculator(SHA1_SECRET, TOTPHashAlgorithm.SHA1, 8, 30);
+        TOTPCalculator sixDigits = new TOTPCalculator(SHA1_SECRET, TOTPHashAlgorithm.SHA1, 6, 30);
+
+        assertEquals(81804, sixDigits.codeAt(1111111109_000L));
+        assertEquals("081804", sixDigits.format(sixDigits.codeAt(1111111109_000L)));
+        assertEquals(eightDigits.codeAt(59_000L) % 1_000_000, sixDigits.codeAt(59_000L));
+    }
+
+    @Test
+    void testCustomPeriod() {
+        TOTPCalculator thirtySeconds = new TOTPCalculator(SHA1_SECRET, TOTPHashAlgorithm.SHA1, 8, 30);
+        TOTPCalculator sixtySeconds = new TOTPCalculator(SHA1_SECRET, TOTPHashAlgorithm.SHA1, 8, 60);
+
+        assertEquals(thirtySeconds.codeForTimeStep(1), sixtySeconds.codeAt(60_000L));
+        assertEquals(60_000L, sixtySeconds.getPeriodMillis());
+    }
+
+    @Test
+    void testBase32Secret() {
+        // "12345678901234567890" in Base32
+        TOTPCalculator calculator = new TOTPCalculator("GEZDGNBVGY3TQOJQGEZDGNBVGY3TQOJQ", TOTPHashAlgorithm.SHA1, 8, 30);
+        TOTPCalculator lowerCaseWithSpaces = new TOTPCalculator("gezd gnbv gy3t qojq gezd gnbv gy3t qojq", TOTPHashAlgorithm.SHA1, 8, 30);
+
+        assertEquals(94287082, calculator.codeAt(59_000L));
+        assertEquals(94287082, lowerCaseWithSpaces.codeAt(59_000L));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"JBSWY3DPEHPK3PXP", "jbswy3dpehpk3pxp", "GEZDGNBVGY3TQOJQGEZDGNBVGY3TQOJQ", "MZXW6===", "mzxw6ytboi======",
+            "JBSWY3DPEHPK3PXPJBSWY3DPEHPK3PXPJBSWY3DPEHPK3PXPJBSWY3DPEHPK3PXPJBSWY3DPEHPK3PXPJBSWY3DPEHPK3PXPJBSWY3DPEHPK3PXP"})
+    void testCodesMatchGoogleAuthenticator(String base32Secret) {
+        GoogleAuthenticator googleAuthenticator = new GoogleAuthenticator();
+        TOTPCalculator calculator = new TOTPCalculator(base32Secret);
+
+        for (long epochMillis : new long[]{0L, 59_000L, 1111111109_000L, 1234567890_000L, 20000000000_000L}) {
+            assertEquals(googleAuthenticator.getTotpPassword(base32Secret, epochMillis), calculator.codeAt(epochMillis));
+        }
+    }
+
+    @Test
+    void testCodesOfOneCalculatorOnManyThreads() throws InterruptedException {
+        TOTPCalculator calculator = new TOTPCalculator(SHA1_SECRET, TOTPHashAlgorithm.SHA1, 8, 30);
+        int[] codes = new int[4];
+        Thread[] threads = new Thread[codes.length];
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> codes[index] = calculator.codeAt(59_000L));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int code : codes) {
+            assertEquals(94287082, code);
+        }
+    }
+
+    @Test
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new TOTPCalculator("not base32!"));
+        assertThrows(IllegalArgumentException.class, () -> new TOTPCalculator(""));
+        assertThrows(IllegalArgumentException.class, () -> new TOTPCalculator(SHA1_SECRET, TOTPHashAlgorithm.SHA1, 9, 30));
+        assertThrows(IllegalArgumentException.class, () -> new TOTPCalculator(SHA1_SECRET, TOTPHashAlgorithm.SHA1, 6, 0));
+    }
+}
@@ -0,0 +1,83 @@
+package ch.zhaw.it.pm.vault_guard.service.pwgenerator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.beans.PropertyChangeEvent;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TOTPGeneratorTest {
+
+    private static final String SECRET_KEY = "JBSWY3DPEHPK3PXP";
+
+    private TOTPGenerator totpGenerator;
+    private final List<PropertyChangeEvent> events = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        totpGenerator = new TOTPGenerator();
+    }
+
+    @AfterEach
+    void tearDown() {
+        totpGenerator.shutdown();
+    }
+
+    @Test
+    void testSubscribePublishesCodeAndCountdownImmediately() {
+        totpGenerator.subscribe(SECRET_KEY, events::add);
+
+        assertEquals("TOTP", events.get(0).getPropertyName());
+        assertTrue(events.get(0).getNewValue().toString().matches("\\d{6}"));
+        assertEquals("TOTPCountdown", events.get(1).getPropertyName());
+        int secondsRemaining = (int) events.get(1).getNewValue();
+        assertTrue(secondsRemaining >= 0 && secondsRemaining <= 30);
+    }
+
+    @Test
+    void testSubscribersOfTheSameSecretGetTheSameCode() {
+        List<PropertyChangeEvent> otherEvents = new CopyOnWriteArrayList<>();
+        totpGenerator.subscribe(SECRET_KEY, events::add);
+        totpGenerator.subscribe(SECRET_KEY, otherEvents::add);
+
+        assertEquals(events.get(0).getNewValue(), otherEvents.get(0).getNewValue());
+        assertTrue(totpGenerator.getNextCode(SECRET_KEY).matches("\\d{6}"));
+    }
+
+    @Test
+    void testCancelledSubscriptionReceivesNoEvents() throws InterruptedException {
+        TOTPGenerator.TOTPSubscription subscription = totpGenerator.subscribe(SECRET_KEY, events::add);
+        subscription.cancel();
+        int eventsAfterCancel = events.size();
+        Thread.sleep(1100);
+
+        assertEquals(eventsAfterCancel, events.size());
+        assertEquals("", totpGenerator.getNextCode(SECRET_KEY));
+    }
+
+    @Test
+    void testCountdownIsPublishedByTheTicker() throws InterruptedException {
+        totpGenerator.subscribe(SECRET_KEY, events::add);
+        int eventsAfterSubscribe = events.size();
+        Thread.sleep(1100);
+
+        assertNotEquals(eventsAfterSubscribe, events.size());
+    }
+
+    @Test
+    void testInvalidSecretReceivesNoEvents() throws InterruptedException {
+        totpGenerator.subscribe(SECRET_KEY, otherEvent -> {
+        });
+        totpGenerator.subscribe("not base32!", events::add);
+        Thread.sleep(1100);
+
+        assertTrue(events.isEmpty());
+        assertEquals("", totpGenerator.getNextCode("not base32!"));
+    }
+}
@@ -17,6 +17,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 
 class StorageServiceTest {
@@ -65,6 +66,18 @@ class StorageServiceTest {
         assertFalse(readContent.isPresent());
     }
 
+    @Test
+    void testVersionChangesWhenTheFileIsWritten() throws StorageException {
+        assertFalse(storageService.version(testUser).isPresent());
+        storageService.write("testContent", testUser);
+        Optional<String> version = storageService.version(testUser);
+
+        assertTrue(version.isPresent());
+        assertEquals(version, storageService.version(testUser));
+        storageService.write("changed testContent", testUser);
+        assertNotEquals(version, storageService.version(testUser));
+    }
+
     @Test
     void testReadWithInvalidInput() {
         assertThrows(IllegalArgumentException.class, () -> storageService.read(null));
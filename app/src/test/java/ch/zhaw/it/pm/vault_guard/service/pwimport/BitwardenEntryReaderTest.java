@@ -0,0 +1,63 @@
+package ch.zhaw.it.pm.vault_guard.service.pwimport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the BitwardenEntryReader
+ */
+class BitwardenEntryReaderTest {
+
+    @Test
+    void testReadLoginsAndSkipOtherItems() throws Exception {
+        String json = """
+                {
+                  "encrypted": false,
+                  "folders": [{"id": "f1", "name": "Private"}],
+                  "items": [
+                    {"type": 1, "name": "My Bank", "login": {"username": "alice", "password": "secret",
+                      "totp": "JBSWY3DPEHPK3PXP", "uris": [{"match": null, "uri": "https://bank.example"}, {"uri": "https://other.example"}]}},
+                    {"type": 2, "name": "A note", "notes": "text", "secureNote": {"type": 0}},
+                    {"type": 1, "name": "No URI", "login": {"username": "bob", "password": "pw"}}
+                  ]
+                }""";
+
+        List<ImportedEntry> entries = read(json);
+
+        assertEquals(3, entries.size());
+        assertEquals(new ImportedEntry("My Bank", "alice", "https://bank.example", "", "JBSWY3DPEHPK3PXP", "secret"), entries.getFirst());
+        assertTrue(entries.get(1).isEmpty());
+        assertEquals(new ImportedEntry("No URI", "bob", "", "", "", "pw"), entries.get(2));
+    }
+
+    @Test
+    void testReadEmptyExport() throws Exception {
+        assertTrue(read("{}").isEmpty());
+        assertTrue(read("{\"items\": []}").isEmpty());
+    }
+
+    @Test
+    void testReadEncryptedExport() {
+        assertThrows(ImportException.class, () -> read("{\"encrypted\": true, \"data\": \"abc\", \"items\": []}"));
+    }
+
+    @Test
+    void testReadInvalidExport() {
+        assertThrows(ImportException.class, () -> read("[1, 2]"));
+        assertThrows(ImportException.class, () -> read("{\"items\": [1]}"));
+        assertThrows(ImportException.class, () -> read("{\"items\": [{\"name\": \"a\"}"));
+    }
+
+    private static List<ImportedEntry> read(String json) throws Exception {
+        List<ImportedEntry> entries = new ArrayList<>();
+        new BitwardenEntryReader().read(new StringReader(json), entries::add);
+        return entries;
+    }
+}
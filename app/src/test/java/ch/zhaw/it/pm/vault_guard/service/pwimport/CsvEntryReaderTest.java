@@ -0,0 +1,70 @@
+package ch.zhaw.it.pm.vault_guard.service.pwimport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the CsvEntryReader
+ */
+class CsvEntryReaderTest {
+
+    @Test
+    void testReadBitwardenCsvWithQuotedFields() throws Exception {
+        String csv = "\uFEFFfolder,favorite,type,name,notes,fields,reprompt,login_uri,login_username,login_password,login_totp\r\n"
+                + ",1,login,\"My Bank\",\"line one\nline, two\",,0,https://bank.example,alice,\"pa\"\"ss,word\","
+                + "\"otpauth://totp/Bank:alice?secret=JBSWY3DPEHPK3PXP&issuer=Bank\"\r\n";
+
+        List<ImportedEntry> entries = read(csv);
+
+        assertEquals(List.of(new ImportedEntry("My Bank", "alice", "https://bank.example", "", "JBSWY3DPEHPK3PXP", "pa\"ss,word")), entries);
+    }
+
+    @Test
+    void testReadChromeCsvWithShortRecordsAndEmptyLines() throws Exception {
+        String csv = "name,url,username,password\n"
+                + "Mail,https://mail.example,bob,secret1\n"
+                + "\n"
+                + "Forum,https://forum.example\n";
+
+        List<ImportedEntry> entries = read(csv);
+
+        assertEquals(2, entries.size());
+        assertEquals(new ImportedEntry("Mail", "bob", "https://mail.example", "", "", "secret1"), entries.getFirst());
+        assertEquals(new ImportedEntry("Forum", "", "https://forum.example", "", "", ""), entries.get(1));
+    }
+
+    @Test
+    void testReadEmptyFile() throws Exception {
+        assertTrue(read("").isEmpty());
+    }
+
+    @Test
+    void testReadWithoutPasswordColumn() {
+        assertThrows(ImportException.class, () -> read("name,url,username\nMail,https://mail.example,bob\n"));
+    }
+
+    @Test
+    void testReadWithUnclosedQuote() {
+        assertThrows(ImportException.class, () -> read("name,password\nMail,\"secret\n"));
+    }
+
+    @Test
+    void testReadWithTooLongField() {
+        String csv = "name,password\nMail," + "x".repeat(CsvEntryReader.MAX_FIELD_LENGTH + 1) + "\n";
+
+        assertThrows(ImportException.class, () -> read(csv));
+    }
+
+    private static List<ImportedEntry> read(String csv) throws Exception {
+        List<ImportedEntry> entries = new ArrayList<>();
+        new CsvEntryReader().read(new StringReader(csv), entries::add);
+        return entries;
+    }
+}
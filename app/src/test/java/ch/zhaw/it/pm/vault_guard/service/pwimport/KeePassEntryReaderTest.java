@@ -0,0 +1,68 @@
+package ch.zhaw.it.pm.vault_guard.service.pwimport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test class for the KeePassEntryReader
+ */
+class KeePassEntryReaderTest {
+
+    @Test
+    void testReadEntriesAndSkipHistory() throws Exception {
+        String xml = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <KeePassFile>
+                  <Root><Group><Name>Root</Name>
+                    <Entry>
+                      <String><Key>Title</Key><Value>My Bank</Value></String>
+                      <String><Key>UserName</Key><Value>alice</Value></String>
+                      <String><Key>Password</Key><Value ProtectInMemory="True">s&amp;cret</Value></String>
+                      <String><Key>URL</Key><Value>https://bank.example</Value></String>
+                      <String><Key>otp</Key><Value>otpauth://totp/Bank?secret=JBSWY3DPEHPK3PXP</Value></String>
+                      <String><Key>E-Mail</Key><Value>alice@bank.example</Value></String>
+                      <CustomData><Item><Key>Title</Key><Value>ignored</Value></Item></CustomData>
+                      <History>
+                        <Entry><String><Key>Password</Key><Value>old</Value></String></Entry>
+                      </History>
+                    </Entry>
+                    <Group><Name>Sub</Name>
+                      <Entry><String><Key>Title</Key><Value>Forum</Value></String><String><Key>Password</Key><Value/></String></Entry>
+                    </Group>
+                  </Group></Root>
+                </KeePassFile>""";
+
+        List<ImportedEntry> entries = read(xml);
+
+        assertEquals(List.of(
+                new ImportedEntry("My Bank", "alice", "https://bank.example", "alice@bank.example", "JBSWY3DPEHPK3PXP", "s&cret"),
+                new ImportedEntry("Forum", "", "", "", "", "")), entries);
+    }
+
+    @Test
+    void testReadWithExternalEntity() {
+        String xml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE KeePassFile [<!ENTITY secret SYSTEM "file:///etc/passwd">]>
+                <KeePassFile><Root><Entry><String><Key>Password</Key><Value>&secret;</Value></String></Entry></Root></KeePassFile>""";
+
+        assertThrows(ImportException.class, () -> read(xml));
+    }
+
+    @Test
+    void testReadInvalidXml() {
+        assertThrows(ImportException.class, () -> read("<KeePassFile><Root><Entry></Root>"));
+    }
+
+    private static List<ImportedEntry> read(String xml) throws Exception {
+        List<ImportedEntry> entries = new ArrayList<>();
+        new KeePassEntryReader().read(new StringReader(xml), entries::add);
+        return entries;
+    }
+}
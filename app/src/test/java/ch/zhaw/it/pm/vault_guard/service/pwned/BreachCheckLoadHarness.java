@@ -0,0 +1,232 @@
+package ch.zhaw.it.pm.vault_guard.service.pwned;
+
+import ch.zhaw.it.pm.vault_guard.controller.model.LoginModel;
+import ch.zhaw.it.pm.vault_guard.controller.model.MainModel;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.CryptographyHandler;
+import ch.zhaw.it.pm.vault_guard.service.pwhandler.StorageService;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load harness for the breach check.
+ * It starts a HibpStubServer and drives the HaveIBeenPawnedService and MainModel.checkAllEntriesIfCompromised
+ * with synthetic vaults of different sizes. For every vault size it reports the p50 and p99 latency of a single check,
+ * the checked entries per second and the HTTP requests per second seen by the stub server.
+ * <p>
+ * Run it with "./gradlew breachLoadTest". The options can be passed with -Pargs="...":
+ * --sizes=100,1000,10000,100000 --latency-ms=0 --error-rate=0.0 --max-rps=0 --suffixes=800 --breached-every=50
+ */
+public class BreachCheckLoadHarness {
+
+    private int[] vaultSizes = {100, 1_000, 10_000, 100_000};
+    private long latencyMillis = 0;
+    private double errorRate = 0.0;
+    private int maxRequestsPerSecond = 0;
+    private int suffixesPerPrefix = 800;
+    private int breachedEvery = 50;
+
+    /**
+     * Main method to start the load harness.
+     *
+     * @param args the options of the harness
+     * @throws Exception if the stub server cannot be started
+     */
+    public static void main(String[] args) throws Exception {
+        BreachCheckLoadHarness harness = new BreachCheckLoadHarness();
+        harness.parseArguments(args);
+        harness.run();
+    }
+
+    /**
+     * Parses the command line options.
+     *
+     * @param args the options of the harness
+     */
+    private void parseArguments(String[] args) {
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+            switch (option[0]) {
+                case "--sizes" -> vaultSizes = Arrays.stream(option[1].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "--latency-ms" -> latencyMillis = Long.parseLong(option[1]);
+                case "--error-rate" -> errorRate = Double.parseDouble(option[1]);
+                case "--max-rps" -> maxRequestsPerSecond = Integer.parseInt(option[1]);
+                case "--suffixes" -> suffixesPerPrefix = Integer.parseInt(option[1]);
+                case "--breached-every" -> breachedEvery = Integer.parseInt(option[1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+    }
+
+    /**
+     * Runs the service and the model scenario for every vault size and prints the results.
+     *
+     * @throws Exception if the stub server cannot be started
+     */
+    private void run() throws Exception {
+        System.out.printf("latency=%dms errorRate=%.3f maxRps=%d suffixesPerPrefix=%d%n", latencyMillis, errorRate, maxRequestsPerSecond, suffixesPerPrefix);
+        System.out.printf("%-8s %8s %10s %10s %12s %12s %8s %10s%n", "scenario", "entries", "p50 [ms]", "p99 [ms]", "entries/s", "requests/s", "errors", "compromised");
+        for (int size : vaultSizes) {
+            try (HibpStubServer server = startServer(size)) {
+                runServiceScenario(server, size);
+            }
+            try (HibpStubServer server = startServer(size)) {
+                runModelScenario(server, size);
+            }
+        }
+    }
+
+    /**
+     * Starts a stub server that knows every breachedEvery-th synthetic password as breached.
+     *
+     * @param size the number of synthetic passwords
+     * @return the started server
+     * @throws Exception if the server cannot be started
+     */
+    private HibpStubServer startServer(int size) throws Exception {
+        HibpStubServer server = new HibpStubServer(suffixesPerPrefix, latencyMillis, errorRate, maxRequestsPerSecond);
+        for (int i = 0; i < size; i += breachedEvery) {
+            server.addBreachedPassword(passwordOf(i), 42);
+        }
+        server.start(Runtime.getRuntime().availableProcessors() * 4);
+        return server;
+    }
+
+    /**
+     * Checks every synthetic password directly with the HaveIBeenPawnedService.
+     *
+     * @param server the stub server
+     * @param size   the number of passwords to check
+     */
+    private void runServiceScenario(HibpStubServer server, int size) {
+        HaveIBeenPawnedService service = new HaveIBeenPawnedService(server.getRangeUrl());
+        long[] latencies = new long[size];
+        int errors = 0;
+        int compromised = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            long callStart = System.nanoTime();
+            try {
+                if (service.checkPassword(passwordOf(i)) > 0) {
+                    compromised++;
+                }
+            } catch (PasswordCheckException e) {
+                errors++;
+            }
+            latencies[i] = System.nanoTime() - callStart;
+        }
+        report("service", size, latencies, size, System.nanoTime() - start, server, errors, compromised);
+    }
+
+    /**
+     * Checks a synthetic vault with MainModel.checkAllEntriesIfCompromised.
+     * The latency of every single check is measured by a wrapping service.
+     * The model stops at the first failed check, in that case only the checked entries are reported.
+     *
+     * @param server the stub server
+     * @param size   the number of entries in the vault
+     */
+    private void runModelScenario(HibpStubServer server, int size) {
+        long[] latencies = new long[size];
+        AtomicInteger checks = new AtomicInteger();
+        HaveIBeenPawnedService measuringService = new HaveIBeenPawnedService(server.getRangeUrl()) {
+            @Override
+            public OptionalInt lookupPassword(String password) {
+                long callStart = System.nanoTime();
+                try {
+                    return super.lookupPassword(password);
+                } finally {
+                    latencies[checks.getAndIncrement()] = System.nanoTime() - callStart;
+                }
+            }
+        };
+        String vault = buildVault(size);
+        LoginModel loginModel = new LoginModel() {
+            @Override
+            public String getDecryptedContent() {
+                return vault;
+            }
+        };
+        MainModel model = new MainModel(new CryptographyHandler(), new StorageService(), loginModel, measuringService);
+        int errors = 0;
+        long start = System.nanoTime();
+        try {
+            model.checkAllEntriesIfCompromised();
+        } catch (PasswordCheckException e) {
+            errors++;
+        }
+        long duration = System.nanoTime() - start;
+        int compromised = model.getCompromised().size();
+        report("model", size, Arrays.copyOf(latencies, checks.get()), checks.get(), duration, server, errors, compromised);
+    }
+
+    /**
+     * Prints one result line.
+     */
+    private void report(String scenario, int size, long[] latencies, int checked, long durationNanos, HibpStubServer server, int errors, int compromised) {
+        Arrays.sort(latencies);
+        double seconds = durationNanos / 1e9;
+        System.out.printf("%-8s %8d %10.3f %10.3f %12.1f %12.1f %8d %10d%n",
+                scenario, size, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                checked / seconds, server.getRequestCount() / seconds, errors + server.getThrottledCount(), compromised);
+    }
+
+    /**
+     * Returns a percentile of sorted latencies in milliseconds.
+     *
+     * @param sortedLatencies the sorted latencies in nanoseconds
+     * @param percentile      the percentile between 0.0 and 1.0
+     * @return the latency at the percentile in milliseconds
+     */
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Builds the decrypted content of a synthetic vault in the format of the vault file.
+     *
+     * @param size the number of entries
+     * @return the vault content as JSON string
+     */
+    private static String buildVault(int size) {
+        JSONObject vault = new JSONObject();
+        vault.put("accountName", "loadTest");
+        vault.put("accountPassword", "loadTest");
+        JSONArray entries = new JSONArray();
+        for (int i = 0; i < size; i++) {
+            JSONObject entry = new JSONObject();
+            entry.put("passwordTitel", "Entry " + i);
+            entry.put("username", "user" + i);
+            entry.put("website", "");
+            entry.put("email", "");
+            entry.put("oneTimePassword", "");
+            entry.put("password", passwordOf(i));
+            entry.put("passwordStrength", "WEAK");
+            entry.put("isFavourite", false);
+            entry.put("isCompromised", false);
+            entries.put(entry);
+        }
+        vault.put("Entries", entries);
+        return vault.toString();
+    }
+
+    /**
+     * Returns the synthetic password with the given number.
+     *
+     * @param i the number of the password
+     * @return the password
+     */
+    private static String passwordOf(int i) {
+        return "load-test-password-" + i;
+    }
+}
@@ -5,7 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.OptionalInt;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 class HaveIBeenPawnedServiceTest {
@@ -32,5 +35,45 @@ class HaveIBeenPawnedServiceTest {
         assertEquals(0, count);
     }
 
+    @Test
+    void testCheckPasswordAgainstStubServer() throws Exception {
+        try (HibpStubServer server = new HibpStubServer(100, 0, 0.0, 0)) {
+            server.addBreachedPassword("password", 42);
+            server.start(2);
+            HaveIBeenPawnedService service = new HaveIBeenPawnedService(server.getRangeUrl());
+            assertEquals(42, service.checkPassword("password"));
+            assertEquals(0, service.checkPassword("aBü&wuz29_!gt2vjv$izg765vf7t7z67t/T|g&6"));
+        }
+    }
+
+    @Test
+    void testCheckPasswordReturnsZeroWhenApiUnavailable() throws Exception {
+        try (HibpStubServer server = new HibpStubServer(100, 0, 1.0, 0)) {
+            server.start(2);
+            HaveIBeenPawnedService service = new HaveIBeenPawnedService(server.getRangeUrl());
+            assertEquals(0, service.checkPassword("password"));
+        }
+    }
+
+    @Test
+    void testLookupPasswordReportsApiUnavailable() throws Exception {
+        try (HibpStubServer server = new HibpStubServer(100, 0, 1.0, 0)) {
+            server.start(2);
+            HaveIBeenPawnedService service = new HaveIBeenPawnedService(server.getRangeUrl());
+            assertTrue(service.lookupPassword("password").isEmpty());
+        }
+    }
+
+    @Test
+    void testLookupPasswordAgainstStubServer() throws Exception {
+        try (HibpStubServer server = new HibpStubServer(100, 0, 0.0, 0)) {
+            server.addBreachedPassword("password", 42);
+            server.start(2);
+            HaveIBeenPawnedService service = new HaveIBeenPawnedService(server.getRangeUrl());
+            assertEquals(OptionalInt.of(42), service.lookupPassword("password"));
+            assertEquals(OptionalInt.of(0), service.lookupPassword("aBü&wuz29_!gt2vjv$izg765vf7t7z67t/T|g&6"));
+        }
+    }
+
 
 }
@@ -0,0 +1,222 @@
+package ch.zhaw.it.pm.vault_guard.service.pwned;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * A local HTTP server that is compatible with the range endpoint of the Have I Been Pwned API.
+ * It serves "/range/{prefix}" from a synthetic dataset, so breach checks can be measured without calling the real API.
+ * Every prefix answers with a fixed number of pseudo random suffixes, plus the suffixes of the passwords registered with addBreachedPassword.
+ * The server can simulate latency, server errors and throttling (HTTP 429 above a maximal number of requests per second).
+ */
+public class HibpStubServer implements AutoCloseable {
+
+    private static final Pattern PREFIX_PATTERN = Pattern.compile("[0-9A-Fa-f]{5}");
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final int suffixesPerPrefix;
+    private final long latencyMillis;
+    private final double errorRate;
+    private final int maxRequestsPerSecond;
+    private final Map<String, Map<String, Integer>> breachedSuffixes = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> responseCache = new ConcurrentHashMap<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong throttledCount = new AtomicLong();
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicInteger requestsInCurrentSecond = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Constructor of the HibpStubServer.
+     *
+     * @param suffixesPerPrefix    The number of synthetic suffixes in every range response (the real API returns about 800)
+     * @param latencyMillis        The simulated latency of every response in milliseconds
+     * @param errorRate            The probability (0.0 to 1.0) that a request is answered with HTTP 503
+     * @param maxRequestsPerSecond The number of requests per second above which requests are answered with HTTP 429, 0 for no limit
+     */
+    public HibpStubServer(int suffixesPerPrefix, long latencyMillis, double errorRate, int maxRequestsPerSecond) {
+        this.suffixesPerPrefix = suffixesPerPrefix;
+        this.latencyMillis = latencyMillis;
+        this.errorRate = errorRate;
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+    }
+
+    /**
+     * Starts the server on a free port of the loopback interface.
+     *
+     * @param threads The number of threads handling requests
+     * @throws IOException if the server cannot be started
+     */
+    public void start(int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/range/", this::handleRange);
+        server.start();
+    }
+
+    /**
+     * Returns the URL of the range endpoint, which can be passed to the HaveIBeenPawnedService.
+     *
+     * @return The URL of the range endpoint including the trailing slash
+     */
+    public String getRangeUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/range/";
+    }
+
+    /**
+     * Registers a password as breached, so the range response of its prefix contains its suffix.
+     *
+     * @param password The breached password
+     * @param count    The number of times the password was seen in breaches
+     * @throws NoSuchAlgorithmException if SHA-1 is not available
+     */
+    public void addBreachedPassword(String password, int count) throws NoSuchAlgorithmException {
+        String hash = HaveIBeenPawnedService.sha1Hex(password).toUpperCase();
+        String prefix = hash.substring(0, 5);
+        breachedSuffixes.computeIfAbsent(prefix, key -> new ConcurrentHashMap<>()).put(hash.substring(5), count);
+        responseCache.remove(prefix);
+    }
+
+    /**
+     * Returns the number of requests received since the server was started.
+     *
+     * @return The number of requests
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Returns the number of requests answered with a simulated server error.
+     *
+     * @return The number of simulated errors
+     */
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    /**
+     * Returns the number of requests answered with HTTP 429.
+     *
+     * @return The number of throttled requests
+     */
+    public long getThrottledCount() {
+        return throttledCount.get();
+    }
+
+    /**
+     * Stops the server and its request threads.
+     */
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Handles a request to "/range/{prefix}".
+     *
+     * @param exchange The HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private void handleRange(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try (exchange) {
+            String prefix = exchange.getRequestURI().getPath().substring("/range/".length());
+            if (!PREFIX_PATTERN.matcher(prefix).matches()) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            if (isThrottled()) {
+                throttledCount.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                exchange.sendResponseHeaders(429, -1);
+                return;
+            }
+            simulateLatency();
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errorCount.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            byte[] body = responseCache.computeIfAbsent(prefix.toUpperCase(), this::buildResponse);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the current request exceeds the maximal number of requests per second.
+     *
+     * @return true if the request has to be throttled
+     */
+    private boolean isThrottled() {
+        if (maxRequestsPerSecond <= 0) {
+            return false;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        long previous = currentSecond.get();
+        if (previous != second && currentSecond.compareAndSet(previous, second)) {
+            requestsInCurrentSecond.set(0);
+        }
+        return requestsInCurrentSecond.incrementAndGet() > maxRequestsPerSecond;
+    }
+
+    /**
+     * Sleeps for the configured latency.
+     */
+    private void simulateLatency() {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Builds the range response for a prefix.
+     * The synthetic suffixes are derived from the prefix, so the same prefix always gets the same answer.
+     *
+     * @param prefix The upper case SHA-1 prefix
+     * @return The response body
+     */
+    private byte[] buildResponse(String prefix) {
+        StringBuilder response = new StringBuilder(suffixesPerPrefix * 42);
+        Random random = new Random(prefix.hashCode());
+        for (int i = 0; i < suffixesPerPrefix; i++) {
+            for (int j = 0; j < 35; j++) {
+                response.append(HEX[random.nextInt(16)]);
+            }
+            response.append(':').append(1 + random.nextInt(1000)).append("\r\n");
+        }
+        breachedSuffixes.getOrDefault(prefix, Map.of())
+                .forEach((suffix, count) -> response.append(suffix).append(':').append(count).append("\r\n"));
+        return response.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+}
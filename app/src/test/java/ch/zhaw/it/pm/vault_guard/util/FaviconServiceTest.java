@@ -0,0 +1,134 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the FaviconService
+ * The download of the IconLoader is replaced by a counting download, which waits for the release latch
+ * and loads an icon for github.com only
+ */
+class FaviconServiceTest {
+    @TempDir
+    Path tempDir;
+    private final AtomicInteger downloads = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private FaviconService faviconService;
+
+    @BeforeEach
+    void setUp() {
+        faviconService = new FaviconService(countingIconLoader(), now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        faviconService.shutdown();
+    }
+
+    @Test
+    void testConcurrentRequestsOfHostAreCoalesced() throws Exception {
+        CompletableFuture<Optional<String>> first = faviconService.fetchIcon("https://github.com/login");
+        CompletableFuture<Optional<String>> second = faviconService.fetchIcon("github.com");
+
+        assertSame(first, second);
+        assertEquals(1, faviconService.getInFlightCount());
+        release.countDown();
+
+        assertEquals(Optional.of("github.com"), first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, downloads.get());
+        assertEquals(0, faviconService.getInFlightCount());
+    }
+
+    @Test
+    void testInvalidWebsiteIsNotRequested() throws Exception {
+        assertEquals(Optional.empty(), faviconService.fetchIcon("").get(5, TimeUnit.SECONDS));
+        assertEquals(0, downloads.get());
+    }
+
+    @Test
+    void testFailedHostIsBackedOff() throws Exception {
+        release.countDown();
+        assertEquals(Optional.empty(), faviconService.fetchIcon("gitlab.com").get(5, TimeUnit.SECONDS));
+        assertTrue(faviconService.isBackingOff("gitlab.com"));
+
+        assertEquals(Optional.empty(), faviconService.fetchIcon("https://gitlab.com/").get(5, TimeUnit.SECONDS));
+        assertEquals(1, downloads.get());
+
+        now.addAndGet(FaviconService.INITIAL_BACKOFF_MILLIS);
+        assertFalse(faviconService.isBackingOff("gitlab.com"));
+        faviconService.fetchIcon("gitlab.com").get(5, TimeUnit.SECONDS);
+        assertEquals(2, downloads.get());
+    }
+
+    @Test
+    void testBackoffIsDoubledAfterEveryFailure() throws Exception {
+        release.countDown();
+        faviconService.fetchIcon("gitlab.com").get(5, TimeUnit.SECONDS);
+        now.addAndGet(FaviconService.INITIAL_BACKOFF_MILLIS);
+        faviconService.fetchIcon("gitlab.com").get(5, TimeUnit.SECONDS);
+
+        now.addAndGet(FaviconService.INITIAL_BACKOFF_MILLIS);
+        assertTrue(faviconService.isBackingOff("gitlab.com"));
+        now.addAndGet(FaviconService.INITIAL_BACKOFF_MILLIS);
+        assertFalse(faviconService.isBackingOff("gitlab.com"));
+    }
+
+    @Test
+    void testLoadedIconIsNotBackedOff() throws Exception {
+        release.countDown();
+        faviconService.fetchIcon("github.com").get(5, TimeUnit.SECONDS);
+
+        assertFalse(faviconService.isBackingOff("github.com"));
+    }
+
+    @Test
+    void testFailedHostsAreBackedOffInNextSession() throws Exception {
+        Path failedHostsFile = tempDir.resolve("failed-hosts.json");
+        faviconService = new FaviconService(countingIconLoader(), now::get, failedHostsFile);
+        release.countDown();
+        faviconService.fetchIcon("gitlab.com").get(5, TimeUnit.SECONDS);
+        faviconService.shutdown();
+
+        faviconService = new FaviconService(countingIconLoader(), now::get, failedHostsFile);
+
+        assertTrue(faviconService.isBackingOff("gitlab.com"));
+        now.addAndGet(FaviconService.INITIAL_BACKOFF_MILLIS);
+        assertFalse(faviconService.isBackingOff("gitlab.com"));
+    }
+
+    /**
+     * Helper method that creates the IconLoader with the counting download.
+     *
+     * @return The IconLoader
+     */
+    private IconLoader countingIconLoader() {
+        return new IconLoader() {
+            @Override
+            public Optional<String> fetchIcon(String website) {
+                downloads.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return website.contains("github") ? Optional.of("github.com") : Optional.empty();
+            }
+        };
+    }
+}
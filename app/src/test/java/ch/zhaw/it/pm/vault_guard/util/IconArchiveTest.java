@@ -0,0 +1,155 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the IconArchive
+ * The icons are written to an archive in a temporary folder, their data are arbitrary bytes
+ */
+class IconArchiveTest {
+    @TempDir
+    Path tempDir;
+    private Path archivePath;
+    private IconArchive archive;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        archivePath = tempDir.resolve("icons.pack");
+        archive = IconArchive.open(archivePath);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        archive.close();
+    }
+
+    @Test
+    void testAppendedIconCanBeRead() {
+        assertTrue(archive.append("github.com", bytes("github")));
+
+        assertTrue(archive.contains("github.com"));
+        assertArrayEquals(bytes("github"), archive.read("github.com").orElseThrow());
+        assertEquals(Optional.empty(), archive.read("gitlab.com"));
+    }
+
+    @Test
+    void testIndexIsReadWhenArchiveIsOpenedAgain() throws IOException {
+        archive.append("github.com", bytes("github"));
+        archive.append("gitlab.com", bytes("gitlab"));
+        archive.close();
+
+        archive = IconArchive.open(archivePath);
+
+        assertEquals(2, archive.getIconCount());
+        assertArrayEquals(bytes("gitlab"), archive.read("gitlab.com").orElseThrow());
+    }
+
+    @Test
+    void testLaterIconReplacesEarlierIcon() {
+        archive.append("github.com", bytes("old"));
+        archive.read("github.com");
+        archive.append("github.com", bytes("new"));
+
+        assertEquals(1, archive.getIconCount());
+        assertArrayEquals(bytes("new"), archive.read("github.com").orElseThrow());
+        assertTrue(archive.getReplacedBytes() > 0);
+    }
+
+    @Test
+    void testCompactRemovesReplacedIcons() throws IOException {
+        archive.append("github.com", bytes("old github icon"));
+        archive.append("gitlab.com", bytes("gitlab"));
+        archive.append("github.com", bytes("new"));
+        long sizeBefore = archive.getSize();
+
+        archive.compact();
+
+        assertEquals(0, archive.getReplacedBytes());
+        assertTrue(archive.getSize() < sizeBefore);
+        assertEquals(archive.getSize(), Files.size(archivePath));
+        assertArrayEquals(bytes("new"), archive.read("github.com").orElseThrow());
+        assertArrayEquals(bytes("gitlab"), archive.read("gitlab.com").orElseThrow());
+    }
+
+    @Test
+    void testArchiveIsCompactedWhenOpenedWithMostlyReplacedIcons() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            archive.append("github.com", bytes("icon " + i));
+        }
+        archive.close();
+
+        archive = IconArchive.open(archivePath);
+
+        assertEquals(0, archive.getReplacedBytes());
+        assertArrayEquals(bytes("icon 4"), archive.read("github.com").orElseThrow());
+    }
+
+    @Test
+    void testIncompleteIconIsCutOff() throws IOException {
+        archive.append("github.com", bytes("github"));
+        long completeSize = archive.getSize();
+        archive.append("gitlab.com", bytes("gitlab"));
+        archive.close();
+        try (FileChannel channel = FileChannel.open(archivePath, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(archivePath) - 2);
+        }
+
+        archive = IconArchive.open(archivePath);
+
+        assertTrue(archive.contains("github.com"));
+        assertFalse(archive.contains("gitlab.com"));
+        assertEquals(completeSize, Files.size(archivePath));
+        assertTrue(archive.append("gitlab.com", bytes("gitlab")));
+        assertArrayEquals(bytes("gitlab"), archive.read("gitlab.com").orElseThrow());
+    }
+
+    @Test
+    void testOtherFileIsRejected() throws IOException {
+        Path otherFile = tempDir.resolve("other.pack");
+        Files.write(otherFile, bytes("not an icon archive"));
+
+        assertThrows(IOException.class, () -> IconArchive.open(otherFile));
+    }
+
+    @Test
+    void testPngFilesAreMigrated() throws IOException {
+        Path iconsDir = Files.createDirectory(tempDir.resolve("icons"));
+        Files.write(iconsDir.resolve("github.com.png"), bytes("github"));
+        Files.write(iconsDir.resolve("gitlab.com.png"), bytes("gitlab"));
+        Files.write(iconsDir.resolve("entry_default_icon.png"), bytes("default"));
+        archive.append("gitlab.com", bytes("newer gitlab"));
+
+        assertEquals(1, archive.migrate(iconsDir));
+
+        assertArrayEquals(bytes("github"), archive.read("github.com").orElseThrow());
+        assertArrayEquals(bytes("newer gitlab"), archive.read("gitlab.com").orElseThrow());
+        assertFalse(archive.contains("entry_default_icon"));
+    }
+
+    /**
+     * Helper method that returns the bytes of a text.
+     *
+     * @param text The text
+     * @return The bytes
+     */
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
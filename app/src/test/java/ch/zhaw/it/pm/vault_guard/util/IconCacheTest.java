@@ -0,0 +1,123 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import javafx.scene.image.Image;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the IconCache
+ * The decoding of the stored icons is replaced by a counting decoder returning mocked images
+ */
+class IconCacheTest {
+    private final AtomicInteger decodes = new AtomicInteger();
+    private final AtomicInteger defaultIcons = new AtomicInteger();
+    private IconCache iconCache;
+
+    @BeforeEach
+    void setUp() {
+        iconCache = createCache(10L * IconCache.ICON_WEIGHT);
+    }
+
+    @Test
+    void testIconIsDecodedOnce() {
+        Image first = iconCache.getIcon(Optional.of("github.com"));
+        Image second = iconCache.getIcon(Optional.of("github.com"));
+
+        assertSame(first, second);
+        assertEquals(1, decodes.get());
+        assertEquals(1, iconCache.getStats().missCount());
+        assertEquals(1, iconCache.getStats().hitCount());
+    }
+
+    @Test
+    void testDefaultIconIsShared() {
+        Image first = iconCache.getIcon(Optional.empty());
+        Image second = iconCache.getIcon(Optional.empty());
+
+        assertSame(first, second);
+        assertSame(first, iconCache.getDefaultIcon());
+        assertEquals(1, defaultIcons.get());
+        assertEquals(0, decodes.get());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIconIsEvicted() {
+        iconCache = createCache(2L * IconCache.ICON_WEIGHT);
+
+        for (int i = 0; i < 5; i++) {
+            iconCache.getIcon(Optional.of("host" + i));
+        }
+
+        assertTrue(iconCache.size() <= 2);
+        assertTrue(iconCache.getStats().evictionCount() >= 3);
+    }
+
+    @Test
+    void testDecodedIconIsOnlyTakenFromTheCache() {
+        assertTrue(iconCache.getDecodedIcon(Optional.of("github.com")).isEmpty());
+        assertEquals(0, decodes.get());
+
+        Image icon = iconCache.getIcon(Optional.of("github.com"));
+
+        assertSame(icon, iconCache.getDecodedIcon(Optional.of("github.com")).orElseThrow());
+        assertSame(iconCache.getDefaultIcon(), iconCache.getDecodedIcon(Optional.empty()).orElseThrow());
+        assertEquals(1, decodes.get());
+    }
+
+    @Test
+    void testInvalidatedIconIsDecodedAgain() {
+        Image before = iconCache.getIcon(Optional.of("github.com"));
+
+        iconCache.invalidate("github.com");
+        Image after = iconCache.getIcon(Optional.of("github.com"));
+
+        assertNotSame(before, after);
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void testMissingIconIsReplacedByDefault() {
+        iconCache = new IconCache(IconCache.ICON_WEIGHT, iconKey -> Optional.empty(), () -> mock(Image.class));
+
+        assertSame(iconCache.getDefaultIcon(), iconCache.getIcon(Optional.of("missing")));
+        assertEquals(0, iconCache.size());
+    }
+
+    @Test
+    void testBrokenIconIsReplacedByDefault() {
+        Image broken = mock(Image.class);
+        when(broken.isError()).thenReturn(true);
+        iconCache = new IconCache(IconCache.ICON_WEIGHT, iconKey -> Optional.of(broken), () -> mock(Image.class));
+
+        Image icon = iconCache.getIcon(Optional.of("broken"));
+
+        assertSame(iconCache.getDefaultIcon(), icon);
+        assertEquals(0, iconCache.size());
+    }
+
+    /**
+     * Helper method that creates an IconCache with the counting decoder.
+     *
+     * @param maxWeight The maximal memory of the decoded icons
+     * @return The IconCache
+     */
+    private IconCache createCache(long maxWeight) {
+        return new IconCache(maxWeight, iconKey -> {
+            decodes.incrementAndGet();
+            return Optional.of(mock(Image.class));
+        }, () -> {
+            defaultIcons.incrementAndGet();
+            return mock(Image.class);
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import ch.zhaw.it.pm.vault_guard.controller.model.MainModelEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the IconPrefetchJob
+ * The icons are stored in an archive in a temporary folder, the download of the IconLoader is replaced by a counting download
+ * which stores an icon for every host except gitlab.com
+ */
+class IconPrefetchJobTest {
+    @TempDir
+    Path tempDir;
+    private final AtomicInteger downloads = new AtomicInteger();
+    private final List<MainModelEntry> loadedEntries = new CopyOnWriteArrayList<>();
+    private final List<IconPrefetchJob.Progress> progress = new CopyOnWriteArrayList<>();
+    private final CountDownLatch done = new CountDownLatch(1);
+    private IconArchive archive;
+    private FaviconService faviconService;
+    private IconPrefetchJob prefetchJob;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        archive = IconArchive.open(tempDir.resolve("icons.pack"));
+        IconLoader iconLoader = new IconLoader(archive) {
+            @Override
+            public Optional<String> fetchIcon(String website) {
+                downloads.incrementAndGet();
+                String iconKey = getIconKeyOf(website);
+                if (iconKey.startsWith("gitlab")) {
+                    return Optional.empty();
+                }
+                archive.append(iconKey, iconKey.getBytes(StandardCharsets.UTF_8));
+                return Optional.of(iconKey);
+            }
+        };
+        faviconService = new FaviconService(iconLoader, System::currentTimeMillis);
+        prefetchJob = new IconPrefetchJob(faviconService, iconLoader, 1000);
+        prefetchJob.addPropertyChangeListener(event -> {
+            IconPrefetchJob.Progress current = (IconPrefetchJob.Progress) event.getNewValue();
+            progress.add(current);
+            if (current.isDone()) {
+                done.countDown();
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        prefetchJob.cancel();
+        faviconService.shutdown();
+        archive.close();
+    }
+
+    @Test
+    void testEveryMissingHostIsRequestedOnce() throws Exception {
+        MainModelEntry login = entry("https://github.com/login");
+        MainModelEntry home = entry("github.com");
+        MainModelEntry stored = entry("stackoverflow.com");
+        MainModelEntry failed = entry("gitlab.com");
+        archive.append("stackoverflow.com", "stored".getBytes(StandardCharsets.UTF_8));
+
+        prefetchJob.start(List.of(login, home, stored, failed, entry("")), loadedEntries::add);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, downloads.get());
+        assertEquals(List.of(login, home), List.copyOf(loadedEntries));
+        assertEquals(Optional.of("github.com"), home.getIcon());
+        assertEquals(Optional.empty(), stored.getIcon());
+        assertEquals(new IconPrefetchJob.Progress(2, 2), progress.getLast());
+    }
+
+    @Test
+    void testBackedOffHostIsSkipped() throws Exception {
+        faviconService.fetchIcon("gitlab.com").get(5, TimeUnit.SECONDS);
+
+        prefetchJob.start(List.of(entry("gitlab.com")), loadedEntries::add);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, downloads.get());
+        assertEquals(new IconPrefetchJob.Progress(0, 0), progress.getLast());
+    }
+
+    @Test
+    void testCancelledJobRequestsNoHost() throws Exception {
+        prefetchJob.cancel();
+
+        prefetchJob.start(List.of(entry("github.com")), loadedEntries::add);
+
+        assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(0, downloads.get());
+        assertTrue(loadedEntries.isEmpty());
+    }
+
+    /**
+     * Helper method that creates an entry with a website.
+     *
+     * @param website The website of the entry
+     * @return The entry
+     */
+    private static MainModelEntry entry(String website) {
+        return new MainModelEntry("Title", "", website, "", "", "", "WEAK", false, false);
+    }
+}
@@ -0,0 +1,114 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import ch.zhaw.it.pm.vault_guard.controller.model.MainModelEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the IconResolver
+ * The archive lookup of the IconLoader is replaced by a counting lookup, which finds an icon for github.com only
+ */
+class IconResolverTest {
+    private final AtomicInteger lookups = new AtomicInteger();
+    private IconResolver iconResolver;
+
+    @BeforeEach
+    void setUp() {
+        iconResolver = new IconResolver(new IconLoader() {
+            @Override
+            public Optional<String> findStoredIcon(String website) {
+                lookups.incrementAndGet();
+                return website.contains("github") ? Optional.of("github.com") : Optional.empty();
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        iconResolver.shutdown();
+    }
+
+    @Test
+    void testNewEntryIsNotResolved() {
+        assertFalse(createEntry("github.com").isIconResolved());
+    }
+
+    @Test
+    void testLookupIsRememberedPerHost() {
+        MainModelEntry first = createEntry("https://github.com/login");
+        MainModelEntry second = createEntry("github.com");
+        MainModelEntry other = createEntry("gitlab.com");
+
+        iconResolver.resolve(first);
+        iconResolver.resolve(second);
+        iconResolver.resolve(other);
+
+        assertEquals(2, lookups.get());
+        assertEquals(2, iconResolver.getResolvedHostCount());
+        assertEquals(Optional.of("github.com"), second.getIcon());
+        assertTrue(other.isIconResolved());
+        assertEquals(Optional.empty(), other.getIcon());
+    }
+
+    @Test
+    void testEntryWithoutWebsiteHasNoIcon() {
+        MainModelEntry entry = createEntry("");
+        iconResolver.resolve(entry);
+
+        assertTrue(entry.isIconResolved());
+        assertEquals(Optional.empty(), entry.getIcon());
+        assertEquals(0, lookups.get());
+    }
+
+    @Test
+    void testChangedWebsiteIsResolvedAgain() {
+        MainModelEntry entry = createEntry("github.com");
+        iconResolver.resolve(entry);
+        entry.setWebsite("gitlab.com");
+
+        assertFalse(entry.isIconResolved());
+    }
+
+    @Test
+    void testVisibleAndBackgroundRequestsAreResolved() throws InterruptedException {
+        List<MainModelEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            entries.add(createEntry("site" + i + ".ch"));
+        }
+        CountDownLatch visibleResolved = new CountDownLatch(1);
+        MainModelEntry visible = createEntry("github.com");
+
+        iconResolver.resolveAll(entries);
+        iconResolver.resolveVisible(visible, entry -> visibleResolved.countDown());
+
+        assertTrue(visibleResolved.await(5, TimeUnit.SECONDS));
+        assertTrue(visible.getIcon().isPresent());
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!entries.stream().allMatch(MainModelEntry::isIconResolved) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(entries.stream().allMatch(MainModelEntry::isIconResolved));
+    }
+
+    /**
+     * Creates an entry with the given website
+     *
+     * @param website the website of the entry
+     * @return the entry
+     */
+    private static MainModelEntry createEntry(String website) {
+        return new MainModelEntry("Title", "", website, "", "", "", "WEAK", false, false);
+    }
+}
@@ -0,0 +1,38 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class for the StartupMetrics
+ */
+class StartupMetricsTest {
+
+    @Test
+    void testStepIsRecordedOnce() throws InterruptedException {
+        StartupMetrics.mark("testStep");
+        Long first = StartupMetrics.getTime("testStep").orElseThrow();
+        Thread.sleep(5);
+        StartupMetrics.mark("testStep");
+
+        assertEquals(first, StartupMetrics.getTime("testStep").orElseThrow());
+    }
+
+    @Test
+    void testParsePrintedStep() {
+        Optional<Map.Entry<String, Long>> step = StartupMetrics.parse("startup-metric vaultList 1234");
+
+        assertEquals(Map.entry(StartupMetrics.VAULT_LIST, 1234L), step.orElseThrow());
+    }
+
+    @Test
+    void testParseIgnoresOtherLines() {
+        assertTrue(StartupMetrics.parse("INFO the application started").isEmpty());
+        assertTrue(StartupMetrics.parse("startup-metric vaultList soon").isEmpty());
+    }
+}
@@ -0,0 +1,48 @@
+package ch.zhaw.it.pm.vault_guard.util;
+
+import javafx.scene.image.Image;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class for the SvgIconCache
+ * The rasterizing of the graphics is replaced by a counting rasterizer returning mocked images
+ */
+class SvgIconCacheTest {
+    private static final String COPY_ICON = "/ch/zhaw/it/pm/vault_guard/images/copy-icon.svg";
+    private final AtomicInteger rasterized = new AtomicInteger();
+    private SvgIconCache svgIconCache;
+
+    @BeforeEach
+    void setUp() {
+        svgIconCache = new SvgIconCache((path, size) -> {
+            rasterized.incrementAndGet();
+            return mock(Image.class);
+        });
+    }
+
+    @Test
+    void testGraphicIsRasterizedOnce() {
+        Image first = svgIconCache.getImage(COPY_ICON, 20);
+        Image second = svgIconCache.getImage(COPY_ICON, 20);
+
+        assertSame(first, second);
+        assertEquals(1, rasterized.get());
+    }
+
+    @Test
+    void testGraphicIsRasterizedPerSize() {
+        Image small = svgIconCache.getImage(COPY_ICON, 20);
+        Image large = svgIconCache.getImage(COPY_ICON, 30);
+
+        assertNotSame(small, large);
+        assertEquals(2, svgIconCache.size());
+    }
+}